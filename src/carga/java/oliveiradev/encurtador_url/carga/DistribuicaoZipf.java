@@ -0,0 +1,27 @@
+package oliveiradev.encurtador_url.carga;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Sorteia posições em [0, n) com probabilidade proporcional a 1 / (posição + 1)^expoente:
+// poucos códigos concentram a maior parte dos acessos, como em links compartilhados na prática.
+final class DistribuicaoZipf {
+    private final double[] acumulada;
+
+    DistribuicaoZipf(int n, double expoente) {
+        acumulada = new double[n];
+        double soma = 0;
+        for (int i = 0; i < n; i++) {
+            soma += 1.0 / Math.pow(i + 1, expoente);
+            acumulada[i] = soma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulada[i] /= soma;
+        }
+    }
+
+    int sortear(RandomGenerator aleatorio) {
+        int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        return Math.min(acumulada.length - 1, posicao >= 0 ? posicao : -posicao - 1);
+    }
+}
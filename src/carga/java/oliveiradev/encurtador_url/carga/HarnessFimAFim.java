@@ -0,0 +1,292 @@
+package oliveiradev.encurtador_url.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import oliveiradev.encurtador_url.Startup;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Teste de carga fim a fim reproduzível: sobe Startup na mesma JVM com o motor de persistência em memória
+// (sem Mongo), semeia códigos e dispara uma mistura realista contra os endpoints REST:
+// redirecionamentos com distribuição Zipf, rajadas de encurtamento, consultas de info e varreduras de 404.
+// Latências por endpoint vão para histogramas HdrHistogram; o relatório JSON traz vazão, p50/p99/p999 e o
+// histograma completo codificado, para comparar execuções antes/depois de uma mudança.
+// Uso: ./mvnw -Pcarga test-compile exec:java -Dcarga.classe=oliveiradev.encurtador_url.carga.HarnessFimAFim
+// Propriedades spring.* / app.* passadas com -D (ex.: -Dspring.threads.virtual.enabled=true) valem para a aplicação.
+public class HarnessFimAFim {
+    private static final Pattern CODIGO_NA_RESPOSTA = Pattern.compile("\"urlEncurtada\"\\s*:\\s*\"[^\"]*/([^\"/]+)\"");
+    private static final long LATENCIA_MAXIMA_NANOS = Duration.ofMinutes(1).toNanos();
+    private static final int TAMANHO_LOTE_SEMEADURA = 1000;
+
+    enum Operacao { REDIRECIONAR, ENCURTAR, INFO, NAO_ENCONTRADO }
+
+    public static void main(String[] args) throws Exception {
+        int concorrencia = Integer.getInteger("carga.concorrencia", 64);
+        int quantidadeCodigos = Integer.getInteger("carga.codigos", 100_000);
+        double expoenteZipf = Double.parseDouble(System.getProperty("carga.zipf-expoente", "1.1"));
+        int rajadaEncurtamento = Integer.getInteger("carga.rajada-encurtamento", 20);
+        int aquecimentoSegundos = Integer.getInteger("carga.aquecimento-segundos", 15);
+        int duracaoSegundos = Integer.getInteger("carga.duracao-segundos", 60);
+        Path saida = Paths.get(System.getProperty("carga.saida", "target/carga-fim-a-fim.json"));
+        Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+        pesos.put(Operacao.REDIRECIONAR, Integer.getInteger("carga.peso.redirecionar", 85));
+        pesos.put(Operacao.ENCURTAR, Integer.getInteger("carga.peso.encurtar", 2));
+        pesos.put(Operacao.INFO, Integer.getInteger("carga.peso.info", 8));
+        pesos.put(Operacao.NAO_ENCONTRADO, Integer.getInteger("carga.peso.nao-encontrado", 5));
+
+        Path diretorioDados = Files.createTempDirectory("carga-dados");
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(Startup.class).run(
+                "--server.port=0",
+                "--app.persistencia.motor=memoria",
+                "--app.dados.diretorio=" + diretorioDados,
+                "--spring.autoconfigure.exclude="
+                        + "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration,"
+                        + "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration,"
+                        + "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration",
+                "--logging.level.root=" + System.getProperty("carga.log-nivel", "WARN"));
+        try {
+            String alvo = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient cliente = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            List<String> codigos = semear(cliente, alvo, quantidadeCodigos);
+            Cenario cenario = new Cenario(cliente, alvo, codigos, new DistribuicaoZipf(codigos.size(), expoenteZipf),
+                    pesos, rajadaEncurtamento);
+            System.out.printf("%d códigos semeados em %s. Aquecendo por %ds com %d clientes...%n",
+                    codigos.size(), alvo, aquecimentoSegundos, concorrencia);
+            cenario.executar(concorrencia, aquecimentoSegundos);
+
+            System.out.printf("Medindo por %ds...%n", duracaoSegundos);
+            Map<Operacao, Medicao> medicoes = cenario.executar(concorrencia, duracaoSegundos);
+
+            Map<String, Object> relatorio = new LinkedHashMap<>();
+            relatorio.put("inicio", Instant.now().toString());
+            relatorio.put("concorrencia", concorrencia);
+            relatorio.put("duracaoSegundos", duracaoSegundos);
+            relatorio.put("codigosSemeados", codigos.size());
+            relatorio.put("expoenteZipf", expoenteZipf);
+            relatorio.put("threadsVirtuais", contexto.getEnvironment().getProperty("spring.threads.virtual.enabled"));
+            Map<String, Object> porOperacao = new LinkedHashMap<>();
+            medicoes.forEach((operacao, medicao) -> {
+                porOperacao.put(operacao.name().toLowerCase(), medicao.resumo(duracaoSegundos));
+                System.out.println(medicao.linha(operacao, duracaoSegundos));
+            });
+            relatorio.put("operacoes", porOperacao);
+
+            if (saida.getParent() != null) {
+                Files.createDirectories(saida.getParent());
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(saida.toFile(), relatorio);
+            System.out.println("Relatório gravado em " + saida.toAbsolutePath());
+        } finally {
+            contexto.close();
+        }
+    }
+
+    private static List<String> semear(HttpClient cliente, String alvo, int quantidade) throws Exception {
+        List<String> codigos = new ArrayList<>(quantidade);
+        for (int inicio = 0; inicio < quantidade; inicio += TAMANHO_LOTE_SEMEADURA) {
+            int fim = Math.min(quantidade, inicio + TAMANHO_LOTE_SEMEADURA);
+            StringBuilder corpo = new StringBuilder("{\"urls\":[");
+            for (int i = inicio; i < fim; i++) {
+                corpo.append(i > inicio ? "," : "").append("{\"url\":\"https://exemplo.com/semente/").append(i).append("\"}");
+            }
+            corpo.append("]}");
+            HttpResponse<String> resposta = cliente.send(post(alvo + "/api/v1/encurtar/lote", corpo.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (resposta.statusCode() != 200) {
+                throw new IllegalStateException("Falha ao semear códigos: HTTP " + resposta.statusCode());
+            }
+            Matcher matcher = CODIGO_NA_RESPOSTA.matcher(resposta.body());
+            while (matcher.find()) {
+                codigos.add(matcher.group(1));
+            }
+        }
+        return codigos;
+    }
+
+    private static HttpRequest post(String uri, String json) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static final class Cenario {
+        private final HttpClient cliente;
+        private final String alvo;
+        private final List<String> codigos;
+        private final DistribuicaoZipf zipf;
+        private final Operacao[] operacoes = Operacao.values();
+        private final int[] pesosAcumulados;
+        private final int rajadaEncurtamento;
+
+        private Cenario(HttpClient cliente, String alvo, List<String> codigos, DistribuicaoZipf zipf,
+                        Map<Operacao, Integer> pesos, int rajadaEncurtamento) {
+            this.cliente = cliente;
+            this.alvo = alvo;
+            this.codigos = codigos;
+            this.zipf = zipf;
+            this.rajadaEncurtamento = rajadaEncurtamento;
+            this.pesosAcumulados = new int[operacoes.length];
+            int acumulado = 0;
+            for (int i = 0; i < operacoes.length; i++) {
+                acumulado += pesos.get(operacoes[i]);
+                pesosAcumulados[i] = acumulado;
+            }
+        }
+
+        private Map<Operacao, Medicao> executar(int concorrencia, int duracaoSegundos) throws InterruptedException {
+            long fim = System.nanoTime() + Duration.ofSeconds(duracaoSegundos).toNanos();
+            List<Map<Operacao, Medicao>> porCliente = new ArrayList<>(concorrencia);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < concorrencia; c++) {
+                    Map<Operacao, Medicao> medicoes = novasMedicoes();
+                    porCliente.add(medicoes);
+                    executor.submit(() -> {
+                        while (System.nanoTime() < fim) {
+                            Operacao operacao = sortearOperacao();
+                            int repeticoes = operacao == Operacao.ENCURTAR ? rajadaEncurtamento : 1;
+                            for (int i = 0; i < repeticoes; i++) {
+                                executarUma(operacao, medicoes.get(operacao));
+                            }
+                        }
+                    });
+                }
+            }
+            Map<Operacao, Medicao> total = novasMedicoes();
+            for (Map<Operacao, Medicao> medicoes : porCliente) {
+                medicoes.forEach((operacao, medicao) -> total.get(operacao).somar(medicao));
+            }
+            return total;
+        }
+
+        private void executarUma(Operacao operacao, Medicao medicao) {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            HttpRequest requisicao;
+            int statusEsperado;
+            switch (operacao) {
+                case REDIRECIONAR -> {
+                    requisicao = get(alvo + "/" + codigos.get(zipf.sortear(aleatorio)));
+                    statusEsperado = 302;
+                }
+                case INFO -> {
+                    requisicao = get(alvo + "/api/v1/info/" + codigos.get(zipf.sortear(aleatorio)));
+                    statusEsperado = 200;
+                }
+                case NAO_ENCONTRADO -> {
+                    requisicao = get(alvo + "/zz" + Long.toString(aleatorio.nextLong() & Long.MAX_VALUE, 36));
+                    statusEsperado = 404;
+                }
+                default -> {
+                    requisicao = post(alvo + "/api/v1/encurtar",
+                            "{\"url\":\"https://exemplo.com/rajada/" + aleatorio.nextLong() + "\"}");
+                    statusEsperado = 201;
+                }
+            }
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                long latencia = System.nanoTime() - inicio;
+                if (resposta.statusCode() == statusEsperado) {
+                    medicao.registrar(latencia);
+                } else {
+                    medicao.erros++;
+                }
+            } catch (Exception e) {
+                medicao.erros++;
+            }
+        }
+
+        private Operacao sortearOperacao() {
+            int sorteio = ThreadLocalRandom.current().nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+            for (int i = 0; i < pesosAcumulados.length; i++) {
+                if (sorteio < pesosAcumulados[i]) {
+                    return operacoes[i];
+                }
+            }
+            return Operacao.REDIRECIONAR;
+        }
+
+        private Map<Operacao, Medicao> novasMedicoes() {
+            Map<Operacao, Medicao> medicoes = new EnumMap<>(Operacao.class);
+            for (Operacao operacao : operacoes) {
+                medicoes.put(operacao, new Medicao());
+            }
+            return medicoes;
+        }
+
+        private static HttpRequest get(String uri) {
+            return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+        }
+    }
+
+    // Um histograma por cliente e operação: a gravação não disputa travas; a soma é feita ao final.
+    private static final class Medicao {
+        private final Histogram histograma = new Histogram(LATENCIA_MAXIMA_NANOS, 3);
+        private long erros;
+
+        private void registrar(long latenciaNanos) {
+            histograma.recordValue(Math.min(latenciaNanos, LATENCIA_MAXIMA_NANOS));
+        }
+
+        private void somar(Medicao outra) {
+            histograma.add(outra.histograma);
+            erros += outra.erros;
+        }
+
+        private Map<String, Object> resumo(int duracaoSegundos) {
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("requisicoes", histograma.getTotalCount());
+            resumo.put("erros", erros);
+            resumo.put("vazaoPorSegundo", histograma.getTotalCount() / (double) duracaoSegundos);
+            resumo.put("p50Ms", percentilMs(50.0));
+            resumo.put("p99Ms", percentilMs(99.0));
+            resumo.put("p999Ms", percentilMs(99.9));
+            resumo.put("maxMs", histograma.getMaxValue() / 1_000_000.0);
+            ByteBuffer buffer = ByteBuffer.allocate(histograma.getNeededByteBufferCapacity());
+            int tamanho = histograma.encodeIntoCompressedByteBuffer(buffer);
+            resumo.put("histogramaHdrBase64", Base64.getEncoder().encodeToString(
+                    Arrays.copyOf(buffer.array(), tamanho)));
+            return resumo;
+        }
+
+        private String linha(Operacao operacao, int duracaoSegundos) {
+            return String.format("%-15s requisições=%d erros=%d vazão=%.1f req/s p50=%.2fms p99=%.2fms p999=%.2fms máx=%.2fms",
+                    operacao.name().toLowerCase(), histograma.getTotalCount(), erros,
+                    histograma.getTotalCount() / (double) duracaoSegundos,
+                    percentilMs(50.0), percentilMs(99.0), percentilMs(99.9), histograma.getMaxValue() / 1_000_000.0);
+        }
+
+        private double percentilMs(double percentil) {
+            return histograma.getValueAtPercentile(percentil) / 1_000_000.0;
+        }
+    }
+}
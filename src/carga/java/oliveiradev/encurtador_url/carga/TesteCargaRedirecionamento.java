@@ -0,0 +1,157 @@
+package oliveiradev.encurtador_url.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Teste de carga comparativo do redirecionamento (GET /{codigoCurto}) em laço fechado.
+// Uso, na mesma máquina e com o mesmo Mongo:
+//   1. ./mvnw spring-boot:run              (threads de plataforma)   ou   ./mvnw -Pvirtuais spring-boot:run
+//   2. ./mvnw -Pcarga test-compile exec:java -Dcarga.rotulo=plataforma   (ou virtuais)
+// Compare vazão e p99 das duas execuções. Parâmetros: carga.alvo, carga.concorrencia, carga.codigos,
+// carga.aquecimento-segundos, carga.duracao-segundos.
+public class TesteCargaRedirecionamento {
+    private static final Pattern CODIGO_NA_RESPOSTA = Pattern.compile("\"urlEncurtada\"\\s*:\\s*\"[^\"]*/([^\"/]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String alvo = System.getProperty("carga.alvo", "http://localhost:8080");
+        String rotulo = System.getProperty("carga.rotulo", "sem-rotulo");
+        int concorrencia = Integer.getInteger("carga.concorrencia", 400);
+        int quantidadeCodigos = Integer.getInteger("carga.codigos", 1000);
+        int aquecimentoSegundos = Integer.getInteger("carga.aquecimento-segundos", 10);
+        int duracaoSegundos = Integer.getInteger("carga.duracao-segundos", 30);
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        List<String> codigos = criarCodigos(cliente, alvo, quantidadeCodigos);
+        System.out.printf("[%s] %d códigos criados. Aquecendo por %ds com %d clientes...%n",
+                rotulo, codigos.size(), aquecimentoSegundos, concorrencia);
+        executar(cliente, alvo, codigos, concorrencia, aquecimentoSegundos);
+
+        System.out.printf("[%s] Medindo por %ds...%n", rotulo, duracaoSegundos);
+        Resultado resultado = executar(cliente, alvo, codigos, concorrencia, duracaoSegundos);
+        resultado.imprimir(rotulo, duracaoSegundos);
+    }
+
+    private static List<String> criarCodigos(HttpClient cliente, String alvo, int quantidade) throws Exception {
+        StringBuilder corpo = new StringBuilder("{\"urls\":[");
+        for (int i = 0; i < quantidade; i++) {
+            if (i > 0) {
+                corpo.append(',');
+            }
+            corpo.append("{\"url\":\"https://exemplo.com/carga/").append(i).append("\"}");
+        }
+        corpo.append("]}");
+
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(alvo + "/api/v1/encurtar/lote"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo.toString()))
+                .build();
+        HttpResponse<String> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Falha ao criar códigos para a carga: HTTP " + resposta.statusCode());
+        }
+        List<String> codigos = new ArrayList<>(quantidade);
+        Matcher matcher = CODIGO_NA_RESPOSTA.matcher(resposta.body());
+        while (matcher.find()) {
+            codigos.add(matcher.group(1));
+        }
+        if (codigos.isEmpty()) {
+            throw new IllegalStateException("Nenhum código curto encontrado na resposta do lote.");
+        }
+        return codigos;
+    }
+
+    private static Resultado executar(HttpClient cliente, String alvo, List<String> codigos,
+                                      int concorrencia, int duracaoSegundos) throws InterruptedException {
+        long fim = System.nanoTime() + Duration.ofSeconds(duracaoSegundos).toNanos();
+        List<Latencias> porCliente = new ArrayList<>(concorrencia);
+        AtomicLong erros = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concorrencia; c++) {
+                Latencias latencias = new Latencias();
+                porCliente.add(latencias);
+                executor.submit(() -> {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    while (System.nanoTime() < fim) {
+                        String codigo = codigos.get(aleatorio.nextInt(codigos.size()));
+                        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(alvo + "/" + codigo)).GET().build();
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                            if (resposta.statusCode() != 302) {
+                                erros.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            erros.incrementAndGet();
+                            continue;
+                        }
+                        latencias.registrar(System.nanoTime() - inicio);
+                    }
+                });
+            }
+        } // close() aguarda todos os clientes
+
+        long total = 0;
+        for (Latencias latencias : porCliente) {
+            total += latencias.tamanho;
+        }
+        long[] todas = new long[(int) total];
+        int posicao = 0;
+        for (Latencias latencias : porCliente) {
+            System.arraycopy(latencias.valores, 0, todas, posicao, latencias.tamanho);
+            posicao += latencias.tamanho;
+        }
+        Arrays.sort(todas);
+        return new Resultado(todas, erros.get());
+    }
+
+    // Cada cliente grava no próprio vetor, sem contenção entre threads durante a medição.
+    private static final class Latencias {
+        private long[] valores = new long[4096];
+        private int tamanho;
+
+        private void registrar(long nanos) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = nanos;
+        }
+    }
+
+    private record Resultado(long[] latenciasOrdenadas, long erros) {
+        private void imprimir(String rotulo, int duracaoSegundos) {
+            int n = latenciasOrdenadas.length;
+            System.out.printf("[%s] requisições=%d erros=%d vazão=%.1f req/s p50=%.2fms p99=%.2fms p99.9=%.2fms máx=%.2fms%n",
+                    rotulo, n, erros, n / (double) duracaoSegundos,
+                    percentil(0.50), percentil(0.99), percentil(0.999),
+                    n == 0 ? 0.0 : latenciasOrdenadas[n - 1] / 1_000_000.0);
+        }
+
+        private double percentil(double p) {
+            int n = latenciasOrdenadas.length;
+            if (n == 0) {
+                return 0.0;
+            }
+            int indice = (int) Math.min(n - 1, Math.ceil(p * n) - 1);
+            return latenciasOrdenadas[Math.max(0, indice)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package oliveiradev.encurtador_url.jmh;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.infra.acessos.ContadorAcessosWriteBehind;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryEmCache;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import oliveiradev.encurtador_url.infra.filtro.FiltroCodigosEmitidos;
+import oliveiradev.encurtador_url.infra.filtro.MapeamentoUrlRepositoryFiltrado;
+import oliveiradev.encurtador_url.infra.persistence.MapeamentoUrlRepositoryEmMemoria;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Cadeia de decorators do repositório (cache L1 -> filtro -> persistência em memória) e o contador
+// de acessos em memória, compartilhados entre as threads como no serviço real.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoradoresBenchmark {
+    private static final int QUANTIDADE_CODIGOS = 1024;
+
+    private MapeamentoUrlRepositoryEmCache repositorioEmCache;
+    private MapeamentoUrlRepositoryFiltrado repositorioFiltrado;
+    private ContadorAcessosWriteBehind contadorAcessos;
+    private CodigoCurto[] existentes;
+    private CodigoCurto[] inexistentes;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int posicao;
+
+        int proximo() {
+            return posicao++ & (QUANTIDADE_CODIGOS - 1);
+        }
+    }
+
+    @Setup
+    public void preparar() throws IOException, InterruptedException {
+        MapeamentoUrlRepositoryEmMemoria persistencia = new MapeamentoUrlRepositoryEmMemoria();
+        existentes = new CodigoCurto[QUANTIDADE_CODIGOS];
+        inexistentes = new CodigoCurto[QUANTIDADE_CODIGOS];
+        for (int i = 0; i < QUANTIDADE_CODIGOS; i++) {
+            existentes[i] = new CodigoCurto("existe" + i);
+            inexistentes[i] = new CodigoCurto("naoexiste" + i);
+            persistencia.salvar(new MapeamentoUrl(existentes[i],
+                    new UrlOriginal("https://www.exemplo.com.br/pagina/" + i), LocalDateTime.now().plusDays(7)));
+        }
+
+        String diretorio = Files.createTempDirectory("jmh-filtro").toString();
+        FiltroCodigosEmitidos filtro = new FiltroCodigosEmitidos(persistencia, new FabricaThreads(false),
+                diretorio, 100_000, 0.001, 5, 0);
+        filtro.iniciarCarga();
+        while (!filtro.isPronto()) {
+            Thread.sleep(10);
+        }
+
+        repositorioFiltrado = new MapeamentoUrlRepositoryFiltrado(persistencia, filtro);
+        repositorioEmCache = new MapeamentoUrlRepositoryEmCache(repositorioFiltrado, 100_000, Duration.ofMinutes(10));
+        for (CodigoCurto codigo : existentes) {
+            repositorioEmCache.buscarPorCodigoCurto(codigo); // Aquece o L1
+        }
+        contadorAcessos = new ContadorAcessosWriteBehind(persistencia, 1000);
+    }
+
+    @Benchmark
+    public Optional<MapeamentoUrl> acertoCacheL1(Cursor cursor) {
+        return repositorioEmCache.buscarPorCodigoCurto(existentes[cursor.proximo()]);
+    }
+
+    @Benchmark
+    public Optional<MapeamentoUrl> codigoInexistenteRecusadoPeloFiltro(Cursor cursor) {
+        return repositorioEmCache.buscarPorCodigoCurto(inexistentes[cursor.proximo()]);
+    }
+
+    @Benchmark
+    public Optional<MapeamentoUrl> leituraPeloFiltroSemCache(Cursor cursor) {
+        return repositorioFiltrado.buscarPorCodigoCurto(existentes[cursor.proximo()]);
+    }
+
+    @Benchmark
+    public void registrarAcesso(Cursor cursor) {
+        contadorAcessos.registrarAcesso(existentes[cursor.proximo()]);
+    }
+}
@@ -0,0 +1,70 @@
+package oliveiradev.encurtador_url.jmh;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Objetos de valor do domínio criados a cada redirecionamento e encurtamento.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DominioBenchmark {
+    private String valorCodigo;
+    private String valorUrl;
+    private UrlOriginal urlOriginal;
+    private MapeamentoUrl mapeamentoSemExpiracao;
+    private MapeamentoUrl mapeamentoComExpiracao;
+    private LocalDateTime agora;
+
+    @Setup
+    public void preparar() {
+        valorCodigo = "aZ3kP9qL";
+        valorUrl = "https://www.exemplo.com.br/produtos/categoria/item?id=12345&origem=campanha";
+        urlOriginal = new UrlOriginal(valorUrl);
+        mapeamentoSemExpiracao = new MapeamentoUrl(new CodigoCurto(valorCodigo), urlOriginal, null);
+        mapeamentoComExpiracao = new MapeamentoUrl(new CodigoCurto(valorCodigo), urlOriginal, LocalDateTime.now().plusDays(7));
+        agora = LocalDateTime.now();
+    }
+
+    @Benchmark
+    public int criarCodigoCurtoEHash() {
+        return new CodigoCurto(valorCodigo).hashCode();
+    }
+
+    @Benchmark
+    public int criarUrlOriginalEHash() {
+        return new UrlOriginal(valorUrl).hashCode();
+    }
+
+    @Benchmark
+    public String normalizarUrlOriginal() {
+        return urlOriginal.normalizada();
+    }
+
+    @Benchmark
+    public long impressaoDigitalUrlOriginal() {
+        return urlOriginal.impressaoDigital();
+    }
+
+    @Benchmark
+    public boolean isExpiradoSemExpiracao() {
+        return mapeamentoSemExpiracao.isExpirado(agora);
+    }
+
+    @Benchmark
+    public boolean isExpiradoComExpiracao() {
+        return mapeamentoComExpiracao.isExpirado(agora);
+    }
+
+    @Benchmark
+    public boolean isExpiradoComRelogio() {
+        return mapeamentoComExpiracao.isExpirado(LocalDateTime.now()); // Como chamado no redirecionamento
+    }
+}
@@ -0,0 +1,37 @@
+package oliveiradev.encurtador_url.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Executa cada benchmark com 1 thread e com todos os núcleos, sempre com o perfilador de GC (-prof gc),
+// para acompanhar bytes alocados por operação (gc.alloc.rate.norm) e contenção entre threads.
+// Uso: ./mvnw -Pjmh test-compile exec:exec [-Djmh.filtro=Gerador]
+// Resultados em JSON: target/jmh-1-thread.json e target/jmh-N-threads.json
+public class ExecutarBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String filtro = args.length > 0 ? args[0] : ExecutarBenchmarks.class.getPackageName() + ".*Benchmark.*";
+        int nucleos = Runtime.getRuntime().availableProcessors();
+
+        executar(filtro, 1, "target/jmh-1-thread.json");
+        if (nucleos > 1) {
+            executar(filtro, nucleos, "target/jmh-" + nucleos + "-threads.json");
+        }
+    }
+
+    private static void executar(String filtro, int threads, String arquivoResultado) throws RunnerException {
+        Options opcoes = new OptionsBuilder()
+                .include(filtro)
+                .threads(threads)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dlogback.configurationFile=logback-jmh.xml")
+                .resultFormat(ResultFormatType.JSON)
+                .result(arquivoResultado)
+                .build();
+        new Runner(opcoes).run();
+    }
+}
@@ -0,0 +1,39 @@
+package oliveiradev.encurtador_url.jmh;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.infra.generation.GeradorCodigoCurtoAleatorio;
+import oliveiradev.encurtador_url.infra.generation.GeradorCodigoCurtoSequencial;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Geradores compartilhados entre as threads (Scope.Benchmark), como no serviço real:
+// com várias threads o resultado expõe a contenção no SecureRandom e no contador da faixa arrendada.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeracaoCodigoBenchmark {
+    private GeradorCodigoCurtoAleatorio geradorAleatorio;
+    private GeradorCodigoCurtoSequencial geradorSequencial;
+
+    @Setup
+    public void preparar() {
+        geradorAleatorio = new GeradorCodigoCurtoAleatorio();
+        AtomicLong sequencia = new AtomicLong();
+        geradorSequencial = new GeradorCodigoCurtoSequencial(sequencia::getAndAdd, 10_000, true, "benchmark");
+    }
+
+    @Benchmark
+    public CodigoCurto gerarAleatorio() {
+        return geradorAleatorio.gerar();
+    }
+
+    @Benchmark
+    public CodigoCurto gerarSequencial() {
+        return geradorSequencial.gerar();
+    }
+}
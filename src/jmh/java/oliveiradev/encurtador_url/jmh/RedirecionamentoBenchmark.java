@@ -0,0 +1,94 @@
+package oliveiradev.encurtador_url.jmh;
+
+import oliveiradev.encurtador_url.application.dto.DtoUrlEncurtada;
+import oliveiradev.encurtador_url.application.service.AplicacaoEncurtadorService;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.service.EncurtamentoService;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryEmCache;
+import oliveiradev.encurtador_url.infra.generation.GeradorCodigoCurtoAleatorio;
+import oliveiradev.encurtador_url.infra.persistence.MapeamentoUrlRepositoryEmMemoria;
+import oliveiradev.encurtador_url.interfaces.rest.dto.EncurtarUrlHttpResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Caminho de leitura do serviço de aplicação e o mapeamento para os DTOs de aplicação e HTTP,
+// sobre persistência em memória: o que sobra é o custo (e a alocação) próprio de cada requisição.
+// redirecionarCaminhoRapido passa pelo cache L1 já aquecido e deve ficar perto de 0 B/op em gc.alloc.rate.norm.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirecionamentoBenchmark {
+    private static final int QUANTIDADE_CODIGOS = 1024;
+
+    private AplicacaoEncurtadorService servicoAplicacao;
+    private AplicacaoEncurtadorService servicoComCache;
+    private String[] codigos;
+    private DtoUrlEncurtada dto;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int posicao;
+
+        int proximo() {
+            return posicao++ & (QUANTIDADE_CODIGOS - 1);
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        MapeamentoUrlRepositoryEmMemoria repositorio = new MapeamentoUrlRepositoryEmMemoria();
+        codigos = new String[QUANTIDADE_CODIGOS];
+        for (int i = 0; i < QUANTIDADE_CODIGOS; i++) {
+            codigos[i] = "cod" + i;
+            repositorio.salvar(new MapeamentoUrl(new CodigoCurto(codigos[i]),
+                    new UrlOriginal("https://www.exemplo.com.br/pagina/" + i), LocalDateTime.now().plusDays(7)));
+        }
+        EncurtamentoService encurtamentoService = new EncurtamentoService(repositorio, new GeradorCodigoCurtoAleatorio());
+        servicoAplicacao = new AplicacaoEncurtadorService(encurtamentoService, codigoCurto -> { }, "http://localhost:8080");
+        dto = servicoAplicacao.obterInfoUrlPorCodigoCurto(codigos[0]).orElseThrow();
+
+        MapeamentoUrlRepositoryEmCache repositorioEmCache =
+                new MapeamentoUrlRepositoryEmCache(repositorio, QUANTIDADE_CODIGOS * 2L, Duration.ofHours(1));
+        servicoComCache = new AplicacaoEncurtadorService(
+                new EncurtamentoService(repositorioEmCache, new GeradorCodigoCurtoAleatorio()),
+                codigoCurto -> { }, "http://localhost:8080");
+        for (String codigo : codigos) {
+            servicoComCache.resolverRedirecionamento(codigo, null, null, null); // Aquece o L1 e os destinos
+        }
+    }
+
+    @Benchmark
+    public Optional<String> redirecionar(Cursor cursor) {
+        return servicoAplicacao.redirecionarEIncrementarAcesso(codigos[cursor.proximo()]);
+    }
+
+    @Benchmark
+    public DestinoRedirecionamento redirecionarCaminhoRapido(Cursor cursor) {
+        return servicoComCache.resolverRedirecionamento(codigos[cursor.proximo()], null, "jmh", "127.0.0.1");
+    }
+
+    @Benchmark
+    public Optional<DtoUrlEncurtada> obterInfo(Cursor cursor) {
+        return servicoAplicacao.obterInfoUrlPorCodigoCurto(codigos[cursor.proximo()]);
+    }
+
+    @Benchmark
+    public EncurtarUrlHttpResponse mapearParaRespostaHttp() {
+        return new EncurtarUrlHttpResponse(
+                dto.getUrlEncurtadaCompleta(),
+                dto.getUrlOriginal(),
+                dto.getAcessos(),
+                dto.getDataCriacao(),
+                dto.getDataExpiracao());
+    }
+}
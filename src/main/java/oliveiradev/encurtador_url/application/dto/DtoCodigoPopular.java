@@ -0,0 +1,17 @@
+package oliveiradev.encurtador_url.application.dto;
+
+public class DtoCodigoPopular {
+    private final String codigoCurto;
+    private final long acessosEstimados;
+    private final boolean fixado;
+
+    public DtoCodigoPopular(String codigoCurto, long acessosEstimados, boolean fixado) {
+        this.codigoCurto = codigoCurto;
+        this.acessosEstimados = acessosEstimados;
+        this.fixado = fixado;
+    }
+
+    public String getCodigoCurto() { return codigoCurto; }
+    public long getAcessosEstimados() { return acessosEstimados; }
+    public boolean isFixado() { return fixado; }
+}
@@ -0,0 +1,46 @@
+package oliveiradev.encurtador_url.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class DtoEstatisticasCliques {
+    private final String codigoCurto;
+    private final String granularidade;
+    private final LocalDateTime de;
+    private final LocalDateTime ate;
+    private final long total;
+    private final Long visitantesUnicos;
+    private final List<Bucket> buckets;
+
+    public DtoEstatisticasCliques(String codigoCurto, String granularidade, LocalDateTime de, LocalDateTime ate,
+                                  long total, Long visitantesUnicos, List<Bucket> buckets) {
+        this.codigoCurto = codigoCurto;
+        this.granularidade = granularidade;
+        this.de = de;
+        this.ate = ate;
+        this.total = total;
+        this.visitantesUnicos = visitantesUnicos;
+        this.buckets = buckets;
+    }
+
+    public String getCodigoCurto() { return codigoCurto; }
+    public String getGranularidade() { return granularidade; }
+    public LocalDateTime getDe() { return de; }
+    public LocalDateTime getAte() { return ate; }
+    public long getTotal() { return total; }
+    public Long getVisitantesUnicos() { return visitantesUnicos; }
+    public List<Bucket> getBuckets() { return buckets; }
+
+    public static class Bucket {
+        private final LocalDateTime inicio;
+        private final long cliques;
+
+        public Bucket(LocalDateTime inicio, long cliques) {
+            this.inicio = inicio;
+            this.cliques = cliques;
+        }
+
+        public LocalDateTime getInicio() { return inicio; }
+        public long getCliques() { return cliques; }
+    }
+}
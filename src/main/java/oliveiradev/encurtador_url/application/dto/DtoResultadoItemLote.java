@@ -0,0 +1,18 @@
+package oliveiradev.encurtador_url.application.dto;
+
+public class DtoResultadoItemLote {
+    private final int indice;
+    private final DtoUrlEncurtada urlEncurtada; // Nulo quando o item falhou
+    private final String erro;
+
+    public DtoResultadoItemLote(int indice, DtoUrlEncurtada urlEncurtada, String erro) {
+        this.indice = indice;
+        this.urlEncurtada = urlEncurtada;
+        this.erro = erro;
+    }
+
+    public int getIndice() { return indice; }
+    public DtoUrlEncurtada getUrlEncurtada() { return urlEncurtada; }
+    public String getErro() { return erro; }
+    public boolean isSucesso() { return urlEncurtada != null; }
+}
@@ -0,0 +1,43 @@
+package oliveiradev.encurtador_url.application.dto;
+
+public class DtoStatusImportacao {
+    private final String arquivo;
+    private final boolean emAndamento;
+    private final long bytesConfirmados;
+    private final long tamanhoArquivo;
+    private final long linhasLidas;
+    private final long importados;
+    private final long duplicados;
+    private final long invalidos;
+    private final long expirados;
+    private final long falhas;
+    private final String erro;
+
+    public DtoStatusImportacao(String arquivo, boolean emAndamento, long bytesConfirmados, long tamanhoArquivo,
+                               long linhasLidas, long importados, long duplicados, long invalidos, long expirados,
+                               long falhas, String erro) {
+        this.arquivo = arquivo;
+        this.emAndamento = emAndamento;
+        this.bytesConfirmados = bytesConfirmados;
+        this.tamanhoArquivo = tamanhoArquivo;
+        this.linhasLidas = linhasLidas;
+        this.importados = importados;
+        this.duplicados = duplicados;
+        this.invalidos = invalidos;
+        this.expirados = expirados;
+        this.falhas = falhas;
+        this.erro = erro;
+    }
+
+    public String getArquivo() { return arquivo; }
+    public boolean isEmAndamento() { return emAndamento; }
+    public long getBytesConfirmados() { return bytesConfirmados; }
+    public long getTamanhoArquivo() { return tamanhoArquivo; }
+    public long getLinhasLidas() { return linhasLidas; }
+    public long getImportados() { return importados; }
+    public long getDuplicados() { return duplicados; }
+    public long getInvalidos() { return invalidos; }
+    public long getExpirados() { return expirados; }
+    public long getFalhas() { return falhas; }
+    public String getErro() { return erro; }
+}
@@ -0,0 +1,20 @@
+package oliveiradev.encurtador_url.application.dto;
+
+public class DtoStatusRebalanceamento {
+    private final boolean emAndamento;
+    private final long verificados;
+    private final long movidos;
+    private final long falhas;
+
+    public DtoStatusRebalanceamento(boolean emAndamento, long verificados, long movidos, long falhas) {
+        this.emAndamento = emAndamento;
+        this.verificados = verificados;
+        this.movidos = movidos;
+        this.falhas = falhas;
+    }
+
+    public boolean isEmAndamento() { return emAndamento; }
+    public long getVerificados() { return verificados; }
+    public long getMovidos() { return movidos; }
+    public long getFalhas() { return falhas; }
+}
@@ -9,15 +9,22 @@ public class DtoUrlEncurtada {
     private final long acessos;
     private final LocalDateTime dataCriacao;
     private final LocalDateTime dataExpiracao;
+    private final Long visitantesUnicos; // Estimativa; nula quando não calculada
 
     public DtoUrlEncurtada(String urlOriginal, String codigoCurto, String urlEncurtadaCompleta,
                            long acessos, LocalDateTime dataCriacao, LocalDateTime dataExpiracao) {
+        this(urlOriginal, codigoCurto, urlEncurtadaCompleta, acessos, dataCriacao, dataExpiracao, null);
+    }
+
+    public DtoUrlEncurtada(String urlOriginal, String codigoCurto, String urlEncurtadaCompleta,
+                           long acessos, LocalDateTime dataCriacao, LocalDateTime dataExpiracao, Long visitantesUnicos) {
         this.urlOriginal = urlOriginal;
         this.codigoCurto = codigoCurto;
         this.urlEncurtadaCompleta = urlEncurtadaCompleta;
         this.acessos = acessos;
         this.dataCriacao = dataCriacao;
         this.dataExpiracao = dataExpiracao;
+        this.visitantesUnicos = visitantesUnicos;
     }
 
     // Getters
@@ -26,6 +33,7 @@ public class DtoUrlEncurtada {
         public String getUrlEncurtadaCompleta() { return urlEncurtadaCompleta; }
         public long getAcessos() { return acessos; }
         public LocalDateTime getDataCriacao() { return dataCriacao; }
+        public Long getVisitantesUnicos() { return visitantesUnicos; }
         public LocalDateTime getDataExpiracao() { return dataExpiracao;
     }
 }
\ No newline at end of file
@@ -1,11 +1,21 @@
 package oliveiradev.encurtador_url.application.service;
 
 import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
 import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.OrigemAcesso;
 import oliveiradev.encurtador_url.domain.model.UrlOriginal;
 import oliveiradev.encurtador_url.application.dto.ComandoEncurtadorUrl; // DTO da raiz
 import oliveiradev.encurtador_url.application.dto.DtoUrlEncurtada;   // DTO da raiz
+import oliveiradev.encurtador_url.application.dto.DtoResultadoItemLote;
+import oliveiradev.encurtador_url.domain.service.ContadorAcessosService;
 import oliveiradev.encurtador_url.domain.service.EncurtamentoService;
+import oliveiradev.encurtador_url.domain.service.PopularidadeService;
+import oliveiradev.encurtador_url.domain.service.RegistroCliquesService;
+import oliveiradev.encurtador_url.domain.service.ResultadoEncurtamento;
+import oliveiradev.encurtador_url.domain.service.SolicitacaoEncurtamento;
+import oliveiradev.encurtador_url.domain.service.VisitantesUnicosService;
+import oliveiradev.encurtador_url.infra.metricas.MetricasEncurtador;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +26,10 @@ import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 @Service
 @Validated
@@ -24,12 +37,43 @@ public class AplicacaoEncurtadorService {
     private static final Logger log = LoggerFactory.getLogger(AplicacaoEncurtadorService.class);
 
     private final EncurtamentoService encurtamentoService; // Serviço de Domínio
+    private final ContadorAcessosService contadorAcessosService;
+    private final RegistroCliquesService registroCliquesService;
+    private final VisitantesUnicosService visitantesUnicosService;
+    private final PopularidadeService popularidadeService;
     private final String baseUrlAplicacao;
+    private final MetricasEncurtador metricas;
+
+    public AplicacaoEncurtadorService(EncurtamentoService encurtamentoService,
+                                      ContadorAcessosService contadorAcessosService,
+                                      String baseUrlAplicacao) {
+        this(encurtamentoService, contadorAcessosService, (codigoCurto, origem) -> { }, baseUrlAplicacao,
+                MetricasEncurtador.semExportacao());
+    }
+
+    public AplicacaoEncurtadorService(EncurtamentoService encurtamentoService,
+                                      ContadorAcessosService contadorAcessosService,
+                                      RegistroCliquesService registroCliquesService,
+                                      String baseUrlAplicacao,
+                                      MetricasEncurtador metricas) {
+        this(encurtamentoService, contadorAcessosService, registroCliquesService,
+                codigoCurto -> OptionalLong.empty(), codigoCurto -> { }, baseUrlAplicacao, metricas);
+    }
 
     @Autowired
     public AplicacaoEncurtadorService(EncurtamentoService encurtamentoService,
-                                      @Value("${app.baseUrl}") String baseUrlAplicacao) {
+                                      ContadorAcessosService contadorAcessosService,
+                                      RegistroCliquesService registroCliquesService,
+                                      VisitantesUnicosService visitantesUnicosService,
+                                      PopularidadeService popularidadeService,
+                                      @Value("${app.baseUrl}") String baseUrlAplicacao,
+                                      MetricasEncurtador metricas) {
         this.encurtamentoService = encurtamentoService;
+        this.contadorAcessosService = contadorAcessosService;
+        this.registroCliquesService = registroCliquesService;
+        this.visitantesUnicosService = visitantesUnicosService;
+        this.popularidadeService = popularidadeService;
+        this.metricas = metricas;
         this.baseUrlAplicacao = baseUrlAplicacao.endsWith("/") ?
                 baseUrlAplicacao.substring(0, baseUrlAplicacao.length() - 1) :
                 baseUrlAplicacao;
@@ -66,13 +110,45 @@ public class AplicacaoEncurtadorService {
         );
     }
 
+    public List<DtoResultadoItemLote> encurtarUrlsEmLote(List<@Valid ComandoEncurtadorUrl> comandos) {
+        log.info("Serviço de Aplicação: Processando lote de {} URLs para encurtar.", comandos.size());
+        List<SolicitacaoEncurtamento> solicitacoes = new ArrayList<>(comandos.size());
+        LocalDateTime agora = LocalDateTime.now();
+        for (ComandoEncurtadorUrl comando : comandos) {
+            LocalDateTime dataExpiracao = comando.getTtlEmMinutos() != null && comando.getTtlEmMinutos() > 0
+                    ? agora.plusMinutes(comando.getTtlEmMinutos())
+                    : null;
+            solicitacoes.add(new SolicitacaoEncurtamento(new UrlOriginal(comando.getUrlOriginal()), dataExpiracao));
+        }
+
+        List<ResultadoEncurtamento> resultados = encurtamentoService.encurtarEmLote(solicitacoes);
+
+        List<DtoResultadoItemLote> itens = new ArrayList<>(resultados.size());
+        int falhas = 0;
+        for (int i = 0; i < resultados.size(); i++) {
+            ResultadoEncurtamento resultado = resultados.get(i);
+            if (resultado.isSucesso()) {
+                itens.add(new DtoResultadoItemLote(i, paraDto(resultado.getMapeamento()), null));
+            } else {
+                falhas++;
+                itens.add(new DtoResultadoItemLote(i, null, resultado.getErro()));
+            }
+        }
+        log.info("Serviço de Aplicação: Lote processado. Sucessos: {}, Falhas: {}", itens.size() - falhas, falhas);
+        return itens;
+    }
+
     @Transactional(readOnly = true)
     public Optional<DtoUrlEncurtada> obterInfoUrlPorCodigoCurto(String valorCodigoCurto) {
         log.info("Serviço de Aplicação: Buscando informações para o código curto: {}", valorCodigoCurto);
         CodigoCurto codigoCurtoObj = new CodigoCurto(valorCodigoCurto);
         LocalDateTime agora = LocalDateTime.now();
 
-        return encurtamentoService.buscarPorCodigoCurto(codigoCurtoObj) // Usa método com nome corrigido
+        long inicioBusca = metricas.iniciar();
+        Optional<MapeamentoUrl> encontrado = encurtamentoService.buscarPorCodigoCurto(codigoCurtoObj); // Usa método com nome corrigido
+        metricas.registrarBuscaInfo(inicioBusca);
+
+        return encontrado
                 .filter(mapeamento -> {
                     if (mapeamento.isExpirado(agora)) {
                         log.warn("Mapeamento para código '{}' encontrado, mas está expirado (expirou em {}).",
@@ -83,43 +159,90 @@ public class AplicacaoEncurtadorService {
                 })
                 .map(mapeamento -> {
                     String urlEncurtadaCompleta = baseUrlAplicacao + "/" + mapeamento.getCodigoCurto().getValor();
+                    OptionalLong visitantesUnicos = visitantesUnicosService.estimarVisitantesUnicos(codigoCurtoObj);
                     return new DtoUrlEncurtada(
                             mapeamento.getUrlOriginal().getValor(),
                             mapeamento.getCodigoCurto().getValor(),
                             urlEncurtadaCompleta,
                             mapeamento.getContadorAcessos(),
                             mapeamento.getDataCriacao(),
-                            mapeamento.getDataExpiracao()
+                            mapeamento.getDataExpiracao(),
+                            visitantesUnicos.isPresent() ? visitantesUnicos.getAsLong() : null
                     );
                 });
     }
 
-    @Transactional
     public Optional<String> redirecionarEIncrementarAcesso(String valorCodigoCurto) {
-        log.info("Serviço de Aplicação: Processando redirecionamento para o código curto: {}", valorCodigoCurto);
-        CodigoCurto codigoCurtoObj = new CodigoCurto(valorCodigoCurto);
-        LocalDateTime agora = LocalDateTime.now();
+        return redirecionarEIncrementarAcesso(valorCodigoCurto, OrigemAcesso.DESCONHECIDA);
+    }
 
-        Optional<MapeamentoUrl> mapeamentoOpt = encurtamentoService.buscarPorCodigoCurto(codigoCurtoObj); // Usa método com nome corrigido
+    @Transactional(readOnly = true)
+    public Optional<String> redirecionarEIncrementarAcesso(String valorCodigoCurto, OrigemAcesso origem) {
+        DestinoRedirecionamento destino = resolverRedirecionamento(valorCodigoCurto, origem.getReferenciador(),
+                origem.getAgenteUsuario(), origem.getEnderecoCliente());
+        return destino == null ? Optional.empty() : Optional.ofNullable(destino.getLocation());
+    }
 
-        if (mapeamentoOpt.isEmpty()) {
-            log.warn("Código curto '{}' não encontrado para redirecionamento.", valorCodigoCurto);
-            return Optional.empty();
+    // Caminho rápido usado pelo controller: com o destino em memória (fixado ou no cache L1) não aloca
+    // CodigoCurto, LocalDateTime, Optional nem URI. Retorna null quando o código não existe ou expirou;
+    // um destino inválido volta sem registro de acesso para o chamador responder o erro.
+    public DestinoRedirecionamento resolverRedirecionamento(String valorCodigoCurto, String referenciador,
+                                                            String agenteUsuario, String enderecoCliente) {
+        DestinoRedirecionamento destino = buscarVigenteParaRedirecionamento(valorCodigoCurto);
+        if (destino == null) {
+            return null;
+        }
+        if (!destino.isValido()) {
+            // URL armazenada malformada: o chamador responde erro, então não conta acesso, popularidade nem clique
+            return destino;
         }
 
-        MapeamentoUrl mapeamento = mapeamentoOpt.get();
+        // O contador é agregado em memória e descarregado em lote; o redirecionamento não regrava o documento.
+        CodigoCurto codigoCurto = destino.getCodigoCurto(); // Reaproveita a instância do destino
+        long inicioRegistro = metricas.iniciar();
+        contadorAcessosService.registrarAcesso(codigoCurto);
+        popularidadeService.registrarAcesso(codigoCurto); // Alimenta o top-K que decide os códigos fixados
+        registroCliquesService.registrarClique(codigoCurto, referenciador, agenteUsuario, enderecoCliente); // Nunca bloqueia
+        metricas.registrarRegistroAcesso(inicioRegistro);
+        metricas.contarEncontrado();
+        return destino;
+    }
 
-        if (mapeamento.isExpirado(agora)) {
-            log.warn("Tentativa de redirecionar código curto expirado: '{}'. Expirou em: {}",
-                    valorCodigoCurto, mapeamento.getDataExpiracao());
-            return Optional.empty();
+    // Só a projeção do redirecionamento: a entidade completa nunca é lida nem materializada neste caminho.
+    private DestinoRedirecionamento buscarVigenteParaRedirecionamento(String valorCodigoCurto) {
+        long inicioBusca = metricas.iniciar();
+        DestinoRedirecionamento destino = encurtamentoService.buscarDestinoEmCache(valorCodigoCurto);
+        if (destino == null) {
+            destino = encurtamentoService.buscarDestinoRedirecionamento(new CodigoCurto(valorCodigoCurto)).orElse(null);
         }
+        metricas.registrarBuscaRedirecionamento(inicioBusca);
 
-        mapeamento.registrarAcesso();
-        encurtamentoService.salvar(mapeamento);
+        if (destino == null) {
+            metricas.contarNaoEncontrado();
+            log.debug("Código curto '{}' não encontrado para redirecionamento.", valorCodigoCurto);
+            return null;
+        }
+
+        long inicioExpiracao = metricas.iniciar();
+        boolean expirado = destino.isExpirado(System.currentTimeMillis());
+        metricas.registrarVerificacaoExpiracao(inicioExpiracao);
+        if (expirado) {
+            metricas.contarExpirado();
+            log.debug("Tentativa de redirecionar código curto expirado: '{}'. Expirou em: {} ms",
+                    valorCodigoCurto, destino.getExpiraEmMs());
+            return null;
+        }
+        return destino;
+    }
 
-        log.info("Acesso registrado para código '{}'. Redirecionando para URL: '{}'",
-                valorCodigoCurto, mapeamento.getUrlOriginal().getValor());
-        return Optional.of(mapeamento.getUrlOriginal().getValor());
+    private DtoUrlEncurtada paraDto(MapeamentoUrl mapeamento) {
+        return new DtoUrlEncurtada(
+                mapeamento.getUrlOriginal().getValor(),
+                mapeamento.getCodigoCurto().getValor(),
+                baseUrlAplicacao + "/" + mapeamento.getCodigoCurto().getValor(),
+                mapeamento.getContadorAcessos(),
+                mapeamento.getDataCriacao(),
+                mapeamento.getDataExpiracao()
+        );
     }
 }
\ No newline at end of file
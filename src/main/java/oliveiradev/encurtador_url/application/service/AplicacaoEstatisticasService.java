@@ -0,0 +1,61 @@
+package oliveiradev.encurtador_url.application.service;
+
+import oliveiradev.encurtador_url.application.dto.DtoEstatisticasCliques;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.Granularidade;
+import oliveiradev.encurtador_url.infra.estatisticas.AgregadorEstatisticasCliques;
+import oliveiradev.encurtador_url.infra.estatisticas.ContadorVisitantesUnicos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+// Consulta os rollups de cliques. Lê apenas os buckets do intervalo, nunca a coleção mapeamentos_url:
+// um código desconhecido simplesmente devolve uma série zerada. Visitantes únicos vêm da união dos sketches
+// diários dos dias que tocam o intervalo, então são aproximados também nas bordas.
+@Service
+public class AplicacaoEstatisticasService {
+    private static final Logger log = LoggerFactory.getLogger(AplicacaoEstatisticasService.class);
+
+    private final AgregadorEstatisticasCliques agregadorEstatisticas;
+    private final ContadorVisitantesUnicos contadorVisitantes;
+    private final ZoneId fuso = ZoneId.systemDefault();
+
+    @Autowired
+    public AplicacaoEstatisticasService(AgregadorEstatisticasCliques agregadorEstatisticas,
+                                        ContadorVisitantesUnicos contadorVisitantes) {
+        this.agregadorEstatisticas = agregadorEstatisticas;
+        this.contadorVisitantes = contadorVisitantes;
+    }
+
+    public DtoEstatisticasCliques consultarCliques(String codigoCurtoStr, LocalDateTime de, LocalDateTime ate,
+                                                   String granularidadeStr) {
+        CodigoCurto codigoCurto = new CodigoCurto(codigoCurtoStr);
+        Granularidade granularidade = Granularidade.de(granularidadeStr);
+        if (!de.isBefore(ate)) {
+            throw new IllegalArgumentException("O início do intervalo ('de') deve ser anterior ao fim ('ate').");
+        }
+        log.debug("Consultando estatísticas de '{}' por {} em [{}, {}).", codigoCurtoStr, granularidade, de, ate);
+
+        Instant inicio = de.atZone(fuso).toInstant();
+        Instant fim = ate.atZone(fuso).toInstant();
+        List<Map.Entry<Instant, Long>> serie = agregadorEstatisticas.consultar(codigoCurto.getValor(), granularidade, inicio, fim);
+        OptionalLong visitantesUnicos = contadorVisitantes.estimarNoIntervalo(codigoCurto.getValor(), inicio, fim);
+        List<DtoEstatisticasCliques.Bucket> buckets = new ArrayList<>(serie.size());
+        long total = 0;
+        for (Map.Entry<Instant, Long> bucket : serie) {
+            buckets.add(new DtoEstatisticasCliques.Bucket(LocalDateTime.ofInstant(bucket.getKey(), fuso), bucket.getValue()));
+            total += bucket.getValue();
+        }
+        return new DtoEstatisticasCliques(codigoCurto.getValor(), granularidade.name().toLowerCase(), de, ate, total,
+                visitantesUnicos.isPresent() ? visitantesUnicos.getAsLong() : null, buckets);
+    }
+}
@@ -0,0 +1,29 @@
+package oliveiradev.encurtador_url.application.service;
+
+import oliveiradev.encurtador_url.application.dto.DtoStatusImportacao;
+import oliveiradev.encurtador_url.infra.importacao.ImportadorMapeamentos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AplicacaoImportacaoService {
+    private final ImportadorMapeamentos importadorMapeamentos;
+
+    @Autowired
+    public AplicacaoImportacaoService(ImportadorMapeamentos importadorMapeamentos) {
+        this.importadorMapeamentos = importadorMapeamentos;
+    }
+
+    // Falso se já houver uma em andamento; IllegalArgumentException se o arquivo não puder ser importado.
+    public boolean iniciarImportacao(String arquivo) {
+        return importadorMapeamentos.iniciar(arquivo);
+    }
+
+    public DtoStatusImportacao statusImportacao() {
+        return new DtoStatusImportacao(importadorMapeamentos.getArquivoAtual(), importadorMapeamentos.isEmAndamento(),
+                importadorMapeamentos.getPosicaoConfirmada(), importadorMapeamentos.getTamanhoArquivo(),
+                importadorMapeamentos.getLinhasLidas(), importadorMapeamentos.getImportados(),
+                importadorMapeamentos.getDuplicados(), importadorMapeamentos.getInvalidos(),
+                importadorMapeamentos.getExpirados(), importadorMapeamentos.getFalhas(), importadorMapeamentos.getErro());
+    }
+}
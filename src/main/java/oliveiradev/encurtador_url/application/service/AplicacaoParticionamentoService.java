@@ -0,0 +1,28 @@
+package oliveiradev.encurtador_url.application.service;
+
+import oliveiradev.encurtador_url.application.dto.DtoStatusRebalanceamento;
+import oliveiradev.encurtador_url.infra.persistence.RebalanceadorParticoes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "particionado")
+public class AplicacaoParticionamentoService {
+    private final RebalanceadorParticoes rebalanceadorParticoes;
+
+    @Autowired
+    public AplicacaoParticionamentoService(RebalanceadorParticoes rebalanceadorParticoes) {
+        this.rebalanceadorParticoes = rebalanceadorParticoes;
+    }
+
+    // Falso se já houver um em andamento.
+    public boolean iniciarRebalanceamento() {
+        return rebalanceadorParticoes.iniciar();
+    }
+
+    public DtoStatusRebalanceamento statusRebalanceamento() {
+        return new DtoStatusRebalanceamento(rebalanceadorParticoes.isEmAndamento(), rebalanceadorParticoes.getVerificados(),
+                rebalanceadorParticoes.getMovidos(), rebalanceadorParticoes.getFalhas());
+    }
+}
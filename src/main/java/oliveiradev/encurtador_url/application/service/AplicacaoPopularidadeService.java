@@ -0,0 +1,24 @@
+package oliveiradev.encurtador_url.application.service;
+
+import oliveiradev.encurtador_url.application.dto.DtoCodigoPopular;
+import oliveiradev.encurtador_url.infra.popularidade.RastreadorCodigosPopulares;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class AplicacaoPopularidadeService {
+    private final RastreadorCodigosPopulares rastreadorCodigosPopulares;
+
+    @Autowired
+    public AplicacaoPopularidadeService(RastreadorCodigosPopulares rastreadorCodigosPopulares) {
+        this.rastreadorCodigosPopulares = rastreadorCodigosPopulares;
+    }
+
+    public List<DtoCodigoPopular> listarPopulares() {
+        return rastreadorCodigosPopulares.listar().stream()
+                .map(popular -> new DtoCodigoPopular(popular.getCodigoCurto(), popular.getAcessosEstimados(), popular.isFixado()))
+                .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package oliveiradev.encurtador_url.application.service;
+
+import oliveiradev.encurtador_url.application.dto.DtoUrlEncurtada;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.service.EncurtamentoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// Redirecionamento e informações para o roteador WebFlux do perfil "reativo", sobre a mesma cadeia de repositórios
+// (fixados, cache L1, filtro, motor configurado) e os mesmos registros de acesso do caminho servlet.
+// Com o destino em memória a resposta sai no próprio event loop; qualquer ida ao motor roda no scheduler limitado.
+@Service
+@Profile("reativo")
+public class AplicacaoRedirecionamentoReativoService {
+    private final AplicacaoEncurtadorService servicoAplicacao;
+    private final EncurtamentoService encurtamentoService;
+    private final Scheduler agendadorBloqueante;
+
+    @Autowired
+    public AplicacaoRedirecionamentoReativoService(AplicacaoEncurtadorService servicoAplicacao,
+                                                   EncurtamentoService encurtamentoService) {
+        this(servicoAplicacao, encurtamentoService, Schedulers.boundedElastic());
+    }
+
+    AplicacaoRedirecionamentoReativoService(AplicacaoEncurtadorService servicoAplicacao,
+                                            EncurtamentoService encurtamentoService,
+                                            Scheduler agendadorBloqueante) {
+        this.servicoAplicacao = servicoAplicacao;
+        this.encurtamentoService = encurtamentoService;
+        this.agendadorBloqueante = agendadorBloqueante;
+    }
+
+    public Mono<DestinoRedirecionamento> resolverRedirecionamento(String valorCodigoCurto, String referenciador,
+                                                                  String agenteUsuario, String enderecoCliente) {
+        if (valorCodigoCurto == null || valorCodigoCurto.isBlank()) {
+            return Mono.empty();
+        }
+        if (encurtamentoService.buscarDestinoEmCache(valorCodigoCurto) != null) {
+            // Só memória: registrar acesso, popularidade e clique nunca bloqueia
+            return Mono.justOrEmpty(servicoAplicacao.resolverRedirecionamento(
+                    valorCodigoCurto, referenciador, agenteUsuario, enderecoCliente));
+        }
+        return Mono.fromCallable(() -> servicoAplicacao.resolverRedirecionamento(
+                        valorCodigoCurto, referenciador, agenteUsuario, enderecoCliente))
+                .subscribeOn(agendadorBloqueante);
+    }
+
+    public Mono<DtoUrlEncurtada> obterInfoUrlPorCodigoCurto(String valorCodigoCurto) {
+        if (valorCodigoCurto == null || valorCodigoCurto.isBlank()) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> servicoAplicacao.obterInfoUrlPorCodigoCurto(valorCodigoCurto).orElse(null))
+                .subscribeOn(agendadorBloqueante);
+    }
+}
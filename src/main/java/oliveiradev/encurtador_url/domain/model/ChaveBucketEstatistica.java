@@ -0,0 +1,34 @@
+package oliveiradev.encurtador_url.domain.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+// Identifica um bucket de estatísticas: código curto, granularidade e início do intervalo.
+public final class ChaveBucketEstatistica {
+    private final String codigoCurto;
+    private final Granularidade granularidade;
+    private final Instant inicio;
+
+    public ChaveBucketEstatistica(String codigoCurto, Granularidade granularidade, Instant inicio) {
+        this.codigoCurto = codigoCurto;
+        this.granularidade = granularidade;
+        this.inicio = inicio;
+    }
+
+    public String getCodigoCurto() { return codigoCurto; }
+    public Granularidade getGranularidade() { return granularidade; }
+    public Instant getInicio() { return inicio; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChaveBucketEstatistica that = (ChaveBucketEstatistica) o;
+        return codigoCurto.equals(that.codigoCurto) && granularidade == that.granularidade && inicio.equals(that.inicio);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(codigoCurto, granularidade, inicio);
+    }
+}
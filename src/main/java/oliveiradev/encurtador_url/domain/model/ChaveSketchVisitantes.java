@@ -0,0 +1,43 @@
+package oliveiradev.encurtador_url.domain.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+// Identifica um sketch de visitantes únicos: o acumulado do código curto (inicioDia nulo) ou o de um dia.
+public final class ChaveSketchVisitantes {
+    private final String codigoCurto;
+    private final Instant inicioDia;
+
+    private ChaveSketchVisitantes(String codigoCurto, Instant inicioDia) {
+        this.codigoCurto = codigoCurto;
+        this.inicioDia = inicioDia;
+    }
+
+    public static ChaveSketchVisitantes total(String codigoCurto) {
+        return new ChaveSketchVisitantes(codigoCurto, null);
+    }
+
+    public static ChaveSketchVisitantes doDia(String codigoCurto, Instant inicioDia) {
+        return new ChaveSketchVisitantes(codigoCurto, inicioDia);
+    }
+
+    public String getCodigoCurto() { return codigoCurto; }
+    public Instant getInicioDia() { return inicioDia; }
+
+    public String identificador() {
+        return inicioDia == null ? codigoCurto : codigoCurto + "@" + inicioDia.getEpochSecond();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChaveSketchVisitantes that = (ChaveSketchVisitantes) o;
+        return codigoCurto.equals(that.codigoCurto) && Objects.equals(inicioDia, that.inicioDia);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(codigoCurto, inicioDia);
+    }
+}
@@ -0,0 +1,52 @@
+package oliveiradev.encurtador_url.domain.model;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Projeção mínima de um mapeamento para redirecionar: o código, o Location já validado e codificado em ASCII e a
+// expiração em epoch millis. O caminho quente só compara um long e copia uma String, sem URI nem LocalDateTime.
+public final class DestinoRedirecionamento {
+    public static final long SEM_EXPIRACAO = Long.MAX_VALUE;
+
+    private final CodigoCurto codigoCurto;
+    private final String location; // Nulo quando a URL armazenada não é uma URI válida
+    private final long expiraEmMs;
+
+    public DestinoRedirecionamento(CodigoCurto codigoCurto, String location, long expiraEmMs) {
+        this.codigoCurto = codigoCurto;
+        this.location = location;
+        this.expiraEmMs = expiraEmMs;
+    }
+
+    public static DestinoRedirecionamento de(CodigoCurto codigoCurto, UrlOriginal urlOriginal, LocalDateTime dataExpiracao) {
+        long expiraEmMs = dataExpiracao == null
+                ? SEM_EXPIRACAO
+                : dataExpiracao.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return de(codigoCurto, urlOriginal.getValor(), expiraEmMs);
+    }
+
+    public static DestinoRedirecionamento de(CodigoCurto codigoCurto, String urlOriginal, long expiraEmMs) {
+        String location;
+        try {
+            location = new URI(urlOriginal).toASCIIString();
+        } catch (URISyntaxException e) {
+            location = null;
+        }
+        return new DestinoRedirecionamento(codigoCurto, location, expiraEmMs);
+    }
+
+    public boolean isValido() {
+        return location != null;
+    }
+
+    // Mesma semântica de MapeamentoUrl.isExpirado: o instante exato da expiração ainda é servido.
+    public boolean isExpirado(long agoraMs) {
+        return agoraMs > expiraEmMs;
+    }
+
+    public CodigoCurto getCodigoCurto() { return codigoCurto; }
+    public String getLocation() { return location; }
+    public long getExpiraEmMs() { return expiraEmMs; }
+}
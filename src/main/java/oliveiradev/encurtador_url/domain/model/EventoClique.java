@@ -0,0 +1,26 @@
+package oliveiradev.encurtador_url.domain.model;
+
+import java.time.Instant;
+
+// Um clique já anonimizado, como gravado na coleção de séries temporais "cliques".
+public final class EventoClique {
+    private final Instant instante;
+    private final String codigoCurto;
+    private final String referenciador;
+    private final String agenteUsuario;
+    private final String prefixoIp;
+
+    public EventoClique(Instant instante, String codigoCurto, String referenciador, String agenteUsuario, String prefixoIp) {
+        this.instante = instante;
+        this.codigoCurto = codigoCurto;
+        this.referenciador = referenciador;
+        this.agenteUsuario = agenteUsuario;
+        this.prefixoIp = prefixoIp;
+    }
+
+    public Instant getInstante() { return instante; }
+    public String getCodigoCurto() { return codigoCurto; }
+    public String getReferenciador() { return referenciador; }
+    public String getAgenteUsuario() { return agenteUsuario; }
+    public String getPrefixoIp() { return prefixoIp; }
+}
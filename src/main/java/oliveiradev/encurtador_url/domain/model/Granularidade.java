@@ -0,0 +1,38 @@
+package oliveiradev.encurtador_url.domain.model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+// Tamanho dos buckets de estatísticas de cliques. Hora e dia seguem o fuso informado (limites do dia local).
+public enum Granularidade {
+    MINUTO(ChronoUnit.MINUTES),
+    HORA(ChronoUnit.HOURS),
+    DIA(ChronoUnit.DAYS);
+
+    private final ChronoUnit unidade;
+
+    Granularidade(ChronoUnit unidade) {
+        this.unidade = unidade;
+    }
+
+    public Instant inicioDoBucket(Instant instante, ZoneId fuso) {
+        if (this == MINUTO) {
+            return instante.truncatedTo(ChronoUnit.MINUTES); // Fusos usam deslocamentos de minutos inteiros
+        }
+        return instante.atZone(fuso).truncatedTo(unidade).toInstant();
+    }
+
+    public Instant proximoBucket(Instant inicioBucket, ZoneId fuso) {
+        return inicioBucket.atZone(fuso).plus(1, unidade).toInstant();
+    }
+
+    public static Granularidade de(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Granularidade inválida: '" + valor + "'. Use minuto, hora ou dia.");
+        }
+    }
+}
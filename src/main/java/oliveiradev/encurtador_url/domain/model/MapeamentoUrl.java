@@ -1,6 +1,7 @@
 package oliveiradev.encurtador_url.domain.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.util.Assert;
@@ -20,12 +21,21 @@ public class MapeamentoUrl { // Entity - Aggregate Root
     private LocalDateTime dataCriacao;
     private LocalDateTime dataExpiracao;
     private long contadorAcessos;
+    private Long impressaoDigitalUrl; // Indexado (esparso) no lugar da URL completa, para a deduplicação
+    @Transient // Calculado sob demanda; a instância em cache L1 guarda o resultado
+    private volatile DestinoRedirecionamento destinoRedirecionamento;
 
     protected MapeamentoUrl() {
         this.contadorAcessos = 0L;
     }
 
     public MapeamentoUrl(CodigoCurto codigoCurto, UrlOriginal urlOriginal, LocalDateTime dataExpiracao) {
+        this(codigoCurto, urlOriginal, dataExpiracao, null);
+    }
+
+    // A impressão digital só é informada com a deduplicação ligada; sem ela o campo fica ausente do documento.
+    public MapeamentoUrl(CodigoCurto codigoCurto, UrlOriginal urlOriginal, LocalDateTime dataExpiracao,
+                         Long impressaoDigitalUrl) {
         Assert.notNull(codigoCurto, "O código curto não pode ser nulo.");
         Assert.notNull(urlOriginal, "A URL original não pode ser nula.");
 
@@ -34,6 +44,20 @@ public class MapeamentoUrl { // Entity - Aggregate Root
         this.dataCriacao = LocalDateTime.now(); // Data de criação é sempre o momento atual
         this.dataExpiracao = dataExpiracao;
         this.contadorAcessos = 0L;
+        this.impressaoDigitalUrl = impressaoDigitalUrl;
+    }
+
+    // Recria um mapeamento já persistido, para motores sem o mapeamento reflexivo do Spring Data (ex.: log mapeado).
+    public static MapeamentoUrl reconstituir(CodigoCurto codigoCurto, UrlOriginal urlOriginal, LocalDateTime dataCriacao,
+                                             LocalDateTime dataExpiracao, long contadorAcessos, Long impressaoDigitalUrl) {
+        MapeamentoUrl mapeamento = new MapeamentoUrl();
+        mapeamento.codigoCurto = codigoCurto;
+        mapeamento.urlOriginal = urlOriginal;
+        mapeamento.dataCriacao = dataCriacao;
+        mapeamento.dataExpiracao = dataExpiracao;
+        mapeamento.contadorAcessos = contadorAcessos;
+        mapeamento.impressaoDigitalUrl = impressaoDigitalUrl;
+        return mapeamento;
     }
 
     // Getters
@@ -43,6 +67,17 @@ public class MapeamentoUrl { // Entity - Aggregate Root
     public LocalDateTime getDataCriacao() { return dataCriacao; }
     public LocalDateTime getDataExpiracao() { return dataExpiracao; }
     public long getContadorAcessos() { return contadorAcessos; }
+    public Long getImpressaoDigitalUrl() { return impressaoDigitalUrl; }
+
+    // URL e expiração não mudam depois de criado o mapeamento, então a corrida entre threads só recalcula o mesmo valor.
+    public DestinoRedirecionamento getDestinoRedirecionamento() {
+        DestinoRedirecionamento destino = destinoRedirecionamento;
+        if (destino == null) {
+            destino = DestinoRedirecionamento.de(codigoCurto, urlOriginal, dataExpiracao);
+            destinoRedirecionamento = destino;
+        }
+        return destino;
+    }
 
     public boolean isExpirado(LocalDateTime dataHoraAtual) {
         Assert.notNull(dataHoraAtual, "A data/hora atual para verificação de expiração não pode ser nula.");
@@ -56,6 +91,11 @@ public class MapeamentoUrl { // Entity - Aggregate Root
         this.contadorAcessos++;
     }
 
+    public void registrarAcessos(long quantidade) {
+        Assert.isTrue(quantidade >= 0, "A quantidade de acessos não pode ser negativa.");
+        this.contadorAcessos += quantidade;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,21 @@
+package oliveiradev.encurtador_url.domain.model;
+
+// Dados da requisição de redirecionamento usados na análise de cliques. Todos os campos são opcionais.
+// O endereço do cliente chega completo e só é reduzido a um prefixo fora do caminho do redirecionamento.
+public final class OrigemAcesso {
+    public static final OrigemAcesso DESCONHECIDA = new OrigemAcesso(null, null, null);
+
+    private final String referenciador;
+    private final String agenteUsuario;
+    private final String enderecoCliente;
+
+    public OrigemAcesso(String referenciador, String agenteUsuario, String enderecoCliente) {
+        this.referenciador = referenciador;
+        this.agenteUsuario = agenteUsuario;
+        this.enderecoCliente = enderecoCliente;
+    }
+
+    public String getReferenciador() { return referenciador; }
+    public String getAgenteUsuario() { return agenteUsuario; }
+    public String getEnderecoCliente() { return enderecoCliente; }
+}
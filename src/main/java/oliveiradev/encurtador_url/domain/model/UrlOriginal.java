@@ -1,6 +1,14 @@
 package oliveiradev.encurtador_url.domain.model;
 
 import org.springframework.util.Assert;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
 import java.util.Objects;
 
 public final class UrlOriginal {
@@ -15,6 +23,52 @@ public final class UrlOriginal {
         return valor;
     }
 
+    // Forma canônica para deduplicação: esquema e host em minúsculas, sem porta padrão e com caminho mínimo "/".
+    public String normalizada() {
+        String semEspacos = valor.trim();
+        try {
+            URI uri = new URI(semEspacos);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return semEspacos;
+            }
+            String esquema = uri.getScheme().toLowerCase(Locale.ROOT);
+            int porta = uri.getPort();
+            if (("http".equals(esquema) && porta == 80) || ("https".equals(esquema) && porta == 443)) {
+                porta = -1;
+            }
+            String caminho = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            StringBuilder normalizada = new StringBuilder(semEspacos.length())
+                    .append(esquema).append("://");
+            if (uri.getRawUserInfo() != null) {
+                normalizada.append(uri.getRawUserInfo()).append('@');
+            }
+            normalizada.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (porta != -1) {
+                normalizada.append(':').append(porta);
+            }
+            normalizada.append(caminho);
+            if (uri.getRawQuery() != null) {
+                normalizada.append('?').append(uri.getRawQuery());
+            }
+            if (uri.getRawFragment() != null) {
+                normalizada.append('#').append(uri.getRawFragment());
+            }
+            return normalizada.toString();
+        } catch (URISyntaxException e) {
+            return semEspacos;
+        }
+    }
+
+    // Impressão digital de 64 bits (SHA-256 truncado) da URL normalizada, indexada no lugar da URL completa.
+    public long impressaoDigital() {
+        try {
+            byte[] resumo = MessageDigest.getInstance("SHA-256").digest(normalizada().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(resumo, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
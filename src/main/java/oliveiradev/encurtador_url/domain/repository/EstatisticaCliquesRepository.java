@@ -0,0 +1,15 @@
+package oliveiradev.encurtador_url.domain.repository;
+
+import oliveiradev.encurtador_url.domain.model.ChaveBucketEstatistica;
+import oliveiradev.encurtador_url.domain.model.Granularidade;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Buckets pré-agregados de cliques, separados de mapeamentos_url: leituras de dashboard custam O(buckets).
+public interface EstatisticaCliquesRepository {
+    void incrementar(Map<ChaveBucketEstatistica, Long> incrementos);
+
+    // Totais por início de bucket no intervalo [de, ate); buckets sem cliques não aparecem.
+    Map<Instant, Long> buscar(String codigoCurto, Granularidade granularidade, Instant de, Instant ate);
+}
@@ -0,0 +1,9 @@
+package oliveiradev.encurtador_url.domain.repository;
+
+import oliveiradev.encurtador_url.domain.model.EventoClique;
+
+import java.util.List;
+
+public interface EventoCliqueRepository {
+    void inserirEmLote(List<EventoClique> eventos);
+}
@@ -1,14 +1,39 @@
 package oliveiradev.encurtador_url.domain.repository;
 
 import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
 import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
 import oliveiradev.encurtador_url.domain.model.UrlOriginal;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface MapeamentoUrlRepository {
     MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl);
+    // Inserção não ordenada em lote; duplicados e falhas são reportados por índice em vez de abortar o lote.
+    ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos);
     Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto);
+    // Só o necessário para redirecionar. A persistência pode responder com uma projeção, sem montar a entidade.
+    default Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        return buscarPorCodigoCurto(codigoCurto).map(MapeamentoUrl::getDestinoRedirecionamento);
+    }
+    // Apenas o que já está em memória (fixados, cache L1); nulo se for preciso ir ao banco. Não aloca no acerto.
+    default DestinoRedirecionamento buscarDestinoEmCache(String codigoCurto) {
+        return null;
+    }
     boolean existeCodigoCurto(CodigoCurto codigoCurto);
     Optional<MapeamentoUrl> buscarPorUrlOriginal(UrlOriginal urlOriginal);
+    List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl);
+    void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos);
+    // Percorre os códigos em streaming; criadosDesde nulo percorre todos.
+    void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor);
+    // Remove até 'limite' mapeamentos que expiraram antes do instante informado; retorna quantos removeu.
+    int removerExpirados(LocalDateTime expiradosAntesDe, int limite);
+    // Destinos dos 'limite' mapeamentos vigentes mais acessados, em streaming e do mais acessado para o menos.
+    // Usado para aquecer caches na partida; motores que já servem tudo da memória não entregam nada.
+    default void percorrerMaisAcessados(int limite, Consumer<DestinoRedirecionamento> consumidor) {
+    }
 }
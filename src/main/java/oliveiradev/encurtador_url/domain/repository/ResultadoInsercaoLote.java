@@ -0,0 +1,28 @@
+package oliveiradev.encurtador_url.domain.repository;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+// Resultado de uma inserção em lote não ordenada: índices (na lista enviada) que falharam por chave duplicada
+// e demais falhas por item. Os índices ausentes de ambos foram inseridos.
+public class ResultadoInsercaoLote {
+    private final Set<Integer> indicesDuplicados;
+    private final Map<Integer, String> errosPorIndice;
+
+    public ResultadoInsercaoLote(Set<Integer> indicesDuplicados, Map<Integer, String> errosPorIndice) {
+        this.indicesDuplicados = indicesDuplicados;
+        this.errosPorIndice = errosPorIndice;
+    }
+
+    public static ResultadoInsercaoLote semFalhas() {
+        return new ResultadoInsercaoLote(Collections.emptySet(), Collections.emptyMap());
+    }
+
+    public Set<Integer> getIndicesDuplicados() { return indicesDuplicados; }
+    public Map<Integer, String> getErrosPorIndice() { return errosPorIndice; }
+
+    public boolean isInserido(int indice) {
+        return !indicesDuplicados.contains(indice) && !errosPorIndice.containsKey(indice);
+    }
+}
@@ -0,0 +1,15 @@
+package oliveiradev.encurtador_url.domain.repository;
+
+import oliveiradev.encurtador_url.domain.model.ChaveSketchVisitantes;
+
+import java.util.Collection;
+import java.util.Map;
+
+// Sketches de visitantes únicos serializados, um por nó da aplicação em cada chave.
+// Cada nó só sobrescreve o próprio sketch; a leitura devolve todos para serem mesclados.
+public interface SketchVisitantesRepository {
+    void gravar(String instancia, Map<ChaveSketchVisitantes, byte[]> sketches);
+
+    // Para cada chave encontrada: instância -> sketch serializado.
+    Map<ChaveSketchVisitantes, Map<String, byte[]>> buscar(Collection<ChaveSketchVisitantes> chaves);
+}
@@ -2,6 +2,22 @@ package oliveiradev.encurtador_url.domain.service;
 
 import oliveiradev.encurtador_url.domain.model.CodigoCurto;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface CodigoCurtoService {
     CodigoCurto gerar();
+
+    default List<CodigoCurto> gerar(int quantidade) {
+        List<CodigoCurto> codigos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            codigos.add(gerar());
+        }
+        return codigos;
+    }
+
+    // Indica se os códigos gerados são únicos por construção, dispensando a verificação de existência.
+    default boolean garanteUnicidade() {
+        return false;
+    }
 }
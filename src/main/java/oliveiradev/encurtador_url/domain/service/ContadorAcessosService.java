@@ -0,0 +1,8 @@
+package oliveiradev.encurtador_url.domain.service;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+
+public interface ContadorAcessosService {
+    // Registra um acesso ao código curto. A persistência do contador pode ser assíncrona (eventualmente consistente).
+    void registrarAcesso(CodigoCurto codigoCurto);
+}
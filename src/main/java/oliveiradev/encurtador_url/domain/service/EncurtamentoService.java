@@ -1,47 +1,100 @@
 package oliveiradev.encurtador_url.domain.service;
 
 import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
 import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
 import oliveiradev.encurtador_url.domain.model.UrlOriginal;
 import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.metricas.MetricasEncurtador;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class EncurtamentoService { // Serviço de Domínio
     private static final Logger log = LoggerFactory.getLogger(EncurtamentoService.class);
     private static final int MAX_TENTATIVAS_GERACAO_CODIGO = 5;
+    private static final int TAMANHO_LOTE_INSERCAO = 1000;
 
     private final MapeamentoUrlRepository mapeamentoUrlRepository;
     private final CodigoCurtoService codigoCurtoService; // Estratégia de geração
+    private final boolean deduplicacaoHabilitada;
+    private final Duration toleranciaExpiracao;
+    private final MetricasEncurtador metricas;
 
-    @Autowired
     public EncurtamentoService(MapeamentoUrlRepository mapeamentoUrlRepository, CodigoCurtoService codigoCurtoService) {
+        this(mapeamentoUrlRepository, codigoCurtoService, false, 0L);
+    }
+
+    public EncurtamentoService(MapeamentoUrlRepository mapeamentoUrlRepository, CodigoCurtoService codigoCurtoService,
+                               boolean deduplicacaoHabilitada, long toleranciaExpiracaoMinutos) {
+        this(mapeamentoUrlRepository, codigoCurtoService, deduplicacaoHabilitada, toleranciaExpiracaoMinutos,
+                MetricasEncurtador.semExportacao());
+    }
+
+    @Autowired
+    public EncurtamentoService(MapeamentoUrlRepository mapeamentoUrlRepository, CodigoCurtoService codigoCurtoService,
+                               @Value("${app.dedup.habilitado:false}") boolean deduplicacaoHabilitada,
+                               @Value("${app.dedup.tolerancia-expiracao-minutos:60}") long toleranciaExpiracaoMinutos,
+                               MetricasEncurtador metricas) {
         this.mapeamentoUrlRepository = mapeamentoUrlRepository;
         this.codigoCurtoService = codigoCurtoService;
+        this.deduplicacaoHabilitada = deduplicacaoHabilitada;
+        this.toleranciaExpiracao = Duration.ofMinutes(toleranciaExpiracaoMinutos);
+        this.metricas = metricas;
     }
 
     public MapeamentoUrl encurtar(UrlOriginal urlOriginal, LocalDateTime dataExpiracao) {
         log.debug("Iniciando processo de encurtamento para URL: {}, Expiração: {}", urlOriginal.getValor(), dataExpiracao);
 
+        Long impressaoDigital = null; // SHA-256 da URL: só calculado quando a deduplicação vai usá-lo
+        if (deduplicacaoHabilitada) {
+            impressaoDigital = urlOriginal.impressaoDigital();
+            Optional<MapeamentoUrl> existente = buscarMapeamentoCompativel(urlOriginal, impressaoDigital, dataExpiracao);
+            if (existente.isPresent()) {
+                log.info("URL '{}' já encurtada como '{}'. Reutilizando mapeamento existente.",
+                        urlOriginal.getValor(), existente.get().getCodigoCurto().getValor());
+                return existente.get();
+            }
+        }
+
         int tentativas = 0;
         while (tentativas < MAX_TENTATIVAS_GERACAO_CODIGO) {
+            long inicioGeracao = metricas.iniciar();
             CodigoCurto novoCodCurto = codigoCurtoService.gerar();
+            metricas.registrarGeracaoCodigo(inicioGeracao);
             log.trace("Tentativa {}: Código curto gerado '{}'", tentativas + 1, novoCodCurto.getValor());
 
-            if (!mapeamentoUrlRepository.existeCodigoCurto(novoCodCurto)) {
+            // O repositório consulta antes o filtro de códigos emitidos; só vai ao banco se o código talvez exista.
+            if (codigoCurtoService.garanteUnicidade() || !mapeamentoUrlRepository.existeCodigoCurto(novoCodCurto)) {
                 // Usa o construtor corrigido de MapeamentoUrl
-                MapeamentoUrl novoMapeamento = new MapeamentoUrl(novoCodCurto, urlOriginal, dataExpiracao);
-                MapeamentoUrl mapeamentoSalvo = mapeamentoUrlRepository.salvar(novoMapeamento);
-                log.info("URL '{}' encurtada com sucesso para '{}'. Expiração: {}",
-                        urlOriginal.getValor(), novoCodCurto.getValor(), dataExpiracao);
-                return mapeamentoSalvo;
+                MapeamentoUrl novoMapeamento = new MapeamentoUrl(novoCodCurto, urlOriginal, dataExpiracao, impressaoDigital);
+                long inicioSalvar = metricas.iniciar();
+                try {
+                    MapeamentoUrl mapeamentoSalvo = mapeamentoUrlRepository.salvar(novoMapeamento);
+                    log.info("URL '{}' encurtada com sucesso para '{}'. Expiração: {}",
+                            urlOriginal.getValor(), novoCodCurto.getValor(), dataExpiracao);
+                    return mapeamentoSalvo;
+                } catch (DuplicateKeyException e) {
+                    // O índice único é a garantia final (ex.: código criado em outro nó ainda não visto pelo filtro).
+                    metricas.contarColisaoIndiceUnico();
+                    log.warn("Colisão detectada ao salvar o código curto '{}'. Tentando novamente...", novoCodCurto.getValor());
+                } finally {
+                    metricas.registrarSalvar(inicioSalvar);
+                }
             } else {
+                metricas.contarColisaoExistencia();
                 log.warn("Colisão detectada para o código curto '{}'. Tentando novamente...", novoCodCurto.getValor());
             }
             tentativas++;
@@ -55,11 +108,83 @@ public class EncurtamentoService { // Serviço de Domínio
         throw new IllegalStateException(mensagemErro);
     }
 
+    public List<ResultadoEncurtamento> encurtarEmLote(List<SolicitacaoEncurtamento> solicitacoes) {
+        log.debug("Iniciando encurtamento em lote de {} URLs.", solicitacoes.size());
+        ResultadoEncurtamento[] resultados = new ResultadoEncurtamento[solicitacoes.size()];
+
+        for (int inicio = 0; inicio < solicitacoes.size(); inicio += TAMANHO_LOTE_INSERCAO) {
+            int fim = Math.min(inicio + TAMANHO_LOTE_INSERCAO, solicitacoes.size());
+            List<CodigoCurto> codigos = codigoCurtoService.gerar(fim - inicio);
+            List<MapeamentoUrl> mapeamentos = new ArrayList<>(fim - inicio);
+            for (int i = inicio; i < fim; i++) {
+                SolicitacaoEncurtamento solicitacao = solicitacoes.get(i);
+                UrlOriginal urlOriginal = solicitacao.getUrlOriginal();
+                mapeamentos.add(new MapeamentoUrl(codigos.get(i - inicio), urlOriginal, solicitacao.getDataExpiracao(),
+                        deduplicacaoHabilitada ? urlOriginal.impressaoDigital() : null));
+            }
+
+            // Sem verificação prévia de existência: o índice único rejeita colisões, reportadas por item.
+            ResultadoInsercaoLote resultadoInsercao = mapeamentoUrlRepository.inserirEmLote(mapeamentos);
+            for (int i = 0; i < mapeamentos.size(); i++) {
+                int indice = inicio + i;
+                if (resultadoInsercao.isInserido(i)) {
+                    resultados[indice] = ResultadoEncurtamento.sucesso(mapeamentos.get(i));
+                } else if (resultadoInsercao.getIndicesDuplicados().contains(i)) {
+                    resultados[indice] = reencurtarItem(solicitacoes.get(indice));
+                } else {
+                    resultados[indice] = ResultadoEncurtamento.falha(resultadoInsercao.getErrosPorIndice().get(i));
+                }
+            }
+        }
+        log.info("Encurtamento em lote concluído para {} URLs.", solicitacoes.size());
+        return Arrays.asList(resultados);
+    }
+
+    private ResultadoEncurtamento reencurtarItem(SolicitacaoEncurtamento solicitacao) {
+        log.debug("Colisão no lote para a URL '{}'. Repetindo individualmente.", solicitacao.getUrlOriginal().getValor());
+        try {
+            return ResultadoEncurtamento.sucesso(encurtar(solicitacao.getUrlOriginal(), solicitacao.getDataExpiracao()));
+        } catch (IllegalStateException e) {
+            return ResultadoEncurtamento.falha(e.getMessage());
+        }
+    }
+
+    private Optional<MapeamentoUrl> buscarMapeamentoCompativel(UrlOriginal urlOriginal, long impressaoDigital,
+                                                               LocalDateTime dataExpiracao) {
+        String normalizada = urlOriginal.normalizada();
+        LocalDateTime agora = LocalDateTime.now();
+        // A impressão digital pode colidir: confirma pela URL normalizada antes de reutilizar.
+        return mapeamentoUrlRepository.buscarPorImpressaoDigital(impressaoDigital).stream()
+                .filter(candidato -> candidato.getUrlOriginal().normalizada().equals(normalizada))
+                .filter(candidato -> !candidato.isExpirado(agora))
+                .filter(candidato -> isExpiracaoCompativel(candidato.getDataExpiracao(), dataExpiracao))
+                .findFirst();
+    }
+
+    // Sem TTL só reaproveita link que nunca expira; com TTL, link que dure ao menos o pedido e no máximo a tolerância além.
+    private boolean isExpiracaoCompativel(LocalDateTime expiracaoExistente, LocalDateTime expiracaoSolicitada) {
+        if (expiracaoSolicitada == null || expiracaoExistente == null) {
+            return expiracaoSolicitada == null && expiracaoExistente == null;
+        }
+        return !expiracaoExistente.isBefore(expiracaoSolicitada)
+                && !expiracaoExistente.isAfter(expiracaoSolicitada.plus(toleranciaExpiracao));
+    }
+
     public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) { // Nome corrigido
         log.debug("Buscando mapeamento para o código curto: {}", codigoCurto.getValor());
         return mapeamentoUrlRepository.buscarPorCodigoCurto(codigoCurto); // Usa método com nome corrigido
     }
 
+    // Caminho rápido do redirecionamento: só consulta o que já está em memória, sem log nem alocação.
+    public DestinoRedirecionamento buscarDestinoEmCache(String valorCodigoCurto) {
+        return mapeamentoUrlRepository.buscarDestinoEmCache(valorCodigoCurto);
+    }
+
+    public Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        log.debug("Buscando destino de redirecionamento para o código curto: {}", codigoCurto.getValor());
+        return mapeamentoUrlRepository.buscarDestinoRedirecionamento(codigoCurto);
+    }
+
     public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
         log.debug("Salvando mapeamento com ID: {} e Código Curto: {}", mapeamentoUrl.getId(), mapeamentoUrl.getCodigoCurto().getValor());
         return mapeamentoUrlRepository.salvar(mapeamentoUrl);
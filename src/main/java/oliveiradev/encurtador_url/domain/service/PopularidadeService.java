@@ -0,0 +1,8 @@
+package oliveiradev.encurtador_url.domain.service;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+
+public interface PopularidadeService {
+    // Chamado a cada redirecionamento servido; precisa ser barato e não bloquear.
+    void registrarAcesso(CodigoCurto codigoCurto);
+}
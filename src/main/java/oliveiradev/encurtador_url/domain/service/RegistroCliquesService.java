@@ -0,0 +1,15 @@
+package oliveiradev.encurtador_url.domain.service;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.OrigemAcesso;
+
+// Publica um clique para análise. Não pode bloquear nem lançar: se não houver espaço, o clique é descartado.
+public interface RegistroCliquesService {
+    void registrarClique(CodigoCurto codigoCurto, OrigemAcesso origem);
+
+    // Variante do caminho rápido, que evita montar a OrigemAcesso por requisição.
+    default void registrarClique(CodigoCurto codigoCurto, String referenciador, String agenteUsuario,
+                                 String enderecoCliente) {
+        registrarClique(codigoCurto, new OrigemAcesso(referenciador, agenteUsuario, enderecoCliente));
+    }
+}
@@ -0,0 +1,26 @@
+package oliveiradev.encurtador_url.domain.service;
+
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+
+// Resultado por item de um encurtamento em lote: o mapeamento criado ou a mensagem de erro.
+public class ResultadoEncurtamento {
+    private final MapeamentoUrl mapeamento;
+    private final String erro;
+
+    private ResultadoEncurtamento(MapeamentoUrl mapeamento, String erro) {
+        this.mapeamento = mapeamento;
+        this.erro = erro;
+    }
+
+    public static ResultadoEncurtamento sucesso(MapeamentoUrl mapeamento) {
+        return new ResultadoEncurtamento(mapeamento, null);
+    }
+
+    public static ResultadoEncurtamento falha(String erro) {
+        return new ResultadoEncurtamento(null, erro);
+    }
+
+    public boolean isSucesso() { return mapeamento != null; }
+    public MapeamentoUrl getMapeamento() { return mapeamento; }
+    public String getErro() { return erro; }
+}
@@ -0,0 +1,20 @@
+package oliveiradev.encurtador_url.domain.service;
+
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import org.springframework.util.Assert;
+
+import java.time.LocalDateTime;
+
+public class SolicitacaoEncurtamento {
+    private final UrlOriginal urlOriginal;
+    private final LocalDateTime dataExpiracao;
+
+    public SolicitacaoEncurtamento(UrlOriginal urlOriginal, LocalDateTime dataExpiracao) {
+        Assert.notNull(urlOriginal, "A URL original não pode ser nula.");
+        this.urlOriginal = urlOriginal;
+        this.dataExpiracao = dataExpiracao;
+    }
+
+    public UrlOriginal getUrlOriginal() { return urlOriginal; }
+    public LocalDateTime getDataExpiracao() { return dataExpiracao; }
+}
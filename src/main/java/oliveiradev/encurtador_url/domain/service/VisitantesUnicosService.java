@@ -0,0 +1,10 @@
+package oliveiradev.encurtador_url.domain.service;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+
+import java.util.OptionalLong;
+
+public interface VisitantesUnicosService {
+    // Estimativa aproximada; vazia quando a contagem não está disponível.
+    OptionalLong estimarVisitantesUnicos(CodigoCurto codigoCurto);
+}
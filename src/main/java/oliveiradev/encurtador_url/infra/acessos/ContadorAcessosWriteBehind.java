@@ -0,0 +1,95 @@
+package oliveiradev.encurtador_url.infra.acessos;
+
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.service.ContadorAcessosService;
+import oliveiradev.encurtador_url.infra.concorrencia.AcumuladorDeltas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class ContadorAcessosWriteBehind implements ContadorAcessosService {
+    private static final Logger log = LoggerFactory.getLogger(ContadorAcessosWriteBehind.class);
+
+    private final AcumuladorDeltas<String> acumulador = new AcumuladorDeltas<>();
+    private final ReentrantLock travaDescarga = new ReentrantLock(); // Agendador e shutdown não descarregam em paralelo
+    private final MapeamentoUrlRepository mapeamentoUrlRepository;
+    private final int tamanhoLote;
+
+    @Autowired
+    public ContadorAcessosWriteBehind(MapeamentoUrlRepository mapeamentoUrlRepository,
+                                      @Value("${app.acessos.tamanho-lote:1000}") int tamanhoLote) {
+        this.mapeamentoUrlRepository = mapeamentoUrlRepository;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    public void registrarAcesso(CodigoCurto codigoCurto) {
+        acumulador.incrementar(codigoCurto.getValor());
+    }
+
+    public long acessosPendentes(CodigoCurto codigoCurto) {
+        return acumulador.pendente(codigoCurto.getValor());
+    }
+
+    @Scheduled(fixedDelayString = "${app.acessos.intervalo-descarga-ms:5000}",
+            initialDelayString = "${app.acessos.intervalo-descarga-ms:5000}")
+    public void descarregar() {
+        travaDescarga.lock();
+        try {
+            Map<String, Long> pendentes = acumulador.coletarPendentes();
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            log.debug("Descarregando contadores de acesso de {} códigos curtos.", pendentes.size());
+
+            for (Map<String, Long> lote : particionar(pendentes)) {
+                Map<CodigoCurto, Long> incrementos = new HashMap<>(lote.size() * 2);
+                lote.forEach((codigo, delta) -> incrementos.put(new CodigoCurto(codigo), delta));
+                try {
+                    mapeamentoUrlRepository.incrementarContadoresAcesso(incrementos);
+                    acumulador.confirmar(lote);
+                } catch (RuntimeException e) {
+                    // Os deltas não confirmados permanecem no acumulador e são reenviados na próxima descarga.
+                    log.error("Falha ao descarregar lote de {} contadores de acesso. Nova tentativa no próximo ciclo.",
+                            lote.size(), e);
+                }
+            }
+        } finally {
+            travaDescarga.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void descarregarAoEncerrar() {
+        log.info("Encerrando: descarregando contadores de acesso pendentes.");
+        descarregar();
+    }
+
+    private List<Map<String, Long>> particionar(Map<String, Long> pendentes) {
+        List<Map<String, Long>> lotes = new ArrayList<>();
+        Map<String, Long> atual = new HashMap<>();
+        for (Map.Entry<String, Long> entrada : pendentes.entrySet()) {
+            atual.put(entrada.getKey(), entrada.getValue());
+            if (atual.size() >= tamanhoLote) {
+                lotes.add(atual);
+                atual = new HashMap<>();
+            }
+        }
+        if (!atual.isEmpty()) {
+            lotes.add(atual);
+        }
+        return lotes;
+    }
+}
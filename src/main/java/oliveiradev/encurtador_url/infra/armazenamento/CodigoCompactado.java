@@ -0,0 +1,52 @@
+package oliveiradev.encurtador_url.infra.armazenamento;
+
+import java.util.Arrays;
+
+// Código curto compactado num long primitivo: 6 bits por caractere do alfabeto base64url (que contém o base62 do
+// gerador sequencial) e o tamanho nos 4 bits altos. Os 8 caracteres dos geradores ocupam exatamente 48 bits.
+// O tamanho no topo garante que nenhum código vire 0, reservado como posição vazia no IndiceOffHeap.
+public final class CodigoCompactado {
+    public static final long INVALIDO = 0L;
+    private static final int TAMANHO_MAXIMO = 10; // 60 bits de caracteres + 4 de tamanho
+    private static final char[] ALFABETO =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final byte[] INDICES = new byte[128];
+
+    static {
+        Arrays.fill(INDICES, (byte) -1);
+        for (int i = 0; i < ALFABETO.length; i++) {
+            INDICES[ALFABETO[i]] = (byte) i;
+        }
+    }
+
+    private CodigoCompactado() {}
+
+    // INVALIDO para códigos vazios, longos demais ou com caracteres fora do alfabeto.
+    public static long compactar(String codigo) {
+        int tamanho = codigo.length();
+        if (tamanho == 0 || tamanho > TAMANHO_MAXIMO) {
+            return INVALIDO;
+        }
+        long bits = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char c = codigo.charAt(i);
+            int indice = c < INDICES.length ? INDICES[c] : -1;
+            if (indice < 0) {
+                return INVALIDO;
+            }
+            bits = (bits << 6) | indice;
+        }
+        return ((long) tamanho << 60) | bits;
+    }
+
+    public static String descompactar(long compactado) {
+        int tamanho = (int) (compactado >>> 60);
+        char[] caracteres = new char[tamanho];
+        long bits = compactado;
+        for (int i = tamanho - 1; i >= 0; i--) {
+            caracteres[i] = ALFABETO[(int) (bits & 0x3F)];
+            bits >>>= 6;
+        }
+        return new String(caracteres);
+    }
+}
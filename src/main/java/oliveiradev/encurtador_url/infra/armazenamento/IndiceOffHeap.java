@@ -0,0 +1,333 @@
+package oliveiradev.encurtador_url.infra.armazenamento;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.LongConsumer;
+
+// Tabela hash de endereçamento aberto (sondagem linear) fora do heap: chave long -> valor long, mais dois longs
+// (auxiliar e extra) por posição. Milhões de entradas sem objetos por entrada, então o GC não percorre nem copia o índice.
+// Escrita por um thread de cada vez (quem usa serializa); leituras sem trava, com acquire/release via VarHandle.
+// Chave 0 marca posição vazia e valor 0 marca remoção. A posição removida só é reaproveitada pela mesma chave,
+// logo uma chave nunca muda de lugar numa tabela e o leitor nunca vê o valor de outra chave.
+// Aceita a mesma chave com valores distintos (multimapa) via adicionar/removerPar.
+public final class IndiceOffHeap {
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int BYTES_POR_POSICAO = 4 * Long.BYTES; // chave, valor, auxiliar, extra
+    private static final int CAMPO_VALOR = Long.BYTES;
+    private static final int CAMPO_AUXILIAR = 2 * Long.BYTES;
+    private static final int CAMPO_EXTRA = 3 * Long.BYTES;
+    private static final int CAPACIDADE_MAXIMA = 1 << 25; // 1 GB; o ByteBuffer é indexado por int
+    private static final double OCUPACAO_MAXIMA = 0.7;
+
+    private final ByteBuffer dados;
+    private final int capacidade;
+    private final int mascara;
+    private int ocupadas; // Posições com chave, inclusive removidas
+    private int vivas;
+
+    public IndiceOffHeap(int capacidadeMinima) {
+        this.capacidade = potenciaDeDoisAcima(capacidadeMinima);
+        this.mascara = capacidade - 1;
+        int bytes = capacidade * BYTES_POR_POSICAO;
+        // Acessos acquire/release exigem alinhamento de 8 bytes
+        this.dados = ByteBuffer.allocateDirect(bytes + Long.BYTES - 1).alignedSlice(Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public int getVivas() {
+        return vivas;
+    }
+
+    public long tamanhoEmBytes() {
+        return (long) capacidade * BYTES_POR_POSICAO;
+    }
+
+    // Primeiro valor vivo da chave, ou 0.
+    public long buscar(long chave) {
+        int posicao = inicio(chave);
+        while (true) {
+            long atual = chave(posicao);
+            if (atual == 0) {
+                return 0;
+            }
+            if (atual == chave) {
+                long valor = valor(posicao);
+                if (valor != 0) {
+                    return valor;
+                }
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+    }
+
+    // Auxiliar da entrada viva da chave, ou 0.
+    public long buscarAuxiliar(long chave) {
+        return lerCampoVivo(chave, CAMPO_AUXILIAR);
+    }
+
+    // Extra da entrada viva da chave, ou 0.
+    public long buscarExtra(long chave) {
+        return lerCampoVivo(chave, CAMPO_EXTRA);
+    }
+
+    public void percorrer(long chave, LongConsumer consumidor) {
+        int posicao = inicio(chave);
+        while (true) {
+            long atual = chave(posicao);
+            if (atual == 0) {
+                return;
+            }
+            if (atual == chave) {
+                long valor = valor(posicao);
+                if (valor != 0) {
+                    consumidor.accept(valor);
+                }
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+    }
+
+    // Percorre todas as entradas vivas; concorrente com o escritor, pode ou não ver as alterações em andamento.
+    public void percorrerVivas(ConsumidorEntrada consumidor) {
+        for (int posicao = 0; posicao < capacidade; posicao++) {
+            long chave = chave(posicao);
+            if (chave != 0) {
+                long valor = valor(posicao);
+                if (valor != 0) {
+                    consumidor.aceitar(chave, valor, (long) LONGS.getAcquire(dados, deslocamento(posicao) + CAMPO_AUXILIAR));
+                }
+            }
+        }
+    }
+
+    // Grava ou substitui o valor da chave (uso como mapa), zerando o extra. Retorna o valor vivo anterior, ou 0.
+    public long gravar(long chave, long valor, long auxiliar) {
+        exigirValor(chave, valor);
+        int posicao = inicio(chave);
+        while (true) {
+            long atual = chave(posicao);
+            if (atual == 0) {
+                publicarNova(posicao, chave, valor, auxiliar, 0L);
+                return 0;
+            }
+            if (atual == chave) {
+                long anterior = valor(posicao);
+                LONGS.setRelease(dados, deslocamento(posicao) + CAMPO_EXTRA, 0L);
+                LONGS.setRelease(dados, deslocamento(posicao) + CAMPO_AUXILIAR, auxiliar);
+                LONGS.setRelease(dados, deslocamento(posicao) + CAMPO_VALOR, valor);
+                if (anterior == 0) {
+                    vivas++;
+                }
+                return anterior;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+    }
+
+    // Troca o valor só se ainda for o esperado (ex.: a compactação move um registro que ninguém regravou).
+    public boolean substituir(long chave, long esperado, long novo) {
+        exigirValor(chave, novo);
+        int posicao = localizarViva(chave);
+        if (posicao < 0 || valor(posicao) != esperado) {
+            return false;
+        }
+        LONGS.setRelease(dados, deslocamento(posicao) + CAMPO_VALOR, novo);
+        return true;
+    }
+
+    public void definirAuxiliar(long chave, long auxiliar) {
+        escreverCampoVivo(chave, CAMPO_AUXILIAR, auxiliar);
+    }
+
+    public void definirExtra(long chave, long extra) {
+        escreverCampoVivo(chave, CAMPO_EXTRA, extra);
+    }
+
+    // Soma ao auxiliar da chave viva e retorna o novo total; -1 se a chave não existir.
+    public long somarAuxiliar(long chave, long delta) {
+        int posicao = localizarViva(chave);
+        if (posicao < 0) {
+            return -1;
+        }
+        int campo = deslocamento(posicao) + CAMPO_AUXILIAR;
+        long total = (long) LONGS.getAcquire(dados, campo) + delta;
+        LONGS.setRelease(dados, campo, total);
+        return total;
+    }
+
+    // Remove a entrada viva da chave (uso como mapa). Retorna o valor removido, ou 0.
+    public long remover(long chave) {
+        int posicao = localizarViva(chave);
+        if (posicao < 0) {
+            return 0;
+        }
+        long anterior = valor(posicao);
+        LONGS.setRelease(dados, deslocamento(posicao) + CAMPO_VALOR, 0L);
+        vivas--;
+        return anterior;
+    }
+
+    // Acrescenta o par (uso como multimapa); falso se ele já existir.
+    public boolean adicionar(long chave, long valor) {
+        exigirValor(chave, valor);
+        int posicao = inicio(chave);
+        int removidaDaChave = -1;
+        while (true) {
+            long atual = chave(posicao);
+            if (atual == 0) {
+                break;
+            }
+            if (atual == chave) {
+                long existente = valor(posicao);
+                if (existente == valor) {
+                    return false;
+                }
+                if (existente == 0 && removidaDaChave < 0) {
+                    removidaDaChave = posicao;
+                }
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        if (removidaDaChave >= 0) {
+            LONGS.setRelease(dados, deslocamento(removidaDaChave) + CAMPO_VALOR, valor);
+            vivas++;
+        } else {
+            publicarNova(posicao, chave, valor, 0L, 0L);
+        }
+        return true;
+    }
+
+    public boolean removerPar(long chave, long valor) {
+        int posicao = inicio(chave);
+        while (true) {
+            long atual = chave(posicao);
+            if (atual == 0) {
+                return false;
+            }
+            if (atual == chave && valor(posicao) == valor) {
+                LONGS.setRelease(dados, deslocamento(posicao) + CAMPO_VALOR, 0L);
+                vivas--;
+                return true;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+    }
+
+    // Com remoções, as posições ocupadas crescem sem as vivas crescerem; a reconstrução descarta as removidas.
+    public boolean precisaReconstruir() {
+        return ocupadas >= capacidade * OCUPACAO_MAXIMA;
+    }
+
+    // Nova tabela só com as entradas vivas, com folga para dobrar. Leitores da tabela antiga seguem válidos.
+    public IndiceOffHeap reconstruir() {
+        long desejada = Math.max((long) capacidade / 2, (long) (vivas / (OCUPACAO_MAXIMA / 2)));
+        if (desejada > CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("Índice fora do heap esgotado: " + vivas + " entradas vivas.");
+        }
+        IndiceOffHeap nova = new IndiceOffHeap((int) desejada);
+        for (int posicao = 0; posicao < capacidade; posicao++) {
+            long chave = chave(posicao);
+            long valor = chave == 0 ? 0 : valor(posicao);
+            if (valor != 0) {
+                int base = deslocamento(posicao);
+                nova.inserirSemVerificar(chave, valor, (long) LONGS.getAcquire(dados, base + CAMPO_AUXILIAR),
+                        (long) LONGS.getAcquire(dados, base + CAMPO_EXTRA));
+            }
+        }
+        return nova;
+    }
+
+    private void inserirSemVerificar(long chave, long valor, long auxiliar, long extra) {
+        int posicao = inicio(chave);
+        while (chave(posicao) != 0) {
+            posicao = (posicao + 1) & mascara;
+        }
+        publicarNova(posicao, chave, valor, auxiliar, extra);
+    }
+
+    // Campos antes da chave: quem enxerga a chave (acquire) enxerga também o valor.
+    private void publicarNova(int posicao, long chave, long valor, long auxiliar, long extra) {
+        if (ocupadas + 1 >= capacidade) {
+            throw new IllegalStateException("Índice fora do heap cheio; reconstrua antes de inserir.");
+        }
+        int base = deslocamento(posicao);
+        LONGS.setRelease(dados, base + CAMPO_EXTRA, extra);
+        LONGS.setRelease(dados, base + CAMPO_AUXILIAR, auxiliar);
+        LONGS.setRelease(dados, base + CAMPO_VALOR, valor);
+        LONGS.setRelease(dados, base, chave);
+        ocupadas++;
+        vivas++;
+    }
+
+    private int localizarViva(long chave) {
+        int posicao = inicio(chave);
+        while (true) {
+            long atual = chave(posicao);
+            if (atual == 0) {
+                return -1;
+            }
+            if (atual == chave && valor(posicao) != 0) {
+                return posicao;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+    }
+
+    private long lerCampoVivo(long chave, int campo) {
+        int posicao = localizarViva(chave);
+        return posicao < 0 ? 0 : (long) LONGS.getAcquire(dados, deslocamento(posicao) + campo);
+    }
+
+    private void escreverCampoVivo(long chave, int campo, long conteudo) {
+        int posicao = localizarViva(chave);
+        if (posicao >= 0) {
+            LONGS.setRelease(dados, deslocamento(posicao) + campo, conteudo);
+        }
+    }
+
+    private long chave(int posicao) {
+        return (long) LONGS.getAcquire(dados, deslocamento(posicao));
+    }
+
+    private long valor(int posicao) {
+        return (long) LONGS.getAcquire(dados, deslocamento(posicao) + CAMPO_VALOR);
+    }
+
+    private int inicio(long chave) {
+        // Finalizador do MurmurHash3: espalha chaves sequenciais ou com bits altos em comum
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+
+    private static int deslocamento(int posicao) {
+        return posicao * BYTES_POR_POSICAO;
+    }
+
+    private static void exigirValor(long chave, long valor) {
+        if (chave == 0 || valor == 0) {
+            throw new IllegalArgumentException("Chave e valor 0 são reservados no índice fora do heap.");
+        }
+    }
+
+    private static int potenciaDeDoisAcima(int minimo) {
+        if (minimo > CAPACIDADE_MAXIMA) {
+            throw new IllegalArgumentException("Capacidade acima do máximo do índice fora do heap: " + minimo);
+        }
+        return Math.max(16, Integer.highestOneBit(Math.max(1, minimo) - 1) << 1);
+    }
+
+    @FunctionalInterface
+    public interface ConsumidorEntrada {
+        void aceitar(long chave, long valor, long auxiliar);
+    }
+}
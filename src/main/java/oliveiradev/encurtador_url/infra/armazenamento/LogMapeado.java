@@ -0,0 +1,197 @@
+package oliveiradev.encurtador_url.infra.armazenamento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Log só de acréscimo dividido em segmentos mapeados em memória (segmento-00000001.log, ...).
+// Uma posição no log é um long: número do segmento nos 32 bits altos e deslocamento nos baixos.
+// Escrita, rolagem, compactação e remoção de segmentos: um thread por vez (o repositório serializa).
+// Leitura por posição em qualquer thread, sem trava.
+public final class LogMapeado {
+    private static final Logger log = LoggerFactory.getLogger(LogMapeado.class);
+    private static final String PREFIXO = "segmento-";
+    private static final String SUFIXO = ".log";
+    private static final int MAXIMO_SEGMENTOS = 4096; // Segmentos existentes ao mesmo tempo; numeração é livre
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+    private final AtomicReferenceArray<SegmentoLog> porNumero = new AtomicReferenceArray<>(MAXIMO_SEGMENTOS);
+    private final TreeMap<Integer, SegmentoLog> segmentos = new TreeMap<>(); // Só o escritor
+    private volatile SegmentoLog ativo;
+
+    public LogMapeado(Path diretorio, int tamanhoSegmento) {
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = SegmentoLog.alinhar(tamanhoSegmento);
+    }
+
+    public static long posicao(SegmentoLog segmento, int deslocamento) {
+        return ((long) segmento.getNumero() << 32) | deslocamento;
+    }
+
+    public static int deslocamento(long posicao) {
+        return (int) posicao;
+    }
+
+    // Abre os segmentos existentes em ordem e entrega cada registro íntegro ao leitor; a cauda rasgada do
+    // último segmento é descartada. Sem segmentos, cria o primeiro.
+    public void recuperar(SegmentoLog.LeitorRegistro leitor) {
+        try {
+            Files.createDirectories(diretorio);
+            TreeMap<Integer, Path> arquivos = new TreeMap<>();
+            try (DirectoryStream<Path> listagem = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+                for (Path arquivo : listagem) {
+                    String nome = arquivo.getFileName().toString();
+                    arquivos.put(Integer.parseInt(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length())), arquivo);
+                }
+            }
+            for (Map.Entry<Integer, Path> entrada : arquivos.entrySet()) {
+                SegmentoLog segmento = SegmentoLog.abrir(entrada.getValue(), entrada.getKey());
+                if (segmento.recuperarFim()) {
+                    log.warn("Segmento {} com registros incompletos ou corrompidos no fim; descartados a partir da posição {}.",
+                            segmento.getNumero(), segmento.getPosicaoEscrita());
+                }
+                registrar(segmento);
+                segmento.percorrer(leitor);
+            }
+            if (segmentos.isEmpty()) {
+                registrar(SegmentoLog.criar(arquivo(1), 1, tamanhoSegmento));
+            }
+            for (SegmentoLog segmento : segmentos.values()) {
+                if (segmento != segmentos.lastEntry().getValue()) {
+                    segmento.selar();
+                }
+            }
+            ativo = segmentos.lastEntry().getValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao recuperar o log de mapeamentos em " + diretorio, e);
+        }
+    }
+
+    // Nulo se o segmento da posição já foi compactado e removido; o leitor deve consultar o índice de novo.
+    public SegmentoLog segmento(long posicao) {
+        int numero = (int) (posicao >>> 32);
+        SegmentoLog segmento = porNumero.get(numero & (MAXIMO_SEGMENTOS - 1));
+        return segmento != null && segmento.getNumero() == numero ? segmento : null;
+    }
+
+    public long anexarMapeamento(long chave, long criacaoMs, long expiraEmMs, Long impressaoDigital, long contador,
+                                 byte[] url, byte[] location, boolean locationValido) {
+        int tamanho = SegmentoLog.tamanhoMapeamento(url, location);
+        SegmentoLog segmento = segmentoCom(tamanho);
+        return posicao(segmento, segmento.anexarMapeamento(chave, criacaoMs, expiraEmMs, impressaoDigital, contador,
+                url, location, locationValido));
+    }
+
+    public long anexarContador(long chave, long total) {
+        SegmentoLog segmento = segmentoCom(SegmentoLog.TAMANHO_CONTADOR);
+        return posicao(segmento, segmento.anexarContador(chave, total));
+    }
+
+    public long anexarCopia(SegmentoLog origem, int deslocamento, long contador) {
+        SegmentoLog segmento = segmentoCom(origem.tamanho(deslocamento));
+        return posicao(segmento, segmento.anexarCopia(origem, deslocamento, contador));
+    }
+
+    public void somarBytesVivos(long posicao, long delta) {
+        SegmentoLog segmento = segmento(posicao);
+        if (segmento != null) {
+            segmento.somarBytesVivos(delta);
+        }
+    }
+
+    // Segmento selado com a menor fração de bytes vivos, se ela estiver abaixo do limiar.
+    public SegmentoLog maisFragmentado(double limiar) {
+        SegmentoLog escolhido = null;
+        for (SegmentoLog segmento : segmentos.values()) {
+            if (segmento.isSelado() && segmento.fracaoViva() < limiar
+                    && (escolhido == null || segmento.fracaoViva() < escolhido.fracaoViva())) {
+                escolhido = segmento;
+            }
+        }
+        return escolhido;
+    }
+
+    public void percorrer(SegmentoLog segmento, SegmentoLog.LeitorRegistro leitor) {
+        segmento.percorrer(leitor);
+    }
+
+    // Chamado depois de os registros vivos terem sido copiados e sincronizados no segmento ativo.
+    public void remover(SegmentoLog segmento) {
+        if (segmento == ativo) {
+            throw new IllegalArgumentException("O segmento ativo não pode ser removido.");
+        }
+        segmentos.remove(segmento.getNumero());
+        porNumero.compareAndSet(segmento.getNumero() & (MAXIMO_SEGMENTOS - 1), segmento, null);
+        try {
+            segmento.fecharERemover();
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o segmento compactado {}: {}", segmento.getNumero(), e.getMessage());
+        }
+    }
+
+    public int quantidadeSegmentos() {
+        return segmentos.size();
+    }
+
+    public void sincronizar() {
+        SegmentoLog atual = ativo;
+        if (atual != null) {
+            atual.sincronizar();
+        }
+    }
+
+    public void fechar() {
+        sincronizar();
+        for (SegmentoLog segmento : segmentos.values()) {
+            try {
+                segmento.fechar();
+            } catch (IOException e) {
+                log.warn("Falha ao fechar o segmento {}: {}", segmento.getNumero(), e.getMessage());
+            }
+        }
+    }
+
+    private SegmentoLog segmentoCom(int tamanhoRegistro) {
+        if (tamanhoRegistro > tamanhoSegmento - SegmentoLog.TAMANHO_CABECALHO) {
+            throw new IllegalArgumentException("Registro de " + tamanhoRegistro + " bytes maior que o segmento do log.");
+        }
+        SegmentoLog atual = ativo;
+        if (atual.cabe(tamanhoRegistro)) {
+            return atual;
+        }
+        atual.selar(); // Sincroniza antes de abrir o próximo: segmentos selados nunca têm cauda rasgada
+        int numero = atual.getNumero() + 1;
+        try {
+            SegmentoLog novo = SegmentoLog.criar(arquivo(numero), numero, tamanhoSegmento);
+            registrar(novo);
+            ativo = novo;
+            return novo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar o segmento " + numero + " do log de mapeamentos", e);
+        }
+    }
+
+    private void registrar(SegmentoLog segmento) {
+        int indice = segmento.getNumero() & (MAXIMO_SEGMENTOS - 1);
+        SegmentoLog ocupante = porNumero.get(indice);
+        if (ocupante != null && ocupante.getNumero() != segmento.getNumero()) {
+            throw new IllegalStateException("Mais de " + MAXIMO_SEGMENTOS
+                    + " segmentos no log de mapeamentos; aumente o tamanho do segmento ou compacte.");
+        }
+        porNumero.set(indice, segmento);
+        segmentos.put(segmento.getNumero(), segmento);
+    }
+
+    private Path arquivo(int numero) {
+        return diretorio.resolve(String.format("%s%08d%s", PREFIXO, numero, SUFIXO));
+    }
+}
@@ -0,0 +1,319 @@
+package oliveiradev.encurtador_url.infra.armazenamento;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+// Um arquivo do log, pré-alocado no tamanho do segmento e mapeado inteiro em memória.
+// Cabeçalho de 16 bytes (mágico, versão, número); registros alinhados a 8 bytes, cada um com tamanho e CRC32C:
+//   0 tamanho | 4 crc | 8 tipo | 9 flags | 12 tamanho da URL | 16 chave
+//   mapeamento: 24 criação | 32 expiração | 40 impressão digital | 48 contador | 56 tamanho do Location | 60 URL, Location
+//   contador:   24 total
+// Leituras usam só acessos absolutos ao buffer e podem ocorrer em qualquer thread; escrita, um thread por vez.
+public final class SegmentoLog {
+    public static final byte TIPO_MAPEAMENTO = 1;
+    public static final byte TIPO_CONTADOR = 2;
+    public static final byte FLAG_IMPRESSAO_DIGITAL = 1;
+
+    static final int TAMANHO_CABECALHO = 16;
+    public static final int TAMANHO_CONTADOR = 32;
+    private static final int MAGICO = 0x4D4C4F47; // "MLOG"
+    private static final int VERSAO = 1;
+    private static final int LOCATION_IGUAL_URL = -1;
+    private static final int LOCATION_INVALIDO = -2;
+
+    private static final int CAMPO_CRC = 4;
+    private static final int CAMPO_TIPO = 8;
+    private static final int CAMPO_FLAGS = 9;
+    private static final int CAMPO_TAMANHO_URL = 12;
+    private static final int CAMPO_CHAVE = 16;
+    private static final int CAMPO_CRIACAO = 24;
+    private static final int CAMPO_TOTAL = 24;
+    private static final int CAMPO_EXPIRACAO = 32;
+    private static final int CAMPO_IMPRESSAO = 40;
+    private static final int CAMPO_CONTADOR = 48;
+    private static final int CAMPO_TAMANHO_LOCATION = 56;
+    private static final int INICIO_URL = 60;
+    private static final int TAMANHO_MINIMO_REGISTRO = TAMANHO_CONTADOR;
+
+    private final int numero;
+    private final Path arquivo;
+    private final FileChannel canal;
+    private final MappedByteBuffer buffer;
+    private final int capacidade;
+    private final CRC32C crc = new CRC32C(); // Só o escritor e a recuperação usam
+    private int posicaoEscrita;
+    private volatile long bytesVivos; // Registros de mapeamento e de contador ainda apontados pelo índice
+    private volatile boolean selado;
+
+    private SegmentoLog(int numero, Path arquivo, FileChannel canal, MappedByteBuffer buffer) {
+        this.numero = numero;
+        this.arquivo = arquivo;
+        this.canal = canal;
+        this.buffer = buffer;
+        this.capacidade = buffer.capacity();
+    }
+
+    static SegmentoLog criar(Path arquivo, int numero, int tamanho) throws IOException {
+        try (RandomAccessFile acesso = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            acesso.setLength(tamanho);
+        }
+        SegmentoLog segmento = mapear(arquivo, numero);
+        segmento.buffer.putInt(0, MAGICO);
+        segmento.buffer.putInt(4, VERSAO);
+        segmento.buffer.putInt(8, numero);
+        segmento.buffer.force(0, TAMANHO_CABECALHO);
+        segmento.posicaoEscrita = TAMANHO_CABECALHO;
+        return segmento;
+    }
+
+    static SegmentoLog abrir(Path arquivo, int numero) throws IOException {
+        SegmentoLog segmento = mapear(arquivo, numero);
+        ByteBuffer buffer = segmento.buffer;
+        if (buffer.getInt(0) == 0 && buffer.getInt(8) == 0) {
+            // Queda entre criar o arquivo e gravar o cabeçalho: segmento vazio
+            buffer.putInt(0, MAGICO);
+            buffer.putInt(4, VERSAO);
+            buffer.putInt(8, numero);
+        } else if (buffer.getInt(0) != MAGICO || buffer.getInt(4) != VERSAO || buffer.getInt(8) != numero) {
+            segmento.fechar();
+            throw new IOException("Segmento de log inválido: " + arquivo);
+        }
+        segmento.posicaoEscrita = TAMANHO_CABECALHO;
+        return segmento;
+    }
+
+    private static SegmentoLog mapear(Path arquivo, int numero) throws IOException {
+        RandomAccessFile acesso = new RandomAccessFile(arquivo.toFile(), "rw");
+        FileChannel canal = acesso.getChannel();
+        try {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, canal.size());
+            return new SegmentoLog(numero, arquivo, canal, buffer);
+        } catch (IOException | RuntimeException e) {
+            acesso.close();
+            throw e;
+        }
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    public int getPosicaoEscrita() {
+        return posicaoEscrita;
+    }
+
+    public boolean isSelado() {
+        return selado;
+    }
+
+    public long getBytesVivos() {
+        return bytesVivos;
+    }
+
+    // Fração dos bytes gravados que ainda são mapeamentos vivos.
+    public double fracaoViva() {
+        int usados = posicaoEscrita - TAMANHO_CABECALHO;
+        return usados <= 0 ? 1.0 : (double) bytesVivos / usados;
+    }
+
+    void somarBytesVivos(long delta) {
+        bytesVivos += delta; // Só o escritor altera
+    }
+
+    // Percorre os registros até a posição de escrita (após recuperarFim, todos já conferidos pelo CRC).
+    void percorrer(LeitorRegistro leitor) {
+        int posicao = TAMANHO_CABECALHO;
+        while (posicao < posicaoEscrita) {
+            leitor.ler(this, posicao);
+            posicao = alinhar(posicao + buffer.getInt(posicao));
+        }
+    }
+
+    // Posiciona a escrita após o último registro íntegro e zera o que vier depois (cauda rasgada ou registros
+    // gravados fora de ordem pelo SO), para que a próxima recuperação não ressuscite bytes antigos.
+    // Retorna se havia algo a descartar.
+    boolean recuperarFim() {
+        int posicao = TAMANHO_CABECALHO;
+        while (posicao <= capacidade - TAMANHO_MINIMO_REGISTRO) {
+            int tamanho = buffer.getInt(posicao);
+            if (tamanho == 0 || !isIntegro(posicao, tamanho)) {
+                break;
+            }
+            posicao = alinhar(posicao + tamanho);
+        }
+        posicaoEscrita = Math.min(posicao, capacidade);
+        for (int i = posicaoEscrita; i <= capacidade - Long.BYTES; i += Long.BYTES) {
+            if (buffer.getLong(i) != 0) {
+                for (int j = posicaoEscrita; j <= capacidade - Long.BYTES; j += Long.BYTES) {
+                    buffer.putLong(j, 0L);
+                }
+                buffer.force();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean cabe(int tamanhoRegistro) {
+        return alinhar(posicaoEscrita) + tamanhoRegistro <= capacidade;
+    }
+
+    static int tamanhoMapeamento(byte[] url, byte[] location) {
+        return INICIO_URL + url.length + (location != null ? location.length : 0);
+    }
+
+    int anexarMapeamento(long chave, long criacaoMs, long expiraEmMs, Long impressaoDigital, long contador,
+                         byte[] url, byte[] location, boolean locationValido) {
+        int posicao = posicaoEscrita;
+        int tamanho = tamanhoMapeamento(url, location);
+        buffer.put(CAMPO_TIPO + posicao, TIPO_MAPEAMENTO);
+        buffer.put(CAMPO_FLAGS + posicao, impressaoDigital != null ? FLAG_IMPRESSAO_DIGITAL : 0);
+        buffer.putShort(10 + posicao, (short) 0);
+        buffer.putInt(CAMPO_TAMANHO_URL + posicao, url.length);
+        buffer.putLong(CAMPO_CHAVE + posicao, chave);
+        buffer.putLong(CAMPO_CRIACAO + posicao, criacaoMs);
+        buffer.putLong(CAMPO_EXPIRACAO + posicao, expiraEmMs);
+        buffer.putLong(CAMPO_IMPRESSAO + posicao, impressaoDigital != null ? impressaoDigital : 0L);
+        buffer.putLong(CAMPO_CONTADOR + posicao, contador);
+        buffer.putInt(CAMPO_TAMANHO_LOCATION + posicao,
+                !locationValido ? LOCATION_INVALIDO : location == null ? LOCATION_IGUAL_URL : location.length);
+        buffer.put(posicao + INICIO_URL, url);
+        if (location != null) {
+            buffer.put(posicao + INICIO_URL + url.length, location);
+        }
+        return concluir(posicao, tamanho);
+    }
+
+    int anexarContador(long chave, long total) {
+        int posicao = posicaoEscrita;
+        buffer.put(CAMPO_TIPO + posicao, TIPO_CONTADOR);
+        buffer.put(CAMPO_FLAGS + posicao, (byte) 0);
+        buffer.putShort(10 + posicao, (short) 0);
+        buffer.putInt(CAMPO_TAMANHO_URL + posicao, 0);
+        buffer.putLong(CAMPO_CHAVE + posicao, chave);
+        buffer.putLong(CAMPO_TOTAL + posicao, total);
+        return concluir(posicao, TAMANHO_CONTADOR);
+    }
+
+    // Cópia byte a byte de um registro de mapeamento de outro segmento, com o contador atualizado.
+    int anexarCopia(SegmentoLog origem, int posicaoOrigem, long contador) {
+        int posicao = posicaoEscrita;
+        int tamanho = origem.tamanho(posicaoOrigem);
+        buffer.put(posicao, origem.buffer, posicaoOrigem, tamanho);
+        buffer.putInt(posicao, 0); // Publicado de novo em concluir, depois do CRC
+        buffer.putLong(CAMPO_CONTADOR + posicao, contador);
+        return concluir(posicao, tamanho);
+    }
+
+    // CRC e por último o tamanho: um registro sem tamanho é o fim do log para a recuperação.
+    private int concluir(int posicao, int tamanho) {
+        buffer.putInt(CAMPO_CRC + posicao, calcularCrc(posicao, tamanho));
+        buffer.putInt(posicao, tamanho);
+        posicaoEscrita = alinhar(posicao + tamanho);
+        return posicao;
+    }
+
+    private boolean isIntegro(int posicao, int tamanho) {
+        return tamanho >= TAMANHO_MINIMO_REGISTRO
+                && tamanho <= capacidade - posicao
+                && buffer.getInt(CAMPO_CRC + posicao) == calcularCrc(posicao, tamanho);
+    }
+
+    private int calcularCrc(int posicao, int tamanho) {
+        crc.reset();
+        crc.update(buffer.slice(posicao + CAMPO_TIPO, tamanho - CAMPO_TIPO));
+        return (int) crc.getValue();
+    }
+
+    public int tamanho(int posicao) {
+        return buffer.getInt(posicao);
+    }
+
+    public byte tipo(int posicao) {
+        return buffer.get(CAMPO_TIPO + posicao);
+    }
+
+    public long chave(int posicao) {
+        return buffer.getLong(CAMPO_CHAVE + posicao);
+    }
+
+    public long criacaoMs(int posicao) {
+        return buffer.getLong(CAMPO_CRIACAO + posicao);
+    }
+
+    public long expiraEmMs(int posicao) {
+        return buffer.getLong(CAMPO_EXPIRACAO + posicao);
+    }
+
+    // Nulo quando o mapeamento foi gravado sem impressão digital.
+    public Long impressaoDigital(int posicao) {
+        return (buffer.get(CAMPO_FLAGS + posicao) & FLAG_IMPRESSAO_DIGITAL) != 0
+                ? buffer.getLong(CAMPO_IMPRESSAO + posicao)
+                : null;
+    }
+
+    public long contador(int posicao) {
+        return buffer.getLong(CAMPO_CONTADOR + posicao);
+    }
+
+    public long total(int posicao) {
+        return buffer.getLong(CAMPO_TOTAL + posicao);
+    }
+
+    public String url(int posicao) {
+        return lerTexto(posicao + INICIO_URL, buffer.getInt(CAMPO_TAMANHO_URL + posicao), false);
+    }
+
+    // Location já codificado em ASCII; nulo se a URL não for uma URI válida.
+    public String location(int posicao) {
+        int tamanhoLocation = buffer.getInt(CAMPO_TAMANHO_LOCATION + posicao);
+        if (tamanhoLocation == LOCATION_INVALIDO) {
+            return null;
+        }
+        int tamanhoUrl = buffer.getInt(CAMPO_TAMANHO_URL + posicao);
+        return tamanhoLocation == LOCATION_IGUAL_URL
+                ? lerTexto(posicao + INICIO_URL, tamanhoUrl, true)
+                : lerTexto(posicao + INICIO_URL + tamanhoUrl, tamanhoLocation, true);
+    }
+
+    private String lerTexto(int inicio, int tamanho, boolean ascii) {
+        byte[] bytes = new byte[tamanho];
+        buffer.get(inicio, bytes);
+        return new String(bytes, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    void selar() {
+        buffer.force();
+        selado = true;
+    }
+
+    void sincronizar() {
+        buffer.force();
+    }
+
+    // O mapeamento continua válido para leitores que ainda tenham a referência; só o arquivo some.
+    void fecharERemover() throws IOException {
+        fechar();
+        Files.deleteIfExists(arquivo);
+    }
+
+    void fechar() throws IOException {
+        canal.close();
+    }
+
+    static int alinhar(int posicao) {
+        return (posicao + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    @FunctionalInterface
+    public interface LeitorRegistro {
+        void ler(SegmentoLog segmento, int posicao);
+    }
+}
@@ -0,0 +1,192 @@
+package oliveiradev.encurtador_url.infra.cache;
+
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Aquece o cache L1 na partida: primeiro com o snapshot local dos destinos mais quentes deste nó, depois com os
+// mapeamentos mais acessados do banco. Roda como ApplicationRunner, então a aplicação só passa a aceitar tráfego
+// (readiness) quando o aquecimento termina ou o prazo vence; depois do prazo a carga continua em segundo plano.
+// Entradas do snapshot vencidas são descartadas; como um mapeamento só é apagado depois de expirar, o resto é válido.
+// O snapshot, local e limitado, é lido antes de liberar a partida: alterações feitas por outros nós enquanto este
+// esteve parado chegam depois, pelo OuvinteAlteracoesMapeamentos, e não são sobrescritas por ele.
+@Component
+@ConditionalOnProperty(name = "app.aquecimento.habilitado", havingValue = "true", matchIfMissing = true)
+public class AquecedorCache implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(AquecedorCache.class);
+    private static final int MAGICO_SNAPSHOT = 0x41514331; // "AQC1"
+    private static final String ARQUIVO_SNAPSHOT = "cache-quente.bin";
+
+    private final MapeamentoUrlRepository persistencia;
+    private final MapeamentoUrlRepositoryEmCache repositorioEmCache;
+    private final FabricaThreads fabricaThreads;
+    private final Path arquivoSnapshot;
+    private final int quantidade;
+    private final long prazoMs;
+    private volatile boolean aquecido;
+    private volatile boolean snapshotLiberado; // O aquecimento terminou, com ou sem sucesso
+
+    @Autowired
+    public AquecedorCache(@Qualifier("persistencia") MapeamentoUrlRepository persistencia,
+                          MapeamentoUrlRepositoryEmCache repositorioEmCache,
+                          FabricaThreads fabricaThreads,
+                          @Value("${app.dados.diretorio:./dados}") String diretorioDados,
+                          @Value("${app.aquecimento.quantidade:10000}") int quantidade,
+                          @Value("${app.aquecimento.prazo-ms:30000}") long prazoMs) {
+        this.persistencia = persistencia;
+        this.repositorioEmCache = repositorioEmCache;
+        this.fabricaThreads = fabricaThreads;
+        this.arquivoSnapshot = Paths.get(diretorioDados, ARQUIVO_SNAPSHOT);
+        this.quantidade = quantidade;
+        this.prazoMs = prazoMs;
+    }
+
+    public boolean isAquecido() {
+        return aquecido;
+    }
+
+    @Override
+    public void run(ApplicationArguments argumentos) throws InterruptedException {
+        long inicioMs = System.currentTimeMillis();
+        int doSnapshot = carregarSnapshot();
+        CountDownLatch concluido = new CountDownLatch(1);
+        fabricaThreads.iniciar("aquecimento-cache", () -> {
+            try {
+                aquecerDoBanco(inicioMs, doSnapshot);
+            } catch (RuntimeException e) {
+                log.error("Falha no aquecimento do cache. Ele será preenchido pelas próprias requisições.", e);
+            } finally {
+                concluido.countDown();
+            }
+        });
+        if (!concluido.await(prazoMs, TimeUnit.MILLISECONDS)) {
+            log.warn("Aquecimento do cache não terminou em {} ms; aceitando tráfego e seguindo em segundo plano.", prazoMs);
+        }
+    }
+
+    void aquecer() {
+        aquecerDoBanco(System.currentTimeMillis(), carregarSnapshot());
+    }
+
+    // Se a consulta ao banco falhar, o snapshot já carregado segue no cache e o tráfego o completa: os snapshots
+    // periódicos são liberados do mesmo jeito, senão o nó nunca mais gravaria um.
+    private void aquecerDoBanco(long inicioMs, int doSnapshot) {
+        try {
+            int[] doBanco = new int[1];
+            persistencia.percorrerMaisAcessados(quantidade, destino -> {
+                if (repositorioEmCache.aquecer(destino)) {
+                    doBanco[0]++;
+                }
+            });
+            aquecido = true;
+            log.info("Cache aquecido em {} ms: {} destinos do snapshot e {} dos mais acessados do banco.",
+                    System.currentTimeMillis() - inicioMs, doSnapshot, doBanco[0]);
+        } finally {
+            snapshotLiberado = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.aquecimento.intervalo-snapshot-ms:300000}",
+            initialDelayString = "${app.aquecimento.intervalo-snapshot-ms:300000}")
+    public void salvarSnapshot() {
+        if (!snapshotLiberado) {
+            return; // Não sobrescreve um snapshot bom com um cache ainda frio
+        }
+        List<DestinoRedirecionamento> quentes = repositorioEmCache.destinosMaisQuentes(quantidade);
+        try {
+            Files.createDirectories(arquivoSnapshot.getParent());
+            Path temporario = arquivoSnapshot.resolveSibling(ARQUIVO_SNAPSHOT + ".tmp");
+            try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                saida.writeInt(MAGICO_SNAPSHOT);
+                for (DestinoRedirecionamento destino : quentes) {
+                    if (destino.isValido()) {
+                        escreverTexto(saida, destino.getCodigoCurto().getValor());
+                        escreverTexto(saida, destino.getLocation());
+                        saida.writeLong(destino.getExpiraEmMs());
+                    }
+                }
+            }
+            Files.move(temporario, arquivoSnapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Snapshot do cache quente salvo em {} ({} destinos).", arquivoSnapshot, quentes.size());
+        } catch (IOException e) {
+            log.warn("Não foi possível salvar o snapshot do cache quente em {}: {}", arquivoSnapshot, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void salvarSnapshotAoEncerrar() {
+        salvarSnapshot();
+    }
+
+    private int carregarSnapshot() {
+        if (!Files.exists(arquivoSnapshot)) {
+            return 0;
+        }
+        int carregados = 0;
+        long agoraMs = System.currentTimeMillis();
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivoSnapshot)))) {
+            if (entrada.readInt() != MAGICO_SNAPSHOT) {
+                log.warn("Snapshot do cache quente em {} com formato desconhecido; ignorado.", arquivoSnapshot);
+                return 0;
+            }
+            while (carregados < quantidade) {
+                String codigo;
+                try {
+                    codigo = lerTexto(entrada);
+                } catch (EOFException fim) {
+                    break;
+                }
+                DestinoRedirecionamento destino =
+                        new DestinoRedirecionamento(new CodigoCurto(codigo), lerTexto(entrada), entrada.readLong());
+                if (!destino.isExpirado(agoraMs) && repositorioEmCache.aquecer(destino)) {
+                    carregados++;
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Snapshot do cache quente inválido ({}); {} destinos aproveitados.", e.getMessage(), carregados);
+        }
+        return carregados;
+    }
+
+    // Location já é ASCII; comprimento em int porque writeUTF limita a 64 KB
+    private static void escreverTexto(DataOutputStream saida, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.ISO_8859_1);
+        saida.writeInt(bytes.length);
+        saida.write(bytes);
+    }
+
+    private static String lerTexto(DataInputStream entrada) throws IOException {
+        int tamanho = entrada.readInt();
+        if (tamanho < 0 || tamanho > 1 << 20) {
+            throw new IOException("tamanho de texto inválido: " + tamanho);
+        }
+        return new String(entrada.readNBytes(tamanho), StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,276 @@
+package oliveiradev.encurtador_url.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.expiracao.AgendadorExpiracao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToLongFunction;
+
+// Decorator com cache L1 em processo (Caffeine / W-TinyLFU) para a resolução por código curto.
+// O tempo de vida de cada entrada é limitado pela dataExpiracao do mapeamento, nunca servindo um link expirado.
+// Entradas que vencem antes do TTL padrão também são agendadas no AgendadorExpiracao e saem no vencimento.
+// Redirecionamentos que não acham a entidade em cache carregam só a projeção, guardada num cache próprio.
+public class MapeamentoUrlRepositoryEmCache implements MapeamentoUrlRepository {
+    private static final Logger log = LoggerFactory.getLogger(MapeamentoUrlRepositoryEmCache.class);
+
+    private final MapeamentoUrlRepository delegado;
+    private final Cache<String, MapeamentoUrl> cache;
+    private final Cache<String, DestinoRedirecionamento> destinos;
+    private final Cache<Long, List<String>> codigosPorImpressaoDigital; // Pequeno cache na frente da deduplicação
+    private final AgendadorExpiracao agendador; // Nulo: a expiração fica só por conta do Caffeine
+    private final long ttlPadraoMs;
+    private final ObjLongConsumer<String> removerSeExpirado = this::removerSeExpirado;
+
+    public MapeamentoUrlRepositoryEmCache(MapeamentoUrlRepository delegado, long tamanhoMaximo, Duration ttlPadrao) {
+        this(delegado, tamanhoMaximo, ttlPadrao, 10_000);
+    }
+
+    public MapeamentoUrlRepositoryEmCache(MapeamentoUrlRepository delegado, long tamanhoMaximo, Duration ttlPadrao,
+                                          long tamanhoMaximoImpressoesDigitais) {
+        this(delegado, tamanhoMaximo, ttlPadrao, tamanhoMaximoImpressoesDigitais, null);
+    }
+
+    public MapeamentoUrlRepositoryEmCache(MapeamentoUrlRepository delegado, long tamanhoMaximo, Duration ttlPadrao,
+                                          long tamanhoMaximoImpressoesDigitais, AgendadorExpiracao agendador) {
+        this.delegado = delegado;
+        this.agendador = agendador;
+        this.ttlPadraoMs = ttlPadrao.toMillis();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiracaoLimitada<MapeamentoUrl>(ttlPadrao,
+                        mapeamento -> mapeamento.getDestinoRedirecionamento().getExpiraEmMs()))
+                .recordStats()
+                .build();
+        this.destinos = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiracaoLimitada<>(ttlPadrao, DestinoRedirecionamento::getExpiraEmMs))
+                .recordStats()
+                .build();
+        this.codigosPorImpressaoDigital = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoImpressoesDigitais)
+                .expireAfterWrite(ttlPadrao)
+                .recordStats()
+                .build();
+    }
+
+    public Cache<String, MapeamentoUrl> getCache() {
+        return cache;
+    }
+
+    public Cache<String, DestinoRedirecionamento> getCacheDestinos() {
+        return destinos;
+    }
+
+    public Cache<Long, List<String>> getCacheImpressoesDigitais() {
+        return codigosPorImpressaoDigital;
+    }
+
+    @Override
+    public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
+        MapeamentoUrl salvo = delegado.salvar(mapeamentoUrl);
+        armazenar(salvo);
+        if (salvo.getImpressaoDigitalUrl() != null) {
+            codigosPorImpressaoDigital.invalidate(salvo.getImpressaoDigitalUrl()); // A lista de candidatos mudou
+        }
+        return salvo;
+    }
+
+    @Override
+    public ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos) {
+        // Não aquece o cache: lotes grandes expulsariam o conjunto quente
+        ResultadoInsercaoLote resultado = delegado.inserirEmLote(mapeamentos);
+        for (MapeamentoUrl mapeamento : mapeamentos) {
+            if (mapeamento.getImpressaoDigitalUrl() != null) {
+                codigosPorImpressaoDigital.invalidate(mapeamento.getImpressaoDigitalUrl());
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) {
+        MapeamentoUrl emCache = cache.getIfPresent(codigoCurto.getValor());
+        if (emCache != null) {
+            log.trace("Cache L1: acerto para o código curto {}", codigoCurto.getValor());
+            return Optional.of(emCache);
+        }
+        Optional<MapeamentoUrl> encontrado = delegado.buscarPorCodigoCurto(codigoCurto);
+        encontrado.ifPresent(this::armazenar);
+        return encontrado;
+    }
+
+    @Override
+    public Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        DestinoRedirecionamento emCache = buscarDestinoEmCache(codigoCurto.getValor());
+        if (emCache != null) {
+            return Optional.of(emCache);
+        }
+        Optional<DestinoRedirecionamento> encontrado = delegado.buscarDestinoRedirecionamento(codigoCurto);
+        encontrado.ifPresent(this::armazenarDestino);
+        return encontrado;
+    }
+
+    @Override
+    public DestinoRedirecionamento buscarDestinoEmCache(String codigoCurto) {
+        MapeamentoUrl mapeamento = cache.getIfPresent(codigoCurto);
+        return mapeamento != null ? mapeamento.getDestinoRedirecionamento() : destinos.getIfPresent(codigoCurto);
+    }
+
+    @Override
+    public boolean existeCodigoCurto(CodigoCurto codigoCurto) {
+        return cache.getIfPresent(codigoCurto.getValor()) != null || delegado.existeCodigoCurto(codigoCurto);
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorUrlOriginal(UrlOriginal urlOriginal) {
+        return delegado.buscarPorUrlOriginal(urlOriginal);
+    }
+
+    @Override
+    public List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl) {
+        List<String> codigos = codigosPorImpressaoDigital.getIfPresent(impressaoDigitalUrl);
+        if (codigos != null) {
+            List<MapeamentoUrl> mapeamentos = new ArrayList<>(codigos.size());
+            for (String codigo : codigos) {
+                buscarPorCodigoCurto(new CodigoCurto(codigo)).ifPresent(mapeamentos::add);
+            }
+            return mapeamentos;
+        }
+        List<MapeamentoUrl> mapeamentos = delegado.buscarPorImpressaoDigital(impressaoDigitalUrl);
+        List<String> codigosEncontrados = new ArrayList<>(mapeamentos.size());
+        for (MapeamentoUrl mapeamento : mapeamentos) {
+            codigosEncontrados.add(mapeamento.getCodigoCurto().getValor());
+            armazenar(mapeamento);
+        }
+        codigosPorImpressaoDigital.put(impressaoDigitalUrl, List.copyOf(codigosEncontrados));
+        return mapeamentos;
+    }
+
+    @Override
+    public void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos) {
+        // O contador nas entradas em cache fica defasado até a próxima carga; ele já é eventualmente consistente.
+        delegado.incrementarContadoresAcesso(incrementos);
+    }
+
+    @Override
+    public void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor) {
+        delegado.percorrerCodigosCurtos(criadosDesde, consumidor);
+    }
+
+    @Override
+    public int removerExpirados(LocalDateTime expiradosAntesDe, int limite) {
+        return delegado.removerExpirados(expiradosAntesDe, limite); // As entradas em cache já saem no vencimento
+    }
+
+    // Pré-carga (aquecimento): não sobrescreve o que já chegou por uma busca real. Retorna se armazenou.
+    public boolean aquecer(DestinoRedirecionamento destino) {
+        String codigo = destino.getCodigoCurto().getValor();
+        if (!destino.isValido() || cache.getIfPresent(codigo) != null || destinos.getIfPresent(codigo) != null) {
+            return false;
+        }
+        armazenarDestino(destino);
+        return true;
+    }
+
+    // Destinos das entradas mais frequentes segundo o próprio W-TinyLFU, das duas camadas, para o snapshot.
+    public List<DestinoRedirecionamento> destinosMaisQuentes(int limite) {
+        List<DestinoRedirecionamento> quentes = new ArrayList<>(limite);
+        cache.policy().eviction().ifPresent(politica -> politica.hottest(limite).values()
+                .forEach(mapeamento -> quentes.add(mapeamento.getDestinoRedirecionamento())));
+        destinos.policy().eviction().ifPresent(politica ->
+                quentes.addAll(politica.hottest(Math.max(0, limite - quentes.size())).values()));
+        return quentes;
+    }
+
+    public void invalidar(CodigoCurto codigoCurto) {
+        cache.invalidate(codigoCurto.getValor());
+        destinos.invalidate(codigoCurto.getValor());
+    }
+
+    public void invalidarTudo() {
+        cache.invalidateAll();
+        destinos.invalidateAll();
+        codigosPorImpressaoDigital.invalidateAll();
+    }
+
+    private void armazenar(MapeamentoUrl mapeamento) {
+        DestinoRedirecionamento destino = mapeamento.getDestinoRedirecionamento();
+        long agoraMs = System.currentTimeMillis();
+        if (destino.isExpirado(agoraMs)) {
+            return; // Não ocupa espaço com links que já não podem ser servidos
+        }
+        String codigo = mapeamento.getCodigoCurto().getValor();
+        cache.put(codigo, mapeamento);
+        destinos.invalidate(codigo); // A entidade completa já responde pelos redirecionamentos
+        agendarSeVencerAntesDoTtl(codigo, destino.getExpiraEmMs(), agoraMs);
+    }
+
+    private void armazenarDestino(DestinoRedirecionamento destino) {
+        long agoraMs = System.currentTimeMillis();
+        if (destino.isExpirado(agoraMs)) {
+            return;
+        }
+        String codigo = destino.getCodigoCurto().getValor();
+        destinos.put(codigo, destino);
+        agendarSeVencerAntesDoTtl(codigo, destino.getExpiraEmMs(), agoraMs);
+    }
+
+    private void agendarSeVencerAntesDoTtl(String codigo, long expiraEmMs, long agoraMs) {
+        if (agendador != null && expiraEmMs - agoraMs < ttlPadraoMs) {
+            agendador.agendar(codigo, expiraEmMs, removerSeExpirado);
+        }
+    }
+
+    private void removerSeExpirado(String codigo, long agoraMs) {
+        cache.asMap().computeIfPresent(codigo, (chave, mapeamento) ->
+                mapeamento.getDestinoRedirecionamento().isExpirado(agoraMs) ? null : mapeamento);
+        destinos.asMap().computeIfPresent(codigo, (chave, destino) -> destino.isExpirado(agoraMs) ? null : destino);
+    }
+
+    private static final class ExpiracaoLimitada<V> implements Expiry<String, V> {
+        private final long ttlPadraoNanos;
+        private final ToLongFunction<V> expiraEmMs;
+
+        private ExpiracaoLimitada(Duration ttlPadrao, ToLongFunction<V> expiraEmMs) {
+            this.ttlPadraoNanos = ttlPadrao.toNanos();
+            this.expiraEmMs = expiraEmMs;
+        }
+
+        @Override
+        public long expireAfterCreate(String chave, V valor, long tempoAtual) {
+            long msAteExpirar = expiraEmMs.applyAsLong(valor) - System.currentTimeMillis(); // SEM_EXPIRACAO não transborda
+            if (msAteExpirar >= TimeUnit.NANOSECONDS.toMillis(ttlPadraoNanos)) {
+                return ttlPadraoNanos;
+            }
+            return Math.max(0L, TimeUnit.MILLISECONDS.toNanos(msAteExpirar));
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, V valor, long tempoAtual, long duracaoAtual) {
+            return expireAfterCreate(chave, valor, tempoAtual);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, V valor, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package oliveiradev.encurtador_url.infra.cache;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.expiracao.AgendadorExpiracao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+// Decorator mais externo: os códigos quentes apontados pelo RastreadorCodigosPopulares ficam fixados aqui, fora do
+// Caffeine, então nunca disputam evicção com a cauda longa. O destino de redirecionamento já vem pré-calculado.
+public class MapeamentoUrlRepositoryFixado implements MapeamentoUrlRepository {
+    private static final Logger log = LoggerFactory.getLogger(MapeamentoUrlRepositoryFixado.class);
+
+    private final MapeamentoUrlRepository delegado;
+    private final Map<String, MapeamentoUrl> fixados = new ConcurrentHashMap<>();
+    private final AgendadorExpiracao agendador; // Nulo: códigos expirados só saem quando consultados ou desafixados
+    private final ObjLongConsumer<String> removerSeExpirado = this::removerSeExpirado;
+
+    public MapeamentoUrlRepositoryFixado(MapeamentoUrlRepository delegado) {
+        this(delegado, null);
+    }
+
+    public MapeamentoUrlRepositoryFixado(MapeamentoUrlRepository delegado, AgendadorExpiracao agendador) {
+        this.delegado = delegado;
+        this.agendador = agendador;
+    }
+
+    // Deixa fixados exatamente os códigos informados, carregando os novos pelo delegado.
+    public void fixarSomente(Set<String> codigos) {
+        fixados.keySet().retainAll(codigos);
+        for (String codigo : codigos) {
+            if (!fixados.containsKey(codigo)) {
+                delegado.buscarPorCodigoCurto(new CodigoCurto(codigo)).ifPresent(this::fixar);
+            }
+        }
+    }
+
+    // Alteração vinda de outro nó: recarrega o código se estiver fixado (ou o desafixa, se sumiu).
+    public void recarregar(CodigoCurto codigoCurto) {
+        String codigo = codigoCurto.getValor();
+        if (fixados.containsKey(codigo)) {
+            delegado.buscarPorCodigoCurto(codigoCurto).ifPresentOrElse(this::fixar, () -> fixados.remove(codigo));
+        }
+    }
+
+    public Set<String> codigosFixados() {
+        return Set.copyOf(fixados.keySet());
+    }
+
+    public int tamanho() {
+        return fixados.size();
+    }
+
+    @Override
+    public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
+        MapeamentoUrl salvo = delegado.salvar(mapeamentoUrl);
+        if (fixados.containsKey(salvo.getCodigoCurto().getValor())) {
+            fixar(salvo);
+        }
+        return salvo;
+    }
+
+    @Override
+    public ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos) {
+        return delegado.inserirEmLote(mapeamentos);
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) {
+        MapeamentoUrl fixado = vigente(codigoCurto.getValor());
+        return fixado != null ? Optional.of(fixado) : delegado.buscarPorCodigoCurto(codigoCurto);
+    }
+
+    @Override
+    public Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        MapeamentoUrl fixado = vigente(codigoCurto.getValor());
+        return fixado != null
+                ? Optional.of(fixado.getDestinoRedirecionamento())
+                : delegado.buscarDestinoRedirecionamento(codigoCurto);
+    }
+
+    @Override
+    public DestinoRedirecionamento buscarDestinoEmCache(String codigoCurto) {
+        MapeamentoUrl fixado = vigente(codigoCurto);
+        return fixado != null ? fixado.getDestinoRedirecionamento() : delegado.buscarDestinoEmCache(codigoCurto);
+    }
+
+    @Override
+    public boolean existeCodigoCurto(CodigoCurto codigoCurto) {
+        return fixados.containsKey(codigoCurto.getValor()) || delegado.existeCodigoCurto(codigoCurto);
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorUrlOriginal(UrlOriginal urlOriginal) {
+        return delegado.buscarPorUrlOriginal(urlOriginal);
+    }
+
+    @Override
+    public List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl) {
+        return delegado.buscarPorImpressaoDigital(impressaoDigitalUrl);
+    }
+
+    @Override
+    public void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos) {
+        // Como no cache L1, o contador das entradas fixadas fica defasado até o código ser fixado de novo.
+        delegado.incrementarContadoresAcesso(incrementos);
+    }
+
+    @Override
+    public void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor) {
+        delegado.percorrerCodigosCurtos(criadosDesde, consumidor);
+    }
+
+    @Override
+    public int removerExpirados(LocalDateTime expiradosAntesDe, int limite) {
+        return delegado.removerExpirados(expiradosAntesDe, limite);
+    }
+
+    private void fixar(MapeamentoUrl mapeamento) {
+        String codigo = mapeamento.getCodigoCurto().getValor();
+        if (mapeamento.isExpirado(LocalDateTime.now())) {
+            fixados.remove(codigo);
+            return;
+        }
+        if (!mapeamento.getDestinoRedirecionamento().isValido()) {
+            log.warn("Código quente '{}' não fixado: URL de destino malformada.", codigo);
+            return;
+        }
+        fixados.put(codigo, mapeamento);
+        long expiraEmMs = mapeamento.getDestinoRedirecionamento().getExpiraEmMs();
+        if (agendador != null && expiraEmMs != DestinoRedirecionamento.SEM_EXPIRACAO) {
+            agendador.agendar(codigo, expiraEmMs, removerSeExpirado);
+        }
+        log.debug("Código quente '{}' fixado.", codigo);
+    }
+
+    private void removerSeExpirado(String codigo, long agoraMs) {
+        fixados.computeIfPresent(codigo, (chave, mapeamento) ->
+                mapeamento.getDestinoRedirecionamento().isExpirado(agoraMs) ? null : mapeamento);
+    }
+
+    private MapeamentoUrl vigente(String codigo) {
+        MapeamentoUrl fixado = fixados.get(codigo);
+        if (fixado == null) {
+            return null;
+        }
+        if (fixado.getDestinoRedirecionamento().isExpirado(System.currentTimeMillis())) {
+            fixados.remove(codigo, fixado);
+            return null;
+        }
+        return fixado;
+    }
+}
@@ -0,0 +1,91 @@
+package oliveiradev.encurtador_url.infra.cliques;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Buffer circular limitado, sem trava, com vários produtores (threads de requisição) e um único consumidor.
+// Os slots são vetores paralelos pré-alocados: publicar um clique não cria objetos. Cada slot tem uma sequência
+// (esquema de Vyukov) que indica se está livre para a volta atual do produtor ou pronto para o consumidor.
+// Cheio, oferecer() devolve false na hora; quem publica decide descartar.
+class BufferCliques {
+    private final int mascara;
+    private final AtomicLongArray sequencias;
+    private final long[] instantes;
+    private final String[] codigos;
+    private final String[] referenciadores;
+    private final String[] agentes;
+    private final String[] enderecos;
+    private final AtomicLong cauda = new AtomicLong(); // Próxima posição a ser reservada pelos produtores
+    private long cabeca; // Próxima posição a ser lida; só o consumidor escreve
+
+    @FunctionalInterface
+    interface Consumidor {
+        void aceitar(long instanteMs, String codigo, String referenciador, String agente, String endereco);
+    }
+
+    BufferCliques(int capacidadeMinima) {
+        int capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1)) << 1; // Potência de 2
+        this.mascara = capacidade - 1;
+        this.sequencias = new AtomicLongArray(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+        this.instantes = new long[capacidade];
+        this.codigos = new String[capacidade];
+        this.referenciadores = new String[capacidade];
+        this.agentes = new String[capacidade];
+        this.enderecos = new String[capacidade];
+    }
+
+    boolean oferecer(long instanteMs, String codigo, String referenciador, String agente, String endereco) {
+        long posicao = cauda.get();
+        while (true) {
+            int indice = (int) (posicao & mascara);
+            long diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    instantes[indice] = instanteMs;
+                    codigos[indice] = codigo;
+                    referenciadores[indice] = referenciador;
+                    agentes[indice] = agente;
+                    enderecos[indice] = endereco;
+                    sequencias.set(indice, posicao + 1); // Publica o slot para o consumidor (escrita volátil)
+                    return true;
+                }
+                posicao = cauda.get();
+            } else if (diferenca < 0) {
+                return false; // O consumidor ainda não liberou este slot: buffer cheio
+            } else {
+                posicao = cauda.get(); // Outro produtor reservou a posição; tenta a seguinte
+            }
+        }
+    }
+
+    // Só pode ser chamado pela thread consumidora.
+    int drenar(Consumidor consumidor, int maximo) {
+        int lidos = 0;
+        while (lidos < maximo) {
+            int indice = (int) (cabeca & mascara);
+            if (sequencias.get(indice) != cabeca + 1) {
+                break; // Slot ainda não publicado
+            }
+            consumidor.aceitar(instantes[indice], codigos[indice], referenciadores[indice], agentes[indice], enderecos[indice]);
+            codigos[indice] = null; // Não retém as strings da requisição até a próxima volta
+            referenciadores[indice] = null;
+            agentes[indice] = null;
+            enderecos[indice] = null;
+            sequencias.set(indice, cabeca + mascara + 1); // Libera o slot para a próxima volta dos produtores
+            cabeca++;
+            lidos++;
+        }
+        return lidos;
+    }
+
+    int capacidade() {
+        return mascara + 1;
+    }
+
+    long ocupacao() {
+        return Math.max(0, cauda.get() - cabeca);
+    }
+}
@@ -0,0 +1,160 @@
+package oliveiradev.encurtador_url.infra.cliques;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.EventoClique;
+import oliveiradev.encurtador_url.domain.model.OrigemAcesso;
+import oliveiradev.encurtador_url.domain.repository.EventoCliqueRepository;
+import oliveiradev.encurtador_url.domain.service.RegistroCliquesService;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import oliveiradev.encurtador_url.infra.estatisticas.AgregadorEstatisticasCliques;
+import oliveiradev.encurtador_url.infra.estatisticas.ContadorVisitantesUnicos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// O redirecionamento só grava o clique no BufferCliques; uma thread consumidora agrupa os eventos,
+// anonimiza o IP e insere em lote na coleção "cliques". Buffer cheio ou banco com falha descartam cliques
+// (contados em encurtador.cliques.descartados), nunca seguram a resposta do redirecionamento.
+// A mesma thread alimenta os rollups por minuto/hora/dia e os sketches de visitantes únicos.
+@Component
+public class PipelineCliques implements RegistroCliquesService {
+    private static final Logger log = LoggerFactory.getLogger(PipelineCliques.class);
+    private static final int TAMANHO_MAXIMO_TEXTO = 512;
+
+    private final BufferCliques buffer;
+    private final EventoCliqueRepository eventoCliqueRepository;
+    private final AgregadorEstatisticasCliques agregadorEstatisticas;
+    private final ContadorVisitantesUnicos contadorVisitantes;
+    private final FabricaThreads fabricaThreads;
+    private final int tamanhoLote;
+    private final long intervaloMaximoNanos;
+    private final long esperaOciosaNanos;
+    private final Counter publicados;
+    private final Counter descartadosBufferCheio;
+    private final Counter descartadosFalhaPersistencia;
+    private final Counter persistidos;
+
+    private volatile boolean ativo;
+    private volatile Thread consumidor;
+
+    @Autowired
+    public PipelineCliques(EventoCliqueRepository eventoCliqueRepository,
+                           AgregadorEstatisticasCliques agregadorEstatisticas,
+                           ContadorVisitantesUnicos contadorVisitantes,
+                           FabricaThreads fabricaThreads,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.cliques.capacidade-buffer:65536}") int capacidadeBuffer,
+                           @Value("${app.cliques.tamanho-lote:1000}") int tamanhoLote,
+                           @Value("${app.cliques.intervalo-maximo-ms:1000}") long intervaloMaximoMs,
+                           @Value("${app.cliques.espera-ociosa-ms:5}") long esperaOciosaMs) {
+        this.buffer = new BufferCliques(capacidadeBuffer);
+        this.eventoCliqueRepository = eventoCliqueRepository;
+        this.agregadorEstatisticas = agregadorEstatisticas;
+        this.contadorVisitantes = contadorVisitantes;
+        this.fabricaThreads = fabricaThreads;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMaximoNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMaximoMs);
+        this.esperaOciosaNanos = TimeUnit.MILLISECONDS.toNanos(esperaOciosaMs);
+        this.publicados = Counter.builder("encurtador.cliques.publicados").register(meterRegistry);
+        this.persistidos = Counter.builder("encurtador.cliques.persistidos").register(meterRegistry);
+        this.descartadosBufferCheio = Counter.builder("encurtador.cliques.descartados")
+                .tag("motivo", "buffer_cheio").register(meterRegistry);
+        this.descartadosFalhaPersistencia = Counter.builder("encurtador.cliques.descartados")
+                .tag("motivo", "falha_persistencia").register(meterRegistry);
+        Gauge.builder("encurtador.cliques.buffer.ocupacao", buffer, BufferCliques::ocupacao).register(meterRegistry);
+        Gauge.builder("encurtador.cliques.buffer.capacidade", buffer, BufferCliques::capacidade).register(meterRegistry);
+    }
+
+    @Override
+    public void registrarClique(CodigoCurto codigoCurto, OrigemAcesso origem) {
+        registrarClique(codigoCurto, origem.getReferenciador(), origem.getAgenteUsuario(), origem.getEnderecoCliente());
+    }
+
+    @Override
+    public void registrarClique(CodigoCurto codigoCurto, String referenciador, String agenteUsuario,
+                                String enderecoCliente) {
+        if (buffer.oferecer(System.currentTimeMillis(), codigoCurto.getValor(),
+                referenciador, agenteUsuario, enderecoCliente)) {
+            publicados.increment();
+        } else {
+            descartadosBufferCheio.increment();
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        ativo = true;
+        consumidor = fabricaThreads.iniciar("cliques-consumidor", this::consumir);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        ativo = false;
+        Thread thread = consumidor;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void consumir() {
+        List<EventoClique> lote = new ArrayList<>(tamanhoLote);
+        BufferCliques.Consumidor paraLote = (instanteMs, codigo, referenciador, agente, endereco) -> {
+            Instant instante = Instant.ofEpochMilli(instanteMs);
+            agregadorEstatisticas.registrar(codigo, instante);
+            contadorVisitantes.registrar(codigo, instante, endereco, agente); // Antes do IP ser truncado
+            lote.add(new EventoClique(instante, codigo, truncar(referenciador), truncar(agente), PrefixoIp.de(endereco)));
+        };
+        long inicioLote = System.nanoTime();
+
+        while (ativo) {
+            int lidos = buffer.drenar(paraLote, tamanhoLote - lote.size());
+            boolean loteCheio = lote.size() >= tamanhoLote;
+            boolean prazoEsgotado = !lote.isEmpty() && System.nanoTime() - inicioLote >= intervaloMaximoNanos;
+            if (loteCheio || prazoEsgotado) {
+                persistir(lote);
+                inicioLote = System.nanoTime();
+            } else if (lidos == 0) {
+                LockSupport.parkNanos(esperaOciosaNanos);
+            }
+        }
+
+        // Encerramento: esvazia o que restou no buffer
+        while (buffer.drenar(paraLote, tamanhoLote - lote.size()) > 0 || !lote.isEmpty()) {
+            persistir(lote);
+        }
+    }
+
+    private void persistir(List<EventoClique> lote) {
+        try {
+            eventoCliqueRepository.inserirEmLote(lote);
+            persistidos.increment(lote.size());
+        } catch (RuntimeException e) {
+            // Análise de cliques é best-effort: reter o lote acumularia memória enquanto o banco está fora.
+            descartadosFalhaPersistencia.increment(lote.size());
+            log.warn("Falha ao gravar lote de {} cliques; lote descartado: {}", lote.size(), e.getMessage());
+        }
+        lote.clear();
+    }
+
+    private static String truncar(String valor) {
+        return valor == null || valor.length() <= TAMANHO_MAXIMO_TEXTO ? valor : valor.substring(0, TAMANHO_MAXIMO_TEXTO);
+    }
+}
@@ -0,0 +1,30 @@
+package oliveiradev.encurtador_url.infra.cliques;
+
+// Reduz o endereço do cliente a um prefixo de rede (/24 em IPv4, /48 em IPv6) antes de gravar o clique.
+final class PrefixoIp {
+
+    private PrefixoIp() {
+    }
+
+    static String de(String endereco) {
+        if (endereco == null || endereco.isBlank()) {
+            return null;
+        }
+        if (endereco.indexOf(':') < 0) {
+            int ultimoPonto = endereco.lastIndexOf('.');
+            return ultimoPonto < 0 ? null : endereco.substring(0, ultimoPonto) + ".0/24";
+        }
+        String semZona = endereco.contains("%") ? endereco.substring(0, endereco.indexOf('%')) : endereco;
+        String[] grupos = semZona.split(":", -1);
+        StringBuilder prefixo = new StringBuilder();
+        int usados = 0;
+        for (String grupo : grupos) {
+            if (usados == 3 || grupo.isEmpty()) {
+                break; // Grupos abreviados por "::" são zeros
+            }
+            prefixo.append(usados > 0 ? ":" : "").append(grupo);
+            usados++;
+        }
+        return prefixo.append("::/48").toString();
+    }
+}
@@ -0,0 +1,156 @@
+package oliveiradev.encurtador_url.infra.coalescencia;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Decorator "single flight" para as buscas por código curto (entidade e destino de redirecionamento, cada uma com
+// seu mapa): com várias falhas de cache simultâneas para o mesmo código, só a primeira thread vai ao banco e as
+// demais aguardam o mesmo resultado (ou a mesma exceção).
+// A espera das seguidoras é limitada; a líder obedece apenas aos timeouts do próprio driver.
+public class MapeamentoUrlRepositoryCoalescido implements MapeamentoUrlRepository {
+    private static final Logger log = LoggerFactory.getLogger(MapeamentoUrlRepositoryCoalescido.class);
+
+    private final MapeamentoUrlRepository delegado;
+    private final long tempoMaximoEsperaNanos;
+    private final Map<CodigoCurto, CompletableFuture<Optional<MapeamentoUrl>>> mapeamentosEmAndamento =
+            new ConcurrentHashMap<>();
+    private final Map<CodigoCurto, CompletableFuture<Optional<DestinoRedirecionamento>>> destinosEmAndamento =
+            new ConcurrentHashMap<>();
+    private final LongAdder buscasCompartilhadas = new LongAdder();
+
+    public MapeamentoUrlRepositoryCoalescido(MapeamentoUrlRepository delegado, Duration tempoMaximoEspera) {
+        this.delegado = delegado;
+        this.tempoMaximoEsperaNanos = tempoMaximoEspera.toNanos();
+    }
+
+    // Buscas atendidas pelo resultado de outra thread, sem ida própria ao banco.
+    public long getBuscasCompartilhadas() {
+        return buscasCompartilhadas.sum();
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) {
+        return coalescer(mapeamentosEmAndamento, codigoCurto, delegado::buscarPorCodigoCurto);
+    }
+
+    @Override
+    public Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        return coalescer(destinosEmAndamento, codigoCurto, delegado::buscarDestinoRedirecionamento);
+    }
+
+    @Override
+    public DestinoRedirecionamento buscarDestinoEmCache(String codigoCurto) {
+        return delegado.buscarDestinoEmCache(codigoCurto);
+    }
+
+    private <T> Optional<T> coalescer(Map<CodigoCurto, CompletableFuture<Optional<T>>> emAndamento,
+                                      CodigoCurto codigoCurto, Function<CodigoCurto, Optional<T>> busca) {
+        CompletableFuture<Optional<T>> propria = new CompletableFuture<>();
+        CompletableFuture<Optional<T>> existente = emAndamento.putIfAbsent(codigoCurto, propria);
+        if (existente == null) {
+            return buscarComoLider(emAndamento, codigoCurto, propria, busca);
+        }
+        buscasCompartilhadas.increment();
+        return aguardar(codigoCurto, existente);
+    }
+
+    private <T> Optional<T> buscarComoLider(Map<CodigoCurto, CompletableFuture<Optional<T>>> emAndamento,
+                                            CodigoCurto codigoCurto, CompletableFuture<Optional<T>> propria,
+                                            Function<CodigoCurto, Optional<T>> busca) {
+        try {
+            Optional<T> encontrado = busca.apply(codigoCurto);
+            propria.complete(encontrado);
+            return encontrado;
+        } catch (RuntimeException | Error e) {
+            propria.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(codigoCurto, propria); // A próxima falha de cache faz uma busca nova
+        }
+    }
+
+    private <T> Optional<T> aguardar(CodigoCurto codigoCurto, CompletableFuture<Optional<T>> existente) {
+        try {
+            return existente.get(tempoMaximoEsperaNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Tempo esgotado aguardando a busca em andamento do código curto '{}'.", codigoCurto.getValor());
+            throw new QueryTimeoutException("Tempo esgotado aguardando a busca em andamento do código curto '"
+                    + codigoCurto.getValor() + "'.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrompido aguardando a busca do código curto '"
+                    + codigoCurto.getValor() + "'.", e);
+        } catch (ExecutionException e) {
+            // Mesma exceção da líder, para que os tratadores acima vejam o tipo original (ex.: DataAccessException)
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error erro) {
+                throw erro;
+            }
+            throw new IllegalStateException(causa);
+        }
+    }
+
+    @Override
+    public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
+        return delegado.salvar(mapeamentoUrl);
+    }
+
+    @Override
+    public ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos) {
+        return delegado.inserirEmLote(mapeamentos);
+    }
+
+    @Override
+    public boolean existeCodigoCurto(CodigoCurto codigoCurto) {
+        return delegado.existeCodigoCurto(codigoCurto);
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorUrlOriginal(UrlOriginal urlOriginal) {
+        return delegado.buscarPorUrlOriginal(urlOriginal);
+    }
+
+    @Override
+    public List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl) {
+        return delegado.buscarPorImpressaoDigital(impressaoDigitalUrl);
+    }
+
+    @Override
+    public void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos) {
+        delegado.incrementarContadoresAcesso(incrementos);
+    }
+
+    @Override
+    public void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor) {
+        delegado.percorrerCodigosCurtos(criadosDesde, consumidor);
+    }
+
+    @Override
+    public int removerExpirados(LocalDateTime expiradosAntesDe, int limite) {
+        return delegado.removerExpirados(expiradosAntesDe, limite);
+    }
+}
@@ -0,0 +1,93 @@
+package oliveiradev.encurtador_url.infra.concorrencia;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Acumula incrementos por chave em contadores listrados (LongAdder) para descarga periódica.
+// O delta só é marcado como descarregado após confirmar(), então falhas de escrita são reenviadas no ciclo seguinte.
+// Espera um único descarregador por vez; os incrementos podem vir de qualquer thread.
+public class AcumuladorDeltas<K> {
+    private final ConcurrentHashMap<K, Contador> contadores = new ConcurrentHashMap<>();
+
+    public void incrementar(K chave) {
+        incrementar(chave, 1L);
+    }
+
+    public void incrementar(K chave, long quantidade) {
+        Contador contador = contadores.get(chave); // Caminho rápido sem alocação para chaves já presentes
+        if (contador == null) {
+            contador = contadores.computeIfAbsent(chave, k -> new Contador());
+        }
+        contador.total.add(quantidade);
+        if (contador.retirado) {
+            // O descarregador removeu a chave entre o get e o add: o que ficou no contador antigo vai para o atual.
+            long residual = contador.reivindicarResidual();
+            if (residual != 0L) {
+                incrementar(chave, residual);
+            }
+        }
+    }
+
+    public long pendente(K chave) {
+        Contador contador = contadores.get(chave);
+        return contador == null ? 0L : contador.pendente();
+    }
+
+    public Map<K, Long> coletarPendentes() {
+        Map<K, Long> pendentes = new HashMap<>();
+        contadores.forEach((chave, contador) -> {
+            long delta = contador.pendente();
+            if (delta != 0L) {
+                pendentes.put(chave, delta);
+            } else if (contadores.remove(chave, contador)) {
+                // Chave ociosa: remove para não crescer indefinidamente. Um incremento que ainda chegue ao contador
+                // removido é devolvido ao mapa por quem reivindicar o residual primeiro: o descarregador aqui ou o
+                // próprio incrementador, que vê retirado depois do add.
+                contador.retirado = true;
+                long residual = contador.reivindicarResidual();
+                if (residual != 0L) {
+                    incrementar(chave, residual);
+                }
+            }
+        });
+        return pendentes;
+    }
+
+    public void confirmar(Map<K, Long> descarregados) {
+        descarregados.forEach((chave, delta) -> {
+            Contador contador = contadores.get(chave);
+            if (contador != null) {
+                contador.confirmado += delta;
+            }
+        });
+    }
+
+    public int tamanho() {
+        return contadores.size();
+    }
+
+    private static final class Contador {
+        private final LongAdder total = new LongAdder();
+        private volatile long confirmado; // Escrito apenas pelo descarregador
+        private volatile boolean retirado; // Já removido do mapa
+        private final AtomicLong devolvido = new AtomicLong(); // Residual já levado ao contador atual
+
+        private long pendente() {
+            return total.sum() - confirmado;
+        }
+
+        // O CAS em devolvido faz cada unidade do residual ser devolvida uma única vez, por qualquer thread.
+        private long reivindicarResidual() {
+            while (true) {
+                long jaDevolvido = devolvido.get();
+                long residual = pendente() - jaDevolvido;
+                if (residual == 0L || devolvido.compareAndSet(jaDevolvido, jaDevolvido + residual)) {
+                    return residual;
+                }
+            }
+        }
+    }
+}
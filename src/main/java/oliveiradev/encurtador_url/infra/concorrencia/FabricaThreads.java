@@ -0,0 +1,41 @@
+package oliveiradev.encurtador_url.infra.concorrencia;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Ponto único de criação das threads internas (cargas em segundo plano, aquecimento, descargas).
+// Segue spring.threads.virtual.enabled, a mesma chave que coloca Tomcat e @Scheduled em threads virtuais.
+// Código executado nessas threads deve usar ReentrantLock em vez de synchronized em trechos com I/O (pinning).
+@Component
+public class FabricaThreads {
+    private final boolean virtuais;
+
+    @Autowired
+    public FabricaThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtuais) {
+        this.virtuais = virtuais;
+    }
+
+    public boolean isVirtuais() {
+        return virtuais;
+    }
+
+    public Thread iniciar(String nome, Runnable tarefa) {
+        return virtuais
+                ? Thread.ofVirtual().name(nome).start(tarefa)
+                : Thread.ofPlatform().name(nome).daemon().start(tarefa);
+    }
+
+    // Uma thread por tarefa: com threads virtuais não há pool a dimensionar; quem precisa limitar o paralelismo
+    // (ex.: conexões ao banco) deve usar um Semaphore, não o tamanho do executor.
+    public ExecutorService novoExecutor(String prefixo) {
+        ThreadFactory fabrica = virtuais
+                ? Thread.ofVirtual().name(prefixo + "-", 0).factory()
+                : Thread.ofPlatform().name(prefixo + "-", 0).daemon().factory();
+        return Executors.newThreadPerTaskExecutor(fabrica);
+    }
+}
@@ -0,0 +1,75 @@
+package oliveiradev.encurtador_url.infra.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryEmCache;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryFixado;
+import oliveiradev.encurtador_url.infra.coalescencia.MapeamentoUrlRepositoryCoalescido;
+import oliveiradev.encurtador_url.infra.expiracao.AgendadorExpiracao;
+import oliveiradev.encurtador_url.infra.filtro.FiltroCodigosEmitidos;
+import oliveiradev.encurtador_url.infra.filtro.MapeamentoUrlRepositoryFiltrado;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+// Monta a cadeia de decorators em torno do repositório de persistência:
+// códigos quentes fixados -> cache L1 -> filtro de códigos emitidos -> coalescência de buscas -> persistência.
+// O decorator mais externo é o @Primary que os serviços recebem; a persistência é injetada pelo qualificador "persistencia".
+@Configuration
+public class RepositorioConfig {
+
+    @Bean
+    public MapeamentoUrlRepositoryCoalescido mapeamentoUrlRepositoryCoalescido(
+            @Qualifier("persistencia") MapeamentoUrlRepository persistencia,
+            @Value("${app.coalescencia.tempo-maximo-espera-ms:2000}") long tempoMaximoEsperaMs,
+            MeterRegistry meterRegistry) {
+        MapeamentoUrlRepositoryCoalescido repositorioCoalescido =
+                new MapeamentoUrlRepositoryCoalescido(persistencia, Duration.ofMillis(tempoMaximoEsperaMs));
+        FunctionCounter.builder("encurtador.coalescencia.buscas.compartilhadas", repositorioCoalescido,
+                MapeamentoUrlRepositoryCoalescido::getBuscasCompartilhadas).register(meterRegistry);
+        return repositorioCoalescido;
+    }
+
+    @Bean
+    public MapeamentoUrlRepositoryFiltrado mapeamentoUrlRepositoryFiltrado(
+            MapeamentoUrlRepositoryCoalescido repositorioCoalescido,
+            FiltroCodigosEmitidos filtroCodigosEmitidos) {
+        return new MapeamentoUrlRepositoryFiltrado(repositorioCoalescido, filtroCodigosEmitidos);
+    }
+
+    @Bean
+    public MapeamentoUrlRepositoryEmCache mapeamentoUrlRepositoryEmCache(
+            MapeamentoUrlRepositoryFiltrado repositorioFiltrado,
+            @Value("${app.cache.mapeamentos.tamanho-maximo:100000}") long tamanhoMaximo,
+            @Value("${app.cache.mapeamentos.ttl-padrao-minutos:10}") long ttlPadraoMinutos,
+            @Value("${app.cache.impressoes-digitais.tamanho-maximo:10000}") long tamanhoMaximoImpressoesDigitais,
+            AgendadorExpiracao agendadorExpiracao,
+            MeterRegistry meterRegistry) {
+        MapeamentoUrlRepositoryEmCache repositorioEmCache = new MapeamentoUrlRepositoryEmCache(repositorioFiltrado,
+                tamanhoMaximo, Duration.ofMinutes(ttlPadraoMinutos), tamanhoMaximoImpressoesDigitais, agendadorExpiracao);
+        // Exporta acertos, falhas e evicções como cache.gets / cache.evictions com a tag cache=mapeamentos_url
+        CaffeineCacheMetrics.monitor(meterRegistry, repositorioEmCache.getCache(), "mapeamentos_url");
+        CaffeineCacheMetrics.monitor(meterRegistry, repositorioEmCache.getCacheDestinos(), "destinos_redirecionamento");
+        CaffeineCacheMetrics.monitor(meterRegistry, repositorioEmCache.getCacheImpressoesDigitais(), "impressoes_digitais_url");
+        return repositorioEmCache;
+    }
+
+    @Bean
+    @Primary
+    public MapeamentoUrlRepositoryFixado mapeamentoUrlRepositoryFixado(MapeamentoUrlRepositoryEmCache repositorioEmCache,
+                                                                       AgendadorExpiracao agendadorExpiracao,
+                                                                       MeterRegistry meterRegistry) {
+        MapeamentoUrlRepositoryFixado repositorioFixado =
+                new MapeamentoUrlRepositoryFixado(repositorioEmCache, agendadorExpiracao);
+        Gauge.builder("encurtador.popularidade.fixados", repositorioFixado, MapeamentoUrlRepositoryFixado::tamanho)
+                .register(meterRegistry);
+        return repositorioFixado;
+    }
+}
@@ -0,0 +1,42 @@
+package oliveiradev.encurtador_url.infra.config;
+
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.netty.resources.LoopResources;
+
+// Servidor Netty do perfil "reativo": poucas threads de event loop, fixas, atendendo muitas conexões keep-alive.
+// Métodos de controller com retorno não reativo (os POSTs de encurtamento, que usam o Mongo bloqueante)
+// são desviados para um executor próprio e nunca rodam no event loop.
+@Configuration
+@Profile("reativo")
+public class ServidorReativoConfig implements WebFluxConfigurer {
+    private final FabricaThreads fabricaThreads;
+
+    @Autowired
+    public ServidorReativoConfig(FabricaThreads fabricaThreads) {
+        this.fabricaThreads = fabricaThreads;
+    }
+
+    // Declarado explicitamente: com o Tomcat no classpath (starter web), o Spring Boot escolheria o Tomcat reativo.
+    @Bean
+    public NettyReactiveWebServerFactory servidorNetty(
+            @Value("${app.reativo.threads-event-loop:4}") int threadsEventLoop) {
+        LoopResources loops = LoopResources.create("encurtador-http", threadsEventLoop, true);
+        NettyReactiveWebServerFactory fabrica = new NettyReactiveWebServerFactory();
+        fabrica.addServerCustomizers(servidor -> servidor.runOn(loops));
+        return fabrica;
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(new TaskExecutorAdapter(fabricaThreads.novoExecutor("webflux-bloqueante")));
+    }
+}
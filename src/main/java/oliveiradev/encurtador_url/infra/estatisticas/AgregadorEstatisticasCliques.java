@@ -0,0 +1,90 @@
+package oliveiradev.encurtador_url.infra.estatisticas;
+
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.ChaveBucketEstatistica;
+import oliveiradev.encurtador_url.domain.model.Granularidade;
+import oliveiradev.encurtador_url.domain.repository.EstatisticaCliquesRepository;
+import oliveiradev.encurtador_url.infra.concorrencia.AcumuladorDeltas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Acumula cliques em buckets de minuto, hora e dia e descarrega os deltas em lote ($inc com upsert).
+// Alimentado pela thread consumidora do PipelineCliques, fora do caminho do redirecionamento.
+// Consultas somam os deltas ainda não descarregados, então o dashboard não espera a próxima descarga.
+@Component
+public class AgregadorEstatisticasCliques {
+    private static final Logger log = LoggerFactory.getLogger(AgregadorEstatisticasCliques.class);
+    private static final int MAXIMO_BUCKETS_POR_CONSULTA = 10_000;
+
+    private final AcumuladorDeltas<ChaveBucketEstatistica> acumulador = new AcumuladorDeltas<>();
+    private final ReentrantLock travaDescarga = new ReentrantLock();
+    private final EstatisticaCliquesRepository estatisticaCliquesRepository;
+    private final ZoneId fuso = ZoneId.systemDefault();
+
+    @Autowired
+    public AgregadorEstatisticasCliques(EstatisticaCliquesRepository estatisticaCliquesRepository) {
+        this.estatisticaCliquesRepository = estatisticaCliquesRepository;
+    }
+
+    public void registrar(String codigoCurto, Instant instante) {
+        for (Granularidade granularidade : Granularidade.values()) {
+            acumulador.incrementar(new ChaveBucketEstatistica(codigoCurto, granularidade,
+                    granularidade.inicioDoBucket(instante, fuso)));
+        }
+    }
+
+    // Série densa (buckets sem cliques com total zero) de [de, ate), alinhada aos limites da granularidade.
+    public List<Map.Entry<Instant, Long>> consultar(String codigoCurto, Granularidade granularidade, Instant de, Instant ate) {
+        Instant inicio = granularidade.inicioDoBucket(de, fuso);
+        Map<Instant, Long> persistidos = estatisticaCliquesRepository.buscar(codigoCurto, granularidade, inicio, ate);
+        List<Map.Entry<Instant, Long>> serie = new ArrayList<>();
+        for (Instant bucket = inicio; bucket.isBefore(ate); bucket = granularidade.proximoBucket(bucket, fuso)) {
+            if (serie.size() == MAXIMO_BUCKETS_POR_CONSULTA) {
+                throw new IllegalArgumentException("Intervalo grande demais para a granularidade " +
+                        granularidade.name().toLowerCase() + " (máximo de " + MAXIMO_BUCKETS_POR_CONSULTA + " buckets).");
+            }
+            long total = persistidos.getOrDefault(bucket, 0L)
+                    + acumulador.pendente(new ChaveBucketEstatistica(codigoCurto, granularidade, bucket));
+            serie.add(Map.entry(bucket, total));
+        }
+        return serie;
+    }
+
+    @Scheduled(fixedDelayString = "${app.estatisticas.intervalo-descarga-ms:10000}",
+            initialDelayString = "${app.estatisticas.intervalo-descarga-ms:10000}")
+    public void descarregar() {
+        travaDescarga.lock();
+        try {
+            Map<ChaveBucketEstatistica, Long> pendentes = acumulador.coletarPendentes();
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            try {
+                estatisticaCliquesRepository.incrementar(new HashMap<>(pendentes));
+                acumulador.confirmar(pendentes);
+                log.debug("Estatísticas de cliques descarregadas: {} buckets.", pendentes.size());
+            } catch (RuntimeException e) {
+                log.error("Falha ao descarregar {} buckets de estatísticas. Nova tentativa no próximo ciclo.",
+                        pendentes.size(), e);
+            }
+        } finally {
+            travaDescarga.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void descarregarAoEncerrar() {
+        descarregar();
+    }
+}
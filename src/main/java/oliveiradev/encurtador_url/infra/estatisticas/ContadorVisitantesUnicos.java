@@ -0,0 +1,266 @@
+package oliveiradev.encurtador_url.infra.estatisticas;
+
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.ChaveSketchVisitantes;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.Granularidade;
+import oliveiradev.encurtador_url.domain.repository.SketchVisitantesRepository;
+import oliveiradev.encurtador_url.domain.service.VisitantesUnicosService;
+import oliveiradev.encurtador_url.infra.hash.Hash64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Visitantes únicos aproximados por código curto (acumulado e por dia) com um HyperLogLog por chave: esparso (alguns
+// bytes por visitante) até ~2 KB, denso de 4 KB depois. O visitante é o hash de IP + User-Agent, calculado na thread
+// consumidora do PipelineCliques; nada é guardado em claro. Cada nó grava o próprio sketch e a leitura mescla os de
+// todos os nós. Sketches ociosos saem da memória após a descarga, e acima de app.visitantes.maximo-entradas os menos
+// usados saem mesmo antes; ao voltarem, o sketch já persistido deste nó é mesclado de volta (a união é idempotente).
+@Component
+public class ContadorVisitantesUnicos implements VisitantesUnicosService {
+    private static final Logger log = LoggerFactory.getLogger(ContadorVisitantesUnicos.class);
+    private static final int MAXIMO_DIAS_POR_CONSULTA = 400;
+
+    private final SketchVisitantesRepository sketchVisitantesRepository;
+    private final String instancia;
+    private final long ociosidadeMaximaMs;
+    private final int maximoEntradas;
+    private final ZoneId fuso = ZoneId.systemDefault();
+    private final Map<ChaveSketchVisitantes, Entrada> entradas = new ConcurrentHashMap<>();
+    private final ReentrantLock travaDescarga = new ReentrantLock();
+
+    @Autowired
+    public ContadorVisitantesUnicos(SketchVisitantesRepository sketchVisitantesRepository,
+                                    @Value("${app.visitantes.instancia:}") String instancia,
+                                    @Value("${app.visitantes.ociosidade-maxima-minutos:10}") long ociosidadeMaximaMinutos,
+                                    @Value("${app.visitantes.maximo-entradas:20000}") int maximoEntradas) {
+        this.sketchVisitantesRepository = sketchVisitantesRepository;
+        this.instancia = normalizarInstancia(instancia.isBlank() ? nomeDoHost() : instancia);
+        this.ociosidadeMaximaMs = Duration.ofMinutes(ociosidadeMaximaMinutos).toMillis();
+        this.maximoEntradas = maximoEntradas;
+    }
+
+    public void registrar(String codigoCurto, Instant instante, String enderecoCliente, String agenteUsuario) {
+        if (enderecoCliente == null) {
+            return; // Sem IP não há como distinguir visitantes
+        }
+        long visitante = Hash64.de(agenteUsuario == null ? "" : agenteUsuario, Hash64.de(enderecoCliente));
+        long agora = instante.toEpochMilli();
+        adicionar(ChaveSketchVisitantes.total(codigoCurto), visitante, agora);
+        adicionar(ChaveSketchVisitantes.doDia(codigoCurto, Granularidade.DIA.inicioDoBucket(instante, fuso)), visitante, agora);
+        if (entradas.size() > maximoEntradas && travaDescarga.tryLock()) {
+            // Limite atingido entre duas descargas agendadas: descarrega e libera já, na própria thread consumidora
+            try {
+                descarregarELiberar();
+            } finally {
+                travaDescarga.unlock();
+            }
+        }
+    }
+
+    @Override
+    public OptionalLong estimarVisitantesUnicos(CodigoCurto codigoCurto) {
+        return estimar(List.of(ChaveSketchVisitantes.total(codigoCurto.getValor())));
+    }
+
+    // União dos sketches diários dos dias que tocam [de, ate).
+    public OptionalLong estimarNoIntervalo(String codigoCurto, Instant de, Instant ate) {
+        List<ChaveSketchVisitantes> chaves = new ArrayList<>();
+        for (Instant dia = Granularidade.DIA.inicioDoBucket(de, fuso); dia.isBefore(ate);
+             dia = Granularidade.DIA.proximoBucket(dia, fuso)) {
+            if (chaves.size() == MAXIMO_DIAS_POR_CONSULTA) {
+                return OptionalLong.empty();
+            }
+            chaves.add(ChaveSketchVisitantes.doDia(codigoCurto, dia));
+        }
+        return estimar(chaves);
+    }
+
+    @Scheduled(fixedDelayString = "${app.visitantes.intervalo-descarga-ms:30000}",
+            initialDelayString = "${app.visitantes.intervalo-descarga-ms:30000}")
+    public void descarregar() {
+        travaDescarga.lock();
+        try {
+            descarregarELiberar();
+        } finally {
+            travaDescarga.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void descarregarAoEncerrar() {
+        descarregar();
+    }
+
+    String getInstancia() {
+        return instancia;
+    }
+
+    int getEntradasEmMemoria() {
+        return entradas.size();
+    }
+
+    // Chamado com travaDescarga tomada.
+    private void descarregarELiberar() {
+        Map<ChaveSketchVisitantes, Entrada> sujas = new HashMap<>();
+        entradas.forEach((chave, entrada) -> {
+            if (entrada.sujo.get()) {
+                sujas.put(chave, entrada);
+            }
+        });
+        if (!sujas.isEmpty() && gravar(sujas)) {
+            log.debug("Sketches de visitantes únicos descarregados: {} chaves.", sujas.size());
+        }
+        removerOciosas();
+        limitarEntradas();
+    }
+
+    private void adicionar(ChaveSketchVisitantes chave, long visitante, long agora) {
+        // compute segura a entrada contra a remoção por ociosidade enquanto o registrador é atualizado
+        entradas.compute(chave, (c, entrada) -> {
+            Entrada alvo = entrada != null ? entrada : new Entrada();
+            if (alvo.sketch.adicionar(visitante)) {
+                alvo.sujo.set(true);
+            }
+            alvo.ultimoUsoMs = agora;
+            return alvo;
+        });
+    }
+
+    private boolean gravar(Map<ChaveSketchVisitantes, Entrada> sujas) {
+        try {
+            hidratar(sujas);
+            Map<ChaveSketchVisitantes, byte[]> serializados = new HashMap<>();
+            sujas.forEach((chave, entrada) -> {
+                entrada.sujo.set(false); // Antes de serializar: uma inserção concorrente suja de novo
+                serializados.put(chave, entrada.sketch.serializar());
+            });
+            sketchVisitantesRepository.gravar(instancia, serializados);
+            return true;
+        } catch (RuntimeException e) {
+            sujas.values().forEach(entrada -> entrada.sujo.set(true));
+            log.error("Falha ao descarregar {} sketches de visitantes únicos. Nova tentativa no próximo ciclo.",
+                    sujas.size(), e);
+            return false;
+        }
+    }
+
+    // Antes da primeira gravação de uma chave nesta vida do processo, mescla o que este nó já havia persistido,
+    // para não sobrescrever o histórico com um sketch iniciado do zero.
+    private void hidratar(Map<ChaveSketchVisitantes, Entrada> sujas) {
+        List<ChaveSketchVisitantes> pendentes = new ArrayList<>();
+        sujas.forEach((chave, entrada) -> {
+            if (!entrada.hidratado) {
+                pendentes.add(chave);
+            }
+        });
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        Map<ChaveSketchVisitantes, Map<String, byte[]>> persistidos = sketchVisitantesRepository.buscar(pendentes);
+        for (ChaveSketchVisitantes chave : pendentes) {
+            Entrada entrada = sujas.get(chave);
+            byte[] proprio = persistidos.getOrDefault(chave, Map.of()).get(instancia);
+            if (proprio != null) {
+                entrada.sketch.mesclar(HyperLogLog.desserializar(proprio));
+            }
+            entrada.hidratado = true;
+        }
+    }
+
+    private void removerOciosas() {
+        long limite = System.currentTimeMillis() - ociosidadeMaximaMs;
+        for (ChaveSketchVisitantes chave : entradas.keySet()) {
+            entradas.computeIfPresent(chave, (c, entrada) ->
+                    !entrada.sujo.get() && entrada.hidratado && entrada.ultimoUsoMs < limite ? null : entrada);
+        }
+    }
+
+    // Acima do limite, remove as menos usadas até 90% dele (a folga evita descarregar a cada clique seguinte).
+    // Já descarregadas, saem sem perda; se a gravação falhou, as sujas também saem, perdendo só visitas aproximadas
+    // em troca de não crescer sem limite enquanto o banco estiver fora.
+    private void limitarEntradas() {
+        if (entradas.size() <= maximoEntradas) {
+            return;
+        }
+        int alvo = maximoEntradas - maximoEntradas / 10;
+        List<Map.Entry<ChaveSketchVisitantes, Long>> porUso = new ArrayList<>(entradas.size());
+        entradas.forEach((chave, entrada) -> porUso.add(Map.entry(chave, entrada.ultimoUsoMs))); // Ordem estável
+        porUso.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<ChaveSketchVisitantes, Long> item : porUso) {
+            if (entradas.size() <= alvo) {
+                return;
+            }
+            entradas.computeIfPresent(item.getKey(), (c, entrada) ->
+                    !entrada.sujo.get() && entrada.hidratado ? null : entrada);
+        }
+        int descartadas = 0;
+        for (Map.Entry<ChaveSketchVisitantes, Long> item : porUso) {
+            if (entradas.size() <= alvo) {
+                break;
+            }
+            if (entradas.remove(item.getKey()) != null) {
+                descartadas++;
+            }
+        }
+        log.warn("Limite de {} sketches de visitantes únicos em memória atingido sem descarga: {} descartados.",
+                maximoEntradas, descartadas);
+    }
+
+    private OptionalLong estimar(List<ChaveSketchVisitantes> chaves) {
+        HyperLogLog uniao = new HyperLogLog();
+        for (ChaveSketchVisitantes chave : chaves) {
+            Entrada local = entradas.get(chave);
+            if (local != null) {
+                uniao.mesclar(local.sketch);
+            }
+        }
+        try {
+            for (Map<String, byte[]> porInstancia : sketchVisitantesRepository.buscar(chaves).values()) {
+                for (byte[] sketch : porInstancia.values()) {
+                    uniao.mesclar(HyperLogLog.desserializar(sketch));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao ler sketches de visitantes únicos; usando apenas os deste nó: {}", e.getMessage());
+        }
+        return OptionalLong.of(uniao.estimar());
+    }
+
+    private static String nomeDoHost() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "no-" + ProcessHandle.current().pid();
+        }
+    }
+
+    // O nome vira parte de um caminho de campo no Mongo: sem pontos nem '$'.
+    private static String normalizarInstancia(String nome) {
+        return nome.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private static final class Entrada {
+        private final HyperLogLog sketch = new HyperLogLog();
+        private final AtomicBoolean sujo = new AtomicBoolean();
+        private volatile long ultimoUsoMs;
+        private volatile boolean hidratado;
+    }
+}
@@ -0,0 +1,230 @@
+package oliveiradev.encurtador_url.infra.estatisticas;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+// HyperLogLog (Flajolet et al., com correção de faixa pequena do HLL++) sobre hashes de 64 bits.
+// Com precisão 12 são 4096 registradores: erro padrão de ~1,6% e 3 KB serializado (6 bits por registrador).
+// Começa esparso (pares registrador/posto ordenados num int[], 4 bytes por registrador tocado) e só passa ao vetor
+// denso quando os pares ocupariam 1/8 dos registradores; a maioria dos códigos nunca chega lá. Na forma densa
+// adicionar não aloca e é seguro entre threads (CAS por registrador); a esparsa é guardada pelo monitor do sketch.
+// mesclar é o máximo registrador a registrador, então sketches de nós diferentes podem ser combinados em qualquer
+// ordem, quantas vezes for preciso. A serialização é sempre a densa.
+public final class HyperLogLog {
+    public static final int PRECISAO_PADRAO = 12;
+    private static final VarHandle REGISTRADOR = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int CAPACIDADE_INICIAL_ESPARSA = 4;
+
+    private final int precisao;
+    private final int limiteEsparso;
+    private volatile byte[] registradores; // Nulo enquanto esparso
+    private int[] esparso; // (registrador << 8) | posto, ordenado por registrador
+    private int tamanhoEsparso;
+
+    public HyperLogLog() {
+        this(PRECISAO_PADRAO);
+    }
+
+    public HyperLogLog(int precisao) {
+        if (precisao < 4 || precisao > 18) {
+            throw new IllegalArgumentException("Precisão do HyperLogLog fora de [4, 18]: " + precisao);
+        }
+        this.precisao = precisao;
+        this.limiteEsparso = (1 << precisao) / 8;
+        this.esparso = new int[CAPACIDADE_INICIAL_ESPARSA];
+    }
+
+    private HyperLogLog(int precisao, byte[] registradores) {
+        this(precisao);
+        this.esparso = null;
+        this.registradores = registradores;
+    }
+
+    // Devolve true se algum registrador mudou, ou seja, se o sketch precisa ser persistido de novo.
+    public boolean adicionar(long hash) {
+        int indice = (int) (hash >>> (64 - precisao));
+        byte posto = (byte) (Long.numberOfLeadingZeros((hash << precisao) | (1L << (precisao - 1))) + 1);
+        return elevar(indice, posto);
+    }
+
+    public void mesclar(HyperLogLog outro) {
+        if (outro.precisao != precisao) {
+            throw new IllegalArgumentException("Não é possível mesclar sketches de precisões diferentes.");
+        }
+        if (outro == this) {
+            return;
+        }
+        int[] pares = outro.copiarEsparso();
+        if (pares != null) {
+            for (int par : pares) {
+                elevar(par >>> 8, (byte) par);
+            }
+            return;
+        }
+        byte[] deOutro = outro.registradores;
+        byte[] densos = densos();
+        for (int i = 0; i < densos.length; i++) {
+            elevarDenso(densos, i, (byte) REGISTRADOR.getOpaque(deOutro, i));
+        }
+    }
+
+    public long estimar() {
+        byte[] densos = instantaneoDenso();
+        int m = densos.length;
+        double soma = 0;
+        int zerados = 0;
+        for (int i = 0; i < m; i++) {
+            byte valor = (byte) REGISTRADOR.getOpaque(densos, i);
+            soma += Double.longBitsToDouble((1023L - valor) << 52); // 2^-valor
+            if (valor == 0) {
+                zerados++;
+            }
+        }
+        double alfa = 0.7213 / (1 + 1.079 / m);
+        double estimativa = alfa * m * (double) m / soma;
+        if (estimativa <= 2.5 * m && zerados > 0) {
+            estimativa = m * Math.log((double) m / zerados); // Contagem linear para cardinalidades pequenas
+        }
+        return Math.round(estimativa);
+    }
+
+    public int getPrecisao() {
+        return precisao;
+    }
+
+    boolean isEsparso() {
+        return registradores == null;
+    }
+
+    // Formato: 1 byte de precisão seguido dos registradores empacotados em 6 bits (4 registradores a cada 3 bytes).
+    public byte[] serializar() {
+        byte[] densos = instantaneoDenso();
+        byte[] saida = new byte[1 + densos.length * 6 / 8];
+        saida[0] = (byte) precisao;
+        for (int i = 0, j = 1; i < densos.length; i += 4, j += 3) {
+            int bloco = (ler(densos, i) << 18) | (ler(densos, i + 1) << 12) | (ler(densos, i + 2) << 6) | ler(densos, i + 3);
+            saida[j] = (byte) (bloco >>> 16);
+            saida[j + 1] = (byte) (bloco >>> 8);
+            saida[j + 2] = (byte) bloco;
+        }
+        return saida;
+    }
+
+    public static HyperLogLog desserializar(byte[] dados) {
+        int precisao = dados[0];
+        if (precisao < 4 || precisao > 18 || dados.length != 1 + (1 << precisao) * 6 / 8) {
+            throw new IllegalArgumentException("Sketch HyperLogLog com tamanho inválido: " + dados.length + " bytes.");
+        }
+        byte[] registradores = new byte[1 << precisao];
+        for (int i = 0, j = 1; i < registradores.length; i += 4, j += 3) {
+            int bloco = ((dados[j] & 0xFF) << 16) | ((dados[j + 1] & 0xFF) << 8) | (dados[j + 2] & 0xFF);
+            registradores[i] = (byte) ((bloco >>> 18) & 0x3F);
+            registradores[i + 1] = (byte) ((bloco >>> 12) & 0x3F);
+            registradores[i + 2] = (byte) ((bloco >>> 6) & 0x3F);
+            registradores[i + 3] = (byte) (bloco & 0x3F);
+        }
+        return new HyperLogLog(precisao, registradores);
+    }
+
+    private static int ler(byte[] densos, int indice) {
+        return (byte) REGISTRADOR.getOpaque(densos, indice);
+    }
+
+    private boolean elevar(int indice, byte posto) {
+        byte[] densos = registradores;
+        if (densos != null) {
+            return elevarDenso(densos, indice, posto);
+        }
+        synchronized (this) {
+            densos = registradores;
+            if (densos != null) {
+                return elevarDenso(densos, indice, posto);
+            }
+            int posicao = buscarEsparso(indice);
+            if (posicao >= 0) {
+                if (posto <= (byte) esparso[posicao]) {
+                    return false;
+                }
+                esparso[posicao] = (indice << 8) | posto;
+                return true;
+            }
+            if (tamanhoEsparso == limiteEsparso) {
+                return elevarDenso(tornarDenso(), indice, posto);
+            }
+            if (tamanhoEsparso == esparso.length) {
+                esparso = Arrays.copyOf(esparso, Math.min(esparso.length * 2, limiteEsparso));
+            }
+            int insercao = -posicao - 1;
+            System.arraycopy(esparso, insercao, esparso, insercao + 1, tamanhoEsparso - insercao);
+            esparso[insercao] = (indice << 8) | posto;
+            tamanhoEsparso++;
+            return true;
+        }
+    }
+
+    private static boolean elevarDenso(byte[] densos, int indice, byte posto) {
+        while (true) {
+            byte atual = (byte) REGISTRADOR.getOpaque(densos, indice);
+            if (posto <= atual) {
+                return false;
+            }
+            if (REGISTRADOR.compareAndSet(densos, indice, atual, posto)) {
+                return true;
+            }
+        }
+    }
+
+    // Mesmo contrato de Arrays.binarySearch, comparando só o registrador de cada par.
+    private int buscarEsparso(int indice) {
+        int baixo = 0;
+        int alto = tamanhoEsparso - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int registrador = esparso[meio] >>> 8;
+            if (registrador < indice) {
+                baixo = meio + 1;
+            } else if (registrador > indice) {
+                alto = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -(baixo + 1);
+    }
+
+    // Chamado com o monitor tomado e o sketch ainda esparso.
+    private byte[] tornarDenso() {
+        byte[] densos = new byte[1 << precisao];
+        for (int i = 0; i < tamanhoEsparso; i++) {
+            densos[esparso[i] >>> 8] = (byte) esparso[i];
+        }
+        esparso = null;
+        tamanhoEsparso = 0;
+        registradores = densos; // Publicado por último: quem o vê denso não volta ao esparso
+        return densos;
+    }
+
+    private synchronized byte[] densos() {
+        byte[] densos = registradores;
+        return densos != null ? densos : tornarDenso();
+    }
+
+    // Nulo se o sketch já é denso.
+    private synchronized int[] copiarEsparso() {
+        return registradores == null ? Arrays.copyOf(esparso, tamanhoEsparso) : null;
+    }
+
+    // Leitura sem promover: um sketch esparso é expandido numa cópia descartável.
+    private byte[] instantaneoDenso() {
+        int[] pares = copiarEsparso();
+        if (pares == null) {
+            return registradores;
+        }
+        byte[] densos = new byte[1 << precisao];
+        for (int par : pares) {
+            densos[par >>> 8] = (byte) par;
+        }
+        return densos;
+    }
+}
@@ -0,0 +1,71 @@
+package oliveiradev.encurtador_url.infra.expiracao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ObjLongConsumer;
+
+// Remoção ativa de mapeamentos expirados das estruturas em memória (cache L1, códigos fixados, motor em memória).
+// Cada estrutura agenda o código ao guardá-lo e recebe (código, agora) no vencimento; como o mesmo código pode ter
+// sido recarregado com outra expiração, quem recebe confere a entrada atual antes de remover.
+@Component
+public class AgendadorExpiracao {
+    private static final Logger log = LoggerFactory.getLogger(AgendadorExpiracao.class);
+
+    private final RodaTemporizacao<Agendamento> roda;
+    private final Counter disparos;
+
+    @Autowired
+    public AgendadorExpiracao(@Value("${app.expiracao.resolucao-ms:1000}") long resolucaoMs,
+                              MeterRegistry meterRegistry) {
+        this.roda = new RodaTemporizacao<>(resolucaoMs, System.currentTimeMillis());
+        this.disparos = Counter.builder("encurtador.expiracao.disparos").register(meterRegistry);
+        Gauge.builder("encurtador.expiracao.agendados", roda, RodaTemporizacao::getPendentes).register(meterRegistry);
+    }
+
+    public void agendar(String codigoCurto, long expiraEmMs, ObjLongConsumer<String> aoExpirar) {
+        roda.agendar(new Agendamento(codigoCurto, aoExpirar), expiraEmMs);
+    }
+
+    @Scheduled(fixedDelayString = "${app.expiracao.resolucao-ms:1000}",
+            initialDelayString = "${app.expiracao.resolucao-ms:1000}")
+    public void avancar() {
+        avancarAte(System.currentTimeMillis());
+    }
+
+    public int avancarAte(long agoraMs) {
+        int disparados = roda.avancar(agoraMs, agendamento -> {
+            try {
+                agendamento.aoExpirar.accept(agendamento.codigoCurto, agoraMs);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao remover o código expirado '{}': {}", agendamento.codigoCurto, e.getMessage());
+            }
+        });
+        if (disparados > 0) {
+            disparos.increment(disparados);
+            log.debug("Roda de expiração: {} vencimentos processados.", disparados);
+        }
+        return disparados;
+    }
+
+    public long getAgendados() {
+        return roda.getPendentes();
+    }
+
+    private static final class Agendamento {
+        private final String codigoCurto;
+        private final ObjLongConsumer<String> aoExpirar;
+
+        private Agendamento(String codigoCurto, ObjLongConsumer<String> aoExpirar) {
+            this.codigoCurto = codigoCurto;
+            this.aoExpirar = aoExpirar;
+        }
+    }
+}
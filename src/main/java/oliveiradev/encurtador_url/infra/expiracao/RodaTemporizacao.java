@@ -0,0 +1,114 @@
+package oliveiradev.encurtador_url.infra.expiracao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Roda de temporização hierárquica (Varghese & Lauck): níveis de 64 posições, cada um 64 vezes mais grosso que o
+// anterior. Agendar é O(1) e sem trava; cada avanço só toca as posições que venceram, e um item desce de nível no
+// máximo uma vez por nível até disparar. Nenhuma estrutura é percorrida por inteiro.
+public class RodaTemporizacao<T> {
+    private static final int BITS_POR_NIVEL = 6;
+    private static final int POSICOES = 1 << BITS_POR_NIVEL;
+    private static final int MASCARA = POSICOES - 1;
+    private static final int NIVEIS = (Long.SIZE + BITS_POR_NIVEL - 1) / BITS_POR_NIVEL;
+
+    private final long resolucaoMs;
+    private final Queue<Item<T>> recemAgendados = new ConcurrentLinkedQueue<>();
+    private final List<Item<T>>[][] posicoes;
+    private final ReentrantLock trava = new ReentrantLock();
+    private final AtomicLong pendentes = new AtomicLong();
+    private long tickAtual; // Só lido e escrito sob a trava
+
+    @SuppressWarnings("unchecked")
+    public RodaTemporizacao(long resolucaoMs, long agoraMs) {
+        if (resolucaoMs <= 0) {
+            throw new IllegalArgumentException("A resolução da roda de temporização deve ser positiva.");
+        }
+        this.resolucaoMs = resolucaoMs;
+        this.posicoes = new List[NIVEIS][POSICOES];
+        this.tickAtual = Math.floorDiv(agoraMs, resolucaoMs);
+    }
+
+    public void agendar(T valor, long expiraEmMs) {
+        // Arredonda para o tick seguinte: o disparo nunca acontece antes de expiraEmMs
+        recemAgendados.add(new Item<>(valor, Math.floorDiv(expiraEmMs, resolucaoMs) + 1));
+        pendentes.incrementAndGet();
+    }
+
+    // Dispara, na thread que chamou, tudo o que venceu até agoraMs. Se outra thread já está avançando, não faz nada.
+    public int avancar(long agoraMs, Consumer<T> aoDisparar) {
+        if (!trava.tryLock()) {
+            return 0;
+        }
+        try {
+            int disparados = 0;
+            Item<T> item;
+            while ((item = recemAgendados.poll()) != null) {
+                disparados += posicionar(item, aoDisparar);
+            }
+            long alvo = Math.floorDiv(agoraMs, resolucaoMs);
+            while (tickAtual < alvo) {
+                tickAtual++;
+                // Nos limites de um nível, desce a posição correspondente; do mais grosso para o mais fino
+                int nivelMaximo = Math.min(NIVEIS - 1, Long.numberOfTrailingZeros(tickAtual) / BITS_POR_NIVEL);
+                for (int nivel = nivelMaximo; nivel > 0; nivel--) {
+                    disparados += esvaziar(nivel, (int) (tickAtual >>> (nivel * BITS_POR_NIVEL)) & MASCARA, aoDisparar);
+                }
+                disparados += esvaziar(0, (int) tickAtual & MASCARA, aoDisparar);
+            }
+            return disparados;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public long getPendentes() {
+        return pendentes.get();
+    }
+
+    private int esvaziar(int nivel, int posicao, Consumer<T> aoDisparar) {
+        List<Item<T>> itens = posicoes[nivel][posicao];
+        if (itens == null) {
+            return 0;
+        }
+        posicoes[nivel][posicao] = null;
+        int disparados = 0;
+        for (Item<T> item : itens) {
+            disparados += posicionar(item, aoDisparar);
+        }
+        return disparados;
+    }
+
+    private int posicionar(Item<T> item, Consumer<T> aoDisparar) {
+        if (item.tick <= tickAtual) {
+            pendentes.decrementAndGet();
+            aoDisparar.accept(item.valor);
+            return 1;
+        }
+        // O nível é o do dígito (base 64) mais alto em que o vencimento difere do tick atual
+        int nivel = (Long.SIZE - 1 - Long.numberOfLeadingZeros(item.tick ^ tickAtual)) / BITS_POR_NIVEL;
+        int posicao = (int) (item.tick >>> (nivel * BITS_POR_NIVEL)) & MASCARA;
+        List<Item<T>> itens = posicoes[nivel][posicao];
+        if (itens == null) {
+            itens = new ArrayList<>();
+            posicoes[nivel][posicao] = itens;
+        }
+        itens.add(item);
+        return 0;
+    }
+
+    private static final class Item<T> {
+        private final T valor;
+        private final long tick;
+
+        private Item(T valor, long tick) {
+            this.valor = valor;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package oliveiradev.encurtador_url.infra.expiracao;
+
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Alternativa ao índice TTL (app.expiracao.modo=varredor): apaga mapeamentos vencidos em lotes limitados, com no
+// máximo tamanhoLote * lotesPorExecucao remoções por intervalo, para não disputar I/O com o tráfego de leitura.
+@Component
+@ConditionalOnProperty(name = "app.expiracao.modo", havingValue = "varredor")
+public class VarredorMapeamentosExpirados {
+    private static final Logger log = LoggerFactory.getLogger(VarredorMapeamentosExpirados.class);
+
+    private final MapeamentoUrlRepository persistencia;
+    private final int tamanhoLote;
+    private final int lotesPorExecucao;
+    private final Duration retencao;
+
+    @Autowired
+    public VarredorMapeamentosExpirados(@Qualifier("persistencia") MapeamentoUrlRepository persistencia,
+                                        @Value("${app.expiracao.varredor.tamanho-lote:500}") int tamanhoLote,
+                                        @Value("${app.expiracao.varredor.lotes-por-execucao:4}") int lotesPorExecucao,
+                                        @Value("${app.expiracao.retencao-minutos:0}") long retencaoMinutos) {
+        this.persistencia = persistencia;
+        this.tamanhoLote = tamanhoLote;
+        this.lotesPorExecucao = lotesPorExecucao;
+        this.retencao = Duration.ofMinutes(retencaoMinutos);
+    }
+
+    @Scheduled(fixedDelayString = "${app.expiracao.varredor.intervalo-ms:1000}",
+            initialDelayString = "${app.expiracao.varredor.intervalo-ms:1000}")
+    public int varrer() {
+        LocalDateTime expiradosAntesDe = LocalDateTime.now().minus(retencao);
+        int removidos = 0;
+        try {
+            for (int lote = 0; lote < lotesPorExecucao; lote++) {
+                int removidosNoLote = persistencia.removerExpirados(expiradosAntesDe, tamanhoLote);
+                removidos += removidosNoLote;
+                if (removidosNoLote < tamanhoLote) {
+                    break; // Nada mais vencido por agora
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha na varredura de mapeamentos expirados: {}", e.getMessage());
+        }
+        if (removidos > 0) {
+            log.debug("Varredura de expiração: {} mapeamentos removidos.", removidos);
+        }
+        return removidos;
+    }
+}
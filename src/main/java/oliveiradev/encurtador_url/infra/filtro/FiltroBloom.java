@@ -0,0 +1,107 @@
+package oliveiradev.encurtador_url.infra.filtro;
+
+import oliveiradev.encurtador_url.infra.hash.Hash64;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom de capacidade fixa com bits atômicos: inserções e consultas concorrentes sem trava.
+class FiltroBloom {
+    private final AtomicLongArray bits;
+    private final long numeroBits;
+    private final int numeroHashes;
+    private final long capacidade;
+    private final AtomicLong insercoes;
+
+    FiltroBloom(long capacidade, double taxaFalsoPositivo) {
+        this.capacidade = capacidade;
+        long bitsIdeais = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavras = (int) Math.max(1L, (bitsIdeais + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.numeroBits = (long) palavras * 64;
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / capacidade * Math.log(2)));
+        this.insercoes = new AtomicLong();
+    }
+
+    private FiltroBloom(long capacidade, int numeroHashes, long insercoes, long[] palavras) {
+        this.capacidade = capacidade;
+        this.numeroHashes = numeroHashes;
+        this.insercoes = new AtomicLong(insercoes);
+        this.bits = new AtomicLongArray(palavras);
+        this.numeroBits = (long) palavras.length * 64;
+    }
+
+    boolean contemTalvez(long hash) {
+        long h2 = Hash64.secundario(hash);
+        for (int i = 0; i < numeroHashes; i++) {
+            long indice = Long.remainderUnsigned(hash + i * h2, numeroBits);
+            if ((bits.get((int) (indice >>> 6)) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void adicionar(long hash) {
+        long h2 = Hash64.secundario(hash);
+        boolean alterou = false;
+        for (int i = 0; i < numeroHashes; i++) {
+            long indice = Long.remainderUnsigned(hash + i * h2, numeroBits);
+            alterou |= ligarBit((int) (indice >>> 6), 1L << indice);
+        }
+        if (alterou) {
+            insercoes.incrementAndGet();
+        }
+    }
+
+    boolean isCheio() {
+        return insercoes.get() >= capacidade;
+    }
+
+    long getCapacidade() {
+        return capacidade;
+    }
+
+    long getInsercoes() {
+        return insercoes.get();
+    }
+
+    long tamanhoEmBytes() {
+        return numeroBits / 8;
+    }
+
+    void escrever(DataOutput saida) throws IOException {
+        saida.writeLong(capacidade);
+        saida.writeInt(numeroHashes);
+        saida.writeLong(insercoes.get());
+        saida.writeInt(bits.length());
+        for (int i = 0; i < bits.length(); i++) {
+            saida.writeLong(bits.get(i));
+        }
+    }
+
+    static FiltroBloom ler(DataInput entrada) throws IOException {
+        long capacidade = entrada.readLong();
+        int numeroHashes = entrada.readInt();
+        long insercoes = entrada.readLong();
+        long[] palavras = new long[entrada.readInt()];
+        for (int i = 0; i < palavras.length; i++) {
+            palavras[i] = entrada.readLong();
+        }
+        return new FiltroBloom(capacidade, numeroHashes, insercoes, palavras);
+    }
+
+    private boolean ligarBit(int palavra, long mascara) {
+        long atual = bits.get(palavra);
+        while ((atual & mascara) == 0) {
+            if (bits.compareAndSet(palavra, atual, atual | mascara)) {
+                return true;
+            }
+            atual = bits.get(palavra);
+        }
+        return false;
+    }
+}
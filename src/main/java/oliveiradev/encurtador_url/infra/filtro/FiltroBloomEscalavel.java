@@ -0,0 +1,104 @@
+package oliveiradev.encurtador_url.infra.filtro;
+
+import oliveiradev.encurtador_url.infra.hash.Hash64;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Filtro de Bloom escalável (Almeida et al.): ao encher um estágio, abre outro com o dobro da capacidade
+// e taxa de falso positivo mais apertada, mantendo a taxa composta limitada sem conhecer o volume final.
+public class FiltroBloomEscalavel {
+    private static final int FATOR_CRESCIMENTO = 2;
+    private static final double RAZAO_APERTO = 0.5;
+
+    private final CopyOnWriteArrayList<FiltroBloom> estagios;
+    private final double taxaFalsoPositivoInicial;
+    private final ReentrantLock travaCrescimento = new ReentrantLock();
+
+    public FiltroBloomEscalavel(long capacidadeInicial, double taxaFalsoPositivo) {
+        this.taxaFalsoPositivoInicial = taxaFalsoPositivo;
+        this.estagios = new CopyOnWriteArrayList<>();
+        this.estagios.add(new FiltroBloom(capacidadeInicial, taxaFalsoPositivo * (1 - RAZAO_APERTO)));
+    }
+
+    private FiltroBloomEscalavel(List<FiltroBloom> estagios, double taxaFalsoPositivo) {
+        this.taxaFalsoPositivoInicial = taxaFalsoPositivo;
+        this.estagios = new CopyOnWriteArrayList<>(estagios);
+    }
+
+    public boolean contemTalvez(CharSequence valor) {
+        long hash = Hash64.de(valor);
+        for (FiltroBloom estagio : estagios) {
+            if (estagio.contemTalvez(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void adicionar(CharSequence valor) {
+        long hash = Hash64.de(valor);
+        FiltroBloom atual = estagios.get(estagios.size() - 1);
+        if (atual.isCheio()) {
+            atual = crescer(atual);
+        }
+        atual.adicionar(hash);
+    }
+
+    public long getInsercoes() {
+        long total = 0;
+        for (FiltroBloom estagio : estagios) {
+            total += estagio.getInsercoes();
+        }
+        return total;
+    }
+
+    public long tamanhoEmBytes() {
+        long total = 0;
+        for (FiltroBloom estagio : estagios) {
+            total += estagio.tamanhoEmBytes();
+        }
+        return total;
+    }
+
+    public void escrever(DataOutput saida) throws IOException {
+        saida.writeDouble(taxaFalsoPositivoInicial);
+        List<FiltroBloom> copia = new ArrayList<>(estagios);
+        saida.writeInt(copia.size());
+        for (FiltroBloom estagio : copia) {
+            estagio.escrever(saida);
+        }
+    }
+
+    public static FiltroBloomEscalavel ler(DataInput entrada) throws IOException {
+        double taxaFalsoPositivo = entrada.readDouble();
+        int quantidade = entrada.readInt();
+        List<FiltroBloom> estagios = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            estagios.add(FiltroBloom.ler(entrada));
+        }
+        return new FiltroBloomEscalavel(estagios, taxaFalsoPositivo);
+    }
+
+    private FiltroBloom crescer(FiltroBloom cheio) {
+        travaCrescimento.lock();
+        try {
+            FiltroBloom ultimo = estagios.get(estagios.size() - 1);
+            if (ultimo != cheio) {
+                return ultimo; // Outra thread já abriu o próximo estágio
+            }
+            int indice = estagios.size();
+            double taxa = taxaFalsoPositivoInicial * (1 - RAZAO_APERTO) * Math.pow(RAZAO_APERTO, indice);
+            FiltroBloom novo = new FiltroBloom(cheio.getCapacidade() * FATOR_CRESCIMENTO, taxa);
+            estagios.add(novo);
+            return novo;
+        } finally {
+            travaCrescimento.unlock();
+        }
+    }
+}
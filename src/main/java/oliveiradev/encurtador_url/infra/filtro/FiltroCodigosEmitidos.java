@@ -0,0 +1,244 @@
+package oliveiradev.encurtador_url.infra.filtro;
+
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Filtro de pertinência de todos os códigos curtos emitidos, usado para recusar códigos inexistentes sem ir ao Mongo.
+// Enquanto não termina a carga inicial (snapshot local + coleção mapeamentos_url) responde "pode existir" para tudo.
+// Códigos criados em outros nós entram pelo change stream (OuvinteAlteracoesMapeamentos, quando habilitado) e pela
+// sincronização incremental por dataCriacao. Até lá a negativa pode estar atrasada: sem change stream, por no máximo
+// intervalo-sincronizacao-ms, encurtado pela confirmação limitada de podeExistirAposSincronizar.
+@Component
+public class FiltroCodigosEmitidos {
+    private static final Logger log = LoggerFactory.getLogger(FiltroCodigosEmitidos.class);
+    private static final int MAGICO_SNAPSHOT = 0x46424331; // "FBC1"
+    private static final String ARQUIVO_SNAPSHOT = "filtro-codigos.bin";
+
+    private final MapeamentoUrlRepository persistencia;
+    private final FabricaThreads fabricaThreads;
+    private final Path arquivoSnapshot;
+    private final long capacidadeInicial;
+    private final double taxaFalsoPositivo;
+    private final Duration margemSincronizacao;
+    private final long intervaloMinimoConfirmacaoNs;
+
+    private final ReentrantReadWriteLock travaCarga = new ReentrantReadWriteLock();
+    private final ReentrantLock travaSincronizacao = new ReentrantLock(); // Uma sincronização incremental por vez
+    private final Queue<String> registradosDuranteCarga = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean cargaEmAndamento = new AtomicBoolean();
+    private volatile FiltroBloomEscalavel filtro;
+    private volatile boolean pronto;
+    private volatile LocalDateTime sincronizadoAte;
+    private volatile long ultimaSincronizacaoNs = System.nanoTime(); // Fim da última tentativa, com ou sem sucesso
+
+    @Autowired
+    public FiltroCodigosEmitidos(@Qualifier("persistencia") MapeamentoUrlRepository persistencia,
+                                 FabricaThreads fabricaThreads,
+                                 @Value("${app.dados.diretorio:./dados}") String diretorioDados,
+                                 @Value("${app.filtro.capacidade-inicial:1000000}") long capacidadeInicial,
+                                 @Value("${app.filtro.taxa-falso-positivo:0.001}") double taxaFalsoPositivo,
+                                 @Value("${app.filtro.margem-sincronizacao-segundos:5}") long margemSincronizacaoSegundos,
+                                 @Value("${app.filtro.intervalo-minimo-confirmacao-ms:500}") long intervaloMinimoConfirmacaoMs) {
+        this.persistencia = persistencia;
+        this.fabricaThreads = fabricaThreads;
+        this.arquivoSnapshot = Paths.get(diretorioDados, ARQUIVO_SNAPSHOT);
+        this.capacidadeInicial = capacidadeInicial;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.margemSincronizacao = Duration.ofSeconds(margemSincronizacaoSegundos);
+        this.intervaloMinimoConfirmacaoNs = TimeUnit.MILLISECONDS.toNanos(intervaloMinimoConfirmacaoMs);
+        this.filtro = new FiltroBloomEscalavel(capacidadeInicial, taxaFalsoPositivo);
+    }
+
+    public boolean podeExistir(CodigoCurto codigoCurto) {
+        return !pronto || filtro.contemTalvez(codigoCurto.getValor());
+    }
+
+    // Uma negativa só vale para códigos criados antes da última sincronização. Para não transformar cada código
+    // inexistente numa consulta ao banco, a confirmação é limitada: no máximo uma sincronização a cada
+    // intervalo-minimo-confirmacao-ms, e quem encontra outra em andamento responde com o filtro atual sem esperar.
+    // Uma rajada de códigos aleatórios custa então no máximo uma consulta por dataCriacao por intervalo.
+    public boolean podeExistirAposSincronizar(CodigoCurto codigoCurto) {
+        if (podeExistir(codigoCurto)) {
+            return true;
+        }
+        if (!sincronizacaoVencida() || !travaSincronizacao.tryLock()) {
+            return false;
+        }
+        try {
+            if (sincronizacaoVencida()) { // Outra thread pode ter sincronizado entre a verificação e a trava
+                sincronizarIncremental();
+            }
+        } finally {
+            travaSincronizacao.unlock();
+        }
+        return filtro.contemTalvez(codigoCurto.getValor());
+    }
+
+    private boolean sincronizacaoVencida() {
+        return System.nanoTime() - ultimaSincronizacaoNs >= intervaloMinimoConfirmacaoNs;
+    }
+
+    public void registrar(CodigoCurto codigoCurto) {
+        travaCarga.readLock().lock();
+        try {
+            filtro.adicionar(codigoCurto.getValor());
+            if (!pronto) {
+                registradosDuranteCarga.add(codigoCurto.getValor()); // Reaplicado no filtro carregado
+            }
+        } finally {
+            travaCarga.readLock().unlock();
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (!cargaEmAndamento.compareAndSet(false, true)) {
+            return;
+        }
+        fabricaThreads.iniciar("filtro-codigos-carga", () -> {
+            try {
+                carregar();
+            } catch (RuntimeException e) {
+                log.error("Falha ao carregar o filtro de códigos emitidos. Consultas seguem direto ao repositório.", e);
+            } finally {
+                cargaEmAndamento.set(false);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.filtro.intervalo-sincronizacao-ms:2000}",
+            initialDelayString = "${app.filtro.intervalo-sincronizacao-ms:2000}")
+    public void sincronizar() {
+        if (!pronto) {
+            iniciarCarga(); // Nova tentativa caso a carga inicial tenha falhado
+            return;
+        }
+        travaSincronizacao.lock();
+        try {
+            sincronizarIncremental();
+        } finally {
+            travaSincronizacao.unlock();
+        }
+    }
+
+    // Chamado com travaSincronizacao. Em caso de falha sincronizadoAte não avança e a próxima tentativa cobre a janela.
+    private void sincronizarIncremental() {
+        LocalDateTime inicio = LocalDateTime.now();
+        try {
+            FiltroBloomEscalavel atual = filtro;
+            persistencia.percorrerCodigosCurtos(sincronizadoAte.minus(margemSincronizacao),
+                    codigo -> atual.adicionar(codigo.getValor()));
+            sincronizadoAte = inicio;
+        } catch (RuntimeException e) {
+            log.warn("Falha na sincronização incremental do filtro de códigos: {}", e.getMessage());
+        } finally {
+            ultimaSincronizacaoNs = System.nanoTime();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.filtro.intervalo-snapshot-ms:300000}",
+            initialDelayString = "${app.filtro.intervalo-snapshot-ms:300000}")
+    public void salvarSnapshot() {
+        if (!pronto) {
+            return;
+        }
+        try {
+            Files.createDirectories(arquivoSnapshot.getParent());
+            Path temporario = arquivoSnapshot.resolveSibling(ARQUIVO_SNAPSHOT + ".tmp");
+            try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                saida.writeInt(MAGICO_SNAPSHOT);
+                saida.writeLong(sincronizadoAte.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                filtro.escrever(saida);
+            }
+            Files.move(temporario, arquivoSnapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Snapshot do filtro de códigos salvo em {} ({} bytes de bits).", arquivoSnapshot, filtro.tamanhoEmBytes());
+        } catch (IOException e) {
+            log.warn("Não foi possível salvar o snapshot do filtro de códigos em {}: {}", arquivoSnapshot, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void salvarSnapshotAoEncerrar() {
+        salvarSnapshot();
+    }
+
+    private void carregar() {
+        long inicioMs = System.currentTimeMillis();
+        FiltroBloomEscalavel carregado = null;
+        LocalDateTime cobertoAte = null;
+
+        if (Files.exists(arquivoSnapshot)) {
+            try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivoSnapshot)))) {
+                if (entrada.readInt() == MAGICO_SNAPSHOT) {
+                    cobertoAte = LocalDateTime.ofInstant(Instant.ofEpochMilli(entrada.readLong()), ZoneId.systemDefault());
+                    carregado = FiltroBloomEscalavel.ler(entrada);
+                }
+            } catch (IOException e) {
+                log.warn("Snapshot do filtro de códigos inválido ({}). Recarregando do banco.", e.getMessage());
+                carregado = null;
+                cobertoAte = null;
+            }
+        }
+        if (carregado == null) {
+            carregado = new FiltroBloomEscalavel(capacidadeInicial, taxaFalsoPositivo);
+        }
+
+        // Sem snapshot, percorre a coleção inteira; com snapshot, apenas o que foi criado depois dele.
+        LocalDateTime inicioVarredura = LocalDateTime.now();
+        FiltroBloomEscalavel destino = carregado;
+        persistencia.percorrerCodigosCurtos(cobertoAte == null ? null : cobertoAte.minus(margemSincronizacao),
+                codigo -> destino.adicionar(codigo.getValor()));
+
+        travaCarga.writeLock().lock();
+        try {
+            String valor;
+            while ((valor = registradosDuranteCarga.poll()) != null) {
+                carregado.adicionar(valor);
+            }
+            filtro = carregado;
+            sincronizadoAte = inicioVarredura;
+            ultimaSincronizacaoNs = System.nanoTime();
+            pronto = true;
+        } finally {
+            travaCarga.writeLock().unlock();
+        }
+        log.info("Filtro de códigos emitidos pronto: {} códigos, {} KB, carregado em {} ms (snapshot: {}).",
+                carregado.getInsercoes(), carregado.tamanhoEmBytes() / 1024,
+                System.currentTimeMillis() - inicioMs, cobertoAte != null);
+    }
+}
@@ -0,0 +1,102 @@
+package oliveiradev.encurtador_url.infra.filtro;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Decorator que recusa códigos certamente inexistentes antes de chegarem ao banco. Nas leituras, uma negativa é
+// confirmada com uma sincronização do filtro, para não recusar um código recém-criado em outro nó.
+// Também atende existeCodigoCurto no encurtamento: um código novo quase nunca está no filtro, então não há round trip.
+public class MapeamentoUrlRepositoryFiltrado implements MapeamentoUrlRepository {
+    private static final Logger log = LoggerFactory.getLogger(MapeamentoUrlRepositoryFiltrado.class);
+
+    private final MapeamentoUrlRepository delegado;
+    private final FiltroCodigosEmitidos filtro;
+
+    public MapeamentoUrlRepositoryFiltrado(MapeamentoUrlRepository delegado, FiltroCodigosEmitidos filtro) {
+        this.delegado = delegado;
+        this.filtro = filtro;
+    }
+
+    @Override
+    public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
+        MapeamentoUrl salvo = delegado.salvar(mapeamentoUrl);
+        filtro.registrar(salvo.getCodigoCurto());
+        return salvo;
+    }
+
+    @Override
+    public ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos) {
+        ResultadoInsercaoLote resultado = delegado.inserirEmLote(mapeamentos);
+        for (int i = 0; i < mapeamentos.size(); i++) {
+            if (resultado.isInserido(i)) {
+                filtro.registrar(mapeamentos.get(i).getCodigoCurto());
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) {
+        if (!filtro.podeExistirAposSincronizar(codigoCurto)) {
+            log.trace("Filtro de códigos: '{}' certamente não existe.", codigoCurto.getValor());
+            return Optional.empty();
+        }
+        return delegado.buscarPorCodigoCurto(codigoCurto);
+    }
+
+    @Override
+    public Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        if (!filtro.podeExistirAposSincronizar(codigoCurto)) {
+            log.trace("Filtro de códigos: '{}' certamente não existe.", codigoCurto.getValor());
+            return Optional.empty();
+        }
+        return delegado.buscarDestinoRedirecionamento(codigoCurto);
+    }
+
+    @Override
+    public DestinoRedirecionamento buscarDestinoEmCache(String codigoCurto) {
+        return delegado.buscarDestinoEmCache(codigoCurto);
+    }
+
+    @Override
+    public boolean existeCodigoCurto(CodigoCurto codigoCurto) {
+        return filtro.podeExistir(codigoCurto) && delegado.existeCodigoCurto(codigoCurto);
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorUrlOriginal(UrlOriginal urlOriginal) {
+        return delegado.buscarPorUrlOriginal(urlOriginal);
+    }
+
+    @Override
+    public List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl) {
+        return delegado.buscarPorImpressaoDigital(impressaoDigitalUrl);
+    }
+
+    @Override
+    public void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos) {
+        delegado.incrementarContadoresAcesso(incrementos);
+    }
+
+    @Override
+    public void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor) {
+        delegado.percorrerCodigosCurtos(criadosDesde, consumidor);
+    }
+
+    @Override
+    public int removerExpirados(LocalDateTime expiradosAntesDe, int limite) {
+        return delegado.removerExpirados(expiradosAntesDe, limite);
+    }
+}
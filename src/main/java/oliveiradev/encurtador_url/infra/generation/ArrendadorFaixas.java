@@ -0,0 +1,6 @@
+package oliveiradev.encurtador_url.infra.generation;
+
+public interface ArrendadorFaixas {
+    // Reserva atomicamente 'tamanho' IDs consecutivos e retorna o primeiro deles.
+    long arrendar(long tamanho);
+}
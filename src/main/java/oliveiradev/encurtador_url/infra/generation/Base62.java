@@ -0,0 +1,41 @@
+package oliveiradev.encurtador_url.infra.generation;
+
+// Codificação base62 (0-9, A-Z, a-z) de inteiros não negativos, com preenchimento à esquerda até um tamanho mínimo.
+public final class Base62 {
+    private static final char[] ALFABETO =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int BASE = ALFABETO.length;
+
+    private Base62() {}
+
+    public static String codificar(long valor, int tamanhoMinimo) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Base62 só codifica valores não negativos: " + valor);
+        }
+        char[] buffer = new char[Math.max(11, tamanhoMinimo)]; // 62^11 > Long.MAX_VALUE
+        int posicao = buffer.length;
+        do {
+            buffer[--posicao] = ALFABETO[(int) (valor % BASE)];
+            valor /= BASE;
+        } while (valor > 0);
+        while (buffer.length - posicao < tamanhoMinimo) {
+            buffer[--posicao] = ALFABETO[0];
+        }
+        return new String(buffer, posicao, buffer.length - posicao);
+    }
+
+    public static long decodificar(String texto) {
+        long valor = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            valor = valor * BASE + indice(texto.charAt(i));
+        }
+        return valor;
+    }
+
+    private static int indice(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'A' && c <= 'Z') return c - 'A' + 10;
+        if (c >= 'a' && c <= 'z') return c - 'a' + 36;
+        throw new IllegalArgumentException("Caractere fora do alfabeto base62: " + c);
+    }
+}
@@ -2,12 +2,14 @@ package oliveiradev.encurtador_url.infra.generation;
 
 import oliveiradev.encurtador_url.domain.model.CodigoCurto;
 import oliveiradev.encurtador_url.domain.service.CodigoCurtoService; // Usa a interface definida no domínio
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
 import java.util.Base64;
 
 @Component
+@ConditionalOnProperty(name = "app.gerador.tipo", havingValue = "aleatorio")
 public class GeradorCodigoCurtoAleatorio implements CodigoCurtoService { // Implementa a interface do domínio
     private static final SecureRandom random = new SecureRandom();
     private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
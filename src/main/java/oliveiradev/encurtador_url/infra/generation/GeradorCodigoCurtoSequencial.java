@@ -0,0 +1,93 @@
+package oliveiradev.encurtador_url.infra.generation;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.service.CodigoCurtoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Gera códigos a partir de faixas de IDs arrendadas do banco (ex.: 10 mil por arrendamento) e distribuídas
+// em memória sem trava. Cada ID é único por construção, então não há verificação de existência.
+// Opcionalmente embaralha o ID com uma cifra de Feistel para que os códigos não sejam sequenciais.
+@Component
+@ConditionalOnProperty(name = "app.gerador.tipo", havingValue = "sequencial", matchIfMissing = true)
+public class GeradorCodigoCurtoSequencial implements CodigoCurtoService {
+    private static final Logger log = LoggerFactory.getLogger(GeradorCodigoCurtoSequencial.class);
+    private static final int TAMANHO_CODIGO = 8;
+    private static final int BITS_METADE_DOMINIO = 23; // 2^46 IDs cabem em 8 caracteres base62 (62^8 > 2^46)
+
+    private final ArrendadorFaixas arrendadorFaixas;
+    private final long tamanhoFaixa;
+    private final PermutacaoFeistel permutacao; // Nula quando o embaralhamento está desligado
+    private final ReentrantLock travaArrendamento = new ReentrantLock();
+    private volatile Faixa faixaAtual;
+
+    @Autowired
+    public GeradorCodigoCurtoSequencial(ArrendadorFaixas arrendadorFaixas,
+                                        @Value("${app.gerador.tamanho-faixa:10000}") long tamanhoFaixa,
+                                        @Value("${app.gerador.embaralhar:true}") boolean embaralhar,
+                                        @Value("${app.gerador.chave:encurtador-url}") String chave) {
+        this.arrendadorFaixas = arrendadorFaixas;
+        this.tamanhoFaixa = tamanhoFaixa;
+        this.permutacao = embaralhar ? new PermutacaoFeistel(BITS_METADE_DOMINIO, chave) : null;
+    }
+
+    @Override
+    public CodigoCurto gerar() {
+        long id = proximoId();
+        long valor = permutacao != null ? permutacao.cifrar(id) : id;
+        return new CodigoCurto(Base62.codificar(valor, TAMANHO_CODIGO));
+    }
+
+    @Override
+    public boolean garanteUnicidade() {
+        return true;
+    }
+
+    private long proximoId() {
+        while (true) {
+            Faixa faixa = faixaAtual;
+            if (faixa != null) {
+                long id = faixa.proximo.getAndIncrement();
+                if (id < faixa.fim) {
+                    return id;
+                }
+            }
+            renovarFaixa(faixa);
+        }
+    }
+
+    private void renovarFaixa(Faixa esgotada) {
+        travaArrendamento.lock();
+        try {
+            if (faixaAtual != esgotada) {
+                return; // Outra thread já arrendou uma nova faixa
+            }
+            long inicio = arrendadorFaixas.arrendar(tamanhoFaixa);
+            long fim = inicio + tamanhoFaixa;
+            if (fim > (1L << (2 * BITS_METADE_DOMINIO))) {
+                throw new IllegalStateException("Espaço de IDs para códigos curtos esgotado.");
+            }
+            log.debug("Nova faixa de IDs arrendada: [{}, {})", inicio, fim);
+            faixaAtual = new Faixa(inicio, fim);
+        } finally {
+            travaArrendamento.unlock();
+        }
+    }
+
+    private static final class Faixa {
+        private final AtomicLong proximo;
+        private final long fim;
+
+        private Faixa(long inicio, long fim) {
+            this.proximo = new AtomicLong(inicio);
+            this.fim = fim;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package oliveiradev.encurtador_url.infra.generation;
+
+import oliveiradev.encurtador_url.infra.hash.Hash64;
+
+// Cifra de Feistel balanceada sobre um domínio de 2 * bitsMetade bits: uma bijeção reversível e com chave,
+// usada para que IDs sequenciais não resultem em códigos curtos adivinháveis.
+public final class PermutacaoFeistel {
+    private static final int RODADAS = 4;
+
+    private final int bitsMetade;
+    private final long mascaraMetade;
+    private final long[] chavesRodada;
+
+    public PermutacaoFeistel(int bitsMetade, String chave) {
+        this.bitsMetade = bitsMetade;
+        this.mascaraMetade = (1L << bitsMetade) - 1;
+        this.chavesRodada = new long[RODADAS];
+        for (int i = 0; i < RODADAS; i++) {
+            chavesRodada[i] = Hash64.de(chave, i + 1);
+        }
+    }
+
+    public long getTamanhoDominio() {
+        return 1L << (2 * bitsMetade);
+    }
+
+    public long cifrar(long valor) {
+        long esquerda = (valor >>> bitsMetade) & mascaraMetade;
+        long direita = valor & mascaraMetade;
+        for (int i = 0; i < RODADAS; i++) {
+            long novaDireita = esquerda ^ rodada(direita, i);
+            esquerda = direita;
+            direita = novaDireita;
+        }
+        return (esquerda << bitsMetade) | direita;
+    }
+
+    public long decifrar(long valor) {
+        long esquerda = (valor >>> bitsMetade) & mascaraMetade;
+        long direita = valor & mascaraMetade;
+        for (int i = RODADAS - 1; i >= 0; i--) {
+            long novaEsquerda = direita ^ rodada(esquerda, i);
+            direita = esquerda;
+            esquerda = novaEsquerda;
+        }
+        return (esquerda << bitsMetade) | direita;
+    }
+
+    private long rodada(long metade, int indice) {
+        return Hash64.misturar(metade ^ chavesRodada[indice]) & mascaraMetade;
+    }
+}
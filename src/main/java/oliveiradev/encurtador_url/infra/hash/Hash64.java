@@ -0,0 +1,42 @@
+package oliveiradev.encurtador_url.infra.hash;
+
+// Hash de 64 bits não criptográfico (FNV-1a + finalizador do MurmurHash3) usado pelas estruturas probabilísticas.
+// Não aloca: opera diretamente sobre os caracteres da String.
+public final class Hash64 {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+    private static final long PROPORCAO_AUREA = 0x9E3779B97F4A7C15L;
+
+    private Hash64() {}
+
+    public static long de(CharSequence valor) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= FNV_PRIMO;
+        }
+        return misturar(h);
+    }
+
+    public static long de(CharSequence valor, long semente) {
+        return misturar(de(valor) ^ (semente * PROPORCAO_AUREA));
+    }
+
+    public static long de(long valor) {
+        return misturar(valor ^ PROPORCAO_AUREA);
+    }
+
+    // Segundo hash independente derivado do primeiro, para double hashing.
+    public static long secundario(long hash) {
+        return misturar(hash ^ PROPORCAO_AUREA);
+    }
+
+    public static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
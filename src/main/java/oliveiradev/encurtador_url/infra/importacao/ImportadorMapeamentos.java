@@ -0,0 +1,469 @@
+package oliveiradev.encurtador_url.infra.importacao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// Importa pares código -> URL de outro encurtador preservando os códigos, a partir de um arquivo NDJSON
+// ({"codigo": "...", "url": "...", "expiracao": "2030-01-01T00:00:00"}) ou CSV (codigo,url[,expiracao], cabeçalho
+// opcional). O arquivo é lido em streaming e gravado em lotes não ordenados pelo repositório principal, para o filtro
+// de códigos emitidos registrar os códigos importados. No máximo lotes-simultaneos lotes ficam pendentes: a leitura
+// espera por uma vaga (contrapressão), então a memória não depende do tamanho do arquivo.
+// O checkpoint guarda o deslocamento até onde todos os lotes foram confirmados, em ordem; ao retomar, o que estava em
+// andamento é reenviado e os códigos já gravados voltam como duplicados, sem efeito.
+@Component
+public class ImportadorMapeamentos {
+    private static final Logger log = LoggerFactory.getLogger(ImportadorMapeamentos.class);
+    private static final Pattern CODIGO_VALIDO = Pattern.compile("[0-9A-Za-z_-]{1,64}");
+    private static final int TAMANHO_BUFFER_LEITURA = 1 << 20;
+    private static final int TAMANHO_MAXIMO_LINHA = 16 * 1024;
+    private static final int MAXIMO_AVISOS_LINHA = 100;
+
+    private final MapeamentoUrlRepository repositorio;
+    private final FabricaThreads fabricaThreads;
+    private final ObjectMapper objectMapper;
+    private final Path diretorioArquivos;
+    private final Path diretorioCheckpoints;
+    private final int tamanhoLote;
+    private final int lotesSimultaneos;
+    private final long intervaloCheckpointMs;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final ArrayDeque<Lote> pendentes = new ArrayDeque<>(); // Em ordem de leitura; protegido pela trava
+    private volatile boolean emAndamento;
+    private volatile String arquivoAtual;
+    private volatile long tamanhoArquivo;
+    private volatile String erro;
+    private final AtomicLong posicaoConfirmada = new AtomicLong();
+    private final AtomicLong linhasLidas = new AtomicLong();
+    private final AtomicLong importados = new AtomicLong();
+    private final AtomicLong duplicados = new AtomicLong();
+    private final AtomicLong invalidos = new AtomicLong();
+    private final AtomicLong expirados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private Semaphore vagas;
+    private Path checkpoint;
+    private long modificadoEm;
+    private long ultimoCheckpointMs;
+    private long avisosLinha;
+
+    @Autowired
+    public ImportadorMapeamentos(MapeamentoUrlRepository repositorio,
+                                 FabricaThreads fabricaThreads,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.dados.diretorio:./dados}") String diretorioDados,
+                                 @Value("${app.importacao.diretorio:${app.dados.diretorio:./dados}/importacoes}") String diretorioArquivos,
+                                 @Value("${app.importacao.tamanho-lote:1000}") int tamanhoLote,
+                                 @Value("${app.importacao.lotes-simultaneos:4}") int lotesSimultaneos,
+                                 @Value("${app.importacao.intervalo-checkpoint-ms:5000}") long intervaloCheckpointMs) {
+        this.repositorio = repositorio;
+        this.fabricaThreads = fabricaThreads;
+        this.objectMapper = objectMapper;
+        this.diretorioArquivos = Paths.get(diretorioArquivos).toAbsolutePath().normalize();
+        this.diretorioCheckpoints = Paths.get(diretorioDados, "checkpoints-importacao");
+        this.tamanhoLote = tamanhoLote;
+        this.lotesSimultaneos = lotesSimultaneos;
+        this.intervaloCheckpointMs = intervaloCheckpointMs;
+    }
+
+    // Falso se já houver uma importação em andamento. O arquivo é relativo a app.importacao.diretorio.
+    public boolean iniciar(String nomeArquivo) {
+        Path arquivo = resolver(nomeArquivo);
+        trava.lock();
+        try {
+            if (emAndamento) {
+                return false;
+            }
+            emAndamento = true;
+        } finally {
+            trava.unlock();
+        }
+        fabricaThreads.iniciar("importacao-mapeamentos", () -> {
+            try {
+                importar(arquivo);
+            } catch (IOException | RuntimeException e) {
+                erro = e.getMessage();
+                log.error("Importação de {} interrompida; pode ser retomada do último checkpoint.", arquivo, e);
+            } finally {
+                emAndamento = false;
+            }
+        });
+        return true;
+    }
+
+    public boolean isEmAndamento() { return emAndamento; }
+    public String getArquivoAtual() { return arquivoAtual; }
+    public long getTamanhoArquivo() { return tamanhoArquivo; }
+    public long getPosicaoConfirmada() { return posicaoConfirmada.get(); }
+    public long getLinhasLidas() { return linhasLidas.get(); }
+    public long getImportados() { return importados.get(); }
+    public long getDuplicados() { return duplicados.get(); }
+    public long getInvalidos() { return invalidos.get(); }
+    public long getExpirados() { return expirados.get(); }
+    public long getFalhas() { return falhas.get(); }
+    public String getErro() { return erro; }
+
+    void importar(Path arquivo) throws IOException {
+        arquivoAtual = diretorioArquivos.relativize(arquivo).toString();
+        tamanhoArquivo = Files.size(arquivo);
+        modificadoEm = Files.getLastModifiedTime(arquivo).toMillis();
+        checkpoint = diretorioCheckpoints.resolve(arquivoAtual.replace('/', '_').replace('\\', '_') + ".checkpoint");
+        erro = null;
+        long inicio = carregarCheckpoint();
+        boolean ndjson = !arquivo.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        vagas = new Semaphore(lotesSimultaneos);
+        pendentes.clear();
+        avisosLinha = 0;
+        ultimoCheckpointMs = System.currentTimeMillis();
+        if (inicio > 0) {
+            log.info("Retomando a importação de {} a partir do byte {} de {}.", arquivo, inicio, tamanhoArquivo);
+        }
+        try (LeitorLinhas leitor = new LeitorLinhas(arquivo, inicio, TAMANHO_BUFFER_LEITURA, TAMANHO_MAXIMO_LINHA);
+             ExecutorService executor = fabricaThreads.novoExecutor("importacao-lote")) {
+            Lote lote = new Lote();
+            long inicioLinha = inicio;
+            String linha;
+            while (erro == null && (linha = leitor.proxima()) != null) {
+                if (inicioLinha == 0) {
+                    linha = semMarcaBom(linha);
+                    if (!ndjson && linha.regionMatches(true, 0, "codigo", 0, 6)) {
+                        inicioLinha = leitor.getPosicao();
+                        continue; // Cabeçalho do CSV
+                    }
+                }
+                long posicaoLinha = inicioLinha;
+                inicioLinha = leitor.getPosicao();
+                if (linha.isBlank()) {
+                    continue;
+                }
+                lote.lidas++;
+                if (leitor.isTruncada()) {
+                    lote.invalidos++;
+                    avisar(arquivo, posicaoLinha, "linha acima de " + TAMANHO_MAXIMO_LINHA + " bytes");
+                    continue;
+                }
+                MapeamentoUrl mapeamento = interpretar(arquivo, posicaoLinha, linha, ndjson, lote);
+                if (mapeamento == null) {
+                    continue;
+                }
+                lote.mapeamentos.add(mapeamento);
+                if (lote.mapeamentos.size() >= tamanhoLote) {
+                    if (!enviar(lote, leitor.getPosicao(), executor)) {
+                        break;
+                    }
+                    lote = new Lote();
+                }
+            }
+            if (erro == null) {
+                enviar(lote, leitor.getPosicao(), executor);
+            }
+        } // O close do executor espera os lotes em andamento
+        trava.lock();
+        try {
+            salvarCheckpoint();
+        } finally {
+            trava.unlock();
+        }
+        if (erro == null) {
+            log.info("Importação de {} concluída: {} linhas, {} importados, {} duplicados, {} inválidos, {} expirados, {} falhas.",
+                    arquivo, linhasLidas.get(), importados.get(), duplicados.get(), invalidos.get(), expirados.get(), falhas.get());
+        }
+    }
+
+    // Espera uma vaga (contrapressão) e envia o lote; falso se a importação foi abortada enquanto esperava.
+    private boolean enviar(Lote lote, long fim, ExecutorService executor) {
+        lote.fim = fim;
+        try {
+            while (!vagas.tryAcquire(1, TimeUnit.SECONDS)) {
+                if (erro != null) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            erro = "Importação interrompida.";
+            return false;
+        }
+        trava.lock();
+        try {
+            pendentes.addLast(lote);
+        } finally {
+            trava.unlock();
+        }
+        if (lote.mapeamentos.isEmpty()) {
+            concluir(lote);
+            return true;
+        }
+        executor.execute(() -> {
+            try {
+                ResultadoInsercaoLote resultado = repositorio.inserirEmLote(lote.mapeamentos);
+                lote.duplicados = resultado.getIndicesDuplicados().size();
+                lote.falhas = resultado.getErrosPorIndice().size();
+                lote.importados = lote.mapeamentos.size() - lote.duplicados - lote.falhas;
+                if (!resultado.getErrosPorIndice().isEmpty()) {
+                    log.warn("Lote até o byte {} com {} falhas, ex.: {}", lote.fim, lote.falhas,
+                            resultado.getErrosPorIndice().values().iterator().next());
+                }
+                concluir(lote);
+            } catch (RuntimeException e) {
+                // O lote fica pendente: o checkpoint para antes dele e a leitura é abortada
+                erro = "Falha ao gravar o lote até o byte " + lote.fim + ": " + e.getMessage();
+                log.error("Falha ao gravar lote da importação; abortando.", e);
+            }
+        });
+        return true;
+    }
+
+    // Confirma, em ordem de leitura, os lotes concluídos no início da fila; cada confirmação libera uma vaga.
+    private void concluir(Lote lote) {
+        trava.lock();
+        try {
+            lote.mapeamentos = null; // Libera a memória mesmo se um lote anterior ainda estiver pendente
+            lote.concluido = true;
+            Lote cabeca;
+            while ((cabeca = pendentes.peekFirst()) != null && cabeca.concluido) {
+                pendentes.pollFirst();
+                linhasLidas.addAndGet(cabeca.lidas);
+                importados.addAndGet(cabeca.importados);
+                duplicados.addAndGet(cabeca.duplicados);
+                invalidos.addAndGet(cabeca.invalidos);
+                expirados.addAndGet(cabeca.expirados);
+                falhas.addAndGet(cabeca.falhas);
+                posicaoConfirmada.set(cabeca.fim);
+                vagas.release();
+            }
+            long agoraMs = System.currentTimeMillis();
+            if (agoraMs - ultimoCheckpointMs >= intervaloCheckpointMs) {
+                ultimoCheckpointMs = agoraMs;
+                salvarCheckpoint();
+                log.info("Importação de {}: {} de {} bytes ({}%), {} importados, {} duplicados, {} inválidos.",
+                        arquivoAtual, posicaoConfirmada.get(), tamanhoArquivo,
+                        tamanhoArquivo == 0 ? 100 : posicaoConfirmada.get() * 100 / tamanhoArquivo,
+                        importados.get(), duplicados.get(), invalidos.get());
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Nulo para linha inválida ou já expirada, contada no lote.
+    private MapeamentoUrl interpretar(Path arquivo, long posicaoLinha, String linha, boolean ndjson, Lote lote) {
+        String codigo;
+        String url;
+        String expiracao;
+        try {
+            if (ndjson) {
+                JsonNode no = objectMapper.readTree(linha);
+                codigo = no.path("codigo").asText(null);
+                url = no.path("url").asText(null);
+                expiracao = no.path("expiracao").asText(null);
+            } else {
+                List<String> campos = camposCsv(linha);
+                codigo = campos.get(0);
+                url = campos.size() > 1 ? campos.get(1) : null;
+                expiracao = campos.size() > 2 ? campos.get(2) : null;
+            }
+            if (codigo == null || !CODIGO_VALIDO.matcher(codigo).matches()) {
+                throw new IllegalArgumentException("código curto inválido: " + codigo);
+            }
+            UrlOriginal urlOriginal = new UrlOriginal(url == null ? "" : url.trim());
+            validarUrl(urlOriginal);
+            LocalDateTime dataExpiracao = expiracao == null || expiracao.isBlank() ? null : converterData(expiracao.trim());
+            if (dataExpiracao != null && dataExpiracao.isBefore(LocalDateTime.now())) {
+                lote.expirados++;
+                return null;
+            }
+            return new MapeamentoUrl(new CodigoCurto(codigo), urlOriginal, dataExpiracao);
+        } catch (IOException | IllegalArgumentException | DateTimeParseException e) {
+            lote.invalidos++;
+            avisar(arquivo, posicaoLinha, e.getMessage());
+            return null;
+        }
+    }
+
+    // Mesmo critério do @URL da API de encurtamento: URL absoluta http(s) com host.
+    private static void validarUrl(UrlOriginal urlOriginal) {
+        try {
+            URI uri = new URI(urlOriginal.getValor());
+            String esquema = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            if (!(esquema.equals("http") || esquema.equals("https")) || uri.getHost() == null) {
+                throw new IllegalArgumentException("URL não é http(s) absoluta: " + urlOriginal.getValor());
+            }
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("URL inválida: " + e.getMessage());
+        }
+    }
+
+    private static LocalDateTime converterData(String texto) {
+        try {
+            return LocalDateTime.parse(texto);
+        } catch (DateTimeParseException e) {
+            // Com fuso (ex.: ...Z): convertida para o fuso local, como as demais datas do domínio
+            return OffsetDateTime.parse(texto).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+    }
+
+    // CSV simples (RFC 4180): vírgula como separador, campos entre aspas podem conter vírgulas e aspas dobradas.
+    static List<String> camposCsv(String linha) {
+        List<String> campos = new ArrayList<>(3);
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+
+    private static String semMarcaBom(String linha) {
+        return !linha.isEmpty() && linha.charAt(0) == '\uFEFF' ? linha.substring(1) : linha;
+    }
+
+    private void avisar(Path arquivo, long posicaoLinha, String motivo) {
+        if (avisosLinha++ < MAXIMO_AVISOS_LINHA) {
+            log.warn("Linha inválida em {} (byte {}): {}", arquivo.getFileName(), posicaoLinha, motivo);
+        } else if (avisosLinha == MAXIMO_AVISOS_LINHA + 1) {
+            log.warn("Mais de {} linhas inválidas em {}; as próximas só serão contadas.", MAXIMO_AVISOS_LINHA,
+                    arquivo.getFileName());
+        }
+    }
+
+    private Path resolver(String nomeArquivo) {
+        if (nomeArquivo == null || nomeArquivo.isBlank()) {
+            throw new IllegalArgumentException("Informe o arquivo a importar.");
+        }
+        Path arquivo = diretorioArquivos.resolve(nomeArquivo).normalize();
+        if (!arquivo.startsWith(diretorioArquivos)) {
+            throw new IllegalArgumentException("O arquivo precisa estar em " + diretorioArquivos + ".");
+        }
+        if (!Files.isRegularFile(arquivo)) {
+            throw new IllegalArgumentException("Arquivo não encontrado: " + nomeArquivo);
+        }
+        return arquivo;
+    }
+
+    // Zera os contadores ou os retoma do checkpoint, se ele for deste mesmo arquivo (tamanho e data de modificação).
+    private long carregarCheckpoint() {
+        posicaoConfirmada.set(0);
+        linhasLidas.set(0);
+        importados.set(0);
+        duplicados.set(0);
+        invalidos.set(0);
+        expirados.set(0);
+        falhas.set(0);
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        Properties propriedades = new Properties();
+        try (Reader leitor = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+            propriedades.load(leitor);
+            if (Long.parseLong(propriedades.getProperty("tamanhoArquivo")) != tamanhoArquivo
+                    || Long.parseLong(propriedades.getProperty("modificadoEm")) != modificadoEm) {
+                log.warn("Checkpoint {} é de outra versão do arquivo; importando desde o início.", checkpoint);
+                return 0;
+            }
+            linhasLidas.set(Long.parseLong(propriedades.getProperty("linhasLidas")));
+            importados.set(Long.parseLong(propriedades.getProperty("importados")));
+            duplicados.set(Long.parseLong(propriedades.getProperty("duplicados")));
+            invalidos.set(Long.parseLong(propriedades.getProperty("invalidos")));
+            expirados.set(Long.parseLong(propriedades.getProperty("expirados")));
+            falhas.set(Long.parseLong(propriedades.getProperty("falhas")));
+            posicaoConfirmada.set(Long.parseLong(propriedades.getProperty("posicao")));
+            return posicaoConfirmada.get();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Checkpoint {} ilegível ({}); importando desde o início.", checkpoint, e.getMessage());
+            return 0;
+        }
+    }
+
+    // Chamado com a trava; grava em arquivo temporário e troca atomicamente.
+    private void salvarCheckpoint() {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("posicao", Long.toString(posicaoConfirmada.get()));
+        propriedades.setProperty("tamanhoArquivo", Long.toString(tamanhoArquivo));
+        propriedades.setProperty("modificadoEm", Long.toString(modificadoEm));
+        propriedades.setProperty("linhasLidas", Long.toString(linhasLidas.get()));
+        propriedades.setProperty("importados", Long.toString(importados.get()));
+        propriedades.setProperty("duplicados", Long.toString(duplicados.get()));
+        propriedades.setProperty("invalidos", Long.toString(invalidos.get()));
+        propriedades.setProperty("expirados", Long.toString(expirados.get()));
+        propriedades.setProperty("falhas", Long.toString(falhas.get()));
+        try {
+            Files.createDirectories(diretorioCheckpoints);
+            Path temporario = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+            try (Writer escritor = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+                propriedades.store(escritor, "Checkpoint de importação de " + arquivoAtual);
+            }
+            Files.move(temporario, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Não foi possível gravar o checkpoint da importação em {}: {}", checkpoint, e.getMessage());
+        }
+    }
+
+    // Contadores de um lote, somados aos totais quando ele é confirmado em ordem. Campos escritos por uma thread e lidos
+    // por outra depois de passar pela trava.
+    private static final class Lote {
+        List<MapeamentoUrl> mapeamentos = new ArrayList<>();
+        long fim;
+        boolean concluido;
+        int lidas;
+        int invalidos;
+        int expirados;
+        int importados;
+        int duplicados;
+        int falhas;
+    }
+}
@@ -0,0 +1,99 @@
+package oliveiradev.encurtador_url.infra.importacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Lê um arquivo de texto UTF-8 linha a linha por um FileChannel, sabendo o deslocamento em bytes de cada linha (o
+// BufferedReader não expõe isso), para gravar checkpoints e retomar do ponto exato. Memória fixa: o buffer de leitura
+// e o da linha, que não passa do tamanho máximo; o excedente de uma linha longa é descartado e ela é marcada truncada.
+final class LeitorLinhas implements Closeable {
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final int tamanhoMaximoLinha;
+    private byte[] linha = new byte[256];
+    private long posicao; // Deslocamento do primeiro byte ainda não lido
+    private boolean truncada;
+
+    LeitorLinhas(Path arquivo, long inicio, int tamanhoBuffer, int tamanhoMaximoLinha) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        this.canal.position(inicio);
+        this.posicao = inicio;
+        this.buffer = ByteBuffer.allocate(tamanhoBuffer).flip(); // Começa vazio
+        this.tamanhoMaximoLinha = tamanhoMaximoLinha;
+    }
+
+    // Próxima linha sem o terminador (\n ou \r\n); nulo no fim do arquivo.
+    String proxima() throws IOException {
+        int tamanho = 0;
+        boolean leuAlgo = false;
+        truncada = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int lidos = canal.read(buffer);
+                buffer.flip();
+                if (lidos <= 0) {
+                    return leuAlgo ? texto(tamanho) : null; // Última linha sem \n
+                }
+            }
+            leuAlgo = true;
+            byte[] dados = buffer.array();
+            int inicio = buffer.position();
+            int fim = buffer.limit();
+            int i = inicio;
+            while (i < fim && dados[i] != '\n') {
+                i++;
+            }
+            int copiar = Math.min(i - inicio, tamanhoMaximoLinha - tamanho);
+            if (copiar < i - inicio) {
+                truncada = true;
+            }
+            if (copiar > 0) {
+                garantirCapacidade(tamanho + copiar);
+                System.arraycopy(dados, inicio, linha, tamanho, copiar);
+                tamanho += copiar;
+            }
+            posicao += i - inicio;
+            if (i < fim) {
+                buffer.position(i + 1);
+                posicao++;
+                return texto(tamanho);
+            }
+            buffer.position(fim);
+        }
+    }
+
+    // Deslocamento logo depois da última linha devolvida.
+    long getPosicao() {
+        return posicao;
+    }
+
+    boolean isTruncada() {
+        return truncada;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private void garantirCapacidade(int necessario) {
+        if (necessario > linha.length) {
+            byte[] maior = new byte[Math.min(Math.max(necessario, linha.length * 2), tamanhoMaximoLinha)];
+            System.arraycopy(linha, 0, maior, 0, linha.length);
+            linha = maior;
+        }
+    }
+
+    private String texto(int tamanho) {
+        if (tamanho > 0 && linha[tamanho - 1] == '\r') {
+            tamanho--;
+        }
+        return new String(linha, 0, tamanho, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,309 @@
+package oliveiradev.encurtador_url.infra.invalidacao;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryEmCache;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryFixado;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import oliveiradev.encurtador_url.infra.filtro.FiltroCodigosEmitidos;
+import oliveiradev.encurtador_url.infra.persistence.SpringDataMongoMapeamentoUrlRepositoryImpl;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Acompanha o change stream de mapeamentos_url (exige replica set; um nó único serve para testes) e mantém os caches
+// deste nó coerentes com as alterações feitas por qualquer nó, o que permite TTLs longos no cache L1.
+// Alteração ou troca de documento: o código sai do cache L1 e, se fixado, é recarregado. Remoção: idem, quando o
+// servidor entrega a pré-imagem; sem ela nada se perde, porque só se removem mapeamentos já expirados, que os caches
+// descartam sozinhos. Com app.persistencia.colecao-redirecionamentos, o documento enxuto do código é regravado (ou
+// removido) antes da invalidação, para a próxima leitura não recarregar a versão antiga de lá. Inserção: o código entra no filtro de códigos emitidos sem esperar a sincronização periódica.
+// Incrementos de contadorAcessos são filtrados no próprio servidor. O resume token é gravado num arquivo local;
+// se o histórico (oplog) já não o contém, o cache L1 é esvaziado, os códigos fixados são recarregados e o stream
+// recomeça do ponto atual.
+@Component
+@ConditionalOnExpression("${app.invalidacao.habilitado:false} and '${app.persistencia.motor:mongo}' == 'mongo'")
+public class OuvinteAlteracoesMapeamentos {
+    private static final Logger log = LoggerFactory.getLogger(OuvinteAlteracoesMapeamentos.class);
+    private static final String ARQUIVO_TOKEN = "change-stream-mapeamentos.json";
+    private static final int CODIGO_HISTORICO_PERDIDO = 286; // ChangeStreamHistoryLost
+    private static final int CODIGO_ERRO_FATAL = 280; // ChangeStreamFatalError
+    private static final long ESPERA_MAXIMA_RECONEXAO_MS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final SpringDataMongoMapeamentoUrlRepositoryImpl persistencia;
+    private final MapeamentoUrlRepositoryEmCache repositorioEmCache;
+    private final MapeamentoUrlRepositoryFixado repositorioFixado;
+    private final FiltroCodigosEmitidos filtroCodigosEmitidos;
+    private final FabricaThreads fabricaThreads;
+    private final Path arquivoToken;
+    private final long esperaMaximaMs;
+    private final Counter invalidacoes;
+    private final Counter insercoes;
+    private final Counter reinicios;
+
+    private volatile BsonDocument ultimoToken;
+    private volatile BsonDocument tokenGravado;
+    private volatile boolean ativo = true;
+    private volatile Thread thread;
+
+    @Autowired
+    public OuvinteAlteracoesMapeamentos(MongoTemplate mongoTemplate,
+                                        SpringDataMongoMapeamentoUrlRepositoryImpl persistencia,
+                                        MapeamentoUrlRepositoryEmCache repositorioEmCache,
+                                        MapeamentoUrlRepositoryFixado repositorioFixado,
+                                        FiltroCodigosEmitidos filtroCodigosEmitidos,
+                                        FabricaThreads fabricaThreads,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.dados.diretorio:./dados}") String diretorioDados,
+                                        @Value("${app.invalidacao.espera-maxima-ms:1000}") long esperaMaximaMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.persistencia = persistencia;
+        this.repositorioEmCache = repositorioEmCache;
+        this.repositorioFixado = repositorioFixado;
+        this.filtroCodigosEmitidos = filtroCodigosEmitidos;
+        this.fabricaThreads = fabricaThreads;
+        this.arquivoToken = Paths.get(diretorioDados, ARQUIVO_TOKEN);
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.invalidacoes = Counter.builder("encurtador.invalidacao.eventos").tag("tipo", "invalidacao").register(meterRegistry);
+        this.insercoes = Counter.builder("encurtador.invalidacao.eventos").tag("tipo", "insercao").register(meterRegistry);
+        this.reinicios = Counter.builder("encurtador.invalidacao.reinicios").register(meterRegistry);
+    }
+
+    // Depois do ApplicationRunner do aquecimento: o snapshot já está no cache e os eventos perdidos o corrigem.
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        ultimoToken = lerToken();
+        tokenGravado = ultimoToken;
+        habilitarPreImagens();
+        thread = fabricaThreads.iniciar("invalidacao-mapeamentos", this::acompanhar);
+    }
+
+    @Scheduled(fixedDelayString = "${app.invalidacao.intervalo-gravacao-token-ms:1000}",
+            initialDelayString = "${app.invalidacao.intervalo-gravacao-token-ms:1000}")
+    public void gravarToken() {
+        BsonDocument token = ultimoToken;
+        if (token == null || token.equals(tokenGravado)) {
+            return;
+        }
+        try {
+            Files.createDirectories(arquivoToken.getParent());
+            Path temporario = arquivoToken.resolveSibling(ARQUIVO_TOKEN + ".tmp");
+            Files.writeString(temporario, token.toJson(), StandardCharsets.UTF_8);
+            Files.move(temporario, arquivoToken, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tokenGravado = token;
+        } catch (IOException e) {
+            log.warn("Não foi possível gravar o resume token do change stream em {}: {}", arquivoToken, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void parar() {
+        ativo = false;
+        Thread atual = thread;
+        if (atual != null) {
+            atual.interrupt();
+        }
+        gravarToken();
+    }
+
+    void acompanhar() {
+        long esperaMs = 1000;
+        while (ativo) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = abrirCursor()) {
+                log.info("Change stream de mapeamentos aberto ({}).", ultimoToken == null ? "a partir de agora" : "retomado");
+                esperaMs = 1000;
+                while (ativo) {
+                    ChangeStreamDocument<Document> evento = cursor.tryNext();
+                    if (evento != null && !tratar(evento)) {
+                        break; // Stream invalidado (coleção apagada ou renomeada): recomeça do ponto atual
+                    }
+                    BsonDocument token = cursor.getResumeToken(); // Avança mesmo sem eventos (post-batch token)
+                    if (token != null) {
+                        ultimoToken = token;
+                    }
+                }
+            } catch (MongoServerException e) {
+                if (e.getCode() == CODIGO_HISTORICO_PERDIDO || e.getCode() == CODIGO_ERRO_FATAL) {
+                    log.warn("Resume token do change stream fora do histórico ({}); esvaziando os caches.", e.getMessage());
+                    recomecar();
+                } else {
+                    esperaMs = aguardarReconexao(e, esperaMs);
+                }
+            } catch (MongoException e) {
+                if (!ativo) {
+                    return;
+                }
+                esperaMs = aguardarReconexao(e, esperaMs);
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado ao tratar o change stream de mapeamentos.", e);
+                esperaMs = aguardarReconexao(e, esperaMs);
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> abrirCursor() {
+        String colecao = mongoTemplate.getCollectionName(MapeamentoUrl.class);
+        var stream = mongoTemplate.getCollection(colecao)
+                .watch(pipeline())
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        BsonDocument token = ultimoToken;
+        return (token != null ? stream.resumeAfter(token) : stream).cursor();
+    }
+
+    // Descarta no servidor as atualizações que só mexem em contadorAcessos (a maior parte do tráfego de escrita)
+    // e projeta apenas o código e os campos do redirecionamento, mantendo o _id do evento, que é o resume token.
+    private static List<Bson> pipeline() {
+        Document camposAlterados = new Document("$objectToArray", "$updateDescription.updatedFields");
+        Document outrosCampos = new Document("$filter", new Document("input", camposAlterados)
+                .append("cond", new Document("$ne", List.of("$$this.k", "contadorAcessos"))));
+        Document atualizacaoRelevante = new Document("$or", List.of(
+                new Document("$gt", List.of(new Document("$size", outrosCampos), 0)),
+                new Document("$gt", List.of(new Document("$size",
+                        new Document("$ifNull", List.of("$updateDescription.removedFields", List.of()))), 0))));
+        Document filtro = new Document("$or", List.of(
+                new Document("operationType", new Document("$ne", "update")),
+                new Document("$expr", atualizacaoRelevante)));
+        Document projecao = new Document("operationType", 1)
+                .append("ns", 1)
+                .append("documentKey", 1)
+                .append("fullDocument.codigoCurto", 1)
+                .append("fullDocument.urlOriginal", 1)
+                .append("fullDocument.dataExpiracao", 1)
+                .append("fullDocumentBeforeChange.codigoCurto", 1);
+        return List.of(new Document("$match", filtro), new Document("$project", projecao));
+    }
+
+    // Retorna falso quando o stream foi invalidado e precisa ser reaberto.
+    boolean tratar(ChangeStreamDocument<Document> evento) {
+        switch (evento.getOperationType()) {
+            case INSERT -> {
+                String codigo = codigo(evento.getFullDocument());
+                if (codigo != null) {
+                    filtroCodigosEmitidos.registrar(new CodigoCurto(codigo));
+                    insercoes.increment();
+                }
+            }
+            case UPDATE, REPLACE -> {
+                Document documento = evento.getFullDocument(); // Nulo se o documento já foi removido: a remoção vem a seguir
+                String codigo = codigo(documento);
+                if (codigo != null) {
+                    Document urlOriginal = documento.get("urlOriginal", Document.class);
+                    if (urlOriginal != null) {
+                        persistencia.sincronizarRedirecionamento(codigo, urlOriginal.getString("valor"),
+                                documento.getDate("dataExpiracao"));
+                    } else {
+                        persistencia.removerRedirecionamento(codigo);
+                    }
+                }
+                invalidar(codigo);
+            }
+            case DELETE -> {
+                String codigo = codigo(evento.getFullDocumentBeforeChange());
+                if (codigo != null) {
+                    persistencia.removerRedirecionamento(codigo);
+                }
+                invalidar(codigo);
+            }
+            case DROP, RENAME, DROP_DATABASE -> log.warn("Coleção de mapeamentos alterada ({}).", evento.getOperationType());
+            case INVALIDATE -> {
+                recomecar();
+                return false;
+            }
+            default -> {
+            }
+        }
+        return true;
+    }
+
+    private void invalidar(String codigo) {
+        if (codigo == null) {
+            return; // Atualização de um documento já removido, ou remoção sem pré-imagem
+        }
+        CodigoCurto codigoCurto = new CodigoCurto(codigo);
+        repositorioEmCache.invalidar(codigoCurto);
+        repositorioFixado.recarregar(codigoCurto);
+        invalidacoes.increment();
+        log.debug("Código '{}' alterado em outro nó; removido dos caches locais.", codigo);
+    }
+
+    // Eventos perdidos podem ter alterado qualquer código: nada do que está em memória é confiável.
+    private void recomecar() {
+        ultimoToken = null;
+        repositorioEmCache.invalidarTudo();
+        repositorioFixado.codigosFixados().forEach(codigo -> repositorioFixado.recarregar(new CodigoCurto(codigo)));
+        reinicios.increment();
+    }
+
+    private long aguardarReconexao(RuntimeException e, long esperaMs) {
+        log.warn("Change stream de mapeamentos interrompido ({}); nova tentativa em {} ms.", e.getMessage(), esperaMs);
+        try {
+            Thread.sleep(esperaMs);
+        } catch (InterruptedException interrompido) {
+            Thread.currentThread().interrupt();
+            ativo = false;
+        }
+        return Math.min(esperaMs * 2, ESPERA_MAXIMA_RECONEXAO_MS);
+    }
+
+    // Pré-imagens (MongoDB 6+) permitem saber o código de um documento removido; sem permissão, segue sem elas.
+    private void habilitarPreImagens() {
+        String colecao = mongoTemplate.getCollectionName(MapeamentoUrl.class);
+        try {
+            mongoTemplate.executeCommand(new Document("collMod", colecao)
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (RuntimeException e) {
+            log.info("Pré-imagens do change stream indisponíveis em {} ({}); remoções não serão propagadas.",
+                    colecao, e.getMessage());
+        }
+    }
+
+    private BsonDocument lerToken() {
+        if (!Files.exists(arquivoToken)) {
+            return null;
+        }
+        try {
+            return BsonDocument.parse(Files.readString(arquivoToken, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Resume token em {} ilegível ({}); o change stream começa do ponto atual.", arquivoToken, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String codigo(Document documento) {
+        if (documento == null) {
+            return null;
+        }
+        Document codigoCurto = documento.get("codigoCurto", Document.class);
+        return codigoCurto != null ? codigoCurto.getString("valor") : null;
+    }
+}
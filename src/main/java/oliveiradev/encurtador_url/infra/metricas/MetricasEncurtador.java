@@ -0,0 +1,104 @@
+package oliveiradev.encurtador_url.infra.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Medidores por etapa dos fluxos de redirecionamento e encurtamento, expostos em /actuator/prometheus.
+// Todos são criados uma única vez: o caminho quente só lê System.nanoTime() e grava no timer, sem alocar.
+//   encurtador_etapa_seconds{fluxo, etapa}      histogramas de latência por etapa
+//   encurtador_redirecionamentos_total{resultado} encontrado | nao_encontrado | expirado
+//   encurtador_codigos_tentativas_total          códigos gerados no encurtamento individual
+//   encurtador_codigos_colisoes_total{origem}     existencia (verificação prévia) | indice_unico (DuplicateKeyException)
+@Component
+public class MetricasEncurtador {
+    private static final String ETAPA = "encurtador.etapa";
+
+    private final Timer buscaRedirecionamento;
+    private final Timer buscaInfo;
+    private final Timer verificacaoExpiracao;
+    private final Timer registroAcesso;
+    private final Timer geracaoCodigo;
+    private final Timer salvar;
+    private final Counter encontrados;
+    private final Counter naoEncontrados;
+    private final Counter expirados;
+    private final Counter tentativasGeracao;
+    private final Counter colisoesExistencia;
+    private final Counter colisoesIndiceUnico;
+
+    @Autowired
+    public MetricasEncurtador(MeterRegistry registry) {
+        this.buscaRedirecionamento = timer(registry, "redirecionamento", "busca");
+        this.buscaInfo = timer(registry, "info", "busca");
+        this.verificacaoExpiracao = timer(registry, "redirecionamento", "verificacao_expiracao");
+        this.registroAcesso = timer(registry, "redirecionamento", "registro_acesso");
+        this.geracaoCodigo = timer(registry, "encurtamento", "geracao_codigo");
+        this.salvar = timer(registry, "encurtamento", "salvar");
+        this.encontrados = resultadoRedirecionamento(registry, "encontrado");
+        this.naoEncontrados = resultadoRedirecionamento(registry, "nao_encontrado");
+        this.expirados = resultadoRedirecionamento(registry, "expirado");
+        this.tentativasGeracao = Counter.builder("encurtador.codigos.tentativas")
+                .description("Códigos curtos gerados no encurtamento individual")
+                .register(registry);
+        this.colisoesExistencia = colisao(registry, "existencia");
+        this.colisoesIndiceUnico = colisao(registry, "indice_unico");
+    }
+
+    // Para testes e benchmarks que constroem os serviços sem o contexto Spring.
+    public static MetricasEncurtador semExportacao() {
+        return new MetricasEncurtador(new SimpleMeterRegistry());
+    }
+
+    public long iniciar() {
+        return System.nanoTime();
+    }
+
+    public void registrarBuscaRedirecionamento(long inicio) { registrar(buscaRedirecionamento, inicio); }
+    public void registrarBuscaInfo(long inicio) { registrar(buscaInfo, inicio); }
+    public void registrarVerificacaoExpiracao(long inicio) { registrar(verificacaoExpiracao, inicio); }
+    public void registrarRegistroAcesso(long inicio) { registrar(registroAcesso, inicio); }
+    public void registrarGeracaoCodigo(long inicio) { registrar(geracaoCodigo, inicio); tentativasGeracao.increment(); }
+    public void registrarSalvar(long inicio) { registrar(salvar, inicio); }
+
+    public void contarEncontrado() { encontrados.increment(); }
+    public void contarNaoEncontrado() { naoEncontrados.increment(); }
+    public void contarExpirado() { expirados.increment(); }
+    public void contarColisaoExistencia() { colisoesExistencia.increment(); }
+    public void contarColisaoIndiceUnico() { colisoesIndiceUnico.increment(); }
+
+    private static void registrar(Timer timer, long inicio) {
+        timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(MeterRegistry registry, String fluxo, String etapa) {
+        return Timer.builder(ETAPA)
+                .description("Latência de cada etapa dos fluxos do encurtador")
+                .tag("fluxo", fluxo)
+                .tag("etapa", etapa)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100)) // Etapas em memória ficam na casa dos nanossegundos
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+
+    private static Counter resultadoRedirecionamento(MeterRegistry registry, String resultado) {
+        return Counter.builder("encurtador.redirecionamentos")
+                .description("Resultado da resolução de códigos curtos no redirecionamento")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private static Counter colisao(MeterRegistry registry, String origem) {
+        return Counter.builder("encurtador.codigos.colisoes")
+                .description("Colisões de código curto no encurtamento individual")
+                .tag("origem", origem)
+                .register(registry);
+    }
+}
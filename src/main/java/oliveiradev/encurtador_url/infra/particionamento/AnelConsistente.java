@@ -0,0 +1,62 @@
+package oliveiradev.encurtador_url.infra.particionamento;
+
+import oliveiradev.encurtador_url.infra.hash.Hash64;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Hash consistente: cada partição ocupa vários pontos (nós virtuais) num anel de 64 bits e uma chave pertence à
+// partição do primeiro ponto a partir do seu hash. Incluir ou retirar uma partição só muda o dono de ~1/N das chaves.
+// Os pontos dependem apenas dos nomes das partições, não da ordem da configuração. Imutável; a busca não aloca.
+public final class AnelConsistente {
+    private final long[] pontos; // Ordenados
+    private final String[] donos; // donos[i] é a partição de pontos[i]
+    private final Set<String> particoes;
+
+    public AnelConsistente(List<String> nomesParticoes, int nosVirtuais) {
+        if (nomesParticoes.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de ao menos uma partição.");
+        }
+        if (nosVirtuais < 1) {
+            throw new IllegalArgumentException("Cada partição precisa de ao menos um nó virtual.");
+        }
+        this.particoes = new LinkedHashSet<>(nomesParticoes);
+        int total = particoes.size() * nosVirtuais;
+        long[] hashes = new long[total];
+        String[] nomes = new String[total];
+        int i = 0;
+        for (String particao : particoes) {
+            for (int virtual = 0; virtual < nosVirtuais; virtual++) {
+                hashes[i] = Hash64.de(particao, virtual);
+                nomes[i] = particao;
+                i++;
+            }
+        }
+        Integer[] ordem = new Integer[total];
+        for (int j = 0; j < total; j++) {
+            ordem[j] = j;
+        }
+        // Empate de hash (improvável) desfeito pelo nome, para o anel não depender da ordem da configuração
+        Arrays.sort(ordem, (a, b) -> hashes[a] != hashes[b] ? Long.compare(hashes[a], hashes[b]) : nomes[a].compareTo(nomes[b]));
+        this.pontos = new long[total];
+        this.donos = new String[total];
+        for (int j = 0; j < total; j++) {
+            pontos[j] = hashes[ordem[j]];
+            donos[j] = nomes[ordem[j]];
+        }
+    }
+
+    public String dono(CharSequence chave) {
+        int posicao = Arrays.binarySearch(pontos, Hash64.de(chave));
+        if (posicao < 0) {
+            posicao = -posicao - 1; // Primeiro ponto maior que o hash
+        }
+        return donos[posicao == pontos.length ? 0 : posicao];
+    }
+
+    public Set<String> getParticoes() {
+        return particoes;
+    }
+}
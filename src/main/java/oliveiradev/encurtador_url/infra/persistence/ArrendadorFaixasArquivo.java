@@ -0,0 +1,79 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.infra.generation.ArrendadorFaixas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Sequência de IDs do motor mmap, num arquivo local de 8 bytes. O fim da faixa é gravado e sincronizado antes de
+// a faixa ser entregue: depois de uma queda a próxima começa adiante e nenhum código é emitido duas vezes.
+@Repository
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "mmap")
+public class ArrendadorFaixasArquivo implements ArrendadorFaixas {
+    private static final Logger log = LoggerFactory.getLogger(ArrendadorFaixasArquivo.class);
+    private static final String ARQUIVO_SEQUENCIA = "sequencia-codigos.bin";
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+    private final ReentrantLock trava = new ReentrantLock();
+
+    @Autowired
+    public ArrendadorFaixasArquivo(@Value("${app.dados.diretorio:./dados}") String diretorioDados) {
+        Path arquivo = Paths.get(diretorioDados, ARQUIVO_SEQUENCIA);
+        try {
+            Files.createDirectories(arquivo.getParent());
+            this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir a sequência de códigos em " + arquivo, e);
+        }
+    }
+
+    @Override
+    public long arrendar(long tamanho) {
+        trava.lock();
+        try {
+            long inicio = canal.size() < Long.BYTES ? 0L : ler();
+            buffer.clear();
+            buffer.putLong(inicio + tamanho).flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer, buffer.position());
+            }
+            canal.force(false);
+            log.debug("Faixa arrendada da sequência local: {} IDs a partir de {}", tamanho, inicio);
+            return inicio;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível arrendar uma faixa de IDs para códigos curtos.", e);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        canal.close();
+    }
+
+    private long ler() throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Arquivo de sequência truncado.");
+            }
+        }
+        return buffer.flip().getLong();
+    }
+}
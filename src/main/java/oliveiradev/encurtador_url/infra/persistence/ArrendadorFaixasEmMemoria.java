@@ -0,0 +1,19 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.infra.generation.ArrendadorFaixas;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sequência de IDs do motor em memória; equivalente ao documento "sequencias" do Mongo.
+@Repository
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "memoria")
+public class ArrendadorFaixasEmMemoria implements ArrendadorFaixas {
+    private final AtomicLong sequencia = new AtomicLong();
+
+    @Override
+    public long arrendar(long tamanho) {
+        return sequencia.getAndAdd(tamanho);
+    }
+}
@@ -0,0 +1,46 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.infra.generation.ArrendadorFaixas;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+// Arrenda faixas de IDs com um $inc atômico no documento de sequência (um round trip por faixa).
+@Repository
+@ConditionalOnExpression("'${app.persistencia.motor:mongo}' matches 'mongo|particionado'") // No particionado fica no banco padrão
+public class ArrendadorFaixasMongo implements ArrendadorFaixas {
+    private static final Logger log = LoggerFactory.getLogger(ArrendadorFaixasMongo.class);
+    private static final String COLECAO_SEQUENCIAS = "sequencias";
+    private static final String ID_SEQUENCIA = "codigo_curto";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ArrendadorFaixasMongo(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long arrendar(long tamanho) {
+        Document sequencia = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(ID_SEQUENCIA)),
+                new Update().inc("valor", tamanho),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                COLECAO_SEQUENCIAS);
+        if (sequencia == null) {
+            throw new IllegalStateException("Não foi possível arrendar uma faixa de IDs para códigos curtos.");
+        }
+        long fim = ((Number) sequencia.get("valor")).longValue();
+        log.debug("Faixa arrendada da sequência '{}': {} IDs até {}", ID_SEQUENCIA, tamanho, fim);
+        return fim - tamanho;
+    }
+}
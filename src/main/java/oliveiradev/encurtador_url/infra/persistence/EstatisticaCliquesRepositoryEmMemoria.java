@@ -0,0 +1,35 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.ChaveBucketEstatistica;
+import oliveiradev.encurtador_url.domain.model.Granularidade;
+import oliveiradev.encurtador_url.domain.repository.EstatisticaCliquesRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@ConditionalOnExpression("'${app.persistencia.motor:mongo}' matches 'memoria|mmap'") // O nó mmap roda sem Mongo
+public class EstatisticaCliquesRepositoryEmMemoria implements EstatisticaCliquesRepository {
+    private final Map<ChaveBucketEstatistica, Long> totais = new ConcurrentHashMap<>();
+
+    @Override
+    public void incrementar(Map<ChaveBucketEstatistica, Long> incrementos) {
+        incrementos.forEach((chave, delta) -> totais.merge(chave, delta, Long::sum));
+    }
+
+    @Override
+    public Map<Instant, Long> buscar(String codigoCurto, Granularidade granularidade, Instant de, Instant ate) {
+        Map<Instant, Long> encontrados = new HashMap<>();
+        totais.forEach((chave, total) -> {
+            if (chave.getCodigoCurto().equals(codigoCurto) && chave.getGranularidade() == granularidade
+                    && !chave.getInicio().isBefore(de) && chave.getInicio().isBefore(ate)) {
+                encontrados.put(chave.getInicio(), total);
+            }
+        });
+        return encontrados;
+    }
+}
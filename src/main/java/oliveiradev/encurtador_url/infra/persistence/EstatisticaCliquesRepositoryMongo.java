@@ -0,0 +1,97 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import jakarta.annotation.PostConstruct;
+import oliveiradev.encurtador_url.domain.model.ChaveBucketEstatistica;
+import oliveiradev.encurtador_url.domain.model.Granularidade;
+import oliveiradev.encurtador_url.domain.repository.EstatisticaCliquesRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Um documento por (codigoCurto, granularidade, inicio) em "estatisticas_cliques", incrementado com $inc + upsert.
+// Buckets de minuto e hora recebem "expiraEm" e são removidos pelo índice TTL; os diários são mantidos.
+@Repository
+@ConditionalOnExpression("'${app.persistencia.motor:mongo}' matches 'mongo|particionado'") // No particionado fica no banco padrão
+public class EstatisticaCliquesRepositoryMongo implements EstatisticaCliquesRepository {
+    private static final Logger log = LoggerFactory.getLogger(EstatisticaCliquesRepositoryMongo.class);
+    private static final String COLECAO = "estatisticas_cliques";
+    private static final Map<Granularidade, Duration> RETENCAO = Map.of(
+            Granularidade.MINUTO, Duration.ofDays(7),
+            Granularidade.HORA, Duration.ofDays(90));
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public EstatisticaCliquesRepositoryMongo(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void criarIndices() {
+        try {
+            mongoTemplate.indexOps(COLECAO).ensureIndex(new Index()
+                    .on("codigoCurto", Sort.Direction.ASC)
+                    .on("granularidade", Sort.Direction.ASC)
+                    .on("inicio", Sort.Direction.ASC)
+                    .unique()
+                    .named("bucket_unico"));
+            mongoTemplate.indexOps(COLECAO).ensureIndex(new Index()
+                    .on("expiraEm", Sort.Direction.ASC)
+                    .expire(0, TimeUnit.SECONDS)
+                    .named("bucket_ttl"));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível criar os índices de '{}': {}", COLECAO, e.getMessage());
+        }
+    }
+
+    @Override
+    public void incrementar(Map<ChaveBucketEstatistica, Long> incrementos) {
+        if (incrementos.isEmpty()) {
+            return;
+        }
+        BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO);
+        incrementos.forEach((chave, delta) -> {
+            Update update = new Update().inc("total", delta);
+            Duration retencao = RETENCAO.get(chave.getGranularidade());
+            if (retencao != null) {
+                update.setOnInsert("expiraEm", Date.from(chave.getInicio().plus(retencao)));
+            }
+            operacoes.upsert(consultaDoBucket(chave.getCodigoCurto(), chave.getGranularidade())
+                    .addCriteria(Criteria.where("inicio").is(Date.from(chave.getInicio()))), update);
+        });
+        operacoes.execute();
+    }
+
+    @Override
+    public Map<Instant, Long> buscar(String codigoCurto, Granularidade granularidade, Instant de, Instant ate) {
+        Query consulta = consultaDoBucket(codigoCurto, granularidade)
+                .addCriteria(Criteria.where("inicio").gte(Date.from(de)).lt(Date.from(ate)));
+        consulta.fields().include("inicio").include("total").exclude("_id");
+        Map<Instant, Long> totais = new HashMap<>();
+        for (Document documento : mongoTemplate.find(consulta, Document.class, COLECAO)) {
+            totais.put(documento.getDate("inicio").toInstant(), ((Number) documento.get("total")).longValue());
+        }
+        return totais;
+    }
+
+    private static Query consultaDoBucket(String codigoCurto, Granularidade granularidade) {
+        return Query.query(Criteria.where("codigoCurto").is(codigoCurto).and("granularidade").is(granularidade.name()));
+    }
+}
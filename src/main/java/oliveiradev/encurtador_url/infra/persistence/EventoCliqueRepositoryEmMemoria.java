@@ -0,0 +1,25 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.EventoClique;
+import oliveiradev.encurtador_url.domain.repository.EventoCliqueRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Motor em memória: apenas contabiliza os cliques, para que testes de carga exercitem o pipeline sem reter eventos.
+@Repository
+@ConditionalOnExpression("'${app.persistencia.motor:mongo}' matches 'memoria|mmap'") // O nó mmap roda sem Mongo
+public class EventoCliqueRepositoryEmMemoria implements EventoCliqueRepository {
+    private final AtomicLong total = new AtomicLong();
+
+    @Override
+    public void inserirEmLote(List<EventoClique> eventos) {
+        total.addAndGet(eventos.size());
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+}
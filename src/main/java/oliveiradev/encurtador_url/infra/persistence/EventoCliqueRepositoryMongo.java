@@ -0,0 +1,73 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import jakarta.annotation.PostConstruct;
+import oliveiradev.encurtador_url.domain.model.EventoClique;
+import oliveiradev.encurtador_url.domain.repository.EventoCliqueRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Grava cliques numa coleção de séries temporais (timeField "instante", metaField "codigoCurto"),
+// que o Mongo agrupa em buckets por código e hora: bem mais compacta que uma coleção comum para este volume.
+@Repository
+@ConditionalOnExpression("'${app.persistencia.motor:mongo}' matches 'mongo|particionado'") // No particionado fica no banco padrão
+public class EventoCliqueRepositoryMongo implements EventoCliqueRepository {
+    private static final Logger log = LoggerFactory.getLogger(EventoCliqueRepositoryMongo.class);
+    static final String COLECAO_CLIQUES = "cliques";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public EventoCliqueRepositoryMongo(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void criarColecao() {
+        try {
+            if (!mongoTemplate.collectionExists(COLECAO_CLIQUES)) {
+                mongoTemplate.createCollection(COLECAO_CLIQUES, CollectionOptions.empty().timeSeries(
+                        CollectionOptions.TimeSeriesOptions.timeSeries("instante")
+                                .metaField("codigoCurto")
+                                .granularity(Granularity.SECONDS)));
+                log.info("Coleção de séries temporais '{}' criada.", COLECAO_CLIQUES);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível verificar/criar a coleção '{}': {}", COLECAO_CLIQUES, e.getMessage());
+        }
+    }
+
+    @Override
+    public void inserirEmLote(List<EventoClique> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        List<Document> documentos = new ArrayList<>(eventos.size());
+        for (EventoClique evento : eventos) {
+            Document documento = new Document("instante", Date.from(evento.getInstante()))
+                    .append("codigoCurto", evento.getCodigoCurto());
+            if (evento.getReferenciador() != null) {
+                documento.append("referenciador", evento.getReferenciador());
+            }
+            if (evento.getAgenteUsuario() != null) {
+                documento.append("agenteUsuario", evento.getAgenteUsuario());
+            }
+            if (evento.getPrefixoIp() != null) {
+                documento.append("prefixoIp", evento.getPrefixoIp());
+            }
+            documentos.add(documento);
+        }
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO_CLIQUES).insert(documentos).execute();
+    }
+}
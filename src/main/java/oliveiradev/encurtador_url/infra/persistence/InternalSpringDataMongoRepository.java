@@ -4,6 +4,7 @@ import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +12,5 @@ interface InternalSpringDataMongoRepository extends MongoRepository<MapeamentoUr
     Optional<MapeamentoUrl> findByCodigoCurto_Valor(String valorCodigoCurto);
     boolean existsByCodigoCurto_Valor(String valorCodigoCurto);
     Optional<MapeamentoUrl> findByUrlOriginal_Valor(String valorUrlOriginal);
+    List<MapeamentoUrl> findByImpressaoDigitalUrl(Long impressaoDigitalUrl);
 }
@@ -0,0 +1,179 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.expiracao.AgendadorExpiracao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+// Substituto do Mongo em memória (app.persistencia.motor=memoria) para testes de carga e benchmarks offline.
+// Reproduz as garantias que o restante do código assume: código curto único (DuplicateKeyException),
+// inserção em lote não ordenada com índices duplicados, $inc atômico dos contadores e índice por impressão digital.
+// Como o índice TTL do Mongo, remove os mapeamentos no vencimento, aqui pela roda do AgendadorExpiracao.
+@Repository
+@Qualifier("persistencia")
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "memoria")
+public class MapeamentoUrlRepositoryEmMemoria implements MapeamentoUrlRepository {
+    private static final Logger log = LoggerFactory.getLogger(MapeamentoUrlRepositoryEmMemoria.class);
+
+    private final Map<String, MapeamentoUrl> porCodigo = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> codigosPorImpressaoDigital = new ConcurrentHashMap<>();
+    private final AgendadorExpiracao agendador; // Nulo: mapeamentos expirados ficam até removerExpirados
+    private final ObjLongConsumer<String> removerSeExpirado = this::removerSeExpirado;
+
+    public MapeamentoUrlRepositoryEmMemoria() {
+        this(null);
+    }
+
+    @Autowired
+    public MapeamentoUrlRepositoryEmMemoria(AgendadorExpiracao agendador) {
+        this.agendador = agendador;
+        log.warn("Persistência em memória ativa: os mapeamentos não sobrevivem ao reinício da aplicação.");
+    }
+
+    @Override
+    public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
+        String codigo = mapeamentoUrl.getCodigoCurto().getValor();
+        MapeamentoUrl anterior = porCodigo.putIfAbsent(codigo, mapeamentoUrl);
+        if (anterior != null && anterior != mapeamentoUrl) {
+            throw new DuplicateKeyException("Código curto já existente: " + codigo);
+        }
+        indexar(mapeamentoUrl);
+        return mapeamentoUrl;
+    }
+
+    @Override
+    public ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos) {
+        Set<Integer> duplicados = new HashSet<>();
+        for (int i = 0; i < mapeamentos.size(); i++) {
+            MapeamentoUrl mapeamento = mapeamentos.get(i);
+            if (porCodigo.putIfAbsent(mapeamento.getCodigoCurto().getValor(), mapeamento) != null) {
+                duplicados.add(i);
+            } else {
+                indexar(mapeamento);
+            }
+        }
+        return duplicados.isEmpty()
+                ? ResultadoInsercaoLote.semFalhas()
+                : new ResultadoInsercaoLote(duplicados, Collections.emptyMap());
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) {
+        return Optional.ofNullable(porCodigo.get(codigoCurto.getValor()));
+    }
+
+    @Override
+    public boolean existeCodigoCurto(CodigoCurto codigoCurto) {
+        return porCodigo.containsKey(codigoCurto.getValor());
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorUrlOriginal(UrlOriginal urlOriginal) {
+        return porCodigo.values().stream()
+                .filter(mapeamento -> mapeamento.getUrlOriginal().equals(urlOriginal))
+                .findFirst();
+    }
+
+    @Override
+    public List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl) {
+        Set<String> codigos = codigosPorImpressaoDigital.getOrDefault(impressaoDigitalUrl, Collections.emptySet());
+        List<MapeamentoUrl> encontrados = new ArrayList<>(codigos.size());
+        for (String codigo : codigos) {
+            MapeamentoUrl mapeamento = porCodigo.get(codigo);
+            if (mapeamento != null) {
+                encontrados.add(mapeamento);
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos) {
+        incrementos.forEach((codigo, delta) -> porCodigo.computeIfPresent(codigo.getValor(), (chave, mapeamento) -> {
+            mapeamento.registrarAcessos(delta);
+            return mapeamento;
+        }));
+    }
+
+    // Varredura limitada; com o AgendadorExpiracao ativo quase nunca encontra algo para remover.
+    @Override
+    public int removerExpirados(LocalDateTime expiradosAntesDe, int limite) {
+        int removidos = 0;
+        for (MapeamentoUrl mapeamento : porCodigo.values()) {
+            if (removidos >= limite) {
+                break;
+            }
+            if (mapeamento.getDataExpiracao() != null && mapeamento.getDataExpiracao().isBefore(expiradosAntesDe)
+                    && remover(mapeamento)) {
+                removidos++;
+            }
+        }
+        return removidos;
+    }
+
+    @Override
+    public void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor) {
+        Map<String, MapeamentoUrl> instantaneo = new HashMap<>(porCodigo);
+        for (MapeamentoUrl mapeamento : instantaneo.values()) {
+            if (criadosDesde == null || !mapeamento.getDataCriacao().isBefore(criadosDesde)) {
+                consumidor.accept(mapeamento.getCodigoCurto());
+            }
+        }
+    }
+
+    private void indexar(MapeamentoUrl mapeamento) {
+        if (mapeamento.getImpressaoDigitalUrl() != null) {
+            codigosPorImpressaoDigital
+                    .computeIfAbsent(mapeamento.getImpressaoDigitalUrl(), chave -> ConcurrentHashMap.newKeySet())
+                    .add(mapeamento.getCodigoCurto().getValor());
+        }
+        long expiraEmMs = mapeamento.getDestinoRedirecionamento().getExpiraEmMs();
+        if (agendador != null && expiraEmMs != DestinoRedirecionamento.SEM_EXPIRACAO) {
+            agendador.agendar(mapeamento.getCodigoCurto().getValor(), expiraEmMs, removerSeExpirado);
+        }
+    }
+
+    private void removerSeExpirado(String codigo, long agoraMs) {
+        MapeamentoUrl mapeamento = porCodigo.get(codigo);
+        if (mapeamento != null && mapeamento.getDestinoRedirecionamento().isExpirado(agoraMs)) {
+            remover(mapeamento);
+        }
+    }
+
+    private boolean remover(MapeamentoUrl mapeamento) {
+        String codigo = mapeamento.getCodigoCurto().getValor();
+        if (!porCodigo.remove(codigo, mapeamento)) {
+            return false;
+        }
+        if (mapeamento.getImpressaoDigitalUrl() != null) {
+            codigosPorImpressaoDigital.computeIfPresent(mapeamento.getImpressaoDigitalUrl(), (chave, codigos) -> {
+                codigos.remove(codigo);
+                return codigos.isEmpty() ? null : codigos;
+            });
+        }
+        return true;
+    }
+}
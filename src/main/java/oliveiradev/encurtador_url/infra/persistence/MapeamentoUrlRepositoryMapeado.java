@@ -0,0 +1,512 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.armazenamento.CodigoCompactado;
+import oliveiradev.encurtador_url.infra.armazenamento.IndiceOffHeap;
+import oliveiradev.encurtador_url.infra.armazenamento.LogMapeado;
+import oliveiradev.encurtador_url.infra.armazenamento.SegmentoLog;
+import oliveiradev.encurtador_url.infra.expiracao.AgendadorExpiracao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+// Motor embutido para nós de borda sem Mongo (app.persistencia.motor=mmap, perfil "mmap"): os mapeamentos ficam
+// num log só de acréscimo mapeado em memória e um índice fora do heap leva o código compactado (long) à posição do
+// registro. Redirecionar é uma sondagem no índice e a leitura do Location direto do arquivo mapeado.
+// Na partida o log é relido e a cauda rasgada por uma queda é descartada; segmentos com poucos bytes vivos
+// (mapeamentos expirados, contadores superados) são reescritos pela compactação.
+// Não há registro de remoção: só se remove o que expirou, e a releitura já ignora registros expirados.
+@Repository
+@Qualifier("persistencia")
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "mmap")
+public class MapeamentoUrlRepositoryMapeado implements MapeamentoUrlRepository {
+    private static final Logger log = LoggerFactory.getLogger(MapeamentoUrlRepositoryMapeado.class);
+    private static final String DIRETORIO_LOG = "mapeamentos";
+    private static final int TENTATIVAS_LEITURA = 4; // Releituras do índice quando a compactação move o registro
+
+    private final LogMapeado logMapeamentos;
+    private final double limiarCompactacao;
+    private final AgendadorExpiracao agendador; // Nulo: expirados ficam até removerExpirados
+    private final ReentrantLock travaEscrita = new ReentrantLock();
+    private final ObjLongConsumer<String> removerSeExpirado = this::removerSeExpirado;
+    // Código compactado -> posição do mapeamento no log; auxiliar = contador de acessos, extra = posição do
+    // último registro de contador (0 se o mapeamento já leva o contador atual)
+    private volatile IndiceOffHeap porCodigo;
+    private volatile IndiceOffHeap porImpressaoDigital; // Impressão digital -> códigos compactados (multimapa)
+
+    @Autowired
+    public MapeamentoUrlRepositoryMapeado(@Value("${app.dados.diretorio:./dados}") String diretorioDados,
+                                          @Value("${app.persistencia.mmap.tamanho-segmento-mb:64}") int tamanhoSegmentoMb,
+                                          @Value("${app.persistencia.mmap.capacidade-inicial:1048576}") int capacidadeInicial,
+                                          @Value("${app.persistencia.mmap.limiar-compactacao:0.5}") double limiarCompactacao,
+                                          AgendadorExpiracao agendador) {
+        this(Paths.get(diretorioDados, DIRETORIO_LOG), tamanhoSegmentoMb * 1024 * 1024, capacidadeInicial,
+                limiarCompactacao, agendador);
+    }
+
+    public MapeamentoUrlRepositoryMapeado(Path diretorio, int tamanhoSegmentoBytes, int capacidadeInicial,
+                                          double limiarCompactacao, AgendadorExpiracao agendador) {
+        this.logMapeamentos = new LogMapeado(diretorio, tamanhoSegmentoBytes);
+        this.limiarCompactacao = limiarCompactacao;
+        this.agendador = agendador;
+        this.porCodigo = new IndiceOffHeap(capacidadeInicial);
+        this.porImpressaoDigital = new IndiceOffHeap(capacidadeInicial);
+        recuperar(diretorio);
+    }
+
+    @Override
+    public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
+        long chave = chaveObrigatoria(mapeamentoUrl.getCodigoCurto());
+        travaEscrita.lock();
+        try {
+            if (porCodigo.buscar(chave) != 0) {
+                throw new DuplicateKeyException("Código curto já existente: " + mapeamentoUrl.getCodigoCurto().getValor());
+            }
+            gravar(chave, mapeamentoUrl);
+        } finally {
+            travaEscrita.unlock();
+        }
+        agendarExpiracao(mapeamentoUrl.getCodigoCurto().getValor(), mapeamentoUrl.getDestinoRedirecionamento().getExpiraEmMs());
+        return mapeamentoUrl;
+    }
+
+    @Override
+    public ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos) {
+        Set<Integer> duplicados = new HashSet<>();
+        Map<Integer, String> erros = new HashMap<>();
+        travaEscrita.lock();
+        try {
+            for (int i = 0; i < mapeamentos.size(); i++) {
+                MapeamentoUrl mapeamento = mapeamentos.get(i);
+                long chave = CodigoCompactado.compactar(mapeamento.getCodigoCurto().getValor());
+                if (chave == CodigoCompactado.INVALIDO) {
+                    erros.put(i, "Código curto incompatível com o motor mmap: " + mapeamento.getCodigoCurto().getValor());
+                } else if (porCodigo.buscar(chave) != 0) {
+                    duplicados.add(i);
+                } else {
+                    gravar(chave, mapeamento);
+                }
+            }
+        } finally {
+            travaEscrita.unlock();
+        }
+        for (int i = 0; i < mapeamentos.size(); i++) {
+            if (!duplicados.contains(i) && !erros.containsKey(i)) {
+                MapeamentoUrl mapeamento = mapeamentos.get(i);
+                agendarExpiracao(mapeamento.getCodigoCurto().getValor(), mapeamento.getDestinoRedirecionamento().getExpiraEmMs());
+            }
+        }
+        return duplicados.isEmpty() && erros.isEmpty()
+                ? ResultadoInsercaoLote.semFalhas()
+                : new ResultadoInsercaoLote(duplicados, erros);
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) {
+        long chave = CodigoCompactado.compactar(codigoCurto.getValor());
+        return chave == CodigoCompactado.INVALIDO ? Optional.empty() : Optional.ofNullable(ler(codigoCurto, chave));
+    }
+
+    @Override
+    public Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        long chave = CodigoCompactado.compactar(codigoCurto.getValor());
+        if (chave == CodigoCompactado.INVALIDO) {
+            return Optional.empty();
+        }
+        for (int tentativa = 0; tentativa < TENTATIVAS_LEITURA; tentativa++) {
+            long posicao = porCodigo.buscar(chave);
+            if (posicao == 0) {
+                return Optional.empty();
+            }
+            SegmentoLog segmento = logMapeamentos.segmento(posicao);
+            if (segmento != null) {
+                int deslocamento = LogMapeado.deslocamento(posicao);
+                return Optional.of(new DestinoRedirecionamento(codigoCurto, segmento.location(deslocamento),
+                        segmento.expiraEmMs(deslocamento)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean existeCodigoCurto(CodigoCurto codigoCurto) {
+        long chave = CodigoCompactado.compactar(codigoCurto.getValor());
+        return chave != CodigoCompactado.INVALIDO && porCodigo.buscar(chave) != 0;
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorUrlOriginal(UrlOriginal urlOriginal) {
+        return buscarPorImpressaoDigital(urlOriginal.impressaoDigital()).stream()
+                .filter(mapeamento -> mapeamento.getUrlOriginal().equals(urlOriginal))
+                .findFirst();
+    }
+
+    @Override
+    public List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl) {
+        List<MapeamentoUrl> encontrados = new ArrayList<>(1);
+        porImpressaoDigital.percorrer(chaveImpressao(impressaoDigitalUrl), chave -> {
+            MapeamentoUrl mapeamento = ler(new CodigoCurto(CodigoCompactado.descompactar(chave)), chave);
+            if (mapeamento != null) {
+                encontrados.add(mapeamento);
+            }
+        });
+        return encontrados;
+    }
+
+    // O total vai para o índice e, como registro de contador, para o log; a compactação o embute no mapeamento.
+    @Override
+    public void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos) {
+        travaEscrita.lock();
+        try {
+            incrementos.forEach((codigo, delta) -> {
+                long chave = CodigoCompactado.compactar(codigo.getValor());
+                if (chave == CodigoCompactado.INVALIDO) {
+                    return;
+                }
+                long total = porCodigo.somarAuxiliar(chave, delta);
+                if (total >= 0) {
+                    registrarContador(chave, logMapeamentos.anexarContador(chave, total));
+                }
+            });
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    @Override
+    public void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor) {
+        long desdeMs = criadosDesde == null ? Long.MIN_VALUE : emEpochMillis(criadosDesde);
+        porCodigo.percorrerVivas((chave, posicao, contador) -> {
+            SegmentoLog segmento = logMapeamentos.segmento(posicao);
+            if (segmento == null || segmento.criacaoMs(LogMapeado.deslocamento(posicao)) >= desdeMs) {
+                consumidor.accept(new CodigoCurto(CodigoCompactado.descompactar(chave))); // Movido: inclui por garantia
+            }
+        });
+    }
+
+    // Varredura limitada do índice; com o AgendadorExpiracao ativo quase nunca encontra algo para remover.
+    @Override
+    public int removerExpirados(LocalDateTime expiradosAntesDe, int limite) {
+        long antesDeMs = emEpochMillis(expiradosAntesDe);
+        long[] candidatos = new long[limite];
+        int[] quantidade = new int[1];
+        porCodigo.percorrerVivas((chave, posicao, contador) -> {
+            SegmentoLog segmento = logMapeamentos.segmento(posicao);
+            if (quantidade[0] < limite && segmento != null
+                    && segmento.expiraEmMs(LogMapeado.deslocamento(posicao)) < antesDeMs) {
+                candidatos[quantidade[0]++] = chave;
+            }
+        });
+        int removidos = 0;
+        travaEscrita.lock();
+        try {
+            for (int i = 0; i < quantidade[0]; i++) {
+                long posicao = porCodigo.buscar(candidatos[i]);
+                if (posicao != 0 && expiraEmMs(posicao) < antesDeMs) {
+                    desindexar(candidatos[i], posicao);
+                    removidos++;
+                }
+            }
+        } finally {
+            travaEscrita.unlock();
+        }
+        return removidos;
+    }
+
+    @Scheduled(fixedDelayString = "${app.persistencia.mmap.intervalo-sincronizacao-ms:1000}",
+            initialDelayString = "${app.persistencia.mmap.intervalo-sincronizacao-ms:1000}")
+    public void sincronizar() {
+        logMapeamentos.sincronizar(); // Queda do processo não perde nada; queda do SO perde no máximo este intervalo
+    }
+
+    @Scheduled(fixedDelayString = "${app.persistencia.mmap.intervalo-compactacao-ms:60000}",
+            initialDelayString = "${app.persistencia.mmap.intervalo-compactacao-ms:60000}")
+    public void compactar() {
+        SegmentoLog segmento;
+        while ((segmento = selecionarParaCompactar()) != null) {
+            compactar(segmento);
+        }
+    }
+
+    // Copia para o segmento ativo só os registros que o índice ainda aponta: mapeamentos (com o contador atual,
+    // o que aposenta o registro de contador) e últimos contadores de mapeamentos de outros segmentos. Como só
+    // bytes vivos são copiados, cada rodada termina. A trava é tomada por registro, para não segurar escritas
+    // durante a cópia do segmento inteiro.
+    int compactar(SegmentoLog segmento) {
+        long inicioMs = System.currentTimeMillis();
+        int[] copiados = new int[1];
+        logMapeamentos.percorrer(segmento, (origem, deslocamento) -> {
+            travaEscrita.lock();
+            try {
+                if (copiarSeNecessario(origem, deslocamento)) {
+                    copiados[0]++;
+                }
+            } finally {
+                travaEscrita.unlock();
+            }
+        });
+        travaEscrita.lock();
+        try {
+            logMapeamentos.sincronizar(); // As cópias precisam estar no disco antes de o original sumir
+            logMapeamentos.remover(segmento);
+        } finally {
+            travaEscrita.unlock();
+        }
+        log.info("Segmento {} do log de mapeamentos compactado: {} registros copiados em {} ms.",
+                segmento.getNumero(), copiados[0], System.currentTimeMillis() - inicioMs);
+        return copiados[0];
+    }
+
+    public int quantidadeMapeamentos() {
+        return porCodigo.getVivas();
+    }
+
+    public int quantidadeSegmentos() {
+        travaEscrita.lock();
+        try {
+            return logMapeamentos.quantidadeSegmentos();
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void fechar() {
+        travaEscrita.lock();
+        try {
+            logMapeamentos.fechar();
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    private SegmentoLog selecionarParaCompactar() {
+        travaEscrita.lock();
+        try {
+            return logMapeamentos.maisFragmentado(limiarCompactacao);
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    private boolean copiarSeNecessario(SegmentoLog origem, int deslocamento) {
+        long posicaoOrigem = LogMapeado.posicao(origem, deslocamento);
+        long chave = origem.chave(deslocamento);
+        switch (origem.tipo(deslocamento)) {
+            case SegmentoLog.TIPO_MAPEAMENTO -> {
+                if (porCodigo.buscar(chave) != posicaoOrigem) {
+                    return false;
+                }
+                long novaPosicao = logMapeamentos.anexarCopia(origem, deslocamento, porCodigo.buscarAuxiliar(chave));
+                porCodigo.substituir(chave, posicaoOrigem, novaPosicao);
+                logMapeamentos.somarBytesVivos(novaPosicao, origem.tamanho(deslocamento));
+                registrarContador(chave, 0L); // A cópia é mais nova que qualquer registro de contador da chave
+                return true;
+            }
+            case SegmentoLog.TIPO_CONTADOR -> {
+                if (porCodigo.buscarExtra(chave) != posicaoOrigem) {
+                    return false; // Superado, embutido no mapeamento ou de um mapeamento já removido
+                }
+                registrarContador(chave, logMapeamentos.anexarContador(chave, porCodigo.buscarAuxiliar(chave)));
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    private void recuperar(Path diretorio) {
+        long inicioMs = System.currentTimeMillis();
+        long agoraMs = inicioMs;
+        logMapeamentos.recuperar((segmento, deslocamento) -> {
+            long chave = segmento.chave(deslocamento);
+            switch (segmento.tipo(deslocamento)) {
+                case SegmentoLog.TIPO_MAPEAMENTO -> {
+                    long posicao = LogMapeado.posicao(segmento, deslocamento);
+                    long anterior = porCodigo.buscar(chave);
+                    if (anterior != 0) {
+                        desindexar(chave, anterior);
+                    }
+                    if (segmento.expiraEmMs(deslocamento) >= agoraMs) {
+                        indexar(chave, posicao, segmento.contador(deslocamento), segmento.impressaoDigital(deslocamento),
+                                segmento.tamanho(deslocamento));
+                    }
+                }
+                case SegmentoLog.TIPO_CONTADOR -> {
+                    if (porCodigo.buscar(chave) != 0) { // Contadores de mapeamentos expirados são descartados
+                        porCodigo.definirAuxiliar(chave, segmento.total(deslocamento));
+                        registrarContador(chave, LogMapeado.posicao(segmento, deslocamento));
+                    }
+                }
+                default -> log.warn("Registro de tipo desconhecido no segmento {}, posição {}.", segmento.getNumero(), deslocamento);
+            }
+        });
+        if (agendador != null) {
+            porCodigo.percorrerVivas((chave, posicao, contador) -> {
+                long expiraEmMs = expiraEmMs(posicao);
+                if (expiraEmMs != DestinoRedirecionamento.SEM_EXPIRACAO) {
+                    agendador.agendar(CodigoCompactado.descompactar(chave), expiraEmMs, removerSeExpirado);
+                }
+            });
+        }
+        log.info("Log de mapeamentos recuperado de {}: {} mapeamentos em {} segmentos, índice de {} MB, em {} ms.",
+                diretorio, porCodigo.getVivas(), logMapeamentos.quantidadeSegmentos(),
+                (porCodigo.tamanhoEmBytes() + porImpressaoDigital.tamanhoEmBytes()) / (1024 * 1024),
+                System.currentTimeMillis() - inicioMs);
+    }
+
+    private void gravar(long chave, MapeamentoUrl mapeamento) {
+        String url = mapeamento.getUrlOriginal().getValor();
+        byte[] bytesUrl = url.getBytes(StandardCharsets.UTF_8);
+        String location = locationDe(url);
+        byte[] bytesLocation = location == null || location.equals(url) ? null : location.getBytes(StandardCharsets.US_ASCII);
+        long posicao = logMapeamentos.anexarMapeamento(chave, emEpochMillis(mapeamento.getDataCriacao()),
+                mapeamento.getDestinoRedirecionamento().getExpiraEmMs(), mapeamento.getImpressaoDigitalUrl(),
+                mapeamento.getContadorAcessos(), bytesUrl, bytesLocation, location != null);
+        indexar(chave, posicao, mapeamento.getContadorAcessos(), mapeamento.getImpressaoDigitalUrl(),
+                logMapeamentos.segmento(posicao).tamanho(LogMapeado.deslocamento(posicao)));
+    }
+
+    private void indexar(long chave, long posicao, long contador, Long impressaoDigital, int tamanhoRegistro) {
+        if (porCodigo.precisaReconstruir()) {
+            porCodigo = porCodigo.reconstruir();
+        }
+        porCodigo.gravar(chave, posicao, contador);
+        if (impressaoDigital != null) {
+            if (porImpressaoDigital.precisaReconstruir()) {
+                porImpressaoDigital = porImpressaoDigital.reconstruir();
+            }
+            porImpressaoDigital.adicionar(chaveImpressao(impressaoDigital), chave);
+        }
+        logMapeamentos.somarBytesVivos(posicao, tamanhoRegistro);
+    }
+
+    // Troca o registro de contador vivo da chave, acertando os bytes vivos dos dois segmentos.
+    private void registrarContador(long chave, long posicaoContador) {
+        long anterior = porCodigo.buscarExtra(chave);
+        if (anterior != 0) {
+            logMapeamentos.somarBytesVivos(anterior, -SegmentoLog.TAMANHO_CONTADOR);
+        }
+        porCodigo.definirExtra(chave, posicaoContador);
+        if (posicaoContador != 0) {
+            logMapeamentos.somarBytesVivos(posicaoContador, SegmentoLog.TAMANHO_CONTADOR);
+        }
+    }
+
+    // Sob a trava o segmento da posição sempre existe: a compactação só remove segmentos segurando-a.
+    private void desindexar(long chave, long posicao) {
+        SegmentoLog segmento = logMapeamentos.segmento(posicao);
+        int deslocamento = LogMapeado.deslocamento(posicao);
+        registrarContador(chave, 0L);
+        porCodigo.remover(chave);
+        Long impressaoDigital = segmento.impressaoDigital(deslocamento);
+        if (impressaoDigital != null) {
+            porImpressaoDigital.removerPar(chaveImpressao(impressaoDigital), chave);
+        }
+        logMapeamentos.somarBytesVivos(posicao, -segmento.tamanho(deslocamento));
+    }
+
+    private void removerSeExpirado(String codigo, long agoraMs) {
+        long chave = CodigoCompactado.compactar(codigo);
+        travaEscrita.lock();
+        try {
+            long posicao = porCodigo.buscar(chave);
+            if (posicao != 0 && agoraMs > expiraEmMs(posicao)) {
+                desindexar(chave, posicao);
+            }
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+
+    private MapeamentoUrl ler(CodigoCurto codigoCurto, long chave) {
+        for (int tentativa = 0; tentativa < TENTATIVAS_LEITURA; tentativa++) {
+            long posicao = porCodigo.buscar(chave);
+            if (posicao == 0) {
+                return null;
+            }
+            SegmentoLog segmento = logMapeamentos.segmento(posicao);
+            if (segmento != null) {
+                int deslocamento = LogMapeado.deslocamento(posicao);
+                long expiraEmMs = segmento.expiraEmMs(deslocamento);
+                return MapeamentoUrl.reconstituir(codigoCurto, new UrlOriginal(segmento.url(deslocamento)),
+                        emLocalDateTime(segmento.criacaoMs(deslocamento)),
+                        expiraEmMs == DestinoRedirecionamento.SEM_EXPIRACAO ? null : emLocalDateTime(expiraEmMs),
+                        porCodigo.buscarAuxiliar(chave),
+                        segmento.impressaoDigital(deslocamento));
+            }
+        }
+        return null;
+    }
+
+    private long expiraEmMs(long posicao) {
+        return logMapeamentos.segmento(posicao).expiraEmMs(LogMapeado.deslocamento(posicao));
+    }
+
+    private void agendarExpiracao(String codigo, long expiraEmMs) {
+        if (agendador != null && expiraEmMs != DestinoRedirecionamento.SEM_EXPIRACAO) {
+            agendador.agendar(codigo, expiraEmMs, removerSeExpirado);
+        }
+    }
+
+    private static long chaveObrigatoria(CodigoCurto codigoCurto) {
+        long chave = CodigoCompactado.compactar(codigoCurto.getValor());
+        if (chave == CodigoCompactado.INVALIDO) {
+            throw new IllegalArgumentException("Código curto incompatível com o motor mmap: " + codigoCurto.getValor());
+        }
+        return chave;
+    }
+
+    // 0 é reservado no índice; uma impressão digital 0 divide a chave com a 1, e os candidatos são conferidos pela URL.
+    private static long chaveImpressao(long impressaoDigital) {
+        return impressaoDigital == 0 ? 1 : impressaoDigital;
+    }
+
+    private static String locationDe(String url) {
+        try {
+            return new URI(url).toASCIIString();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static long emEpochMillis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime emLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,342 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import jakarta.annotation.PreDestroy;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import oliveiradev.encurtador_url.infra.particionamento.AnelConsistente;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Persistência dividida entre vários bancos Mongo (app.persistencia.motor=particionado): cada código curto pertence a
+// uma partição por hash consistente, então as escritas e os índices se espalham e um banco novo recebe só ~1/N dos
+// códigos. Cada partição é um SpringDataMongoMapeamentoUrlRepositoryImpl completo sobre o seu próprio cliente.
+// Consultas por código vão direto ao dono; por URL ou impressão digital, a todas as partições em paralelo.
+// Durante um rebalanceamento (app.persistencia.particionado.anel-anterior preenchido) quem não acha o código no dono
+// novo consulta o dono antigo, até o RebalanceadorParticoes terminar de mover os códigos; gravações também o consultam,
+// para não criar no dono novo um mapeamento diferente para um código que o antigo ainda guarda.
+@Repository
+@Qualifier("persistencia")
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "particionado")
+public class MapeamentoUrlRepositoryParticionado implements MapeamentoUrlRepository {
+    private static final Logger log = LoggerFactory.getLogger(MapeamentoUrlRepositoryParticionado.class);
+
+    private final Map<String, SpringDataMongoMapeamentoUrlRepositoryImpl> particoes; // Todas as conexões configuradas
+    private final AnelConsistente anel;
+    private final AnelConsistente anelAnterior; // Nulo fora de um rebalanceamento
+    private final ExecutorService executor;
+    private final List<MongoClient> clientes = new ArrayList<>();
+
+    // particoes: "p0=mongodb://host:27017/banco0,p1=..."; anel e anel-anterior: nomes separados por vírgula
+    // (anel vazio = todas as partições configuradas). Uma partição só sai do anel depois de esvaziada.
+    @Autowired
+    public MapeamentoUrlRepositoryParticionado(@Value("${app.persistencia.particionado.particoes}") String particoes,
+                                               @Value("${app.persistencia.particionado.anel:}") String anel,
+                                               @Value("${app.persistencia.particionado.anel-anterior:}") String anelAnterior,
+                                               @Value("${app.persistencia.particionado.nos-virtuais:128}") int nosVirtuais,
+                                               @Value("${app.expiracao.modo:ttl}") String modoExpiracao,
+                                               @Value("${app.expiracao.retencao-minutos:0}") long retencaoMinutos,
+                                               @Value("${app.persistencia.colecao-redirecionamentos:false}") boolean usarColecaoRedirecionamentos,
+                                               @Value("${app.persistencia.leitura.preferencia:primary}") String preferenciaLeitura,
+                                               @Value("${app.persistencia.leitura.max-staleness-segundos:90}") long maxStalenessSegundos,
+                                               @Value("${app.dedup.habilitado:false}") boolean indexarImpressaoDigital,
+                                               MongoTemplate mongoTemplate,
+                                               FabricaThreads fabricaThreads) {
+        this.particoes = new LinkedHashMap<>();
+        for (String definicao : particoes.split(",")) {
+            String[] partes = definicao.trim().split("=", 2);
+            if (partes.length != 2 || partes[0].isBlank()) {
+                throw new IllegalArgumentException("Partição mal definida (esperado nome=uri): " + definicao);
+            }
+            this.particoes.put(partes[0].trim(), conectar(partes[0].trim(), partes[1].trim(), mongoTemplate,
+                    modoExpiracao, retencaoMinutos, usarColecaoRedirecionamentos, preferenciaLeitura, maxStalenessSegundos,
+                    indexarImpressaoDigital, fabricaThreads));
+        }
+        this.anel = new AnelConsistente(anel.isBlank() ? List.copyOf(this.particoes.keySet()) : nomes(anel), nosVirtuais);
+        this.anelAnterior = anelAnterior.isBlank() ? null : new AnelConsistente(nomes(anelAnterior), nosVirtuais);
+        this.executor = fabricaThreads.novoExecutor("particoes");
+        validarAneis();
+        log.info("Persistência particionada: {} partições configuradas, anel {}{}.", this.particoes.size(),
+                this.anel.getParticoes(), this.anelAnterior == null ? "" : " (migrando de " + this.anelAnterior.getParticoes() + ")");
+    }
+
+    public MapeamentoUrlRepositoryParticionado(Map<String, SpringDataMongoMapeamentoUrlRepositoryImpl> particoes,
+                                               AnelConsistente anel, AnelConsistente anelAnterior,
+                                               ExecutorService executor) {
+        this.particoes = new LinkedHashMap<>(particoes);
+        this.anel = anel;
+        this.anelAnterior = anelAnterior;
+        this.executor = executor;
+        validarAneis();
+    }
+
+    public Map<String, SpringDataMongoMapeamentoUrlRepositoryImpl> getParticoes() {
+        return particoes;
+    }
+
+    public SpringDataMongoMapeamentoUrlRepositoryImpl dono(String codigo) {
+        return particoes.get(anel.dono(codigo));
+    }
+
+    @Override
+    public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
+        String codigo = mapeamentoUrl.getCodigoCurto().getValor();
+        SpringDataMongoMapeamentoUrlRepositoryImpl anterior = donoAnterior(codigo);
+        if (anterior != null && anterior.existeCodigoCurto(mapeamentoUrl.getCodigoCurto())) {
+            throw new DuplicateKeyException("Código curto já existente: " + codigo);
+        }
+        return dono(codigo).salvar(mapeamentoUrl);
+    }
+
+    // Um lote por partição, em paralelo; os índices de cada resultado voltam para a posição no lote original.
+    @Override
+    public ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos) {
+        Set<Integer> duplicados = existentesNoDonoAnterior(mapeamentos);
+        Map<String, List<Integer>> indicesPorParticao = new HashMap<>();
+        for (int i = 0; i < mapeamentos.size(); i++) {
+            if (duplicados.contains(i)) {
+                continue;
+            }
+            indicesPorParticao.computeIfAbsent(anel.dono(mapeamentos.get(i).getCodigoCurto().getValor()),
+                    particao -> new ArrayList<>()).add(i);
+        }
+        List<Map.Entry<String, List<Integer>>> grupos = List.copyOf(indicesPorParticao.entrySet());
+        List<ResultadoInsercaoLote> resultados = emParalelo(grupos, grupo -> {
+            List<MapeamentoUrl> lote = new ArrayList<>(grupo.getValue().size());
+            for (int indice : grupo.getValue()) {
+                lote.add(mapeamentos.get(indice));
+            }
+            return particoes.get(grupo.getKey()).inserirEmLote(lote);
+        });
+        Map<Integer, String> erros = new HashMap<>();
+        for (int g = 0; g < grupos.size(); g++) {
+            List<Integer> indices = grupos.get(g).getValue();
+            ResultadoInsercaoLote resultado = resultados.get(g);
+            resultado.getIndicesDuplicados().forEach(indice -> duplicados.add(indices.get(indice)));
+            resultado.getErrosPorIndice().forEach((indice, erro) -> erros.put(indices.get(indice), erro));
+        }
+        return duplicados.isEmpty() && erros.isEmpty()
+                ? ResultadoInsercaoLote.semFalhas()
+                : new ResultadoInsercaoLote(duplicados, erros);
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) {
+        Optional<MapeamentoUrl> encontrado = dono(codigoCurto.getValor()).buscarPorCodigoCurto(codigoCurto);
+        SpringDataMongoMapeamentoUrlRepositoryImpl anterior;
+        return encontrado.isPresent() || (anterior = donoAnterior(codigoCurto.getValor())) == null
+                ? encontrado
+                : anterior.buscarPorCodigoCurto(codigoCurto);
+    }
+
+    @Override
+    public Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        Optional<DestinoRedirecionamento> encontrado = dono(codigoCurto.getValor()).buscarDestinoRedirecionamento(codigoCurto);
+        SpringDataMongoMapeamentoUrlRepositoryImpl anterior;
+        return encontrado.isPresent() || (anterior = donoAnterior(codigoCurto.getValor())) == null
+                ? encontrado
+                : anterior.buscarDestinoRedirecionamento(codigoCurto);
+    }
+
+    @Override
+    public boolean existeCodigoCurto(CodigoCurto codigoCurto) {
+        if (dono(codigoCurto.getValor()).existeCodigoCurto(codigoCurto)) {
+            return true;
+        }
+        SpringDataMongoMapeamentoUrlRepositoryImpl anterior = donoAnterior(codigoCurto.getValor());
+        return anterior != null && anterior.existeCodigoCurto(codigoCurto);
+    }
+
+    @Override
+    public Optional<MapeamentoUrl> buscarPorUrlOriginal(UrlOriginal urlOriginal) {
+        return emTodas(particao -> particao.buscarPorUrlOriginal(urlOriginal)).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    @Override
+    public List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl) {
+        List<MapeamentoUrl> encontrados = new ArrayList<>();
+        emTodas(particao -> particao.buscarPorImpressaoDigital(impressaoDigitalUrl)).forEach(encontrados::addAll);
+        return encontrados;
+    }
+
+    // Durante o rebalanceamento o $inc vai também ao dono antigo: sem upsert, só o banco que tem o documento o aplica.
+    @Override
+    public void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos) {
+        Map<String, Map<CodigoCurto, Long>> porParticao = new HashMap<>();
+        incrementos.forEach((codigo, quantidade) -> {
+            porParticao.computeIfAbsent(anel.dono(codigo.getValor()), particao -> new HashMap<>()).put(codigo, quantidade);
+            if (anelAnterior != null) {
+                porParticao.computeIfAbsent(anelAnterior.dono(codigo.getValor()), particao -> new HashMap<>())
+                        .put(codigo, quantidade);
+            }
+        });
+        emParalelo(List.copyOf(porParticao.entrySet()), grupo -> {
+            particoes.get(grupo.getKey()).incrementarContadoresAcesso(grupo.getValue());
+            return null;
+        });
+    }
+
+    // Em sequência: o consumidor não precisa ser thread-safe.
+    @Override
+    public void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor) {
+        particoes.values().forEach(particao -> particao.percorrerCodigosCurtos(criadosDesde, consumidor));
+    }
+
+    @Override
+    public int removerExpirados(LocalDateTime expiradosAntesDe, int limite) {
+        int removidos = 0;
+        for (SpringDataMongoMapeamentoUrlRepositoryImpl particao : particoes.values()) {
+            if (removidos >= limite) {
+                break;
+            }
+            removidos += particao.removerExpirados(expiradosAntesDe, limite - removidos);
+        }
+        return removidos;
+    }
+
+    // O hash espalha os códigos por igual, então a fatia de cada partição aproxima bem o topo global.
+    @Override
+    public void percorrerMaisAcessados(int limite, Consumer<DestinoRedirecionamento> consumidor) {
+        int porParticao = (limite + anel.getParticoes().size() - 1) / anel.getParticoes().size();
+        for (String nome : anel.getParticoes()) {
+            particoes.get(nome).percorrerMaisAcessados(porParticao, consumidor);
+        }
+    }
+
+    @PreDestroy
+    public void fechar() {
+        executor.shutdown();
+        clientes.forEach(MongoClient::close);
+    }
+
+    // Índices do lote cujo código ainda está no dono antigo: voltam como duplicados, sem gravar no dono novo.
+    private Set<Integer> existentesNoDonoAnterior(List<MapeamentoUrl> mapeamentos) {
+        Set<Integer> existentes = new HashSet<>();
+        if (anelAnterior == null) {
+            return existentes;
+        }
+        Map<SpringDataMongoMapeamentoUrlRepositoryImpl, Map<String, List<Integer>>> porAnterior = new IdentityHashMap<>();
+        for (int i = 0; i < mapeamentos.size(); i++) {
+            String codigo = mapeamentos.get(i).getCodigoCurto().getValor();
+            SpringDataMongoMapeamentoUrlRepositoryImpl anterior = donoAnterior(codigo);
+            if (anterior != null) {
+                porAnterior.computeIfAbsent(anterior, particao -> new HashMap<>())
+                        .computeIfAbsent(codigo, chave -> new ArrayList<>()).add(i);
+            }
+        }
+        porAnterior.forEach((anterior, indices) -> anterior.buscarPorCodigos(indices.keySet())
+                .forEach(mapeamento -> existentes.addAll(indices.get(mapeamento.getCodigoCurto().getValor()))));
+        return existentes;
+    }
+
+    private SpringDataMongoMapeamentoUrlRepositoryImpl donoAnterior(String codigo) {
+        if (anelAnterior == null) {
+            return null;
+        }
+        String anterior = anelAnterior.dono(codigo);
+        return anterior.equals(anel.dono(codigo)) ? null : particoes.get(anterior);
+    }
+
+    private <T> List<T> emTodas(Function<SpringDataMongoMapeamentoUrlRepositoryImpl, T> operacao) {
+        return emParalelo(List.copyOf(particoes.values()), operacao);
+    }
+
+    private <E, T> List<T> emParalelo(List<E> itens, Function<E, T> operacao) {
+        if (itens.size() == 1) {
+            return Collections.singletonList(operacao.apply(itens.get(0))); // Aceita resultado nulo
+        }
+        List<Future<T>> futuros = new ArrayList<>(itens.size());
+        for (E item : itens) {
+            futuros.add(executor.submit(() -> operacao.apply(item)));
+        }
+        List<T> resultados = new ArrayList<>(itens.size());
+        try {
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+        } catch (ExecutionException e) {
+            futuros.forEach(futuro -> futuro.cancel(true));
+            throw e.getCause() instanceof RuntimeException causa ? causa : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futuros.forEach(futuro -> futuro.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta às partições interrompida.", e);
+        }
+        return resultados;
+    }
+
+    private void validarAneis() {
+        Set<String> usadas = new HashSet<>(anel.getParticoes());
+        if (anelAnterior != null) {
+            usadas.addAll(anelAnterior.getParticoes());
+        }
+        usadas.removeAll(particoes.keySet());
+        if (!usadas.isEmpty()) {
+            throw new IllegalArgumentException("Partições no anel sem conexão configurada: " + usadas);
+        }
+    }
+
+    private SpringDataMongoMapeamentoUrlRepositoryImpl conectar(String nome, String uri, MongoTemplate modelo,
+                                                               String modoExpiracao, long retencaoMinutos,
+                                                               boolean usarColecaoRedirecionamentos,
+                                                               String preferenciaLeitura, long maxStalenessSegundos,
+                                                               boolean indexarImpressaoDigital,
+                                                               FabricaThreads fabricaThreads) {
+        String banco = new ConnectionString(uri).getDatabase();
+        if (banco == null) {
+            throw new IllegalArgumentException("A URI da partição '" + nome + "' precisa indicar o banco.");
+        }
+        MongoClient cliente = MongoClients.create(uri);
+        clientes.add(cliente);
+        // Mesmo conversor (e contexto de mapeamento) do MongoTemplate principal. A partição não é um bean: os índices
+        // são criados aqui, pela mesma rotina do repositório não particionado.
+        MongoTemplate template = new MongoTemplate(new SimpleMongoClientDatabaseFactory(cliente, banco), modelo.getConverter());
+        InternalSpringDataMongoRepository repositorio =
+                new MongoRepositoryFactory(template).getRepository(InternalSpringDataMongoRepository.class);
+        SpringDataMongoMapeamentoUrlRepositoryImpl particao = new SpringDataMongoMapeamentoUrlRepositoryImpl(
+                repositorio, template, modoExpiracao, retencaoMinutos, usarColecaoRedirecionamentos, preferenciaLeitura,
+                maxStalenessSegundos, indexarImpressaoDigital, fabricaThreads);
+        particao.criarIndices();
+        return particao;
+    }
+
+    private static List<String> nomes(String lista) {
+        return Arrays.stream(lista.split(",")).map(String::trim).filter(nome -> !nome.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,170 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Move para o dono atual os códigos que estão numa partição que não é mais a deles (depois de incluir ou retirar
+// partições do anel). Percorre cada partição em streaming e move em lotes: copia para o destino e só então apaga da
+// origem. Um duplicado no destino só conta como copiado se for o mesmo mapeamento (execução retomada); se a URL ou a
+// expiração diferirem, o código fica na origem e conta como falha. Enquanto roda, o MapeamentoUrlRepositoryParticionado
+// acha os códigos ainda não movidos pelo anel anterior e recusa gravar no dono novo um código que o antigo ainda tem.
+@Component
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "particionado")
+public class RebalanceadorParticoes {
+    private static final Logger log = LoggerFactory.getLogger(RebalanceadorParticoes.class);
+
+    private final MapeamentoUrlRepositoryParticionado repositorio;
+    private final FabricaThreads fabricaThreads;
+    private final int tamanhoLote;
+    private final AtomicBoolean emAndamento = new AtomicBoolean();
+    private final AtomicLong verificados = new AtomicLong();
+    private final AtomicLong movidos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    @Autowired
+    public RebalanceadorParticoes(MapeamentoUrlRepositoryParticionado repositorio,
+                                  FabricaThreads fabricaThreads,
+                                  @Value("${app.persistencia.particionado.tamanho-lote-rebalanceamento:500}") int tamanhoLote) {
+        this.repositorio = repositorio;
+        this.fabricaThreads = fabricaThreads;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    // Falso se já houver um rebalanceamento em andamento.
+    public boolean iniciar() {
+        if (!emAndamento.compareAndSet(false, true)) {
+            return false;
+        }
+        verificados.set(0);
+        movidos.set(0);
+        falhas.set(0);
+        fabricaThreads.iniciar("rebalanceamento-particoes", () -> {
+            try {
+                executar();
+            } catch (RuntimeException e) {
+                log.error("Rebalanceamento de partições interrompido; pode ser retomado.", e);
+            } finally {
+                emAndamento.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isEmAndamento() { return emAndamento.get(); }
+    public long getVerificados() { return verificados.get(); }
+    public long getMovidos() { return movidos.get(); }
+    public long getFalhas() { return falhas.get(); }
+
+    void executar() {
+        long inicioMs = System.currentTimeMillis();
+        repositorio.getParticoes().forEach((nome, origem) -> {
+            List<String> lote = new ArrayList<>(tamanhoLote);
+            origem.percorrerCodigosCurtos(null, codigo -> {
+                verificados.incrementAndGet();
+                if (repositorio.dono(codigo.getValor()) != origem) {
+                    lote.add(codigo.getValor());
+                    if (lote.size() >= tamanhoLote) {
+                        mover(origem, lote);
+                        lote.clear();
+                    }
+                }
+            });
+            if (!lote.isEmpty()) {
+                mover(origem, lote);
+            }
+            log.info("Partição '{}' rebalanceada ({} códigos movidos até agora).", nome, movidos.get());
+        });
+        log.info("Rebalanceamento concluído em {} ms: {} códigos verificados, {} movidos, {} falhas.",
+                System.currentTimeMillis() - inicioMs, verificados.get(), movidos.get(), falhas.get());
+    }
+
+    private void mover(SpringDataMongoMapeamentoUrlRepositoryImpl origem, List<String> codigos) {
+        Map<SpringDataMongoMapeamentoUrlRepositoryImpl, List<MapeamentoUrl>> porDestino = new IdentityHashMap<>();
+        for (MapeamentoUrl mapeamento : origem.buscarPorCodigos(codigos)) {
+            porDestino.computeIfAbsent(repositorio.dono(mapeamento.getCodigoCurto().getValor()), destino -> new ArrayList<>())
+                    .add(mapeamento);
+        }
+        List<String> copiados = new ArrayList<>(codigos.size());
+        porDestino.forEach((destino, mapeamentos) -> {
+            ResultadoInsercaoLote resultado = destino.inserirEmLote(mapeamentos);
+            List<String> candidatos = new ArrayList<>(mapeamentos.size());
+            for (int i = 0; i < mapeamentos.size(); i++) {
+                if (resultado.getErrosPorIndice().containsKey(i)) {
+                    falhas.incrementAndGet(); // Fica na origem, ainda acessível pelo anel anterior
+                } else {
+                    candidatos.add(mapeamentos.get(i).getCodigoCurto().getValor());
+                }
+            }
+            if (!candidatos.isEmpty()) {
+                copiados.addAll(conferir(origem, destino, candidatos));
+            }
+        });
+        if (!copiados.isEmpty()) {
+            origem.removerPorCodigos(copiados);
+            movidos.addAndGet(copiados.size());
+        }
+    }
+
+    // Relê os dois lados já com a cópia feita e devolve os códigos que podem sair da origem. Desde a cópia o
+    // MapeamentoUrlRepositoryParticionado aplica o $inc nos dois donos; o que chegou só à origem entre a primeira leitura
+    // e a cópia é a diferença entre os contadores, levada ao destino antes de apagar. A origem é lida primeiro: um
+    // acesso entre as duas leituras aparece nos dois lados e não é contado duas vezes.
+    private List<String> conferir(SpringDataMongoMapeamentoUrlRepositoryImpl origem,
+                                  SpringDataMongoMapeamentoUrlRepositoryImpl destino, List<String> codigos) {
+        Map<String, MapeamentoUrl> naOrigem = porCodigo(origem.buscarPorCodigos(codigos));
+        Map<String, MapeamentoUrl> noDestino = porCodigo(destino.buscarPorCodigos(codigos));
+        List<String> conferidos = new ArrayList<>(codigos.size());
+        Map<CodigoCurto, Long> diferencas = new HashMap<>();
+        for (String codigo : codigos) {
+            MapeamentoUrl original = naOrigem.get(codigo);
+            MapeamentoUrl copia = noDestino.get(codigo);
+            if (original == null) {
+                continue; // Expirou ou foi removido durante a cópia: não há o que apagar
+            }
+            if (copia == null || !mesmoMapeamento(original, copia)) {
+                falhas.incrementAndGet();
+                log.warn("Código '{}' com mapeamento diferente na partição de destino; mantido na origem.", codigo);
+                continue;
+            }
+            long diferenca = original.getContadorAcessos() - copia.getContadorAcessos();
+            if (diferenca > 0) {
+                diferencas.put(original.getCodigoCurto(), diferenca);
+            }
+            conferidos.add(codigo);
+        }
+        if (!diferencas.isEmpty()) {
+            destino.incrementarContadoresAcesso(diferencas);
+        }
+        return conferidos;
+    }
+
+    private static boolean mesmoMapeamento(MapeamentoUrl original, MapeamentoUrl copia) {
+        return original.getUrlOriginal().getValor().equals(copia.getUrlOriginal().getValor())
+                && Objects.equals(original.getDataExpiracao(), copia.getDataExpiracao());
+    }
+
+    private static Map<String, MapeamentoUrl> porCodigo(List<MapeamentoUrl> mapeamentos) {
+        Map<String, MapeamentoUrl> porCodigo = new HashMap<>(mapeamentos.size() * 2);
+        for (MapeamentoUrl mapeamento : mapeamentos) {
+            porCodigo.put(mapeamento.getCodigoCurto().getValor(), mapeamento);
+        }
+        return porCodigo;
+    }
+}
@@ -0,0 +1,35 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.ChaveSketchVisitantes;
+import oliveiradev.encurtador_url.domain.repository.SketchVisitantesRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@ConditionalOnExpression("'${app.persistencia.motor:mongo}' matches 'memoria|mmap'") // O nó mmap roda sem Mongo
+public class SketchVisitantesRepositoryEmMemoria implements SketchVisitantesRepository {
+    private final Map<ChaveSketchVisitantes, Map<String, byte[]>> sketches = new ConcurrentHashMap<>();
+
+    @Override
+    public void gravar(String instancia, Map<ChaveSketchVisitantes, byte[]> novos) {
+        novos.forEach((chave, sketch) ->
+                sketches.computeIfAbsent(chave, c -> new ConcurrentHashMap<>()).put(instancia, sketch.clone()));
+    }
+
+    @Override
+    public Map<ChaveSketchVisitantes, Map<String, byte[]>> buscar(Collection<ChaveSketchVisitantes> chaves) {
+        Map<ChaveSketchVisitantes, Map<String, byte[]>> encontrados = new HashMap<>();
+        for (ChaveSketchVisitantes chave : chaves) {
+            Map<String, byte[]> porInstancia = sketches.get(chave);
+            if (porInstancia != null) {
+                encontrados.put(chave, Map.copyOf(porInstancia));
+            }
+        }
+        return encontrados;
+    }
+}
@@ -0,0 +1,102 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import jakarta.annotation.PostConstruct;
+import oliveiradev.encurtador_url.domain.model.ChaveSketchVisitantes;
+import oliveiradev.encurtador_url.domain.repository.SketchVisitantesRepository;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Um documento por chave em "visitantes_unicos", com o sketch de cada nó em "nos.<instancia>" (BinData de ~3 KB).
+// Fica fora de mapeamentos_url para que a descarga dos sketches não regrave os documentos lidos no redirecionamento.
+@Repository
+@ConditionalOnExpression("'${app.persistencia.motor:mongo}' matches 'mongo|particionado'") // No particionado fica no banco padrão
+public class SketchVisitantesRepositoryMongo implements SketchVisitantesRepository {
+    private static final Logger log = LoggerFactory.getLogger(SketchVisitantesRepositoryMongo.class);
+    private static final String COLECAO = "visitantes_unicos";
+    private static final Duration RETENCAO_DIARIOS = Duration.ofDays(90);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public SketchVisitantesRepositoryMongo(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void criarIndices() {
+        try {
+            mongoTemplate.indexOps(COLECAO).ensureIndex(new Index()
+                    .on("expiraEm", Sort.Direction.ASC)
+                    .expire(0, TimeUnit.SECONDS)
+                    .named("sketch_ttl"));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível criar os índices de '{}': {}", COLECAO, e.getMessage());
+        }
+    }
+
+    @Override
+    public void gravar(String instancia, Map<ChaveSketchVisitantes, byte[]> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO);
+        sketches.forEach((chave, sketch) -> {
+            Update update = new Update()
+                    .set("nos." + instancia, sketch)
+                    .setOnInsert("codigoCurto", chave.getCodigoCurto());
+            if (chave.getInicioDia() != null) {
+                update.setOnInsert("inicio", Date.from(chave.getInicioDia()))
+                        .setOnInsert("expiraEm", Date.from(chave.getInicioDia().plus(RETENCAO_DIARIOS)));
+            }
+            operacoes.upsert(Query.query(Criteria.where("_id").is(chave.identificador())), update);
+        });
+        operacoes.execute();
+    }
+
+    @Override
+    public Map<ChaveSketchVisitantes, Map<String, byte[]>> buscar(Collection<ChaveSketchVisitantes> chaves) {
+        Map<String, ChaveSketchVisitantes> porIdentificador = new HashMap<>();
+        for (ChaveSketchVisitantes chave : chaves) {
+            porIdentificador.put(chave.identificador(), chave);
+        }
+        Query consulta = Query.query(Criteria.where("_id").in(porIdentificador.keySet()));
+        consulta.fields().include("nos");
+
+        Map<ChaveSketchVisitantes, Map<String, byte[]>> encontrados = new HashMap<>();
+        for (Document documento : mongoTemplate.find(consulta, Document.class, COLECAO)) {
+            Document nos = documento.get("nos", Document.class);
+            if (nos == null) {
+                continue;
+            }
+            Map<String, byte[]> porInstancia = new HashMap<>();
+            nos.forEach((instancia, valor) -> {
+                if (valor instanceof Binary binario) {
+                    porInstancia.put(instancia, binario.getData());
+                } else if (valor instanceof byte[] bytes) {
+                    porInstancia.put(instancia, bytes);
+                }
+            });
+            encontrados.put(porIdentificador.get(documento.getString("_id")), porInstancia);
+        }
+        return encontrados;
+    }
+}
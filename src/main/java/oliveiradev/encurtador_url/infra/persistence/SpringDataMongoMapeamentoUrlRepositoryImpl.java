@@ -1,40 +1,281 @@
 package oliveiradev.encurtador_url.infra.persistence;
 
 import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
 import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
 import oliveiradev.encurtador_url.domain.model.UrlOriginal;
 import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import com.mongodb.ReadPreference;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Primary;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
-@Primary
+@Qualifier("persistencia") // Decorado pela cadeia montada em RepositorioConfig
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "mongo", matchIfMissing = true)
 public class SpringDataMongoMapeamentoUrlRepositoryImpl implements MapeamentoUrlRepository {
     private static final Logger log = LoggerFactory.getLogger(SpringDataMongoMapeamentoUrlRepositoryImpl.class);
+    private static final int TAMANHO_LOTE_CURSOR = 5000;
+    private static final int CODIGO_CHAVE_DUPLICADA = 11000;
+    // Coleção enxuta só para redirecionar: _id é o próprio código, "u" a URL original e "e" a expiração (ausente se
+    // não expira). Nomes curtos para o documento inteiro caber em poucas dezenas de bytes além da URL.
+    private static final String COLECAO_REDIRECIONAMENTOS = "redirecionamentos";
+    private static final String CAMPO_URL = "u";
+    private static final String CAMPO_EXPIRACAO = "e";
+    private static final int LIMITE_REPAROS_PENDENTES = 1024;
     private final InternalSpringDataMongoRepository internalMongoRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MongoTemplate modeloLeitura; // O próprio mongoTemplate quando as leituras ficam no primário
+    private final String colecaoMapeamentos;
+    private final boolean expiracaoNativa;
+    private final Duration retencao;
+    private final boolean usarColecaoRedirecionamentos;
+    private final boolean indexarImpressaoDigital; // Só com a deduplicação ligada os mapeamentos têm impressão digital
+    private final Executor reparos; // Completa a coleção enxuta fora do caminho de leitura
+    private final Set<String> reparosPendentes = ConcurrentHashMap.newKeySet();
 
     @Autowired
-    public SpringDataMongoMapeamentoUrlRepositoryImpl(InternalSpringDataMongoRepository internalMongoRepository) {
+    public SpringDataMongoMapeamentoUrlRepositoryImpl(InternalSpringDataMongoRepository internalMongoRepository,
+                                                      MongoTemplate mongoTemplate,
+                                                      @Value("${app.expiracao.modo:ttl}") String modoExpiracao,
+                                                      @Value("${app.expiracao.retencao-minutos:0}") long retencaoMinutos,
+                                                      @Value("${app.persistencia.colecao-redirecionamentos:false}") boolean usarColecaoRedirecionamentos,
+                                                      @Value("${app.persistencia.leitura.preferencia:primary}") String preferenciaLeitura,
+                                                      @Value("${app.persistencia.leitura.max-staleness-segundos:90}") long maxStalenessSegundos,
+                                                      @Value("${app.dedup.habilitado:false}") boolean indexarImpressaoDigital,
+                                                      FabricaThreads fabricaThreads) {
+        this(internalMongoRepository, mongoTemplate, modeloLeitura(mongoTemplate, preferenciaLeitura, maxStalenessSegundos),
+                modoExpiracao, retencaoMinutos, usarColecaoRedirecionamentos, indexarImpressaoDigital,
+                fabricaThreads.novoExecutor("reparo-redirecionamentos"));
+    }
+
+    SpringDataMongoMapeamentoUrlRepositoryImpl(InternalSpringDataMongoRepository internalMongoRepository,
+                                               MongoTemplate mongoTemplate, MongoTemplate modeloLeitura,
+                                               String modoExpiracao, long retencaoMinutos,
+                                               boolean usarColecaoRedirecionamentos, boolean indexarImpressaoDigital,
+                                               Executor reparos) {
         this.internalMongoRepository = internalMongoRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.modeloLeitura = modeloLeitura;
+        this.colecaoMapeamentos = mongoTemplate.getCollectionName(MapeamentoUrl.class);
+        this.expiracaoNativa = !"varredor".equalsIgnoreCase(modoExpiracao);
+        this.retencao = Duration.ofMinutes(retencaoMinutos);
+        this.usarColecaoRedirecionamentos = usarColecaoRedirecionamentos;
+        this.indexarImpressaoDigital = indexarImpressaoDigital;
+        this.reparos = reparos;
+    }
+
+    // Leituras do redirecionamento e da consulta de informações podem ir a secundários (preferência diferente de
+    // "primary"), com atraso limitado por max-staleness (mínimo de 90 s exigido pelo driver). Gravações e as leituras do
+    // caminho de escrita (existência do código, deduplicação por URL, sincronização do filtro) continuam no primário.
+    // Como o mapeamento não muda depois de criado, só a ausência pode estar desatualizada: um código não achado no
+    // secundário é procurado de novo no primário, o que garante ler o que acabou de ser gravado. O filtro de códigos
+    // emitidos já barra os códigos inexistentes antes daqui, então essa segunda leitura fica restrita aos recentes.
+    private static MongoTemplate modeloLeitura(MongoTemplate mongoTemplate, String preferencia, long maxStalenessSegundos) {
+        if ("primary".equalsIgnoreCase(preferencia)) {
+            return mongoTemplate;
+        }
+        MongoTemplate modelo = new MongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+        modelo.setReadPreference(ReadPreference.valueOf(preferencia, Collections.emptyList(), maxStalenessSegundos,
+                TimeUnit.SECONDS));
+        log.info("Leituras de redirecionamento com preferência '{}' (atraso máximo de {} s) e recurso ao primário.",
+                preferencia, maxStalenessSegundos);
+        return modelo;
+    }
+
+    private boolean isLeituraNoPrimario() {
+        return modeloLeitura == mongoTemplate;
+    }
+
+    // Sem auto-index-creation: a partida não fica presa esperando um servidor gravável. Cada índice é garantido aqui e
+    // uma falha só é registrada (os já existentes num banco em uso continuam valendo); sem servidor, desiste no
+    // primeiro em vez de esperar um timeout por índice.
+    @PostConstruct
+    public void criarIndices() {
+        List<Index> indices = new ArrayList<>(List.of(
+                new Index().on("codigoCurto.valor", Sort.Direction.ASC).unique().named("codigoCurto_valor"),
+                new Index().on("dataCriacao", Sort.Direction.ASC).named("dataCriacao"), // Sincronização do filtro
+                new Index().on("contadorAcessos", Sort.Direction.DESC).named("contadorAcessos"), // Aquecimento
+                indiceExpiracao("dataExpiracao", "mapeamento")));
+        if (indexarImpressaoDigital) {
+            indices.add(new Index().on("impressaoDigitalUrl", Sort.Direction.ASC).sparse().named("impressaoDigitalUrl"));
+        }
+        for (Index indice : indices) {
+            if (!garantirIndice(colecaoMapeamentos, indice)) {
+                return;
+            }
+        }
+        if (usarColecaoRedirecionamentos) {
+            garantirIndice(COLECAO_REDIRECIONAMENTOS, indiceExpiracao(CAMPO_EXPIRACAO, "redirecionamento"));
+        }
+    }
+
+    // Modo "ttl": o próprio Mongo apaga os documentos vencidos (o monitor de TTL roda a cada ~60 s; até lá a
+    // verificação de expiração na leitura cobre a janela). Modo "varredor": índice comum em dataExpiracao, usado pelo
+    // VarredorMapeamentosExpirados. Documentos sem dataExpiracao nunca são apagados.
+    private Index indiceExpiracao(String campo, String prefixoNome) {
+        Index indice = new Index().on(campo, Sort.Direction.ASC);
+        return expiracaoNativa
+                ? indice.expire(retencao.toSeconds(), TimeUnit.SECONDS).named(prefixoNome + "_ttl")
+                : indice.sparse().named(prefixoNome + "_expiracao");
+    }
+
+    // Falso só quando o banco está inacessível.
+    private boolean garantirIndice(String colecao, Index indice) {
+        try {
+            mongoTemplate.indexOps(colecao).ensureIndex(indice);
+            return true;
+        } catch (DataAccessResourceFailureException e) {
+            log.warn("Banco indisponível; índices de '{}' não criados nesta partida: {}", colecao, e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            // Ex.: troca de modo de expiração com o índice do outro modo ainda presente (mesma chave, opções diferentes)
+            log.warn("Não foi possível criar o índice {} de '{}': {}", indice.getIndexKeys().toJson(), colecao,
+                    e.getMessage());
+            return true;
+        }
     }
 
     @Override
     public MapeamentoUrl salvar(MapeamentoUrl mapeamentoUrl) {
         log.debug("Persistindo MapeamentoUrl com código curto: {}", mapeamentoUrl.getCodigoCurto().getValor());
-        return internalMongoRepository.save(mapeamentoUrl);
+        MapeamentoUrl salvo = internalMongoRepository.save(mapeamentoUrl);
+        if (usarColecaoRedirecionamentos) {
+            gravarRedirecionamentos(List.of(salvo));
+        }
+        return salvo;
+    }
+
+    @Override
+    public ResultadoInsercaoLote inserirEmLote(List<MapeamentoUrl> mapeamentos) {
+        if (mapeamentos.isEmpty()) {
+            return ResultadoInsercaoLote.semFalhas();
+        }
+        log.debug("Inserindo lote não ordenado de {} mapeamentos.", mapeamentos.size());
+        ResultadoInsercaoLote resultado = inserirMapeamentos(mapeamentos);
+        if (usarColecaoRedirecionamentos) {
+            List<MapeamentoUrl> inseridos = new ArrayList<>(mapeamentos.size());
+            for (int i = 0; i < mapeamentos.size(); i++) {
+                if (resultado.isInserido(i)) {
+                    inseridos.add(mapeamentos.get(i));
+                }
+            }
+            gravarRedirecionamentos(inseridos);
+        }
+        return resultado;
+    }
+
+    private ResultadoInsercaoLote inserirMapeamentos(List<MapeamentoUrl> mapeamentos) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MapeamentoUrl.class)
+                    .insert(mapeamentos)
+                    .execute();
+            return ResultadoInsercaoLote.semFalhas();
+        } catch (BulkOperationException e) {
+            // No modo não ordenado o Mongo insere todos os demais; reportamos cada falha pelo índice no lote.
+            Set<Integer> duplicados = new HashSet<>();
+            Map<Integer, String> erros = new HashMap<>();
+            for (BulkWriteError erro : e.getErrors()) {
+                if (erro.getCode() == CODIGO_CHAVE_DUPLICADA) {
+                    duplicados.add(erro.getIndex());
+                } else {
+                    erros.put(erro.getIndex(), erro.getMessage());
+                }
+            }
+            log.warn("Inserção em lote concluída com {} chaves duplicadas e {} outras falhas.", duplicados.size(), erros.size());
+            return new ResultadoInsercaoLote(duplicados, erros);
+        }
     }
 
     @Override
     public Optional<MapeamentoUrl> buscarPorCodigoCurto(CodigoCurto codigoCurto) { // Nome corrigido
         log.debug("Buscando MapeamentoUrl por código curto: {}", codigoCurto.getValor());
+        if (!isLeituraNoPrimario()) {
+            MapeamentoUrl encontrado = modeloLeitura.findOne(
+                    Query.query(Criteria.where("codigoCurto.valor").is(codigoCurto.getValor())), MapeamentoUrl.class);
+            if (encontrado != null) {
+                return Optional.of(encontrado);
+            }
+            log.debug("Código curto {} ausente no secundário; buscando no primário.", codigoCurto.getValor());
+        }
         return internalMongoRepository.findByCodigoCurto_Valor(codigoCurto.getValor());
     }
 
+    @Override
+    public Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(CodigoCurto codigoCurto) {
+        if (!isLeituraNoPrimario()) {
+            Optional<DestinoRedirecionamento> encontrado = buscarDestinoRedirecionamento(modeloLeitura, codigoCurto);
+            if (encontrado.isPresent()) {
+                return encontrado;
+            }
+            log.debug("Código curto {} ausente no secundário; buscando no primário.", codigoCurto.getValor());
+        }
+        return buscarDestinoRedirecionamento(mongoTemplate, codigoCurto);
+    }
+
+    private Optional<DestinoRedirecionamento> buscarDestinoRedirecionamento(MongoTemplate modelo, CodigoCurto codigoCurto) {
+        String codigo = codigoCurto.getValor();
+        if (usarColecaoRedirecionamentos) {
+            Document redirecionamento = modelo.findById(codigo, Document.class, COLECAO_REDIRECIONAMENTOS);
+            if (redirecionamento != null) {
+                return Optional.of(DestinoRedirecionamento.de(codigoCurto, redirecionamento.getString(CAMPO_URL),
+                        emEpochMillis(redirecionamento.getDate(CAMPO_EXPIRACAO))));
+            }
+        }
+        // Só os dois campos do redirecionamento, lidos como Document cru: sem o mapeamento reflexivo da entidade
+        Query query = Query.query(Criteria.where("codigoCurto.valor").is(codigo));
+        query.fields().include("urlOriginal.valor").include("dataExpiracao").exclude("_id");
+        Document projetado = modelo.findOne(query, Document.class, colecaoMapeamentos);
+        if (projetado == null) {
+            return Optional.empty();
+        }
+        String urlOriginal = projetado.get("urlOriginal", Document.class).getString("valor");
+        long expiraEmMs = emEpochMillis(projetado.getDate("dataExpiracao"));
+        if (usarColecaoRedirecionamentos) {
+            // Mapeamento anterior à coleção enxuta (ou gravação dela que falhou): completa em segundo plano
+            agendarReparo(codigo, urlOriginal, expiraEmMs);
+        }
+        return Optional.of(DestinoRedirecionamento.de(codigoCurto, urlOriginal, expiraEmMs));
+    }
+
     @Override
     public boolean existeCodigoCurto(CodigoCurto codigoCurto) {
         log.trace("Verificando existência do código curto: {}", codigoCurto.getValor());
@@ -46,4 +287,178 @@ public class SpringDataMongoMapeamentoUrlRepositoryImpl implements MapeamentoUrl
         log.debug("Buscando MapeamentoUrl por URL original: {}", urlOriginal.getValor());
         return internalMongoRepository.findByUrlOriginal_Valor(urlOriginal.getValor());
     }
+
+    @Override
+    public List<MapeamentoUrl> buscarPorImpressaoDigital(long impressaoDigitalUrl) {
+        log.debug("Buscando MapeamentoUrl por impressão digital da URL: {}", impressaoDigitalUrl);
+        return internalMongoRepository.findByImpressaoDigitalUrl(impressaoDigitalUrl);
+    }
+
+    @Override
+    public void incrementarContadoresAcesso(Map<CodigoCurto, Long> incrementos) {
+        if (incrementos.isEmpty()) {
+            return;
+        }
+        log.debug("Aplicando $inc em lote para {} contadores de acesso.", incrementos.size());
+        // Bulk não ordenado: um único round trip, sem ler nem regravar o documento inteiro.
+        BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MapeamentoUrl.class);
+        incrementos.forEach((codigoCurto, quantidade) -> operacoes.updateOne(
+                Query.query(Criteria.where("codigoCurto.valor").is(codigoCurto.getValor())),
+                new Update().inc("contadorAcessos", quantidade)));
+        operacoes.execute();
+    }
+
+    @Override
+    public int removerExpirados(LocalDateTime expiradosAntesDe, int limite) {
+        Date limiteExpiracao = Date.from(expiradosAntesDe.atZone(ZoneId.systemDefault()).toInstant());
+        int removidos = removerExpirados(colecaoMapeamentos, "dataExpiracao", limiteExpiracao, limite);
+        if (usarColecaoRedirecionamentos) {
+            removerExpirados(COLECAO_REDIRECIONAMENTOS, CAMPO_EXPIRACAO, limiteExpiracao, limite);
+        }
+        log.debug("Removidos {} mapeamentos expirados antes de {}.", removidos, expiradosAntesDe);
+        return removidos;
+    }
+
+    // Usados pelo rebalanceamento de partições para mover mapeamentos entre bancos.
+    public List<MapeamentoUrl> buscarPorCodigos(Collection<String> codigos) {
+        return mongoTemplate.find(Query.query(Criteria.where("codigoCurto.valor").in(codigos)), MapeamentoUrl.class);
+    }
+
+    public long removerPorCodigos(Collection<String> codigos) {
+        if (usarColecaoRedirecionamentos) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(codigos)), COLECAO_REDIRECIONAMENTOS);
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("codigoCurto.valor").in(codigos)), colecaoMapeamentos)
+                .getDeletedCount();
+    }
+
+    // Lê só os _id do lote e apaga por _id: o lote fica limitado, ao contrário de um deleteMany aberto.
+    private int removerExpirados(String colecao, String campo, Date expiradosAntesDe, int limite) {
+        Query query = Query.query(Criteria.where(campo).lt(expiradosAntesDe)).limit(limite);
+        query.fields().include("_id");
+        List<Document> documentos = mongoTemplate.find(query, Document.class, colecao);
+        if (documentos.isEmpty()) {
+            return 0;
+        }
+        List<Object> ids = new ArrayList<>(documentos.size());
+        for (Document documento : documentos) {
+            ids.add(documento.get("_id"));
+        }
+        return (int) mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), colecao).getDeletedCount();
+    }
+
+    // Um único bulk não ordenado de upserts por lote. Falha aqui não desfaz o mapeamento: a busca do destino recorre
+    // à coleção principal e agenda o reparo do documento enxuto.
+    private void gravarRedirecionamentos(List<MapeamentoUrl> mapeamentos) {
+        if (mapeamentos.isEmpty()) {
+            return;
+        }
+        BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO_REDIRECIONAMENTOS);
+        for (MapeamentoUrl mapeamento : mapeamentos) {
+            adicionarRedirecionamento(operacoes, mapeamento.getCodigoCurto().getValor(),
+                    mapeamento.getUrlOriginal().getValor(), mapeamento.getDestinoRedirecionamento().getExpiraEmMs());
+        }
+        try {
+            operacoes.execute();
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível gravar {} redirecionamentos enxutos: {}", mapeamentos.size(), e.getMessage());
+        }
+    }
+
+    private static void adicionarRedirecionamento(BulkOperations operacoes, String codigo, String urlOriginal,
+                                                  long expiraEmMs) {
+        operacoes.upsert(Query.query(Criteria.where("_id").is(codigo)), atualizacaoRedirecionamento(urlOriginal, expiraEmMs));
+    }
+
+    private static Update atualizacaoRedirecionamento(String urlOriginal, long expiraEmMs) {
+        Update update = new Update().set(CAMPO_URL, urlOriginal);
+        if (expiraEmMs == DestinoRedirecionamento.SEM_EXPIRACAO) {
+            update.unset(CAMPO_EXPIRACAO);
+        } else {
+            update.set(CAMPO_EXPIRACAO, new Date(expiraEmMs));
+        }
+        return update;
+    }
+
+    // Alterações que não passaram por este repositório (outro processo, correção manual no banco), vistas pelo
+    // OuvinteAlteracoesMapeamentos: o documento enxuto acompanha a coleção principal. Sem a coleção, nada a fazer.
+    public void sincronizarRedirecionamento(String codigo, String urlOriginal, Date dataExpiracao) {
+        if (usarColecaoRedirecionamentos) {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(codigo)),
+                    atualizacaoRedirecionamento(urlOriginal, emEpochMillis(dataExpiracao)), COLECAO_REDIRECIONAMENTOS);
+        }
+    }
+
+    public void removerRedirecionamento(String codigo) {
+        if (usarColecaoRedirecionamentos) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(codigo)), COLECAO_REDIRECIONAMENTOS);
+        }
+    }
+
+    // Melhor esforço: a leitura nunca espera a escrita no primário. Um código já pendente não é agendado de novo e,
+    // acima do limite, o reparo fica para uma leitura futura.
+    private void agendarReparo(String codigo, String urlOriginal, long expiraEmMs) {
+        if (reparosPendentes.size() >= LIMITE_REPAROS_PENDENTES || !reparosPendentes.add(codigo)) {
+            return;
+        }
+        try {
+            reparos.execute(() -> {
+                try {
+                    BulkOperations operacoes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                            COLECAO_REDIRECIONAMENTOS);
+                    adicionarRedirecionamento(operacoes, codigo, urlOriginal, expiraEmMs);
+                    operacoes.execute();
+                } catch (RuntimeException e) {
+                    log.warn("Não foi possível reparar o redirecionamento enxuto do código '{}': {}", codigo,
+                            e.getMessage());
+                } finally {
+                    reparosPendentes.remove(codigo);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reparosPendentes.remove(codigo);
+        }
+    }
+
+    private static long emEpochMillis(Date data) {
+        return data == null ? DestinoRedirecionamento.SEM_EXPIRACAO : data.getTime();
+    }
+
+    // Percorre o índice descendente de contadorAcessos e para em 'limite' documentos, em vez de varrer a coleção a
+    // cada partida. O índice custa uma atualização de chave por código em cada descarga de acessos, já agregada em lote.
+    @Override
+    public void percorrerMaisAcessados(int limite, Consumer<DestinoRedirecionamento> consumidor) {
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("dataExpiracao").is(null), Criteria.where("dataExpiracao").gt(new Date())));
+        query.with(Sort.by(Sort.Direction.DESC, "contadorAcessos")).limit(limite);
+        query.fields().include("codigoCurto.valor").include("urlOriginal.valor").include("dataExpiracao").exclude("_id");
+        query.cursorBatchSize(Math.min(limite, TAMANHO_LOTE_CURSOR));
+        try (Stream<Document> documentos = modeloLeitura.stream(query, Document.class, colecaoMapeamentos)) {
+            documentos.forEach(documento -> {
+                Document codigo = documento.get("codigoCurto", Document.class);
+                Document url = documento.get("urlOriginal", Document.class);
+                if (codigo != null && url != null) {
+                    consumidor.accept(DestinoRedirecionamento.de(new CodigoCurto(codigo.getString("valor")),
+                            url.getString("valor"), emEpochMillis(documento.getDate("dataExpiracao"))));
+                }
+            });
+        }
+    }
+
+    @Override
+    public void percorrerCodigosCurtos(LocalDateTime criadosDesde, Consumer<CodigoCurto> consumidor) {
+        log.debug("Percorrendo códigos curtos criados desde: {}", criadosDesde);
+        Query query = criadosDesde == null ? new Query() : Query.query(Criteria.where("dataCriacao").gte(criadosDesde));
+        query.fields().include("codigoCurto.valor").exclude("_id"); // Lê só o código, sem mapear a entidade
+        query.cursorBatchSize(TAMANHO_LOTE_CURSOR);
+        String colecao = mongoTemplate.getCollectionName(MapeamentoUrl.class);
+        try (Stream<Document> documentos = mongoTemplate.stream(query, Document.class, colecao)) {
+            documentos.forEach(documento -> {
+                Document codigo = documento.get("codigoCurto", Document.class);
+                if (codigo != null && codigo.getString("valor") != null) {
+                    consumidor.accept(new CodigoCurto(codigo.getString("valor")));
+                }
+            });
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package oliveiradev.encurtador_url.infra.popularidade;
+
+import oliveiradev.encurtador_url.infra.hash.Hash64;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Count-Min Sketch (Cormode e Muthukrishnan): estima a frequência de cada chave com erro só para cima,
+// limitado a e/largura do total de eventos. Incrementos são atômicos e sem trava.
+public class ContagemMinimaSketch {
+    private final int profundidade;
+    private final int mascara;
+    private final AtomicLongArray contadores;
+
+    public ContagemMinimaSketch(int profundidade, int largura) {
+        if (Integer.bitCount(largura) != 1) {
+            throw new IllegalArgumentException("A largura do Count-Min Sketch deve ser potência de 2: " + largura);
+        }
+        this.profundidade = profundidade;
+        this.mascara = largura - 1;
+        this.contadores = new AtomicLongArray(profundidade * largura);
+    }
+
+    // Incrementa e devolve a nova estimativa da chave.
+    public long incrementar(long hash) {
+        long segundo = Hash64.secundario(hash);
+        long minimo = Long.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            minimo = Math.min(minimo, contadores.incrementAndGet(indice(linha, hash, segundo)));
+        }
+        return minimo;
+    }
+
+    public long estimar(long hash) {
+        long segundo = Hash64.secundario(hash);
+        long minimo = Long.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            minimo = Math.min(minimo, contadores.get(indice(linha, hash, segundo)));
+        }
+        return minimo;
+    }
+
+    // Decaimento: faz contagens antigas pesarem metade, para que campanhas encerradas deixem o topo.
+    // Incrementos concorrentes durante a passada podem ser reduzidos junto; é aceitável para uma estimativa.
+    public void reduzirPelaMetade() {
+        for (int i = 0; i < contadores.length(); i++) {
+            long valor = contadores.get(i);
+            if (valor != 0) {
+                contadores.set(i, valor >>> 1);
+            }
+        }
+    }
+
+    private int indice(int linha, long hash, long segundo) {
+        return linha * (mascara + 1) + (int) ((hash + linha * segundo) & mascara);
+    }
+}
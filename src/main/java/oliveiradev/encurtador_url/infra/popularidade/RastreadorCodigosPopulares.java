@@ -0,0 +1,166 @@
+package oliveiradev.encurtador_url.infra.popularidade;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.service.PopularidadeService;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryFixado;
+import oliveiradev.encurtador_url.infra.hash.Hash64;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Top-K de códigos por acessos: Count-Min Sketch para a frequência de todos os códigos e um heap de mínimo
+// com os K maiores. O redirecionamento só incrementa o sketch; o heap é tocado apenas quando a estimativa
+// supera o menor do topo, e com tryLock, então nunca espera. Periodicamente os K códigos do topo são
+// fixados no MapeamentoUrlRepositoryFixado, e as contagens caem pela metade para o topo acompanhar o tráfego atual.
+@Component
+public class RastreadorCodigosPopulares implements PopularidadeService {
+    private static final Logger log = LoggerFactory.getLogger(RastreadorCodigosPopulares.class);
+
+    private final ContagemMinimaSketch sketch;
+    private final MapeamentoUrlRepositoryFixado repositorioFixado;
+    private final int tamanhoTopo;
+    private final long minimoAcessos;
+    private final ReentrantLock travaTopo = new ReentrantLock();
+    private final PriorityQueue<Candidato> topo = new PriorityQueue<>(Comparator.comparingLong(c -> c.acessos));
+    private final Map<String, Candidato> candidatos = new HashMap<>();
+    private volatile long piso; // Estimativa mínima para entrar no topo
+
+    @Autowired
+    public RastreadorCodigosPopulares(MapeamentoUrlRepositoryFixado repositorioFixado,
+                                      @Value("${app.popularidade.tamanho-topo:64}") int tamanhoTopo,
+                                      @Value("${app.popularidade.minimo-acessos:100}") long minimoAcessos,
+                                      @Value("${app.popularidade.largura-sketch:8192}") int larguraSketch) {
+        this.repositorioFixado = repositorioFixado;
+        this.tamanhoTopo = tamanhoTopo;
+        this.minimoAcessos = minimoAcessos;
+        this.sketch = new ContagemMinimaSketch(4, larguraSketch);
+        this.piso = minimoAcessos - 1;
+    }
+
+    @Override
+    public void registrarAcesso(CodigoCurto codigoCurto) {
+        String codigo = codigoCurto.getValor();
+        long estimativa = sketch.incrementar(Hash64.de(codigo));
+        if (estimativa <= piso || !travaTopo.tryLock()) {
+            return; // A contagem fica no sketch; a próxima atualização do topo a enxerga
+        }
+        try {
+            Candidato candidato = candidatos.get(codigo);
+            if (candidato != null) {
+                topo.remove(candidato);
+                candidato.acessos = estimativa;
+                topo.add(candidato);
+            } else {
+                candidato = new Candidato(codigo, estimativa);
+                candidatos.put(codigo, candidato);
+                topo.add(candidato);
+                if (topo.size() > tamanhoTopo) {
+                    candidatos.remove(topo.poll().codigo);
+                }
+            }
+            atualizarPiso();
+        } finally {
+            travaTopo.unlock();
+        }
+    }
+
+    // Códigos do topo em ordem decrescente de acessos estimados.
+    public List<CodigoPopular> listar() {
+        List<CodigoPopular> populares = new ArrayList<>();
+        Set<String> fixados = repositorioFixado.codigosFixados();
+        travaTopo.lock();
+        try {
+            for (Candidato candidato : topo) {
+                populares.add(new CodigoPopular(candidato.codigo, candidato.acessos, fixados.contains(candidato.codigo)));
+            }
+        } finally {
+            travaTopo.unlock();
+        }
+        populares.sort(Comparator.comparingLong(CodigoPopular::getAcessosEstimados).reversed());
+        return populares;
+    }
+
+    @Scheduled(fixedDelayString = "${app.popularidade.intervalo-fixacao-ms:1000}",
+            initialDelayString = "${app.popularidade.intervalo-fixacao-ms:1000}")
+    public void atualizarFixados() {
+        Set<String> quentes = new HashSet<>();
+        travaTopo.lock();
+        try {
+            candidatos.keySet().forEach(quentes::add);
+        } finally {
+            travaTopo.unlock();
+        }
+        try {
+            repositorioFixado.fixarSomente(quentes);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao atualizar os códigos quentes fixados: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.popularidade.intervalo-decaimento-ms:60000}",
+            initialDelayString = "${app.popularidade.intervalo-decaimento-ms:60000}")
+    public void decair() {
+        sketch.reduzirPelaMetade();
+        travaTopo.lock();
+        try {
+            List<Candidato> restantes = new ArrayList<>(topo.size());
+            for (Candidato candidato : topo) {
+                candidato.acessos >>>= 1;
+                if (candidato.acessos >= minimoAcessos) {
+                    restantes.add(candidato);
+                } else {
+                    candidatos.remove(candidato.codigo);
+                }
+            }
+            topo.clear();
+            topo.addAll(restantes);
+            atualizarPiso();
+        } finally {
+            travaTopo.unlock();
+        }
+        log.debug("Decaimento das contagens de popularidade: {} códigos seguem no topo.", candidatos.size());
+    }
+
+    private void atualizarPiso() {
+        piso = topo.size() < tamanhoTopo ? minimoAcessos - 1 : Math.max(minimoAcessos - 1, topo.peek().acessos);
+    }
+
+    private static final class Candidato {
+        private final String codigo;
+        private long acessos;
+
+        private Candidato(String codigo, long acessos) {
+            this.codigo = codigo;
+            this.acessos = acessos;
+        }
+    }
+
+    public static final class CodigoPopular {
+        private final String codigoCurto;
+        private final long acessosEstimados;
+        private final boolean fixado;
+
+        public CodigoPopular(String codigoCurto, long acessosEstimados, boolean fixado) {
+            this.codigoCurto = codigoCurto;
+            this.acessosEstimados = acessosEstimados;
+            this.fixado = fixado;
+        }
+
+        public String getCodigoCurto() { return codigoCurto; }
+        public long getAcessosEstimados() { return acessosEstimados; }
+        public boolean isFixado() { return fixado; }
+    }
+}
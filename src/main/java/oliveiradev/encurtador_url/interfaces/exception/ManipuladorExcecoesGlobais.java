@@ -8,6 +8,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -37,6 +38,22 @@ public class ManipuladorExcecoesGlobais {
         return new ResponseEntity<>(corpoResposta, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ParametroInvalidoInterfaceException.class)
+    public ResponseEntity<Map<String, String>> handleParametroInvalido(ParametroInvalidoInterfaceException ex) {
+        Map<String, String> corpoResposta = new HashMap<>();
+        corpoResposta.put("erro", ex.getMessage());
+        log.warn("Parâmetro inválido: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(corpoResposta);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleTipoArgumentoInvalido(MethodArgumentTypeMismatchException ex) {
+        Map<String, String> corpoResposta = new HashMap<>();
+        corpoResposta.put("erro", "Valor inválido para o parâmetro '" + ex.getName() + "'.");
+        log.warn("Parâmetro '{}' com valor inválido: {}", ex.getName(), ex.getValue());
+        return ResponseEntity.badRequest().body(corpoResposta);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Map<String, String>> handleIllegalState(IllegalStateException ex) {
         Map<String, String> corpoResposta = new HashMap<>();
@@ -0,0 +1,11 @@
+package oliveiradev.encurtador_url.interfaces.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ParametroInvalidoInterfaceException extends RuntimeException {
+    public ParametroInvalidoInterfaceException(String mensagem) {
+        super(mensagem);
+    }
+}
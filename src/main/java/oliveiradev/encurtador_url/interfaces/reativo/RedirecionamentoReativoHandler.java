@@ -0,0 +1,69 @@
+package oliveiradev.encurtador_url.interfaces.reativo;
+
+import oliveiradev.encurtador_url.application.service.AplicacaoRedirecionamentoReativoService;
+import oliveiradev.encurtador_url.interfaces.rest.dto.EncurtarUrlHttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Handlers funcionais equivalentes a redirecionar e obterInfoUrl de UrlShortController.
+// Respostas de erro seguem o mesmo corpo {"erro": ...} de ManipuladorExcecoesGlobais, sem lançar exceções.
+@Component
+@Profile("reativo")
+public class RedirecionamentoReativoHandler {
+    private static final Logger log = LoggerFactory.getLogger(RedirecionamentoReativoHandler.class);
+
+    private final AplicacaoRedirecionamentoReativoService servicoReativo;
+
+    @Autowired
+    public RedirecionamentoReativoHandler(AplicacaoRedirecionamentoReativoService servicoReativo) {
+        this.servicoReativo = servicoReativo;
+    }
+
+    public Mono<ServerResponse> redirecionar(ServerRequest request) {
+        String codigoCurto = request.pathVariable("codigoCurto");
+        return servicoReativo.resolverRedirecionamento(codigoCurto,
+                        request.headers().firstHeader(HttpHeaders.REFERER),
+                        request.headers().firstHeader(HttpHeaders.USER_AGENT),
+                        request.remoteAddress().map(endereco -> endereco.getAddress() != null
+                                ? endereco.getAddress().getHostAddress() : endereco.getHostString()).orElse(null))
+                .flatMap(destino -> {
+                    if (!destino.isValido()) {
+                        log.error("URL original recuperada para o código '{}' é malformada.", codigoCurto);
+                        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                    }
+                    // Location já validado e codificado em ASCII: sem URI por redirecionamento
+                    return ServerResponse.status(HttpStatus.FOUND)
+                            .header(HttpHeaders.LOCATION, destino.getLocation()).build();
+                })
+                .switchIfEmpty(Mono.defer(() ->
+                        naoEncontrado("URL não encontrada ou expirada para o código: " + codigoCurto)));
+    }
+
+    public Mono<ServerResponse> obterInfoUrl(ServerRequest request) {
+        String codigoCurto = request.pathVariable("codigoCurto");
+        return servicoReativo.obterInfoUrlPorCodigoCurto(codigoCurto)
+                .flatMap(dto -> ServerResponse.ok().bodyValue(new EncurtarUrlHttpResponse(
+                        dto.getUrlEncurtadaCompleta(),
+                        dto.getUrlOriginal(),
+                        dto.getAcessos(),
+                        dto.getDataCriacao(),
+                        dto.getDataExpiracao(),
+                        dto.getVisitantesUnicos())))
+                .switchIfEmpty(Mono.defer(() ->
+                        naoEncontrado("Informações não encontradas ou URL expirada para o código: " + codigoCurto)));
+    }
+
+    private Mono<ServerResponse> naoEncontrado(String mensagem) {
+        return ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(Map.of("erro", mensagem));
+    }
+}
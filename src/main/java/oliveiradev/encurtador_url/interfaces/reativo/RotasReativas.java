@@ -0,0 +1,23 @@
+package oliveiradev.encurtador_url.interfaces.reativo;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+// O RouterFunctionMapping é consultado antes dos controllers anotados, então estas rotas
+// substituem os GETs de UrlShortController; os POSTs de encurtamento seguem no controller anotado.
+@Configuration
+@Profile("reativo")
+public class RotasReativas {
+
+    @Bean
+    public RouterFunction<ServerResponse> rotasRedirecionamento(RedirecionamentoReativoHandler handler) {
+        return route(GET("/api/v1/info/{codigoCurto}"), handler::obterInfoUrl)
+                .andRoute(GET("/{codigoCurto}"), handler::redirecionar);
+    }
+}
@@ -0,0 +1,72 @@
+package oliveiradev.encurtador_url.interfaces.rest;
+
+import jakarta.validation.Valid;
+import oliveiradev.encurtador_url.application.dto.DtoStatusImportacao;
+import oliveiradev.encurtador_url.application.service.AplicacaoImportacaoService;
+import oliveiradev.encurtador_url.application.service.AplicacaoPopularidadeService;
+import oliveiradev.encurtador_url.interfaces.exception.ParametroInvalidoInterfaceException;
+import oliveiradev.encurtador_url.interfaces.rest.dto.CodigoPopularHttpResponse;
+import oliveiradev.encurtador_url.interfaces.rest.dto.ImportacaoHttpRequest;
+import oliveiradev.encurtador_url.interfaces.rest.dto.ImportacaoHttpResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdministracaoController {
+    private static final Logger log = LoggerFactory.getLogger(AdministracaoController.class);
+
+    private final AplicacaoPopularidadeService servicoPopularidade;
+    private final AplicacaoImportacaoService servicoImportacao;
+
+    @Autowired
+    public AdministracaoController(AplicacaoPopularidadeService servicoPopularidade,
+                                   AplicacaoImportacaoService servicoImportacao) {
+        this.servicoPopularidade = servicoPopularidade;
+        this.servicoImportacao = servicoImportacao;
+    }
+
+    // Top-K atual de códigos por acessos estimados (decaindo com o tempo) e se cada um está fixado em memória.
+    @GetMapping("/populares")
+    public ResponseEntity<List<CodigoPopularHttpResponse>> listarPopulares() {
+        log.debug("Controller: Listando códigos populares.");
+        List<CodigoPopularHttpResponse> populares = servicoPopularidade.listarPopulares().stream()
+                .map(popular -> new CodigoPopularHttpResponse(popular.getCodigoCurto(), popular.getAcessosEstimados(),
+                        popular.isFixado()))
+                .toList();
+        return ResponseEntity.ok(populares);
+    }
+
+    // Importa em segundo plano um arquivo NDJSON ou CSV do diretório de importação, retomando do checkpoint se houver;
+    // 409 se já houver uma importação em andamento.
+    @PostMapping("/importacoes")
+    public ResponseEntity<ImportacaoHttpResponse> iniciarImportacao(@Valid @RequestBody ImportacaoHttpRequest request) {
+        log.info("Controller: Solicitada importação do arquivo '{}'.", request.getArquivo());
+        boolean iniciada;
+        try {
+            iniciada = servicoImportacao.iniciarImportacao(request.getArquivo());
+        } catch (IllegalArgumentException e) {
+            throw new ParametroInvalidoInterfaceException(e.getMessage());
+        }
+        return ResponseEntity.status(iniciada ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(paraResposta(servicoImportacao.statusImportacao()));
+    }
+
+    @GetMapping("/importacoes")
+    public ResponseEntity<ImportacaoHttpResponse> statusImportacao() {
+        return ResponseEntity.ok(paraResposta(servicoImportacao.statusImportacao()));
+    }
+
+    private static ImportacaoHttpResponse paraResposta(DtoStatusImportacao status) {
+        return new ImportacaoHttpResponse(status.getArquivo(), status.isEmAndamento(), status.getBytesConfirmados(),
+                status.getTamanhoArquivo(), status.getLinhasLidas(), status.getImportados(), status.getDuplicados(),
+                status.getInvalidos(), status.getExpirados(), status.getFalhas(), status.getErro());
+    }
+}
@@ -0,0 +1,59 @@
+package oliveiradev.encurtador_url.interfaces.rest;
+
+import oliveiradev.encurtador_url.application.dto.DtoEstatisticasCliques;
+import oliveiradev.encurtador_url.application.service.AplicacaoEstatisticasService;
+import oliveiradev.encurtador_url.interfaces.exception.ParametroInvalidoInterfaceException;
+import oliveiradev.encurtador_url.interfaces.rest.dto.EstatisticasCliquesHttpResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/estatisticas")
+public class EstatisticasController {
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasController.class);
+    private static final long JANELA_PADRAO_HORAS = 24;
+
+    private final AplicacaoEstatisticasService servicoEstatisticas;
+
+    @Autowired
+    public EstatisticasController(AplicacaoEstatisticasService servicoEstatisticas) {
+        this.servicoEstatisticas = servicoEstatisticas;
+    }
+
+    @GetMapping("/{codigoCurto}")
+    public ResponseEntity<EstatisticasCliquesHttpResponse> obterEstatisticas(
+            @PathVariable String codigoCurto,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(defaultValue = "hora") String granularidade) {
+        // Sem intervalo explícito: últimas 24 horas.
+        LocalDateTime fim = ate != null ? ate : LocalDateTime.now();
+        LocalDateTime inicio = de != null ? de : fim.minusHours(JANELA_PADRAO_HORAS);
+        log.info("Controller: Estatísticas de '{}' por {} em [{}, {}).", codigoCurto, granularidade, inicio, fim);
+
+        DtoEstatisticasCliques estatisticas;
+        try {
+            estatisticas = servicoEstatisticas.consultarCliques(codigoCurto, inicio, fim, granularidade);
+        } catch (IllegalArgumentException e) {
+            throw new ParametroInvalidoInterfaceException(e.getMessage());
+        }
+
+        return ResponseEntity.ok(new EstatisticasCliquesHttpResponse(
+                estatisticas.getCodigoCurto(),
+                estatisticas.getGranularidade(),
+                estatisticas.getDe(),
+                estatisticas.getAte(),
+                estatisticas.getTotal(),
+                estatisticas.getVisitantesUnicos(),
+                estatisticas.getBuckets().stream()
+                        .map(bucket -> new EstatisticasCliquesHttpResponse.Bucket(bucket.getInicio(), bucket.getCliques()))
+                        .toList()));
+    }
+}
@@ -0,0 +1,47 @@
+package oliveiradev.encurtador_url.interfaces.rest;
+
+import oliveiradev.encurtador_url.application.dto.DtoStatusRebalanceamento;
+import oliveiradev.encurtador_url.application.service.AplicacaoParticionamentoService;
+import oliveiradev.encurtador_url.interfaces.rest.dto.RebalanceamentoHttpResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Só existe com app.persistencia.motor=particionado.
+@RestController
+@RequestMapping("/api/v1/admin/particoes")
+@ConditionalOnProperty(name = "app.persistencia.motor", havingValue = "particionado")
+public class ParticionamentoController {
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoController.class);
+
+    private final AplicacaoParticionamentoService servicoParticionamento;
+
+    @Autowired
+    public ParticionamentoController(AplicacaoParticionamentoService servicoParticionamento) {
+        this.servicoParticionamento = servicoParticionamento;
+    }
+
+    // Dispara em segundo plano; 409 se já houver um rebalanceamento em andamento.
+    @PostMapping("/rebalanceamento")
+    public ResponseEntity<RebalanceamentoHttpResponse> iniciarRebalanceamento() {
+        log.info("Controller: Solicitado rebalanceamento das partições.");
+        boolean iniciado = servicoParticionamento.iniciarRebalanceamento();
+        return ResponseEntity.status(iniciado ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(paraResposta(servicoParticionamento.statusRebalanceamento()));
+    }
+
+    @GetMapping("/rebalanceamento")
+    public ResponseEntity<RebalanceamentoHttpResponse> statusRebalanceamento() {
+        return ResponseEntity.ok(paraResposta(servicoParticionamento.statusRebalanceamento()));
+    }
+
+    private static RebalanceamentoHttpResponse paraResposta(DtoStatusRebalanceamento status) {
+        return new RebalanceamentoHttpResponse(status.isEmAndamento(), status.getVerificados(), status.getMovidos(),
+                status.getFalhas());
+    }
+}
@@ -1,24 +1,32 @@
 package oliveiradev.encurtador_url.interfaces.rest;
 
 import oliveiradev.encurtador_url.application.dto.ComandoEncurtadorUrl;
+import oliveiradev.encurtador_url.application.dto.DtoResultadoItemLote;
 import oliveiradev.encurtador_url.application.dto.DtoUrlEncurtada;
 import oliveiradev.encurtador_url.application.service.AplicacaoEncurtadorService;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
 
 import oliveiradev.encurtador_url.interfaces.exception.UrlNaoEncontradaInterfaceException;
 import oliveiradev.encurtador_url.interfaces.rest.dto.EncurtarUrlHttpRequest;
 import oliveiradev.encurtador_url.interfaces.rest.dto.EncurtarUrlHttpResponse;
+import oliveiradev.encurtador_url.interfaces.rest.dto.EncurtarUrlLoteHttpRequest;
+import oliveiradev.encurtador_url.interfaces.rest.dto.ItemLoteHttpResponse;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -27,11 +35,14 @@ import java.util.Optional;
 public class UrlShortController {
     // Logger inicializado com o nome correto da classe
     private static final Logger log = LoggerFactory.getLogger(UrlShortController.class);
+    // Corpo do 404 do redirecionamento, no mesmo formato de ManipuladorExcecoesGlobais, codificado uma única vez.
+    private static final byte[] CORPO_NAO_ENCONTRADO =
+            "{\"erro\":\"URL não encontrada ou expirada.\"}".getBytes(StandardCharsets.UTF_8);
 
     private final AplicacaoEncurtadorService servicoAplicacao;
 
     @Autowired
-    public UrlShortController(AplicacaoEncurtadorService servicoAplicacao) { // Nome do construtor corrigido
+    public UrlShortController(AplicacaoEncurtadorService servicoAplicacao) {
         this.servicoAplicacao = servicoAplicacao;
     }
 
@@ -60,32 +71,55 @@ public class UrlShortController {
         return ResponseEntity.status(HttpStatus.CREATED).body(httpResponse);
     }
 
+    @PostMapping("/api/v1/encurtar/lote")
+    public ResponseEntity<List<ItemLoteHttpResponse>> encurtarUrlsEmLote(@Valid @RequestBody EncurtarUrlLoteHttpRequest request) {
+        log.info("Controller: Recebida requisição para encurtar lote de {} URLs.", request.getUrls().size());
+
+        List<ComandoEncurtadorUrl> comandos = request.getUrls().stream()
+                .map(item -> new ComandoEncurtadorUrl(item.getUrl(), item.getTtlEmMinutos()))
+                .toList();
+
+        List<DtoResultadoItemLote> resultados = servicoAplicacao.encurtarUrlsEmLote(comandos);
+
+        // Resultado por item: falhas individuais não invalidam o restante do lote.
+        List<ItemLoteHttpResponse> httpResponse = resultados.stream()
+                .map(item -> item.isSucesso()
+                        ? new ItemLoteHttpResponse(item.getIndice(), true,
+                                item.getUrlEncurtada().getUrlEncurtadaCompleta(),
+                                item.getUrlEncurtada().getUrlOriginal(),
+                                item.getUrlEncurtada().getDataExpiracao(), null)
+                        : new ItemLoteHttpResponse(item.getIndice(), false, null,
+                                request.getUrls().get(item.getIndice()).getUrl(), null, item.getErro()))
+                .toList();
+        return ResponseEntity.ok(httpResponse);
+    }
+
     @GetMapping("/{codigoCurto}")
-    public ResponseEntity<Void> redirecionar(@PathVariable String codigoCurto) {
-        log.info("Controller: Recebida requisição de redirecionamento para o código curto: '{}'", codigoCurto);
-
-        // Delega para o serviço de aplicação, que já lida com a lógica de expiração e incremento de acesso.
-        Optional<String> urlOriginalOpt = servicoAplicacao.redirecionarEIncrementarAcesso(codigoCurto);
-
-        if (urlOriginalOpt.isPresent()) {
-            String urlOriginal = urlOriginalOpt.get();
-            try {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setLocation(new URI(urlOriginal)); // Define o cabeçalho Location para o redirecionamento.
-                log.info("Controller: Redirecionando código '{}' para URL: '{}'", codigoCurto, urlOriginal);
-                return new ResponseEntity<>(headers, HttpStatus.FOUND); // HTTP 302
-            } catch (URISyntaxException e) {
-                // Isso indica um problema com os dados armazenados (URL original malformada).
-                log.error("Controller: URL original ('{}') recuperada para o código '{}' é malformada.",
-                        urlOriginal, codigoCurto, e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-            }
-        } else {
-            // Se o Optional estiver vazio, significa que o código não foi encontrado ou está expirado.
-            log.warn("Controller: Código curto '{}' não encontrado ou expirado para redirecionamento.", codigoCurto);
-            // Lança uma exceção que será tratada pelo ManipuladorExcecoesGlobais para retornar 404.
-            throw new UrlNaoEncontradaInterfaceException("URL não encontrada ou expirada para o código: " + codigoCurto);
+    public void redirecionar(@PathVariable String codigoCurto,
+                             HttpServletRequest requisicao,
+                             HttpServletResponse resposta) throws IOException {
+        // Caminho quente: a resposta é escrita direto no servlet, sem ResponseEntity, HttpHeaders nem URI por requisição.
+        DestinoRedirecionamento destino = servicoAplicacao.resolverRedirecionamento(codigoCurto,
+                requisicao.getHeader(HttpHeaders.REFERER),
+                requisicao.getHeader(HttpHeaders.USER_AGENT),
+                requisicao.getRemoteAddr());
+
+        if (destino == null) {
+            // Não encontrado ou expirado: 404 sem lançar exceção (e sem montar stack trace) a cada código inválido.
+            resposta.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            resposta.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            resposta.setContentLength(CORPO_NAO_ENCONTRADO.length);
+            resposta.getOutputStream().write(CORPO_NAO_ENCONTRADO);
+            return;
+        }
+        if (!destino.isValido()) {
+            // Isso indica um problema com os dados armazenados (URL original malformada).
+            log.error("Controller: URL original recuperada para o código '{}' é malformada.", codigoCurto);
+            resposta.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
         }
+        resposta.setStatus(HttpServletResponse.SC_FOUND); // HTTP 302
+        resposta.setHeader(HttpHeaders.LOCATION, destino.getLocation()); // Já validado e codificado em ASCII
     }
 
     @GetMapping("/api/v1/info/{codigoCurto}")
@@ -102,7 +136,8 @@ public class UrlShortController {
                             dtoApp.getUrlOriginal(),
                             dtoApp.getAcessos(),
                             dtoApp.getDataCriacao(),
-                            dtoApp.getDataExpiracao()
+                            dtoApp.getDataExpiracao(),
+                            dtoApp.getVisitantesUnicos()
                     );
                     log.info("Controller: Informações encontradas para o código '{}'.", codigoCurto);
                     return ResponseEntity.ok(httpResponse);
@@ -0,0 +1,22 @@
+package oliveiradev.encurtador_url.interfaces.rest.dto;
+
+public class CodigoPopularHttpResponse {
+    private String codigoCurto;
+    private long acessosEstimados;
+    private boolean fixado;
+
+    public CodigoPopularHttpResponse() {}
+
+    public CodigoPopularHttpResponse(String codigoCurto, long acessosEstimados, boolean fixado) {
+        this.codigoCurto = codigoCurto;
+        this.acessosEstimados = acessosEstimados;
+        this.fixado = fixado;
+    }
+    // Getters e Setters
+    public String getCodigoCurto() { return codigoCurto; }
+    public void setCodigoCurto(String codigoCurto) { this.codigoCurto = codigoCurto; }
+    public long getAcessosEstimados() { return acessosEstimados; }
+    public void setAcessosEstimados(long acessosEstimados) { this.acessosEstimados = acessosEstimados; }
+    public boolean isFixado() { return fixado; }
+    public void setFixado(boolean fixado) { this.fixado = fixado; }
+}
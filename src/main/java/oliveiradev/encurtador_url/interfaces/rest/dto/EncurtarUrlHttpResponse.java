@@ -16,15 +16,23 @@ public class EncurtarUrlHttpResponse {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime dataExpiracao;
 
+    private Long visitantesUnicos;
+
     public EncurtarUrlHttpResponse() {}
 
     public EncurtarUrlHttpResponse(String urlEncurtada, String urlOriginal, long acessos,
                                    LocalDateTime dataCriacao, LocalDateTime dataExpiracao) {
+        this(urlEncurtada, urlOriginal, acessos, dataCriacao, dataExpiracao, null);
+    }
+
+    public EncurtarUrlHttpResponse(String urlEncurtada, String urlOriginal, long acessos,
+                                   LocalDateTime dataCriacao, LocalDateTime dataExpiracao, Long visitantesUnicos) {
         this.urlEncurtada = urlEncurtada;
         this.urlOriginal = urlOriginal;
         this.acessos = acessos;
         this.dataCriacao = dataCriacao;
         this.dataExpiracao = dataExpiracao;
+        this.visitantesUnicos = visitantesUnicos;
     }
     // Getters e Setters
     public String getUrlEncurtada() { return urlEncurtada; }
@@ -37,4 +45,6 @@ public class EncurtarUrlHttpResponse {
     public void setDataCriacao(LocalDateTime dataCriacao) { this.dataCriacao = dataCriacao; }
     public LocalDateTime getDataExpiracao() { return dataExpiracao; }
     public void setDataExpiracao(LocalDateTime dataExpiracao) { this.dataExpiracao = dataExpiracao; }
+    public Long getVisitantesUnicos() { return visitantesUnicos; }
+    public void setVisitantesUnicos(Long visitantesUnicos) { this.visitantesUnicos = visitantesUnicos; }
 }
\ No newline at end of file
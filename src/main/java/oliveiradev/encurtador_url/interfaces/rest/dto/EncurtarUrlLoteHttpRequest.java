@@ -0,0 +1,22 @@
+package oliveiradev.encurtador_url.interfaces.rest.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class EncurtarUrlLoteHttpRequest {
+    @NotEmpty(message = "O lote deve conter ao menos uma URL.")
+    @Size(max = 10000, message = "O lote pode conter no máximo 10000 URLs.")
+    private List<@Valid EncurtarUrlHttpRequest> urls;
+
+    public EncurtarUrlLoteHttpRequest() {}
+
+    public EncurtarUrlLoteHttpRequest(List<EncurtarUrlHttpRequest> urls) {
+        this.urls = urls;
+    }
+
+    public List<EncurtarUrlHttpRequest> getUrls() { return urls; }
+    public void setUrls(List<EncurtarUrlHttpRequest> urls) { this.urls = urls; }
+}
@@ -0,0 +1,68 @@
+package oliveiradev.encurtador_url.interfaces.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EstatisticasCliquesHttpResponse {
+    private String codigoCurto;
+    private String granularidade;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime de;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime ate;
+
+    private long total;
+    private Long visitantesUnicos;
+    private List<Bucket> buckets;
+
+    public EstatisticasCliquesHttpResponse() {}
+
+    public EstatisticasCliquesHttpResponse(String codigoCurto, String granularidade, LocalDateTime de, LocalDateTime ate,
+                                           long total, Long visitantesUnicos, List<Bucket> buckets) {
+        this.codigoCurto = codigoCurto;
+        this.granularidade = granularidade;
+        this.de = de;
+        this.ate = ate;
+        this.total = total;
+        this.visitantesUnicos = visitantesUnicos;
+        this.buckets = buckets;
+    }
+    // Getters e Setters
+    public String getCodigoCurto() { return codigoCurto; }
+    public void setCodigoCurto(String codigoCurto) { this.codigoCurto = codigoCurto; }
+    public String getGranularidade() { return granularidade; }
+    public void setGranularidade(String granularidade) { this.granularidade = granularidade; }
+    public LocalDateTime getDe() { return de; }
+    public void setDe(LocalDateTime de) { this.de = de; }
+    public LocalDateTime getAte() { return ate; }
+    public void setAte(LocalDateTime ate) { this.ate = ate; }
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public Long getVisitantesUnicos() { return visitantesUnicos; }
+    public void setVisitantesUnicos(Long visitantesUnicos) { this.visitantesUnicos = visitantesUnicos; }
+    public List<Bucket> getBuckets() { return buckets; }
+    public void setBuckets(List<Bucket> buckets) { this.buckets = buckets; }
+
+    public static class Bucket {
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        private LocalDateTime inicio;
+        private long cliques;
+
+        public Bucket() {}
+
+        public Bucket(LocalDateTime inicio, long cliques) {
+            this.inicio = inicio;
+            this.cliques = cliques;
+        }
+
+        public LocalDateTime getInicio() { return inicio; }
+        public void setInicio(LocalDateTime inicio) { this.inicio = inicio; }
+        public long getCliques() { return cliques; }
+        public void setCliques(long cliques) { this.cliques = cliques; }
+    }
+}
@@ -0,0 +1,17 @@
+package oliveiradev.encurtador_url.interfaces.rest.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class ImportacaoHttpRequest {
+    @NotBlank(message = "Informe o arquivo a importar, relativo ao diretório de importação.")
+    private String arquivo;
+
+    public ImportacaoHttpRequest() {}
+
+    public ImportacaoHttpRequest(String arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    public String getArquivo() { return arquivo; }
+    public void setArquivo(String arquivo) { this.arquivo = arquivo; }
+}
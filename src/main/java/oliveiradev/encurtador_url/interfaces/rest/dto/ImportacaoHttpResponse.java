@@ -0,0 +1,56 @@
+package oliveiradev.encurtador_url.interfaces.rest.dto;
+
+public class ImportacaoHttpResponse {
+    private String arquivo;
+    private boolean emAndamento;
+    private long bytesConfirmados;
+    private long tamanhoArquivo;
+    private long linhasLidas;
+    private long importados;
+    private long duplicados;
+    private long invalidos;
+    private long expirados;
+    private long falhas;
+    private String erro;
+
+    public ImportacaoHttpResponse() {}
+
+    public ImportacaoHttpResponse(String arquivo, boolean emAndamento, long bytesConfirmados, long tamanhoArquivo,
+                                  long linhasLidas, long importados, long duplicados, long invalidos, long expirados,
+                                  long falhas, String erro) {
+        this.arquivo = arquivo;
+        this.emAndamento = emAndamento;
+        this.bytesConfirmados = bytesConfirmados;
+        this.tamanhoArquivo = tamanhoArquivo;
+        this.linhasLidas = linhasLidas;
+        this.importados = importados;
+        this.duplicados = duplicados;
+        this.invalidos = invalidos;
+        this.expirados = expirados;
+        this.falhas = falhas;
+        this.erro = erro;
+    }
+    // Getters e Setters
+    public String getArquivo() { return arquivo; }
+    public void setArquivo(String arquivo) { this.arquivo = arquivo; }
+    public boolean isEmAndamento() { return emAndamento; }
+    public void setEmAndamento(boolean emAndamento) { this.emAndamento = emAndamento; }
+    public long getBytesConfirmados() { return bytesConfirmados; }
+    public void setBytesConfirmados(long bytesConfirmados) { this.bytesConfirmados = bytesConfirmados; }
+    public long getTamanhoArquivo() { return tamanhoArquivo; }
+    public void setTamanhoArquivo(long tamanhoArquivo) { this.tamanhoArquivo = tamanhoArquivo; }
+    public long getLinhasLidas() { return linhasLidas; }
+    public void setLinhasLidas(long linhasLidas) { this.linhasLidas = linhasLidas; }
+    public long getImportados() { return importados; }
+    public void setImportados(long importados) { this.importados = importados; }
+    public long getDuplicados() { return duplicados; }
+    public void setDuplicados(long duplicados) { this.duplicados = duplicados; }
+    public long getInvalidos() { return invalidos; }
+    public void setInvalidos(long invalidos) { this.invalidos = invalidos; }
+    public long getExpirados() { return expirados; }
+    public void setExpirados(long expirados) { this.expirados = expirados; }
+    public long getFalhas() { return falhas; }
+    public void setFalhas(long falhas) { this.falhas = falhas; }
+    public String getErro() { return erro; }
+    public void setErro(String erro) { this.erro = erro; }
+}
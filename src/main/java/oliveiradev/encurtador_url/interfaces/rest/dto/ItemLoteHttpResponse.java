@@ -0,0 +1,43 @@
+package oliveiradev.encurtador_url.interfaces.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemLoteHttpResponse {
+    private int indice;
+    private boolean sucesso;
+    private String urlEncurtada;
+    private String urlOriginal;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime dataExpiracao;
+
+    private String erro;
+
+    public ItemLoteHttpResponse() {}
+
+    public ItemLoteHttpResponse(int indice, boolean sucesso, String urlEncurtada, String urlOriginal,
+                                LocalDateTime dataExpiracao, String erro) {
+        this.indice = indice;
+        this.sucesso = sucesso;
+        this.urlEncurtada = urlEncurtada;
+        this.urlOriginal = urlOriginal;
+        this.dataExpiracao = dataExpiracao;
+        this.erro = erro;
+    }
+    // Getters e Setters
+    public int getIndice() { return indice; }
+    public void setIndice(int indice) { this.indice = indice; }
+    public boolean isSucesso() { return sucesso; }
+    public void setSucesso(boolean sucesso) { this.sucesso = sucesso; }
+    public String getUrlEncurtada() { return urlEncurtada; }
+    public void setUrlEncurtada(String urlEncurtada) { this.urlEncurtada = urlEncurtada; }
+    public String getUrlOriginal() { return urlOriginal; }
+    public void setUrlOriginal(String urlOriginal) { this.urlOriginal = urlOriginal; }
+    public LocalDateTime getDataExpiracao() { return dataExpiracao; }
+    public void setDataExpiracao(LocalDateTime dataExpiracao) { this.dataExpiracao = dataExpiracao; }
+    public String getErro() { return erro; }
+    public void setErro(String erro) { this.erro = erro; }
+}
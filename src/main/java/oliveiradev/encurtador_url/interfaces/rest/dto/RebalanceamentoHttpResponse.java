@@ -0,0 +1,26 @@
+package oliveiradev.encurtador_url.interfaces.rest.dto;
+
+public class RebalanceamentoHttpResponse {
+    private boolean emAndamento;
+    private long verificados;
+    private long movidos;
+    private long falhas;
+
+    public RebalanceamentoHttpResponse() {}
+
+    public RebalanceamentoHttpResponse(boolean emAndamento, long verificados, long movidos, long falhas) {
+        this.emAndamento = emAndamento;
+        this.verificados = verificados;
+        this.movidos = movidos;
+        this.falhas = falhas;
+    }
+    // Getters e Setters
+    public boolean isEmAndamento() { return emAndamento; }
+    public void setEmAndamento(boolean emAndamento) { this.emAndamento = emAndamento; }
+    public long getVerificados() { return verificados; }
+    public void setVerificados(long verificados) { this.verificados = verificados; }
+    public long getMovidos() { return movidos; }
+    public void setMovidos(long movidos) { this.movidos = movidos; }
+    public long getFalhas() { return falhas; }
+    public void setFalhas(long falhas) { this.falhas = falhas; }
+}
@@ -0,0 +1,111 @@
+package oliveiradev.encurtador_url.application.service;
+
+import oliveiradev.encurtador_url.application.dto.DtoUrlEncurtada;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.service.EncurtamentoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AplicacaoRedirecionamentoReativoServiceTest {
+
+    @Mock
+    private AplicacaoEncurtadorService mockServicoAplicacao;
+
+    @Mock
+    private EncurtamentoService mockEncurtamentoService;
+
+    private final Scheduler agendador = Schedulers.newSingle("teste-bloqueante");
+    private AplicacaoRedirecionamentoReativoService servicoReativo;
+
+    @BeforeEach
+    void setUp() {
+        servicoReativo = new AplicacaoRedirecionamentoReativoService(mockServicoAplicacao, mockEncurtamentoService,
+                agendador);
+    }
+
+    @AfterEach
+    void encerrar() {
+        agendador.dispose();
+    }
+
+    private static DestinoRedirecionamento destino(String codigo) {
+        return DestinoRedirecionamento.de(new CodigoCurto(codigo), "https://destino.com",
+                DestinoRedirecionamento.SEM_EXPIRACAO);
+    }
+
+    @Test
+    void redirecionar_DestinoEmMemoria_DeveResolverNaPropriaThread() {
+        DestinoRedirecionamento destino = destino("abc123");
+        when(mockEncurtamentoService.buscarDestinoEmCache("abc123")).thenReturn(destino);
+        AtomicReference<String> threadResolucao = new AtomicReference<>();
+        when(mockServicoAplicacao.resolverRedirecionamento("abc123", "ref", "agente", "10.0.0.1"))
+                .thenAnswer(invocacao -> {
+                    threadResolucao.set(Thread.currentThread().getName());
+                    return destino;
+                });
+
+        StepVerifier.create(servicoReativo.resolverRedirecionamento("abc123", "ref", "agente", "10.0.0.1"))
+                .expectNext(destino)
+                .verifyComplete();
+
+        assertEquals(Thread.currentThread().getName(), threadResolucao.get());
+    }
+
+    @Test
+    void redirecionar_ForaDaMemoria_DeveIrAoMotorNoAgendadorBloqueante() {
+        DestinoRedirecionamento destino = destino("frio1");
+        AtomicReference<String> threadResolucao = new AtomicReference<>();
+        when(mockServicoAplicacao.resolverRedirecionamento("frio1", null, null, null)).thenAnswer(invocacao -> {
+            threadResolucao.set(Thread.currentThread().getName());
+            return destino;
+        });
+
+        StepVerifier.create(servicoReativo.resolverRedirecionamento("frio1", null, null, null))
+                .expectNext(destino)
+                .verifyComplete();
+
+        assertTrue(threadResolucao.get().startsWith("teste-bloqueante"));
+    }
+
+    @Test
+    void redirecionar_NaoEncontradoOuExpirado_DeveCompletarVazio() {
+        when(mockServicoAplicacao.resolverRedirecionamento("expirado", null, null, null)).thenReturn(null);
+
+        StepVerifier.create(servicoReativo.resolverRedirecionamento("expirado", null, null, null))
+                .verifyComplete();
+    }
+
+    @Test
+    void obterInfo_DeveDelegarAoServicoDeAplicacaoComVisitantesUnicos() {
+        DtoUrlEncurtada dto = new DtoUrlEncurtada("https://destino.com", "info1", "http://test.short/info1",
+                3, LocalDateTime.now(), null, 2L);
+        when(mockServicoAplicacao.obterInfoUrlPorCodigoCurto("info1")).thenReturn(Optional.of(dto));
+
+        StepVerifier.create(servicoReativo.obterInfoUrlPorCodigoCurto("info1"))
+                .expectNextMatches(resultado -> resultado.getVisitantesUnicos() == 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void obterInfo_CodigoEmBranco_NaoDeveConsultar() {
+        StepVerifier.create(servicoReativo.obterInfoUrlPorCodigoCurto(" ")).verifyComplete();
+
+        verifyNoInteractions(mockServicoAplicacao);
+    }
+}
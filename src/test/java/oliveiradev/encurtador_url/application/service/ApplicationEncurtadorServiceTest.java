@@ -3,9 +3,15 @@ package oliveiradev.encurtador_url.application.service;
 import oliveiradev.encurtador_url.application.dto.ComandoEncurtadorUrl;
 import oliveiradev.encurtador_url.application.dto.DtoUrlEncurtada;
 import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
 import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
 import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.service.ContadorAcessosService;
+import oliveiradev.encurtador_url.domain.service.RegistroCliquesService;
+import oliveiradev.encurtador_url.domain.model.OrigemAcesso;
 import oliveiradev.encurtador_url.domain.service.EncurtamentoService; // Serviço de Domínio
+import oliveiradev.encurtador_url.infra.metricas.MetricasEncurtador;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +19,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.Spy;
@@ -33,9 +38,14 @@ class AplicacaoEncurtadorServiceTest { // Nome da classe de teste correto
     @Mock
     private EncurtamentoService mockEncurtamentoService; // Mock do serviço de domínio
 
+    @Mock
+    private ContadorAcessosService mockContadorAcessosService;
+
+    @Mock
+    private RegistroCliquesService mockRegistroCliquesService;
+
     private final String BASE_URL_TESTE = "[http://test.short](http://test.short)";
 
-    @InjectMocks
     private AplicacaoEncurtadorService aplicacaoEncurtadorService; // Serviço de aplicação sob teste
 
     @Captor
@@ -46,7 +56,8 @@ class AplicacaoEncurtadorServiceTest { // Nome da classe de teste correto
     @BeforeEach
     void setUp() {
         // Recria a instância para garantir que a baseUrl de teste seja usada
-        aplicacaoEncurtadorService = new AplicacaoEncurtadorService(mockEncurtamentoService, BASE_URL_TESTE);
+        aplicacaoEncurtadorService = new AplicacaoEncurtadorService(mockEncurtamentoService, mockContadorAcessosService,
+                mockRegistroCliquesService, BASE_URL_TESTE, MetricasEncurtador.semExportacao());
     }
 
     @Test
@@ -82,7 +93,7 @@ class AplicacaoEncurtadorServiceTest { // Nome da classe de teste correto
         LocalDateTime dataExpiracao = LocalDateTime.now().plusDays(1);
         MapeamentoUrl mapeamentoMock = spy(new MapeamentoUrl(codigoObj, urlObj, dataExpiracao)); // Usa spy para chamar isExpirado real
 
-        when(mapeamentoMock.isExpirado(any(LocalDateTime.class))).thenReturn(false);
+        doReturn(false).when(mapeamentoMock).isExpirado(any(LocalDateTime.class));
         // Ajuste no nome do método mockado para corresponder ao serviço de domínio
         when(mockEncurtamentoService.buscarPorCodigoCurto(codigoObj)).thenReturn(Optional.of(mapeamentoMock));
 
@@ -94,23 +105,101 @@ class AplicacaoEncurtadorServiceTest { // Nome da classe de teste correto
     }
 
     @Test
-    void redirecionarEIncrementarAcesso_QuandoEncontradoENaoExpirado_DeveIncrementarSalvarERetornarUrl() {
+    void redirecionarEIncrementarAcesso_QuandoEncontradoENaoExpirado_DeveRegistrarAcessoSemSalvarERetornarUrl() {
         String codigoStr = "RedirOk";
         CodigoCurto codigoObj = new CodigoCurto(codigoStr);
-        UrlOriginal urlObj = new UrlOriginal("[http://destination.ok](http://destination.ok)");
+        UrlOriginal urlObj = new UrlOriginal("http://destination.ok/caminho");
         LocalDateTime dataExpiracaoFutura = LocalDateTime.now().plusDays(1);
-        MapeamentoUrl mapeamentoReal = spy(new MapeamentoUrl(codigoObj, urlObj, dataExpiracaoFutura));
+        MapeamentoUrl mapeamento = new MapeamentoUrl(codigoObj, urlObj, dataExpiracaoFutura);
 
-        when(mockEncurtamentoService.buscarPorCodigoCurto(codigoObj)).thenReturn(Optional.of(mapeamentoReal));
-        when(mockEncurtamentoService.salvar(mapeamentoReal)).thenReturn(mapeamentoReal);
+        when(mockEncurtamentoService.buscarDestinoRedirecionamento(codigoObj))
+                .thenReturn(Optional.of(mapeamento.getDestinoRedirecionamento()));
 
-        Optional<String> resultadoOpt = aplicacaoEncurtadorService.redirecionarEIncrementarAcesso(codigoStr);
+        Optional<String> resultadoOpt = aplicacaoEncurtadorService.redirecionarEIncrementarAcesso(codigoStr,
+                new OrigemAcesso("ref", "ua", "10.0.0.2"));
 
         assertTrue(resultadoOpt.isPresent());
         assertEquals(urlObj.getValor(), resultadoOpt.get());
-        verify(mapeamentoReal).isExpirado(any(LocalDateTime.class));
-        verify(mapeamentoReal).registrarAcesso();
-        verify(mockEncurtamentoService).salvar(mapeamentoReal);
-        assertEquals(1L, mapeamentoReal.getContadorAcessos());
+        verify(mockEncurtamentoService, never()).buscarPorCodigoCurto(any(CodigoCurto.class)); // Só a projeção
+        verify(mockContadorAcessosService).registrarAcesso(codigoObj);
+        verify(mockRegistroCliquesService).registrarClique(codigoObj, "ref", "ua", "10.0.0.2");
+        verify(mockEncurtamentoService, never()).salvar(any(MapeamentoUrl.class));
+    }
+
+    @Test
+    void resolverRedirecionamento_ComMapeamentoEmMemoria_NaoDeveConsultarORepositorio() {
+        CodigoCurto codigoObj = new CodigoCurto("Quente");
+        MapeamentoUrl mapeamento = new MapeamentoUrl(codigoObj, new UrlOriginal("https://destino.test/ok"), null);
+        when(mockEncurtamentoService.buscarDestinoEmCache("Quente")).thenReturn(mapeamento.getDestinoRedirecionamento());
+
+        DestinoRedirecionamento destino = aplicacaoEncurtadorService.resolverRedirecionamento("Quente", "ref", "ua", "10.0.0.1");
+
+        assertEquals("https://destino.test/ok", destino.getLocation());
+        assertSame(destino, mapeamento.getDestinoRedirecionamento()); // Pré-calculado uma vez por mapeamento
+        verify(mockEncurtamentoService, never()).buscarDestinoRedirecionamento(any(CodigoCurto.class));
+        verify(mockEncurtamentoService, never()).buscarPorCodigoCurto(any(CodigoCurto.class));
+        verify(mockContadorAcessosService).registrarAcesso(codigoObj);
+        verify(mockRegistroCliquesService).registrarClique(codigoObj, "ref", "ua", "10.0.0.1");
+    }
+
+    @Test
+    void resolverRedirecionamento_QuandoNaoEncontrado_DeveRetornarNuloSemRegistrarAcesso() {
+        when(mockEncurtamentoService.buscarDestinoRedirecionamento(new CodigoCurto("Nenhum"))).thenReturn(Optional.empty());
+
+        assertNull(aplicacaoEncurtadorService.resolverRedirecionamento("Nenhum", null, null, null));
+        verifyNoInteractions(mockContadorAcessosService);
+        verifyNoInteractions(mockRegistroCliquesService);
+    }
+
+    @Test
+    void resolverRedirecionamento_ComUrlMalformada_DeveRetornarDestinoInvalidoSemRegistrarAcesso() {
+        CodigoCurto codigoObj = new CodigoCurto("Quebrado");
+        DestinoRedirecionamento invalido = new DestinoRedirecionamento(codigoObj, null, DestinoRedirecionamento.SEM_EXPIRACAO);
+        when(mockEncurtamentoService.buscarDestinoEmCache("Quebrado")).thenReturn(invalido);
+
+        DestinoRedirecionamento destino = aplicacaoEncurtadorService.resolverRedirecionamento("Quebrado", "ref", "ua", "10.0.0.3");
+
+        assertSame(invalido, destino);
+        assertFalse(destino.isValido());
+        verifyNoInteractions(mockContadorAcessosService);
+        verifyNoInteractions(mockRegistroCliquesService);
+        assertTrue(aplicacaoEncurtadorService.redirecionarEIncrementarAcesso("Quebrado").isEmpty());
+    }
+
+    @Test
+    void redirecionarEIncrementarAcesso_QuandoExpirado_NaoDeveRegistrarAcesso() {
+        String codigoStr = "RedirExp";
+        CodigoCurto codigoObj = new CodigoCurto(codigoStr);
+        MapeamentoUrl mapeamentoExpirado = new MapeamentoUrl(codigoObj,
+                new UrlOriginal("http://expirado.test"), LocalDateTime.now().minusMinutes(1));
+
+        when(mockEncurtamentoService.buscarDestinoRedirecionamento(codigoObj))
+                .thenReturn(Optional.of(mapeamentoExpirado.getDestinoRedirecionamento()));
+
+        Optional<String> resultadoOpt = aplicacaoEncurtadorService.redirecionarEIncrementarAcesso(codigoStr);
+
+        assertTrue(resultadoOpt.isEmpty());
+        verifyNoInteractions(mockContadorAcessosService);
+        verifyNoInteractions(mockRegistroCliquesService);
+    }
+
+    @Test
+    void redirecionarEIncrementarAcesso_DeveContarResultadosETemporizarEtapas() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AplicacaoEncurtadorService servicoInstrumentado = new AplicacaoEncurtadorService(mockEncurtamentoService,
+                mockContadorAcessosService, mockRegistroCliquesService, BASE_URL_TESTE, new MetricasEncurtador(registry));
+        CodigoCurto codigoExpirado = new CodigoCurto("Exp1");
+        when(mockEncurtamentoService.buscarDestinoRedirecionamento(codigoExpirado)).thenReturn(Optional.of(
+                new MapeamentoUrl(codigoExpirado, new UrlOriginal("http://expirado.test"), LocalDateTime.now().minusMinutes(1))
+                        .getDestinoRedirecionamento()));
+        when(mockEncurtamentoService.buscarDestinoRedirecionamento(new CodigoCurto("Nenhum"))).thenReturn(Optional.empty());
+
+        servicoInstrumentado.redirecionarEIncrementarAcesso("Exp1");
+        servicoInstrumentado.redirecionarEIncrementarAcesso("Nenhum");
+
+        assertEquals(1.0, registry.get("encurtador.redirecionamentos").tag("resultado", "expirado").counter().count());
+        assertEquals(1.0, registry.get("encurtador.redirecionamentos").tag("resultado", "nao_encontrado").counter().count());
+        assertEquals(2L, registry.get("encurtador.etapa").tag("etapa", "busca").tag("fluxo", "redirecionamento").timer().count());
+        assertEquals(1L, registry.get("encurtador.etapa").tag("etapa", "verificacao_expiracao").timer().count());
     }
 }
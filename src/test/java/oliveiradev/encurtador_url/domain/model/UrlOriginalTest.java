@@ -60,4 +60,19 @@ class UrlOriginalTest {
         UrlOriginal url = new UrlOriginal(valor);
         assertEquals(valor, url.toString(), "toString deve retornar o valor da URL.");
     }
+
+    @Test
+    void normalizada_DeveIgnorarCaixaDoHostEPortaPadrao() {
+        UrlOriginal url = new UrlOriginal("HTTPS://Www.Example.com:443?q=1");
+        assertEquals("https://www.example.com/?q=1", url.normalizada());
+    }
+
+    @Test
+    void impressaoDigital_ComUrlsEquivalentes_DeveSerIgual() {
+        UrlOriginal url1 = new UrlOriginal("http://Example.com:80/a/b");
+        UrlOriginal url2 = new UrlOriginal("http://example.com/a/b");
+        UrlOriginal url3 = new UrlOriginal("http://example.com/a/c");
+        assertEquals(url1.impressaoDigital(), url2.impressaoDigital());
+        assertNotEquals(url1.impressaoDigital(), url3.impressaoDigital());
+    }
 }
\ No newline at end of file
@@ -4,19 +4,25 @@ import oliveiradev.encurtador_url.domain.model.CodigoCurto;
 import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
 import oliveiradev.encurtador_url.domain.model.UrlOriginal;
 import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +34,6 @@ class EncurtamentoServiceTest {
     @Mock
     private CodigoCurtoService mockCodigoCurtoService;
 
-    @InjectMocks
     private EncurtamentoService encurtamentoService;
 
     private UrlOriginal urlOriginalPadrao;
@@ -42,6 +47,7 @@ class EncurtamentoServiceTest {
         urlOriginalPadrao = new UrlOriginal("[https://www.muito-longa-url.com/para/encurtar](https://www.muito-longa-url.com/para/encurtar)");
         codigoCurtoGerado = new CodigoCurto("GenCd1");
         dataExpiracaoPadrao = LocalDateTime.now().plusDays(7);
+        encurtamentoService = new EncurtamentoService(mockMapeamentoUrlRepository, mockCodigoCurtoService);
     }
 
     @Test
@@ -89,6 +95,119 @@ class EncurtamentoServiceTest {
         verify(mockMapeamentoUrlRepository, never()).salvar(any(MapeamentoUrl.class));
     }
 
+    @Test
+    void encurtar_ComChaveDuplicadaAoSalvar_DeveGerarNovoCodigoETentarNovamente() {
+        CodigoCurto segundoCodigo = new CodigoCurto("GenCd2");
+        when(mockCodigoCurtoService.gerar()).thenReturn(codigoCurtoGerado, segundoCodigo);
+        when(mockMapeamentoUrlRepository.existeCodigoCurto(any(CodigoCurto.class))).thenReturn(false);
+        when(mockMapeamentoUrlRepository.salvar(any(MapeamentoUrl.class)))
+                .thenThrow(new DuplicateKeyException("E11000"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        MapeamentoUrl resultado = encurtamentoService.encurtar(urlOriginalPadrao, dataExpiracaoPadrao);
+
+        assertEquals(segundoCodigo, resultado.getCodigoCurto());
+        verify(mockMapeamentoUrlRepository, times(2)).salvar(any(MapeamentoUrl.class));
+    }
+
+    @Test
+    void encurtar_ComGeradorQueGaranteUnicidade_NaoDeveVerificarExistencia() {
+        when(mockCodigoCurtoService.gerar()).thenReturn(codigoCurtoGerado);
+        when(mockCodigoCurtoService.garanteUnicidade()).thenReturn(true);
+        when(mockMapeamentoUrlRepository.salvar(any(MapeamentoUrl.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        MapeamentoUrl resultado = encurtamentoService.encurtar(urlOriginalPadrao, dataExpiracaoPadrao);
+
+        assertEquals(codigoCurtoGerado, resultado.getCodigoCurto());
+        verify(mockMapeamentoUrlRepository, never()).existeCodigoCurto(any(CodigoCurto.class));
+    }
+
+    @Test
+    void encurtarEmLote_ComDuplicadoEErroNoLote_DeveRepetirDuplicadoIndividualmenteEReportarErro() {
+        CodigoCurto codigoA = new CodigoCurto("LoteA");
+        CodigoCurto codigoB = new CodigoCurto("LoteB");
+        CodigoCurto codigoC = new CodigoCurto("LoteC");
+        CodigoCurto codigoRepetido = new CodigoCurto("LoteB2");
+        List<SolicitacaoEncurtamento> solicitacoes = List.of(
+                new SolicitacaoEncurtamento(new UrlOriginal("https://a.test"), null),
+                new SolicitacaoEncurtamento(new UrlOriginal("https://b.test"), dataExpiracaoPadrao),
+                new SolicitacaoEncurtamento(new UrlOriginal("https://c.test"), null));
+
+        when(mockCodigoCurtoService.gerar(3)).thenReturn(List.of(codigoA, codigoB, codigoC));
+        when(mockMapeamentoUrlRepository.inserirEmLote(anyList()))
+                .thenReturn(new ResultadoInsercaoLote(Set.of(1), Map.of(2, "falha de escrita")));
+        when(mockCodigoCurtoService.gerar()).thenReturn(codigoRepetido);
+        when(mockMapeamentoUrlRepository.existeCodigoCurto(codigoRepetido)).thenReturn(false);
+        when(mockMapeamentoUrlRepository.salvar(any(MapeamentoUrl.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ResultadoEncurtamento> resultados = encurtamentoService.encurtarEmLote(solicitacoes);
+
+        assertEquals(3, resultados.size());
+        assertEquals(codigoA, resultados.get(0).getMapeamento().getCodigoCurto());
+        assertEquals(codigoRepetido, resultados.get(1).getMapeamento().getCodigoCurto());
+        assertEquals(dataExpiracaoPadrao, resultados.get(1).getMapeamento().getDataExpiracao());
+        assertFalse(resultados.get(2).isSucesso());
+        assertEquals("falha de escrita", resultados.get(2).getErro());
+        verify(mockMapeamentoUrlRepository, times(1)).inserirEmLote(anyList());
+    }
+
+    @Test
+    void encurtar_ComDeduplicacaoEMapeamentoCompativel_DeveReutilizarMapeamentoExistente() {
+        EncurtamentoService servicoComDedup = new EncurtamentoService(mockMapeamentoUrlRepository, mockCodigoCurtoService, true, 60);
+        UrlOriginal url = new UrlOriginal("https://Exemplo.com:443/caminho");
+        MapeamentoUrl existente = new MapeamentoUrl(codigoCurtoGerado, new UrlOriginal("https://exemplo.com/caminho"), null);
+        when(mockMapeamentoUrlRepository.buscarPorImpressaoDigital(url.impressaoDigital())).thenReturn(List.of(existente));
+
+        MapeamentoUrl resultado = servicoComDedup.encurtar(url, null);
+
+        assertSame(existente, resultado);
+        verify(mockCodigoCurtoService, never()).gerar();
+        verify(mockMapeamentoUrlRepository, never()).salvar(any(MapeamentoUrl.class));
+    }
+
+    @Test
+    void encurtar_ComDeduplicacaoEExpiracaoIncompativel_DeveCriarNovoMapeamento() {
+        EncurtamentoService servicoComDedup = new EncurtamentoService(mockMapeamentoUrlRepository, mockCodigoCurtoService, true, 60);
+        UrlOriginal url = new UrlOriginal("https://exemplo.com/caminho");
+        MapeamentoUrl existenteSemExpiracao = new MapeamentoUrl(new CodigoCurto("Antigo1"), url, null);
+        when(mockMapeamentoUrlRepository.buscarPorImpressaoDigital(url.impressaoDigital())).thenReturn(List.of(existenteSemExpiracao));
+        when(mockCodigoCurtoService.gerar()).thenReturn(codigoCurtoGerado);
+        when(mockMapeamentoUrlRepository.existeCodigoCurto(codigoCurtoGerado)).thenReturn(false);
+        when(mockMapeamentoUrlRepository.salvar(any(MapeamentoUrl.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        MapeamentoUrl resultado = servicoComDedup.encurtar(url, dataExpiracaoPadrao);
+
+        assertEquals(codigoCurtoGerado, resultado.getCodigoCurto());
+        assertEquals(dataExpiracaoPadrao, resultado.getDataExpiracao());
+    }
+
+    @Test
+    void encurtar_SemDeduplicacao_NaoDeveGravarImpressaoDigital() {
+        when(mockCodigoCurtoService.gerar()).thenReturn(codigoCurtoGerado);
+        when(mockMapeamentoUrlRepository.salvar(any(MapeamentoUrl.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        MapeamentoUrl resultado = encurtamentoService.encurtar(urlOriginalPadrao, null);
+
+        assertNull(resultado.getImpressaoDigitalUrl());
+        verify(mockMapeamentoUrlRepository, never()).buscarPorImpressaoDigital(anyLong());
+    }
+
+    @Test
+    void encurtar_ComDeduplicacao_DeveGravarImpressaoDigital() {
+        EncurtamentoService servicoComDedup = new EncurtamentoService(mockMapeamentoUrlRepository, mockCodigoCurtoService, true, 60);
+        when(mockCodigoCurtoService.gerar()).thenReturn(codigoCurtoGerado);
+        when(mockMapeamentoUrlRepository.salvar(any(MapeamentoUrl.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        MapeamentoUrl resultado = servicoComDedup.encurtar(urlOriginalPadrao, null);
+
+        assertEquals(urlOriginalPadrao.impressaoDigital(), resultado.getImpressaoDigitalUrl());
+    }
+
     @Test
     void buscarPorCodigoCurto_QuandoCodigoExiste_DeveRetornarOptionalComMapeamento() {
         MapeamentoUrl mapeamentoEsperado = new MapeamentoUrl(codigoCurtoGerado, urlOriginalPadrao, dataExpiracaoPadrao);
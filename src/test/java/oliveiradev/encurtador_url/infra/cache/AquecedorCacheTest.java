@@ -0,0 +1,128 @@
+package oliveiradev.encurtador_url.infra.cache;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AquecedorCacheTest {
+
+    @Mock
+    private MapeamentoUrlRepository mockPersistencia;
+
+    @TempDir
+    Path diretorio;
+
+    private final CodigoCurto quente = new CodigoCurto("Quente01");
+
+    private MapeamentoUrlRepositoryEmCache novoCache() {
+        return new MapeamentoUrlRepositoryEmCache(mockPersistencia, 100, Duration.ofMinutes(10));
+    }
+
+    private AquecedorCache novoAquecedor(MapeamentoUrlRepositoryEmCache cache, long prazoMs) {
+        return new AquecedorCache(mockPersistencia, cache, new FabricaThreads(false), diretorio.toString(), 100, prazoMs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void persistenciaEntrega(DestinoRedirecionamento... destinos) {
+        doAnswer(invocacao -> {
+            Consumer<DestinoRedirecionamento> consumidor = invocacao.getArgument(1);
+            for (DestinoRedirecionamento destino : destinos) {
+                consumidor.accept(destino);
+            }
+            return null;
+        }).when(mockPersistencia).percorrerMaisAcessados(anyInt(), any(Consumer.class));
+    }
+
+    @Test
+    void aquecer_DeveServirOsMaisAcessadosSemIrAoBanco() {
+        persistenciaEntrega(DestinoRedirecionamento.de(quente, "https://quente.test", DestinoRedirecionamento.SEM_EXPIRACAO));
+        MapeamentoUrlRepositoryEmCache cache = novoCache();
+
+        novoAquecedor(cache, 1000).aquecer();
+        Optional<DestinoRedirecionamento> destino = cache.buscarDestinoRedirecionamento(quente);
+
+        assertEquals("https://quente.test", destino.orElseThrow().getLocation());
+        verify(mockPersistencia, never()).buscarDestinoRedirecionamento(quente);
+    }
+
+    @Test
+    void snapshot_DeveSerRecarregadoNaProximaPartidaSemOsExpirados() {
+        CodigoCurto vencido = new CodigoCurto("Vencido1");
+        persistenciaEntrega(
+                DestinoRedirecionamento.de(quente, "https://quente.test/ação", DestinoRedirecionamento.SEM_EXPIRACAO),
+                DestinoRedirecionamento.de(vencido, "https://vencido.test", System.currentTimeMillis() + 200));
+        AquecedorCache primeiro = novoAquecedor(novoCache(), 1000);
+        primeiro.aquecer();
+        primeiro.salvarSnapshot();
+
+        persistenciaEntrega();
+        MapeamentoUrlRepositoryEmCache cacheNovo = novoCache();
+        esperar(300);
+        novoAquecedor(cacheNovo, 1000).aquecer();
+
+        assertEquals("https://quente.test/a%C3%A7%C3%A3o", cacheNovo.buscarDestinoEmCache("Quente01").getLocation());
+        assertNull(cacheNovo.buscarDestinoEmCache("Vencido1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void salvarSnapshot_AposFalhaNoAquecimento_DeveGravarMesmoAssim() {
+        doThrow(new IllegalStateException("banco indisponível"))
+                .when(mockPersistencia).percorrerMaisAcessados(anyInt(), any(Consumer.class));
+        MapeamentoUrlRepositoryEmCache cache = novoCache();
+        AquecedorCache aquecedor = novoAquecedor(cache, 1000);
+        assertThrows(IllegalStateException.class, aquecedor::aquecer);
+        cache.aquecer(DestinoRedirecionamento.de(quente, "https://quente.test", DestinoRedirecionamento.SEM_EXPIRACAO));
+
+        aquecedor.salvarSnapshot();
+
+        assertFalse(aquecedor.isAquecido());
+        MapeamentoUrlRepositoryEmCache cacheNovo = novoCache();
+        assertThrows(IllegalStateException.class, novoAquecedor(cacheNovo, 1000)::aquecer); // O snapshot entra antes
+        assertEquals("https://quente.test", cacheNovo.buscarDestinoEmCache("Quente01").getLocation());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void run_DeveLiberarAPartidaQuandoOPrazoVence() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocacao -> {
+            liberar.await();
+            return null;
+        }).when(mockPersistencia).percorrerMaisAcessados(anyInt(), any(Consumer.class));
+        AquecedorCache aquecedor = novoAquecedor(novoCache(), 50);
+
+        long inicio = System.nanoTime();
+        aquecedor.run(null);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toMillis() < 5000);
+        assertFalse(aquecedor.isAquecido());
+        liberar.countDown();
+    }
+
+    private static void esperar(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
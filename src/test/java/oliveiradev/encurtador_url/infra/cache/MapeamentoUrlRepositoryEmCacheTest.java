@@ -0,0 +1,98 @@
+package oliveiradev.encurtador_url.infra.cache;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MapeamentoUrlRepositoryEmCacheTest {
+
+    @Mock
+    private MapeamentoUrlRepository mockDelegado;
+
+    private MapeamentoUrlRepositoryEmCache repositorioEmCache;
+    private CodigoCurto codigo;
+    private UrlOriginal url;
+
+    @BeforeEach
+    void setUp() {
+        repositorioEmCache = new MapeamentoUrlRepositoryEmCache(mockDelegado, 100, Duration.ofMinutes(10));
+        codigo = new CodigoCurto("CacheCd1");
+        url = new UrlOriginal("https://cache.test/destino");
+    }
+
+    @Test
+    void buscarPorCodigoCurto_SegundaConsulta_DeveSerServidaPeloCache() {
+        MapeamentoUrl mapeamento = new MapeamentoUrl(codigo, url, null);
+        when(mockDelegado.buscarPorCodigoCurto(codigo)).thenReturn(Optional.of(mapeamento));
+
+        repositorioEmCache.buscarPorCodigoCurto(codigo);
+        Optional<MapeamentoUrl> resultado = repositorioEmCache.buscarPorCodigoCurto(codigo);
+
+        assertEquals(Optional.of(mapeamento), resultado);
+        verify(mockDelegado, times(1)).buscarPorCodigoCurto(codigo);
+        assertEquals(1L, repositorioEmCache.getCache().stats().hitCount());
+    }
+
+    @Test
+    void buscarPorCodigoCurto_ComMapeamentoExpirado_NaoDeveArmazenarNoCache() {
+        MapeamentoUrl expirado = new MapeamentoUrl(codigo, url, LocalDateTime.now().minusMinutes(1));
+        when(mockDelegado.buscarPorCodigoCurto(codigo)).thenReturn(Optional.of(expirado));
+
+        repositorioEmCache.buscarPorCodigoCurto(codigo);
+        repositorioEmCache.buscarPorCodigoCurto(codigo);
+
+        verify(mockDelegado, times(2)).buscarPorCodigoCurto(codigo);
+    }
+
+    @Test
+    void buscarPorCodigoCurto_AposDataExpiracao_NaoDeveServirDoCache() throws InterruptedException {
+        MapeamentoUrl quaseExpirado = new MapeamentoUrl(codigo, url, LocalDateTime.now().plusNanos(200_000_000));
+        when(mockDelegado.buscarPorCodigoCurto(codigo)).thenReturn(Optional.of(quaseExpirado));
+
+        repositorioEmCache.buscarPorCodigoCurto(codigo);
+        Thread.sleep(300);
+        repositorioEmCache.buscarPorCodigoCurto(codigo);
+
+        verify(mockDelegado, times(2)).buscarPorCodigoCurto(codigo);
+    }
+
+    @Test
+    void buscarDestinoRedirecionamento_SegundaConsulta_DeveSerServidaPeloCacheDeDestinos() {
+        DestinoRedirecionamento destino = DestinoRedirecionamento.de(codigo, url.getValor(), DestinoRedirecionamento.SEM_EXPIRACAO);
+        when(mockDelegado.buscarDestinoRedirecionamento(codigo)).thenReturn(Optional.of(destino));
+
+        repositorioEmCache.buscarDestinoRedirecionamento(codigo);
+        Optional<DestinoRedirecionamento> resultado = repositorioEmCache.buscarDestinoRedirecionamento(codigo);
+
+        assertSame(destino, resultado.orElseThrow());
+        verify(mockDelegado, times(1)).buscarDestinoRedirecionamento(codigo);
+        verify(mockDelegado, never()).buscarPorCodigoCurto(codigo); // A entidade completa não é carregada
+        assertNull(repositorioEmCache.getCache().getIfPresent(codigo.getValor()));
+    }
+
+    @Test
+    void salvar_DeveArmazenarMapeamentoSalvoNoCache() {
+        MapeamentoUrl mapeamento = new MapeamentoUrl(codigo, url, null);
+        when(mockDelegado.salvar(mapeamento)).thenReturn(mapeamento);
+
+        repositorioEmCache.salvar(mapeamento);
+
+        assertTrue(repositorioEmCache.buscarPorCodigoCurto(codigo).isPresent());
+        verify(mockDelegado, never()).buscarPorCodigoCurto(codigo);
+    }
+}
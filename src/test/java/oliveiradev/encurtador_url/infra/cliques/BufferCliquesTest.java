@@ -0,0 +1,81 @@
+package oliveiradev.encurtador_url.infra.cliques;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferCliquesTest {
+
+    @Test
+    void oferecer_QuandoCheio_DeveRecusarSemBloquearEVoltarAAceitarAposDrenar() {
+        BufferCliques buffer = new BufferCliques(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.oferecer(i, "c" + i, null, null, null));
+        }
+
+        assertFalse(buffer.oferecer(99, "excedente", null, null, null));
+
+        List<String> lidos = new ArrayList<>();
+        assertEquals(2, buffer.drenar((instante, codigo, ref, agente, endereco) -> lidos.add(codigo), 2));
+        assertEquals(List.of("c0", "c1"), lidos);
+        assertTrue(buffer.oferecer(4, "c4", null, null, null));
+        assertEquals(3, buffer.ocupacao());
+    }
+
+    @Test
+    void oferecer_ComVariosProdutores_NaoDevePerderNemDuplicarEventosAceitos() throws InterruptedException {
+        BufferCliques buffer = new BufferCliques(1024);
+        int produtores = 8;
+        int porProdutor = 20_000;
+        AtomicInteger aceitos = new AtomicInteger();
+        Set<String> consumidos = ConcurrentHashMap.newKeySet();
+        AtomicInteger totalConsumido = new AtomicInteger();
+        CountDownLatch fim = new CountDownLatch(produtores);
+
+        ExecutorService executor = Executors.newFixedThreadPool(produtores);
+        for (int p = 0; p < produtores; p++) {
+            int produtor = p;
+            executor.submit(() -> {
+                for (int i = 0; i < porProdutor; i++) {
+                    if (buffer.oferecer(i, produtor + "-" + i, null, null, null)) {
+                        aceitos.incrementAndGet();
+                    }
+                }
+                fim.countDown();
+            });
+        }
+        BufferCliques.Consumidor consumidor = (instante, codigo, ref, agente, endereco) -> {
+            consumidos.add(codigo);
+            totalConsumido.incrementAndGet();
+        };
+        while (fim.getCount() > 0) {
+            buffer.drenar(consumidor, 256);
+        }
+        while (buffer.drenar(consumidor, 256) > 0) {
+            // Esvazia o restante
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(aceitos.get(), totalConsumido.get());
+        assertEquals(aceitos.get(), consumidos.size());
+    }
+
+    @Test
+    void prefixoIp_DeveAnonimizarIpv4EIpv6() {
+        assertEquals("203.0.113.0/24", PrefixoIp.de("203.0.113.77"));
+        assertEquals("2001:db8:85a3::/48", PrefixoIp.de("2001:db8:85a3:8d3:1319:8a2e:370:7348"));
+        assertEquals("fe80::/48", PrefixoIp.de("fe80::1%eth0"));
+        assertNull(PrefixoIp.de(null));
+    }
+}
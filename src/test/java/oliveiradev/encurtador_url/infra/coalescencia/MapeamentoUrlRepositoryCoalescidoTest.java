@@ -0,0 +1,114 @@
+package oliveiradev.encurtador_url.infra.coalescencia;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MapeamentoUrlRepositoryCoalescidoTest {
+
+    private static final int CONCORRENTES = 16;
+    private final CodigoCurto codigo = new CodigoCurto("viral1");
+    private final MapeamentoUrl mapeamento = new MapeamentoUrl(codigo, new UrlOriginal("https://viral.test"), null);
+    private final MapeamentoUrlRepository delegado = mock(MapeamentoUrlRepository.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CONCORRENTES);
+    private final CountDownLatch liberarBusca = new CountDownLatch(1);
+    private final CountDownLatch buscaIniciada = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        liberarBusca.countDown();
+        executor.shutdownNow();
+    }
+
+    private List<Future<Optional<MapeamentoUrl>>> disparar(MapeamentoUrlRepositoryCoalescido repositorio) throws InterruptedException {
+        List<Future<Optional<MapeamentoUrl>>> resultados = new ArrayList<>();
+        resultados.add(executor.submit(() -> repositorio.buscarPorCodigoCurto(codigo)));
+        assertTrue(buscaIniciada.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CONCORRENTES; i++) {
+            resultados.add(executor.submit(() -> repositorio.buscarPorCodigoCurto(codigo)));
+        }
+        while (repositorio.getBuscasCompartilhadas() < CONCORRENTES - 1) {
+            Thread.onSpinWait(); // Todas as seguidoras já estão aguardando a líder
+        }
+        return resultados;
+    }
+
+    @Test
+    void buscarPorCodigoCurto_ComFalhasSimultaneas_DeveIrAoDelegadoUmaVez() throws Exception {
+        when(delegado.buscarPorCodigoCurto(codigo)).thenAnswer(invocacao -> {
+            buscaIniciada.countDown();
+            liberarBusca.await();
+            return Optional.of(mapeamento);
+        });
+        MapeamentoUrlRepositoryCoalescido repositorio = new MapeamentoUrlRepositoryCoalescido(delegado, Duration.ofSeconds(5));
+
+        List<Future<Optional<MapeamentoUrl>>> resultados = disparar(repositorio);
+        liberarBusca.countDown();
+
+        for (Future<Optional<MapeamentoUrl>> resultado : resultados) {
+            assertSame(mapeamento, resultado.get(5, TimeUnit.SECONDS).orElseThrow());
+        }
+        verify(delegado, times(1)).buscarPorCodigoCurto(codigo);
+
+        repositorio.buscarPorCodigoCurto(codigo); // Sem busca em andamento, vai ao delegado de novo
+        verify(delegado, times(2)).buscarPorCodigoCurto(codigo);
+    }
+
+    @Test
+    void buscarPorCodigoCurto_ComFalhaNaLider_DevePropagarAMesmaExcecaoParaTodas() throws Exception {
+        DataAccessResourceFailureException falha = new DataAccessResourceFailureException("Mongo indisponível");
+        when(delegado.buscarPorCodigoCurto(codigo)).thenAnswer(invocacao -> {
+            buscaIniciada.countDown();
+            liberarBusca.await();
+            throw falha;
+        });
+        MapeamentoUrlRepositoryCoalescido repositorio = new MapeamentoUrlRepositoryCoalescido(delegado, Duration.ofSeconds(5));
+
+        List<Future<Optional<MapeamentoUrl>>> resultados = disparar(repositorio);
+        liberarBusca.countDown();
+
+        for (Future<Optional<MapeamentoUrl>> resultado : resultados) {
+            ExecutionException erro = assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            assertSame(falha, erro.getCause());
+        }
+        verify(delegado, times(1)).buscarPorCodigoCurto(codigo);
+    }
+
+    @Test
+    void buscarPorCodigoCurto_ComLiderLenta_SeguidorasDevemEsgotarOTempoDeEspera() throws Exception {
+        when(delegado.buscarPorCodigoCurto(codigo)).thenAnswer(invocacao -> {
+            buscaIniciada.countDown();
+            liberarBusca.await();
+            return Optional.of(mapeamento);
+        });
+        MapeamentoUrlRepositoryCoalescido repositorio = new MapeamentoUrlRepositoryCoalescido(delegado, Duration.ofMillis(50));
+
+        List<Future<Optional<MapeamentoUrl>>> resultados = disparar(repositorio);
+
+        for (Future<Optional<MapeamentoUrl>> seguidora : resultados.subList(1, resultados.size())) {
+            ExecutionException erro = assertThrows(ExecutionException.class, () -> seguidora.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(QueryTimeoutException.class, erro.getCause());
+        }
+        liberarBusca.countDown();
+        assertSame(mapeamento, resultados.get(0).get(5, TimeUnit.SECONDS).orElseThrow());
+    }
+}
@@ -0,0 +1,111 @@
+package oliveiradev.encurtador_url.infra.concorrencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcumuladorDeltasTest {
+
+    @Test
+    void coletarPendentes_AposIncrementos_DeveRetornarDeltaPorChave() {
+        AcumuladorDeltas<String> acumulador = new AcumuladorDeltas<>();
+        acumulador.incrementar("abc");
+        acumulador.incrementar("abc");
+        acumulador.incrementar("xyz", 5L);
+
+        Map<String, Long> pendentes = acumulador.coletarPendentes();
+
+        assertEquals(2L, pendentes.get("abc"));
+        assertEquals(5L, pendentes.get("xyz"));
+    }
+
+    @Test
+    void coletarPendentes_SemConfirmacao_DeveReenviarMesmoDelta() {
+        AcumuladorDeltas<String> acumulador = new AcumuladorDeltas<>();
+        acumulador.incrementar("abc", 3L);
+
+        acumulador.coletarPendentes(); // Descarga que falhou: não confirma
+        acumulador.incrementar("abc");
+
+        assertEquals(4L, acumulador.coletarPendentes().get("abc"));
+    }
+
+    @Test
+    void confirmar_DeveDescontarApenasODeltaDescarregado() {
+        AcumuladorDeltas<String> acumulador = new AcumuladorDeltas<>();
+        acumulador.incrementar("abc", 3L);
+
+        Map<String, Long> pendentes = acumulador.coletarPendentes();
+        acumulador.incrementar("abc"); // Chega durante a escrita no banco
+        acumulador.confirmar(pendentes);
+
+        assertEquals(1L, acumulador.pendente("abc"));
+    }
+
+    @Test
+    void coletarPendentes_ComChaveOciosa_DeveRemoverChave() {
+        AcumuladorDeltas<String> acumulador = new AcumuladorDeltas<>();
+        acumulador.incrementar("abc");
+        acumulador.confirmar(acumulador.coletarPendentes());
+
+        assertTrue(acumulador.coletarPendentes().isEmpty());
+        assertEquals(0, acumulador.tamanho());
+    }
+
+    @Test
+    void incrementar_ComVariasThreads_NaoDevePerderIncrementos() throws InterruptedException {
+        AcumuladorDeltas<String> acumulador = new AcumuladorDeltas<>();
+        int threads = 8;
+        int incrementosPorThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch fim = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < incrementosPorThread; j++) {
+                    acumulador.incrementar("viral");
+                }
+                fim.countDown();
+            });
+        }
+        assertTrue(fim.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals((long) threads * incrementosPorThread, acumulador.coletarPendentes().get("viral"));
+    }
+
+    @Test
+    void coletarPendentes_RemovendoChavesOciosasDuranteIncrementos_NaoDevePerderIncrementos() throws InterruptedException {
+        AcumuladorDeltas<Integer> acumulador = new AcumuladorDeltas<>();
+        int threads = 4;
+        int incrementosPorThread = 200_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch fim = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < incrementosPorThread; j++) {
+                    acumulador.incrementar(j % 64); // Poucas chaves, que ficam ociosas e são removidas entre rajadas
+                }
+                fim.countDown();
+            });
+        }
+        long descarregado = 0;
+        while (fim.getCount() > 0) {
+            Map<Integer, Long> pendentes = acumulador.coletarPendentes();
+            descarregado += pendentes.values().stream().mapToLong(Long::longValue).sum();
+            acumulador.confirmar(pendentes);
+        }
+        assertTrue(fim.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        descarregado += acumulador.coletarPendentes().values().stream().mapToLong(Long::longValue).sum();
+
+        assertEquals((long) threads * incrementosPorThread, descarregado);
+    }
+}
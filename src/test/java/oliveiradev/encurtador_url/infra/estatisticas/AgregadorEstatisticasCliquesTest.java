@@ -0,0 +1,91 @@
+package oliveiradev.encurtador_url.infra.estatisticas;
+
+import oliveiradev.encurtador_url.domain.model.Granularidade;
+import oliveiradev.encurtador_url.domain.repository.EstatisticaCliquesRepository;
+import oliveiradev.encurtador_url.infra.persistence.EstatisticaCliquesRepositoryEmMemoria;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class AgregadorEstatisticasCliquesTest {
+
+    private final EstatisticaCliquesRepositoryEmMemoria repositorio = new EstatisticaCliquesRepositoryEmMemoria();
+    private final AgregadorEstatisticasCliques agregador = new AgregadorEstatisticasCliques(repositorio);
+    private final Instant inicioMinuto = Granularidade.MINUTO.inicioDoBucket(Instant.parse("2024-03-10T14:00:00Z"), ZoneId.systemDefault());
+
+    @Test
+    void consultar_PorMinuto_DeveDevolverSerieDensaComDeltasPendentes() {
+        agregador.registrar("abc", inicioMinuto.plusSeconds(5));
+        agregador.registrar("abc", inicioMinuto.plusSeconds(50));
+        agregador.registrar("abc", inicioMinuto.plusSeconds(125));
+        agregador.registrar("xyz", inicioMinuto.plusSeconds(5));
+
+        List<Map.Entry<Instant, Long>> serie = agregador.consultar("abc", Granularidade.MINUTO,
+                inicioMinuto, inicioMinuto.plusSeconds(240));
+
+        assertEquals(4, serie.size());
+        assertEquals(List.of(2L, 0L, 1L, 0L), serie.stream().map(Map.Entry::getValue).toList());
+        assertEquals(inicioMinuto.plusSeconds(60), serie.get(1).getKey());
+    }
+
+    @Test
+    void descarregar_DeveMoverDeltasParaORepositorioSemContarEmDobro() {
+        agregador.registrar("abc", inicioMinuto.plusSeconds(5));
+        agregador.registrar("abc", inicioMinuto.plusSeconds(10));
+
+        agregador.descarregar();
+        agregador.registrar("abc", inicioMinuto.plusSeconds(15));
+
+        assertEquals(2L, repositorio.buscar("abc", Granularidade.MINUTO, inicioMinuto, inicioMinuto.plusSeconds(60))
+                .get(inicioMinuto));
+        List<Map.Entry<Instant, Long>> serie = agregador.consultar("abc", Granularidade.MINUTO,
+                inicioMinuto, inicioMinuto.plusSeconds(60));
+        assertEquals(3L, serie.get(0).getValue());
+    }
+
+    @Test
+    void descarregar_ComFalhaNoRepositorio_DeveManterDeltasParaAProximaTentativa() {
+        EstatisticaCliquesRepository comFalha = mock(EstatisticaCliquesRepository.class);
+        doThrow(new RuntimeException("banco fora")).when(comFalha).incrementar(anyMap());
+        when(comFalha.buscar(any(), any(), any(), any())).thenReturn(Map.of());
+        AgregadorEstatisticasCliques agregadorComFalha = new AgregadorEstatisticasCliques(comFalha);
+        agregadorComFalha.registrar("abc", inicioMinuto);
+
+        agregadorComFalha.descarregar();
+
+        assertEquals(1L, agregadorComFalha.consultar("abc", Granularidade.MINUTO,
+                inicioMinuto, inicioMinuto.plusSeconds(60)).get(0).getValue());
+    }
+
+    @Test
+    void registrar_DeveAlimentarAsTresGranularidades() {
+        agregador.registrar("abc", inicioMinuto);
+        agregador.descarregar();
+
+        for (Granularidade granularidade : Granularidade.values()) {
+            Instant bucket = granularidade.inicioDoBucket(inicioMinuto, ZoneId.systemDefault());
+            assertEquals(1L, repositorio.buscar("abc", granularidade, bucket, bucket.plusSeconds(1)).get(bucket),
+                    granularidade.name());
+        }
+    }
+
+    @Test
+    void consultar_ComIntervaloGrandeDemais_DeveLancarIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> agregador.consultar("abc", Granularidade.MINUTO,
+                inicioMinuto, inicioMinuto.plusSeconds(60L * 60 * 24 * 30)));
+    }
+
+    @Test
+    void granularidade_De_DeveAceitarNomesEmMinusculasERecusarDesconhecidos() {
+        assertEquals(Granularidade.DIA, Granularidade.de("dia"));
+        assertThrows(IllegalArgumentException.class, () -> Granularidade.de("semana"));
+    }
+}
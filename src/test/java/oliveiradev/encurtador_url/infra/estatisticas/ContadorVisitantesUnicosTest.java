@@ -0,0 +1,109 @@
+package oliveiradev.encurtador_url.infra.estatisticas;
+
+import oliveiradev.encurtador_url.domain.model.ChaveSketchVisitantes;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.infra.persistence.SketchVisitantesRepositoryEmMemoria;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContadorVisitantesUnicosTest {
+
+    private final SketchVisitantesRepositoryEmMemoria repositorio = new SketchVisitantesRepositoryEmMemoria();
+    private final Instant agora = Instant.now();
+
+    private ContadorVisitantesUnicos contador(String instancia) {
+        return new ContadorVisitantesUnicos(repositorio, instancia, 10, 20_000);
+    }
+
+    private static void visitar(ContadorVisitantesUnicos contador, Instant instante, int primeiro, int ultimo) {
+        for (int i = primeiro; i < ultimo; i++) {
+            contador.registrar("abc", instante, "10.0." + (i / 256) + "." + (i % 256), "navegador");
+        }
+    }
+
+    @Test
+    void estimarVisitantesUnicos_DeveIgnorarVisitasRepetidasEVisitantesSemIp() {
+        ContadorVisitantesUnicos contador = contador("no-a");
+        visitar(contador, agora, 0, 500);
+        visitar(contador, agora, 0, 500);
+        contador.registrar("abc", agora, null, "navegador");
+
+        assertEquals(500, contador.estimarVisitantesUnicos(new CodigoCurto("abc")).getAsLong(), 25);
+    }
+
+    @Test
+    void estimarVisitantesUnicos_DeveMesclarOsSketchesDeTodosOsNos() {
+        ContadorVisitantesUnicos noA = contador("no-a");
+        ContadorVisitantesUnicos noB = contador("no-b");
+        visitar(noA, agora, 0, 600);
+        visitar(noB, agora, 400, 1000);
+
+        noA.descarregar();
+        noB.descarregar();
+
+        assertEquals(1000, noA.estimarVisitantesUnicos(new CodigoCurto("abc")).getAsLong(), 50);
+    }
+
+    @Test
+    void descarregar_AposReinicio_NaoDevePerderOHistoricoDoNo() {
+        ContadorVisitantesUnicos antes = contador("no-a");
+        visitar(antes, agora, 0, 800);
+        antes.descarregar();
+
+        ContadorVisitantesUnicos depois = contador("no-a");
+        visitar(depois, agora, 800, 1000);
+        depois.descarregar();
+
+        ContadorVisitantesUnicos leitor = contador("leitor");
+        assertEquals(1000, leitor.estimarVisitantesUnicos(new CodigoCurto("abc")).getAsLong(), 50);
+    }
+
+    @Test
+    void estimarNoIntervalo_DeveConsiderarApenasOsDiasDaJanela() {
+        ContadorVisitantesUnicos contador = contador("no-a");
+        visitar(contador, agora.minus(10, ChronoUnit.DAYS), 0, 300);
+        visitar(contador, agora, 1000, 1100);
+
+        long ultimoDia = contador.estimarNoIntervalo("abc", agora.minus(1, ChronoUnit.HOURS), agora.plusSeconds(1)).getAsLong();
+
+        assertEquals(100, ultimoDia, 5);
+    }
+
+    @Test
+    void registrar_AcimaDoMaximoDeEntradas_DeveDescarregarELiberarAsMenosUsadas() {
+        ContadorVisitantesUnicos limitado = new ContadorVisitantesUnicos(repositorio, "no-a", 10, 20);
+        for (int i = 0; i < 50; i++) {
+            limitado.registrar("cod" + i, agora.plusMillis(i), "10.0.0.1", "navegador");
+        }
+
+        assertTrue(limitado.getEntradasEmMemoria() <= 20);
+        // A entrada liberada foi gravada antes: a estimativa continua vindo do repositório
+        assertEquals(1, limitado.estimarVisitantesUnicos(new CodigoCurto("cod0")).getAsLong());
+    }
+
+    @Test
+    void registrar_AcimaDoMaximoComBancoFora_DeveDescartarEmVezDeCrescer() {
+        SketchVisitantesRepositoryEmMemoria indisponivel = new SketchVisitantesRepositoryEmMemoria() {
+            @Override
+            public void gravar(String instancia, Map<ChaveSketchVisitantes, byte[]> novos) {
+                throw new IllegalStateException("banco fora");
+            }
+        };
+        ContadorVisitantesUnicos limitado = new ContadorVisitantesUnicos(indisponivel, "no-a", 10, 20);
+        for (int i = 0; i < 50; i++) {
+            limitado.registrar("cod" + i, agora.plusMillis(i), "10.0.0.1", "navegador");
+        }
+
+        assertTrue(limitado.getEntradasEmMemoria() <= 20);
+    }
+
+    @Test
+    void construtor_DeveNormalizarONomeDaInstanciaParaCaminhoDeCampo() {
+        assertEquals("no_1_exemplo_com", contador("no.1$exemplo.com").getInstancia());
+    }
+}
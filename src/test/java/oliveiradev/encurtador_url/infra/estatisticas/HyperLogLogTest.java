@@ -0,0 +1,90 @@
+package oliveiradev.encurtador_url.infra.estatisticas;
+
+import oliveiradev.encurtador_url.infra.hash.Hash64;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog comValores(long inicio, long fim) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long i = inicio; i < fim; i++) {
+            sketch.adicionar(Hash64.de(i));
+        }
+        return sketch;
+    }
+
+    @Test
+    void estimar_DeveFicarDentroDoErroEsperado() {
+        for (long cardinalidade : new long[]{10, 1_000, 100_000}) {
+            long estimativa = comValores(0, cardinalidade).estimar();
+            assertEquals(cardinalidade, estimativa, cardinalidade * 0.05 + 1, "cardinalidade " + cardinalidade);
+        }
+    }
+
+    @Test
+    void adicionar_ValorRepetido_NaoDeveAlterarOSketch() {
+        HyperLogLog sketch = comValores(0, 100);
+
+        assertFalse(sketch.adicionar(Hash64.de(42L)));
+        assertEquals(100, sketch.estimar(), 2);
+    }
+
+    @Test
+    void mesclar_DeveEstimarAUniaoESerIdempotente() {
+        HyperLogLog a = comValores(0, 20_000);
+        HyperLogLog b = comValores(10_000, 30_000);
+
+        a.mesclar(b);
+        long uniao = a.estimar();
+        a.mesclar(b);
+
+        assertEquals(30_000, uniao, 30_000 * 0.05);
+        assertEquals(uniao, a.estimar());
+    }
+
+    @Test
+    void adicionar_DeveComecarEsparsoEPassarADensoSoAcimaDoLimite() {
+        HyperLogLog pequeno = comValores(0, 100);
+        HyperLogLog grande = comValores(0, 5_000);
+
+        assertTrue(pequeno.isEsparso());
+        assertFalse(grande.isEsparso());
+        assertEquals(100, pequeno.estimar(), 2);
+    }
+
+    @Test
+    void mesclar_EntreEsparsoEDenso_DeveDarOMesmoResultadoNasDuasOrdens() {
+        HyperLogLog esparsoEmDenso = comValores(0, 5_000);
+        esparsoEmDenso.mesclar(comValores(10_000, 10_200));
+        HyperLogLog densoEmEsparso = comValores(10_000, 10_200);
+        densoEmEsparso.mesclar(comValores(0, 5_000));
+
+        assertFalse(densoEmEsparso.isEsparso());
+        assertArrayEquals(esparsoEmDenso.serializar(), densoEmEsparso.serializar());
+    }
+
+    @Test
+    void serializar_Esparso_DeveUsarOFormatoDenso() {
+        HyperLogLog esparso = comValores(0, 300);
+
+        HyperLogLog lido = HyperLogLog.desserializar(esparso.serializar());
+
+        assertTrue(esparso.isEsparso());
+        assertEquals(esparso.estimar(), lido.estimar());
+        assertArrayEquals(esparso.serializar(), lido.serializar());
+    }
+
+    @Test
+    void serializar_DeveSerCompactoEPreservarRegistradores() {
+        HyperLogLog original = comValores(0, 50_000);
+
+        byte[] dados = original.serializar();
+        HyperLogLog lido = HyperLogLog.desserializar(dados);
+
+        assertEquals(1 + 4096 * 6 / 8, dados.length);
+        assertEquals(original.estimar(), lido.estimar());
+        assertArrayEquals(dados, lido.serializar());
+    }
+}
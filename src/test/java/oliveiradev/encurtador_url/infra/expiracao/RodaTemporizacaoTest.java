@@ -0,0 +1,64 @@
+package oliveiradev.encurtador_url.infra.expiracao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RodaTemporizacaoTest {
+    private static final long INICIO = 1_700_000_000_000L;
+
+    @Test
+    void avancar_NaoDeveDispararAntesDoVencimento() {
+        RodaTemporizacao<String> roda = new RodaTemporizacao<>(1000, INICIO);
+        List<String> disparados = new ArrayList<>();
+        roda.agendar("a", INICIO + 5_000);
+
+        assertEquals(0, roda.avancar(INICIO + 5_000, disparados::add)); // Exatamente no vencimento ainda é válido
+        assertEquals(1, roda.avancar(INICIO + 6_000, disparados::add));
+        assertEquals(List.of("a"), disparados);
+        assertEquals(0, roda.getPendentes());
+    }
+
+    @Test
+    void avancar_ComVencimentoNoPassado_DeveDispararNoProximoAvanco() {
+        RodaTemporizacao<String> roda = new RodaTemporizacao<>(1000, INICIO);
+        List<String> disparados = new ArrayList<>();
+        roda.agendar("antigo", INICIO - 60_000);
+
+        roda.avancar(INICIO, disparados::add);
+
+        assertEquals(List.of("antigo"), disparados);
+    }
+
+    @Test
+    void avancar_ComVencimentosEmVariosNiveis_DeveDispararCadaUmNoTickCerto() {
+        long resolucao = 1000;
+        RodaTemporizacao<Long> roda = new RodaTemporizacao<>(resolucao, INICIO);
+        Random aleatorio = new Random(42);
+        List<Long> vencimentos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // De segundos a ~2 dias: cobre os níveis 0, 1 e 2 e as descidas entre eles
+            long vencimento = INICIO + (long) (Math.pow(aleatorio.nextDouble(), 3) * 2 * 86_400_000L);
+            vencimentos.add(vencimento);
+            roda.agendar(vencimento, vencimento);
+        }
+
+        long agora = INICIO;
+        int total = 0;
+        while (agora < INICIO + 3 * 86_400_000L) {
+            agora += 7 * resolucao; // Avanços irregulares em relação às posições da roda
+            long limite = agora;
+            total += roda.avancar(agora, vencimento -> {
+                assertTrue(vencimento < limite, "disparou antes do vencimento");
+                assertTrue(vencimento >= limite - 8 * resolucao, "disparou com atraso acima de um avanço");
+            });
+        }
+
+        assertEquals(vencimentos.size(), total);
+        assertEquals(0, roda.getPendentes());
+    }
+}
@@ -0,0 +1,58 @@
+package oliveiradev.encurtador_url.infra.filtro;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomEscalavelTest {
+
+    @Test
+    void contemTalvez_ComCodigosAdicionados_NuncaDeveRetornarFalsoNegativo() {
+        FiltroBloomEscalavel filtro = new FiltroBloomEscalavel(1_000, 0.01);
+        for (int i = 0; i < 10_000; i++) { // Força o crescimento para vários estágios
+            filtro.adicionar("cod" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.contemTalvez("cod" + i));
+        }
+    }
+
+    @Test
+    void contemTalvez_ComCodigosNuncaAdicionados_DeveRespeitarTaxaDeFalsoPositivo() {
+        FiltroBloomEscalavel filtro = new FiltroBloomEscalavel(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("emitido" + i);
+        }
+        int falsosPositivos = 0;
+        int consultas = 100_000;
+        for (int i = 0; i < consultas; i++) {
+            if (filtro.contemTalvez("aleatorio" + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < consultas * 0.02, "Taxa de falso positivo acima do esperado: " + falsosPositivos);
+    }
+
+    @Test
+    void escreverELer_DevePreservarConteudoDoFiltro() throws IOException {
+        FiltroBloomEscalavel original = new FiltroBloomEscalavel(100, 0.001);
+        for (int i = 0; i < 500; i++) {
+            original.adicionar("snap" + i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.escrever(new DataOutputStream(bytes));
+
+        FiltroBloomEscalavel lido = FiltroBloomEscalavel.ler(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(lido.contemTalvez("snap" + i));
+        }
+        assertEquals(original.getInsercoes(), lido.getInsercoes());
+    }
+}
@@ -0,0 +1,92 @@
+package oliveiradev.encurtador_url.infra.filtro;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FiltroCodigosEmitidosTest {
+
+    @Mock
+    private MapeamentoUrlRepository mockPersistencia;
+
+    @TempDir
+    Path diretorio;
+
+    private FiltroCodigosEmitidos filtro;
+
+    @BeforeEach
+    void configurar() throws InterruptedException {
+        // Carga inicial (criadosDesde nulo) vazia; cada sincronização incremental devolve o código criado em outro nó.
+        doAnswer(invocacao -> {
+            LocalDateTime criadosDesde = invocacao.getArgument(0);
+            Consumer<CodigoCurto> consumidor = invocacao.getArgument(1);
+            if (criadosDesde != null) {
+                consumidor.accept(new CodigoCurto("OutroNo1"));
+            }
+            return null;
+        }).when(mockPersistencia).percorrerCodigosCurtos(any(), any());
+        filtro = carregado(0);
+    }
+
+    private FiltroCodigosEmitidos carregado(long intervaloMinimoConfirmacaoMs) throws InterruptedException {
+        FiltroCodigosEmitidos novo = new FiltroCodigosEmitidos(mockPersistencia, new FabricaThreads(false),
+                diretorio.toString(), 1_000, 0.001, 5, intervaloMinimoConfirmacaoMs);
+        novo.iniciarCarga();
+        for (int i = 0; i < 500 && !novo.isPronto(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(novo.isPronto());
+        return novo;
+    }
+
+    @Test
+    void podeExistirAposSincronizar_CodigoCriadoEmOutroNo_DeveSerAchadoSemEsperarOAgendamento() {
+        CodigoCurto codigo = new CodigoCurto("OutroNo1");
+        assertFalse(filtro.podeExistir(codigo)); // Ainda não sincronizado
+
+        assertTrue(filtro.podeExistirAposSincronizar(codigo));
+        assertTrue(filtro.podeExistir(codigo));
+    }
+
+    @Test
+    void podeExistirAposSincronizar_CodigoInexistente_DeveContinuarNegativo() {
+        assertFalse(filtro.podeExistirAposSincronizar(new CodigoCurto("Nunca123")));
+        verify(mockPersistencia, times(2)).percorrerCodigosCurtos(any(), any()); // Carga + uma sincronização
+    }
+
+    @Test
+    void podeExistirAposSincronizar_CodigoRegistrado_NaoDeveSincronizar() {
+        CodigoCurto codigo = new CodigoCurto("Local123");
+        filtro.registrar(codigo);
+
+        assertTrue(filtro.podeExistirAposSincronizar(codigo));
+        verify(mockPersistencia, times(1)).percorrerCodigosCurtos(any(), any()); // Só a carga inicial
+    }
+
+    @Test
+    void podeExistirAposSincronizar_DentroDoIntervaloMinimo_NaoDeveIrAoBanco() throws InterruptedException {
+        FiltroCodigosEmitidos limitado = carregado(60_000);
+        clearInvocations(mockPersistencia);
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(limitado.podeExistirAposSincronizar(new CodigoCurto("Aleatorio" + i)));
+        }
+
+        verifyNoInteractions(mockPersistencia); // A negativa fica com o filtro até a sincronização periódica
+    }
+}
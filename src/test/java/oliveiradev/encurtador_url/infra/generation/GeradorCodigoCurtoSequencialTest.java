@@ -0,0 +1,89 @@
+package oliveiradev.encurtador_url.infra.generation;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeradorCodigoCurtoSequencialTest {
+
+    private final AtomicLong sequencia = new AtomicLong();
+    private final AtomicInteger arrendamentos = new AtomicInteger();
+    private final ArrendadorFaixas arrendadorEmMemoria = tamanho -> {
+        arrendamentos.incrementAndGet();
+        return sequencia.getAndAdd(tamanho);
+    };
+
+    @Test
+    void gerar_DeveArrendarUmaFaixaPorBlocoDeCodigos() {
+        GeradorCodigoCurtoSequencial gerador = new GeradorCodigoCurtoSequencial(arrendadorEmMemoria, 100, true, "teste");
+
+        for (int i = 0; i < 250; i++) {
+            gerador.gerar();
+        }
+
+        assertEquals(3, arrendamentos.get());
+    }
+
+    @Test
+    void gerar_ComVariasThreads_DeveProduzirCodigosUnicosDeOitoCaracteres() throws InterruptedException {
+        GeradorCodigoCurtoSequencial gerador = new GeradorCodigoCurtoSequencial(arrendadorEmMemoria, 1000, true, "teste");
+        Set<String> codigos = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    codigos.add(gerador.gerar().getValor());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(40_000, codigos.size());
+        codigos.forEach(codigo -> assertEquals(8, codigo.length()));
+    }
+
+    @Test
+    void gerar_SemEmbaralhar_DeveCodificarOProprioId() {
+        GeradorCodigoCurtoSequencial gerador = new GeradorCodigoCurtoSequencial(arrendadorEmMemoria, 10, false, "teste");
+
+        CodigoCurto primeiro = gerador.gerar();
+        CodigoCurto segundo = gerador.gerar();
+
+        assertEquals("00000000", primeiro.getValor());
+        assertEquals("00000001", segundo.getValor());
+        assertTrue(gerador.garanteUnicidade());
+    }
+
+    @Test
+    void permutacaoFeistel_DeveSerReversivelESemColisoes() {
+        PermutacaoFeistel permutacao = new PermutacaoFeistel(23, "chave");
+        Set<Long> cifrados = new HashSet<>();
+        for (long id = 0; id < 100_000; id++) {
+            long cifrado = permutacao.cifrar(id);
+            assertTrue(cifrado >= 0 && cifrado < permutacao.getTamanhoDominio());
+            assertEquals(id, permutacao.decifrar(cifrado));
+            cifrados.add(cifrado);
+        }
+        assertEquals(100_000, cifrados.size());
+    }
+
+    @Test
+    void base62_DeveCodificarEDecodificarIdaEVolta() {
+        long valor = (1L << 46) - 1;
+        String codificado = Base62.codificar(valor, 8);
+        assertEquals(8, codificado.length());
+        assertEquals(valor, Base62.decodificar(codificado));
+    }
+}
@@ -0,0 +1,93 @@
+package oliveiradev.encurtador_url.infra.importacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import oliveiradev.encurtador_url.infra.persistence.MapeamentoUrlRepositoryEmMemoria;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportadorMapeamentosTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final MapeamentoUrlRepositoryEmMemoria repositorio = new MapeamentoUrlRepositoryEmMemoria();
+
+    private ImportadorMapeamentos novoImportador(int tamanhoLote) {
+        return new ImportadorMapeamentos(repositorio, new FabricaThreads(false), new ObjectMapper(),
+                diretorio.toString(), diretorio.toString(), tamanhoLote, 2, 0);
+    }
+
+    @Test
+    void importar_Ndjson_DeveGravarOsValidosEContarOsDemais() throws Exception {
+        Path arquivo = Files.writeString(diretorio.resolve("links.ndjson"), String.join("\n",
+                "{\"codigo\": \"abc123\", \"url\": \"https://a.test/x\"}",
+                "{\"codigo\": \"futuro\", \"url\": \"https://b.test\", \"expiracao\": \"2999-01-01T00:00:00\"}",
+                "{\"codigo\": \"vencido\", \"url\": \"https://c.test\", \"expiracao\": \"2000-01-01T00:00:00Z\"}",
+                "{\"codigo\": \"sem/barra\", \"url\": \"https://d.test\"}",
+                "{\"codigo\": \"ftp1\", \"url\": \"ftp://e.test\"}",
+                "nem json",
+                "",
+                "{\"codigo\": \"abc123\", \"url\": \"https://outra.test\"}") + "\n");
+        ImportadorMapeamentos importador = novoImportador(2);
+
+        importador.importar(arquivo);
+
+        assertNull(importador.getErro());
+        assertEquals(7, importador.getLinhasLidas());
+        assertEquals(2, importador.getImportados());
+        assertEquals(1, importador.getDuplicados());
+        assertEquals(1, importador.getExpirados());
+        assertEquals(3, importador.getInvalidos());
+        assertEquals(Files.size(arquivo), importador.getPosicaoConfirmada());
+        assertEquals("https://a.test/x", repositorio.buscarPorCodigoCurto(new CodigoCurto("abc123")).orElseThrow()
+                .getUrlOriginal().getValor());
+        assertNotNull(repositorio.buscarPorCodigoCurto(new CodigoCurto("futuro")).orElseThrow().getDataExpiracao());
+    }
+
+    @Test
+    void importar_Csv_DeveIgnorarOCabecalhoEAceitarCamposEntreAspas() throws Exception {
+        Path arquivo = Files.writeString(diretorio.resolve("links.csv"),
+                "\uFEFFcodigo,url\r\nxyz,\"https://a.test/?q=1,2\"\r\nuvw,https://b.test");
+        ImportadorMapeamentos importador = novoImportador(10);
+
+        importador.importar(arquivo);
+
+        assertEquals(2, importador.getImportados());
+        assertEquals("https://a.test/?q=1,2", repositorio.buscarPorCodigoCurto(new CodigoCurto("xyz"))
+                .orElseThrow().getUrlOriginal().getValor());
+    }
+
+    @Test
+    void importar_DeveRetomarDoCheckpointEReiniciarSeOArquivoMudar() throws Exception {
+        Path arquivo = Files.writeString(diretorio.resolve("links.csv"), "a1,https://a.test\na2,https://b.test\n");
+        novoImportador(1).importar(arquivo);
+
+        ImportadorMapeamentos retomado = novoImportador(1);
+        retomado.importar(arquivo);
+        assertEquals(2, retomado.getImportados()); // Totais do checkpoint; nada relido
+        assertEquals(0, retomado.getDuplicados());
+
+        Files.writeString(arquivo, "a3,https://c.test\n", StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        ImportadorMapeamentos reiniciado = novoImportador(1);
+        reiniciado.importar(arquivo);
+        assertEquals(1, reiniciado.getImportados());
+        assertEquals(2, reiniciado.getDuplicados());
+    }
+
+    @Test
+    void camposCsv_DeveSepararPorVirgulaForaDasAspas() {
+        assertEquals(List.of("a", "b,c", ""), ImportadorMapeamentos.camposCsv("a, \"b,c\" ,"));
+        assertEquals(List.of("a", "b \"c\""), ImportadorMapeamentos.camposCsv("a,\"b \"\"c\"\"\""));
+    }
+}
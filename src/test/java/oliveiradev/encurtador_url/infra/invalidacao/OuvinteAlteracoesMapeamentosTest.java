@@ -0,0 +1,169 @@
+package oliveiradev.encurtador_url.infra.invalidacao;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryEmCache;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryFixado;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import oliveiradev.encurtador_url.infra.filtro.FiltroCodigosEmitidos;
+import oliveiradev.encurtador_url.infra.persistence.SpringDataMongoMapeamentoUrlRepositoryImpl;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OuvinteAlteracoesMapeamentosTest {
+
+    @Mock
+    private MongoTemplate mockMongoTemplate;
+
+    @Mock
+    private SpringDataMongoMapeamentoUrlRepositoryImpl mockPersistencia;
+
+    @Mock
+    private MapeamentoUrlRepositoryEmCache mockEmCache;
+
+    @Mock
+    private MapeamentoUrlRepositoryFixado mockFixado;
+
+    @Mock
+    private FiltroCodigosEmitidos mockFiltro;
+
+    @TempDir
+    Path diretorio;
+
+    private OuvinteAlteracoesMapeamentos ouvinte;
+
+    @BeforeEach
+    void configurar() {
+        ouvinte = new OuvinteAlteracoesMapeamentos(mockMongoTemplate, mockPersistencia, mockEmCache, mockFixado, mockFiltro,
+                new FabricaThreads(false), new SimpleMeterRegistry(), diretorio.toString(), 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ChangeStreamDocument<Document> evento(OperationType tipo, Document documento, Document preImagem) {
+        ChangeStreamDocument<Document> evento = mock(ChangeStreamDocument.class);
+        when(evento.getOperationType()).thenReturn(tipo);
+        lenient().when(evento.getFullDocument()).thenReturn(documento);
+        lenient().when(evento.getFullDocumentBeforeChange()).thenReturn(preImagem);
+        return evento;
+    }
+
+    private static Document documento(String codigo) {
+        return new Document("codigoCurto", new Document("valor", codigo));
+    }
+
+    @Test
+    void tratar_Insercao_DeveRegistrarNoFiltroSemInvalidarCaches() {
+        assertTrue(ouvinte.tratar(evento(OperationType.INSERT, documento("Novo1"), null)));
+
+        verify(mockFiltro).registrar(new CodigoCurto("Novo1"));
+        verifyNoInteractions(mockEmCache, mockFixado);
+    }
+
+    @Test
+    void tratar_AtualizacaoETroca_DevemInvalidarOCacheERecarregarOFixado() {
+        assertTrue(ouvinte.tratar(evento(OperationType.UPDATE, documento("Alt1"), null)));
+        assertTrue(ouvinte.tratar(evento(OperationType.REPLACE, documento("Alt2"), null)));
+
+        verify(mockEmCache).invalidar(new CodigoCurto("Alt1"));
+        verify(mockFixado).recarregar(new CodigoCurto("Alt1"));
+        verify(mockEmCache).invalidar(new CodigoCurto("Alt2"));
+        verify(mockFixado).recarregar(new CodigoCurto("Alt2"));
+        verifyNoInteractions(mockFiltro);
+    }
+
+    @Test
+    void tratar_Atualizacao_DeveRegravarORedirecionamentoEnxutoAntesDeInvalidar() {
+        Date expiracao = new Date(System.currentTimeMillis() + 60_000);
+        Document alterado = documento("Alt1")
+                .append("urlOriginal", new Document("valor", "https://nova.test"))
+                .append("dataExpiracao", expiracao);
+
+        assertTrue(ouvinte.tratar(evento(OperationType.UPDATE, alterado, null)));
+
+        InOrder ordem = inOrder(mockPersistencia, mockEmCache);
+        ordem.verify(mockPersistencia).sincronizarRedirecionamento("Alt1", "https://nova.test", expiracao);
+        ordem.verify(mockEmCache).invalidar(new CodigoCurto("Alt1"));
+    }
+
+    @Test
+    void tratar_RemocaoComPreImagem_DeveInvalidarOCacheERecarregarOFixado() {
+        assertTrue(ouvinte.tratar(evento(OperationType.DELETE, null, documento("Rem1"))));
+
+        InOrder ordem = inOrder(mockPersistencia, mockEmCache);
+        ordem.verify(mockPersistencia).removerRedirecionamento("Rem1");
+        ordem.verify(mockEmCache).invalidar(new CodigoCurto("Rem1"));
+        verify(mockFixado).recarregar(new CodigoCurto("Rem1"));
+    }
+
+    @Test
+    void tratar_RemocaoSemPreImagem_NaoDeveFazerNada() {
+        assertTrue(ouvinte.tratar(evento(OperationType.DELETE, null, null)));
+
+        verifyNoInteractions(mockPersistencia, mockEmCache, mockFixado, mockFiltro);
+    }
+
+    @Test
+    void tratar_Invalidacao_DeveRecomecarEsvaziandoOCacheERecarregandoOsFixados() {
+        when(mockFixado.codigosFixados()).thenReturn(Set.of("Fix1", "Fix2"));
+
+        assertFalse(ouvinte.tratar(evento(OperationType.INVALIDATE, null, null)));
+
+        verify(mockEmCache).invalidarTudo();
+        verify(mockFixado).recarregar(new CodigoCurto("Fix1"));
+        verify(mockFixado).recarregar(new CodigoCurto("Fix2"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void acompanhar_HistoricoPerdido_DeveRecomecar() {
+        MongoCollection<Document> colecao = mock(MongoCollection.class);
+        ChangeStreamIterable<Document> stream = mock(ChangeStreamIterable.class, RETURNS_SELF);
+        when(mockMongoTemplate.getCollectionName(any())).thenReturn("mapeamentos_url");
+        when(mockMongoTemplate.getCollection(anyString())).thenReturn(colecao);
+        when(colecao.watch(anyList())).thenReturn(stream);
+        BsonDocument resposta = new BsonDocument("ok", new BsonInt32(0))
+                .append("code", new BsonInt32(286))
+                .append("errmsg", new BsonString("resume point may no longer be in the oplog"));
+        doThrow(new MongoCommandException(resposta, new ServerAddress()))
+                .doAnswer(invocacao -> {
+                    ouvinte.parar(); // Encerra o laço na tentativa seguinte
+                    throw new MongoException("encerrado");
+                })
+                .when(stream).cursor();
+        when(mockFixado.codigosFixados()).thenReturn(Set.of("Fix1"));
+
+        ouvinte.acompanhar();
+
+        verify(mockEmCache).invalidarTudo();
+        verify(mockFixado).recarregar(new CodigoCurto("Fix1"));
+        verify(stream, times(2)).cursor();
+    }
+}
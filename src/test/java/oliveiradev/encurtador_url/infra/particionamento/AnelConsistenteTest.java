@@ -0,0 +1,55 @@
+package oliveiradev.encurtador_url.infra.particionamento;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnelConsistenteTest {
+
+    private static final int CHAVES = 100_000;
+
+    @Test
+    void dono_DeveDistribuirAsChavesDeFormaEquilibrada() {
+        AnelConsistente anel = new AnelConsistente(List.of("p0", "p1", "p2", "p3"), 256);
+        Map<String, Integer> porParticao = new HashMap<>();
+
+        for (int i = 0; i < CHAVES; i++) {
+            porParticao.merge(anel.dono("codigo" + i), 1, Integer::sum);
+        }
+
+        assertEquals(4, porParticao.size());
+        porParticao.values().forEach(quantidade ->
+                assertTrue(Math.abs(quantidade - CHAVES / 4) < CHAVES / 4 * 0.2, "partição desequilibrada: " + quantidade));
+    }
+
+    @Test
+    void dono_AoIncluirUmaParticao_SoDeveMoverChavesParaEla() {
+        AnelConsistente antes = new AnelConsistente(List.of("p0", "p1", "p2"), 256);
+        AnelConsistente depois = new AnelConsistente(List.of("p0", "p1", "p2", "p3"), 256);
+        int movidas = 0;
+
+        for (int i = 0; i < CHAVES; i++) {
+            String chave = "codigo" + i;
+            if (!antes.dono(chave).equals(depois.dono(chave))) {
+                assertEquals("p3", depois.dono(chave));
+                movidas++;
+            }
+        }
+
+        assertTrue(Math.abs(movidas - CHAVES / 4) < CHAVES / 4 * 0.2, "chaves movidas: " + movidas);
+    }
+
+    @Test
+    void dono_NaoDeveDependerDaOrdemDasParticoes() {
+        AnelConsistente anel = new AnelConsistente(List.of("p0", "p1", "p2"), 64);
+        AnelConsistente invertido = new AnelConsistente(List.of("p2", "p1", "p0"), 64);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(anel.dono("codigo" + i), invertido.dono("codigo" + i));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.expiracao.AgendadorExpiracao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapeamentoUrlRepositoryEmMemoriaTest {
+
+    private final MapeamentoUrlRepositoryEmMemoria repositorio = new MapeamentoUrlRepositoryEmMemoria();
+
+    private MapeamentoUrl mapeamento(String codigo, String url) {
+        return mapeamento(codigo, url, null);
+    }
+
+    // Com impressão digital, como grava a deduplicação ligada
+    private MapeamentoUrl mapeamento(String codigo, String url, LocalDateTime dataExpiracao) {
+        UrlOriginal urlOriginal = new UrlOriginal(url);
+        return new MapeamentoUrl(new CodigoCurto(codigo), urlOriginal, dataExpiracao, urlOriginal.impressaoDigital());
+    }
+
+    @Test
+    void salvar_ComCodigoJaExistente_DeveLancarDuplicateKeyException() {
+        repositorio.salvar(mapeamento("abc", "https://a.com"));
+
+        assertThrows(DuplicateKeyException.class, () -> repositorio.salvar(mapeamento("abc", "https://b.com")));
+        assertEquals("https://a.com", repositorio.buscarPorCodigoCurto(new CodigoCurto("abc")).orElseThrow()
+                .getUrlOriginal().getValor());
+    }
+
+    @Test
+    void inserirEmLote_DeveReportarApenasOsIndicesDuplicados() {
+        repositorio.salvar(mapeamento("existe", "https://a.com"));
+
+        ResultadoInsercaoLote resultado = repositorio.inserirEmLote(List.of(
+                mapeamento("novo1", "https://b.com"),
+                mapeamento("existe", "https://c.com"),
+                mapeamento("novo2", "https://d.com")));
+
+        assertEquals(Set.of(1), resultado.getIndicesDuplicados());
+        assertTrue(repositorio.existeCodigoCurto(new CodigoCurto("novo2")));
+    }
+
+    @Test
+    void incrementarContadoresAcesso_DeveSomarDeltasEIgnorarCodigosInexistentes() {
+        repositorio.salvar(mapeamento("abc", "https://a.com"));
+
+        repositorio.incrementarContadoresAcesso(Map.of(new CodigoCurto("abc"), 5L, new CodigoCurto("sumiu"), 3L));
+
+        assertEquals(5L, repositorio.buscarPorCodigoCurto(new CodigoCurto("abc")).orElseThrow().getContadorAcessos());
+    }
+
+    @Test
+    void buscarPorImpressaoDigitalEPercorrer_DevemEnxergarOsMapeamentosSalvos() {
+        MapeamentoUrl salvo = repositorio.salvar(mapeamento("abc", "https://Exemplo.com/x"));
+        repositorio.salvar(mapeamento("def", "https://outro.com"));
+
+        assertEquals(List.of(salvo), repositorio.buscarPorImpressaoDigital(new UrlOriginal("https://exemplo.com/x").impressaoDigital()));
+        List<CodigoCurto> percorridos = new ArrayList<>();
+        repositorio.percorrerCodigosCurtos(null, percorridos::add);
+        assertEquals(2, percorridos.size());
+    }
+
+    @Test
+    void agendadorExpiracao_DeveRemoverNoVencimentoApenasOsMapeamentosExpirados() {
+        AgendadorExpiracao agendador = new AgendadorExpiracao(1000, new SimpleMeterRegistry());
+        MapeamentoUrlRepositoryEmMemoria comExpiracao = new MapeamentoUrlRepositoryEmMemoria(agendador);
+        LocalDateTime expiracao = LocalDateTime.now().plusMinutes(5);
+        comExpiracao.salvar(mapeamento("curto", "https://a.com", expiracao));
+        comExpiracao.salvar(mapeamento("longo", "https://a.com", expiracao.plusDays(1)));
+        comExpiracao.salvar(mapeamento("eterno", "https://b.com"));
+        long expiraEmMs = expiracao.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        assertEquals(0, agendador.avancarAte(expiraEmMs - 1000));
+        assertTrue(comExpiracao.existeCodigoCurto(new CodigoCurto("curto")));
+
+        assertEquals(1, agendador.avancarAte(expiraEmMs + 1000));
+
+        assertFalse(comExpiracao.existeCodigoCurto(new CodigoCurto("curto")));
+        assertTrue(comExpiracao.existeCodigoCurto(new CodigoCurto("longo")));
+        assertTrue(comExpiracao.existeCodigoCurto(new CodigoCurto("eterno")));
+        assertEquals(1, comExpiracao.buscarPorImpressaoDigital(new UrlOriginal("https://a.com").impressaoDigital()).size());
+        assertEquals(1, agendador.getAgendados());
+    }
+}
@@ -0,0 +1,161 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.armazenamento.CodigoCompactado;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapeamentoUrlRepositoryMapeadoTest {
+
+    @TempDir
+    Path diretorio;
+
+    private MapeamentoUrlRepositoryMapeado repositorio;
+
+    private MapeamentoUrlRepositoryMapeado abrir(int tamanhoSegmento) {
+        repositorio = new MapeamentoUrlRepositoryMapeado(diretorio, tamanhoSegmento, 16, 0.5, null);
+        return repositorio;
+    }
+
+    private MapeamentoUrlRepositoryMapeado reabrir(int tamanhoSegmento) {
+        repositorio.fechar();
+        return abrir(tamanhoSegmento);
+    }
+
+    @AfterEach
+    void fechar() {
+        if (repositorio != null) {
+            repositorio.fechar();
+        }
+    }
+
+    // Com impressão digital, como grava a deduplicação ligada
+    private static MapeamentoUrl mapeamento(String codigo, String url, LocalDateTime dataExpiracao) {
+        UrlOriginal urlOriginal = new UrlOriginal(url);
+        return new MapeamentoUrl(new CodigoCurto(codigo), urlOriginal, dataExpiracao, urlOriginal.impressaoDigital());
+    }
+
+    @Test
+    void codigoCompactado_DeveIdaEVoltaComOitoCaracteresEmQuarentaEOitoBits() {
+        long compactado = CodigoCompactado.compactar("aZ09-_Qx");
+
+        assertEquals(8L, compactado >>> 60);
+        assertEquals(0L, (compactado >>> 48) & 0xFFF);
+        assertEquals("aZ09-_Qx", CodigoCompactado.descompactar(compactado));
+        assertEquals(CodigoCompactado.INVALIDO, CodigoCompactado.compactar("com espaço"));
+    }
+
+    @Test
+    void salvar_DeveServirDestinoComLocationCodificadoERecusarDuplicado() {
+        abrir(1 << 16);
+        repositorio.salvar(mapeamento("Abc12345", "https://destino.test/ação", null));
+
+        DestinoRedirecionamento destino = repositorio.buscarDestinoRedirecionamento(new CodigoCurto("Abc12345")).orElseThrow();
+
+        assertEquals("https://destino.test/a%C3%A7%C3%A3o", destino.getLocation());
+        assertEquals(DestinoRedirecionamento.SEM_EXPIRACAO, destino.getExpiraEmMs());
+        assertThrows(DuplicateKeyException.class,
+                () -> repositorio.salvar(mapeamento("Abc12345", "https://outro.test", null)));
+        assertTrue(repositorio.buscarDestinoRedirecionamento(new CodigoCurto("Nenhum00")).isEmpty());
+    }
+
+    @Test
+    void inserirEmLote_DeveReportarDuplicadosECodigosIncompativeis() {
+        abrir(1 << 16);
+        repositorio.salvar(mapeamento("existe00", "https://a.test", null));
+
+        ResultadoInsercaoLote resultado = repositorio.inserirEmLote(List.of(
+                mapeamento("novo0001", "https://b.test", null),
+                mapeamento("existe00", "https://c.test", null),
+                mapeamento("inválido", "https://d.test", null)));
+
+        assertEquals(Set.of(1), resultado.getIndicesDuplicados());
+        assertTrue(resultado.isInserido(0));
+        assertFalse(resultado.isInserido(2));
+        assertTrue(repositorio.existeCodigoCurto(new CodigoCurto("novo0001")));
+    }
+
+    @Test
+    void reabrir_DeveRecuperarMapeamentosContadoresERemocoes() {
+        abrir(1 << 16);
+        repositorio.salvar(mapeamento("fica0001", "https://fica.test", LocalDateTime.now().plusDays(1)));
+        repositorio.salvar(mapeamento("sai00001", "https://sai.test", LocalDateTime.now().minusMinutes(1)));
+        repositorio.incrementarContadoresAcesso(Map.of(new CodigoCurto("fica0001"), 7L));
+        assertEquals(1, repositorio.removerExpirados(LocalDateTime.now(), 10));
+
+        reabrir(1 << 16);
+
+        MapeamentoUrl recuperado = repositorio.buscarPorCodigoCurto(new CodigoCurto("fica0001")).orElseThrow();
+        assertEquals("https://fica.test", recuperado.getUrlOriginal().getValor());
+        assertEquals(7L, recuperado.getContadorAcessos());
+        assertNotNull(recuperado.getDataExpiracao());
+        assertFalse(repositorio.existeCodigoCurto(new CodigoCurto("sai00001")));
+        assertEquals(1, repositorio.buscarPorImpressaoDigital(new UrlOriginal("https://fica.test").impressaoDigital()).size());
+    }
+
+    @Test
+    void reabrir_ComCaudaRasgada_DeveDescartarORegistroIncompletoEContinuarGravando() throws IOException {
+        abrir(1 << 16);
+        repositorio.salvar(mapeamento("integro1", "https://integro.test", null));
+        repositorio.fechar();
+        Path segmento;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmento = arquivos.filter(arquivo -> arquivo.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        long fimDosRegistros;
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            fimDosRegistros = 16 + 80; // Cabeçalho + registro alinhado (60 bytes fixos + 20 da URL)
+            canal.write(ByteBuffer.wrap(new byte[]{0x40, 0, 0, 0, 1, 2, 3, 4, 1, 9, 9}), fimDosRegistros); // Meio registro
+        }
+
+        abrir(1 << 16);
+        repositorio.salvar(mapeamento("depois01", "https://depois.test", null));
+        reabrir(1 << 16);
+
+        assertTrue(repositorio.existeCodigoCurto(new CodigoCurto("integro1")));
+        assertTrue(repositorio.existeCodigoCurto(new CodigoCurto("depois01")));
+        assertEquals(2, repositorio.quantidadeMapeamentos());
+    }
+
+    @Test
+    void compactar_DeveReescreverSegmentosFragmentadosSemPerderMapeamentosVivos() {
+        abrir(4096);
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime expiracao = i % 10 == 0 ? null : LocalDateTime.now().minusMinutes(1);
+            repositorio.salvar(mapeamento(String.format("c%07d", i), "https://destino.test/" + i, expiracao));
+        }
+        repositorio.removerExpirados(LocalDateTime.now(), 1000);
+        int segmentosAntes = repositorio.quantidadeSegmentos();
+
+        repositorio.compactar();
+
+        assertTrue(repositorio.quantidadeSegmentos() < segmentosAntes);
+        reabrir(4096);
+        assertEquals(20, repositorio.quantidadeMapeamentos());
+        for (int i = 0; i < 200; i += 10) {
+            assertEquals("https://destino.test/" + i, repositorio.buscarPorCodigoCurto(new CodigoCurto(String.format("c%07d", i)))
+                    .orElseThrow().getUrlOriginal().getValor());
+        }
+        assertFalse(repositorio.existeCodigoCurto(new CodigoCurto("c0000001")));
+    }
+}
@@ -0,0 +1,147 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.particionamento.AnelConsistente;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MapeamentoUrlRepositoryParticionadoTest {
+
+    @Mock
+    private SpringDataMongoMapeamentoUrlRepositoryImpl mockP0;
+
+    @Mock
+    private SpringDataMongoMapeamentoUrlRepositoryImpl mockP1;
+
+    private final AnelConsistente anel = new AnelConsistente(List.of("p0", "p1"), 64);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private MapeamentoUrlRepositoryParticionado repositorio(AnelConsistente anelAnterior) {
+        return new MapeamentoUrlRepositoryParticionado(Map.of("p0", mockP0, "p1", mockP1), anel, anelAnterior, executor);
+    }
+
+    // Primeiro código "c<n>" que o anel atual entrega à partição pedida.
+    private String codigoDe(String particao, int aPartirDe) {
+        for (int i = aPartirDe; ; i++) {
+            if (anel.dono("c" + i).equals(particao)) {
+                return "c" + i;
+            }
+        }
+    }
+
+    private MapeamentoUrl mapeamento(String codigo) {
+        return new MapeamentoUrl(new CodigoCurto(codigo), new UrlOriginal("https://" + codigo + ".test"), null);
+    }
+
+    @Test
+    void buscarDestinoRedirecionamento_DeveIrApenasAoDonoDoCodigo() {
+        CodigoCurto codigo = new CodigoCurto(codigoDe("p1", 0));
+        when(mockP1.buscarDestinoRedirecionamento(codigo)).thenReturn(Optional.of(
+                DestinoRedirecionamento.de(codigo, "https://p1.test", DestinoRedirecionamento.SEM_EXPIRACAO)));
+
+        Optional<DestinoRedirecionamento> destino = repositorio(null).buscarDestinoRedirecionamento(codigo);
+
+        assertEquals("https://p1.test", destino.orElseThrow().getLocation());
+        verifyNoInteractions(mockP0);
+    }
+
+    @Test
+    void buscarDestinoRedirecionamento_DuranteRebalanceamento_DeveCairNoDonoAnterior() {
+        CodigoCurto codigo = new CodigoCurto(codigoDe("p1", 0));
+        when(mockP1.buscarDestinoRedirecionamento(codigo)).thenReturn(Optional.empty());
+        when(mockP0.buscarDestinoRedirecionamento(codigo)).thenReturn(Optional.of(
+                DestinoRedirecionamento.de(codigo, "https://p0.test", DestinoRedirecionamento.SEM_EXPIRACAO)));
+
+        Optional<DestinoRedirecionamento> destino =
+                repositorio(new AnelConsistente(List.of("p0"), 64)).buscarDestinoRedirecionamento(codigo);
+
+        assertEquals("https://p0.test", destino.orElseThrow().getLocation());
+    }
+
+    @Test
+    void inserirEmLote_DeveDevolverOsIndicesNaPosicaoDoLoteOriginal() {
+        String a = codigoDe("p0", 0);
+        String b = codigoDe("p1", 0);
+        String c = codigoDe("p0", Integer.parseInt(a.substring(1)) + 1);
+        when(mockP0.inserirEmLote(anyList())).thenReturn(new ResultadoInsercaoLote(Set.of(1), Map.of()));
+        when(mockP1.inserirEmLote(anyList())).thenReturn(new ResultadoInsercaoLote(Set.of(), Map.of(0, "falhou")));
+
+        ResultadoInsercaoLote resultado = repositorio(null).inserirEmLote(List.of(mapeamento(a), mapeamento(b), mapeamento(c)));
+
+        assertEquals(Set.of(2), resultado.getIndicesDuplicados());
+        assertEquals(Map.of(1, "falhou"), resultado.getErrosPorIndice());
+    }
+
+    @Test
+    void buscarPorUrlOriginal_DeveConsultarTodasAsParticoes() {
+        UrlOriginal url = new UrlOriginal("https://procurada.test");
+        when(mockP0.buscarPorUrlOriginal(url)).thenReturn(Optional.empty());
+        when(mockP1.buscarPorUrlOriginal(url)).thenReturn(Optional.of(mapeamento("achado")));
+
+        Optional<MapeamentoUrl> encontrado = repositorio(null).buscarPorUrlOriginal(url);
+
+        assertEquals("achado", encontrado.orElseThrow().getCodigoCurto().getValor());
+    }
+
+    @Test
+    void incrementarContadoresAcesso_DuranteRebalanceamento_DeveIrTambemAoDonoAnterior() {
+        CodigoCurto codigo = new CodigoCurto(codigoDe("p1", 0));
+
+        repositorio(new AnelConsistente(List.of("p0"), 64)).incrementarContadoresAcesso(Map.of(codigo, 3L));
+
+        verify(mockP1).incrementarContadoresAcesso(Map.of(codigo, 3L));
+        verify(mockP0).incrementarContadoresAcesso(Map.of(codigo, 3L));
+        verify(mockP0, never()).inserirEmLote(any());
+    }
+
+    @Test
+    void salvar_DuranteRebalanceamento_CodigoAindaNoDonoAnterior_DeveRecusar() {
+        MapeamentoUrl novo = mapeamento(codigoDe("p1", 0));
+        when(mockP0.existeCodigoCurto(novo.getCodigoCurto())).thenReturn(true);
+
+        assertThrows(DuplicateKeyException.class,
+                () -> repositorio(new AnelConsistente(List.of("p0"), 64)).salvar(novo));
+
+        verify(mockP1, never()).salvar(any());
+    }
+
+    @Test
+    void inserirEmLote_DuranteRebalanceamento_CodigoAindaNoDonoAnterior_DeveVoltarComoDuplicado() {
+        String a = codigoDe("p1", 0);
+        String b = codigoDe("p1", Integer.parseInt(a.substring(1)) + 1);
+        when(mockP0.buscarPorCodigos(any())).thenReturn(List.of(mapeamento(a)));
+        when(mockP1.inserirEmLote(anyList())).thenReturn(ResultadoInsercaoLote.semFalhas());
+
+        ResultadoInsercaoLote resultado = repositorio(new AnelConsistente(List.of("p0"), 64))
+                .inserirEmLote(List.of(mapeamento(a), mapeamento(b)));
+
+        assertEquals(Set.of(0), resultado.getIndicesDuplicados());
+        verify(mockP1).inserirEmLote(List.of(mapeamento(b)));
+    }
+}
@@ -0,0 +1,111 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.ResultadoInsercaoLote;
+import oliveiradev.encurtador_url.infra.concorrencia.FabricaThreads;
+import oliveiradev.encurtador_url.infra.particionamento.AnelConsistente;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RebalanceadorParticoesTest {
+
+    @Mock
+    private SpringDataMongoMapeamentoUrlRepositoryImpl mockP0;
+
+    @Mock
+    private SpringDataMongoMapeamentoUrlRepositoryImpl mockP1;
+
+    private final AnelConsistente anel = new AnelConsistente(List.of("p0", "p1"), 64);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private RebalanceadorParticoes rebalanceador;
+    private String ficaEmP0;
+    private String vaiParaP1;
+    private String outroParaP1;
+
+    @BeforeEach
+    void configurar() {
+        MapeamentoUrlRepositoryParticionado repositorio = new MapeamentoUrlRepositoryParticionado(
+                Map.of("p0", mockP0, "p1", mockP1), anel, new AnelConsistente(List.of("p0"), 64), executor);
+        rebalanceador = new RebalanceadorParticoes(repositorio, new FabricaThreads(false), 100);
+        ficaEmP0 = codigoDe("p0", 0);
+        vaiParaP1 = codigoDe("p1", 0);
+        outroParaP1 = codigoDe("p1", Integer.parseInt(vaiParaP1.substring(1)) + 1);
+        doAnswer(invocacao -> {
+            Consumer<CodigoCurto> consumidor = invocacao.getArgument(1);
+            List.of(ficaEmP0, vaiParaP1, outroParaP1).forEach(codigo -> consumidor.accept(new CodigoCurto(codigo)));
+            return null;
+        }).when(mockP0).percorrerCodigosCurtos(any(), any());
+    }
+
+    @AfterEach
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private String codigoDe(String particao, int aPartirDe) {
+        for (int i = aPartirDe; ; i++) {
+            if (anel.dono("c" + i).equals(particao)) {
+                return "c" + i;
+            }
+        }
+    }
+
+    private MapeamentoUrl mapeamento(String codigo, String url, long contadorAcessos) {
+        return MapeamentoUrl.reconstituir(new CodigoCurto(codigo), new UrlOriginal(url), null, null,
+                contadorAcessos, null);
+    }
+
+    @Test
+    void executar_DeveMoverSoOsCodigosDeOutroDonoELevarOsAcessosRecebidosDuranteACopia() {
+        when(mockP0.buscarPorCodigos(List.of(vaiParaP1, outroParaP1))).thenReturn(
+                List.of(mapeamento(vaiParaP1, "https://a.test", 5), mapeamento(outroParaP1, "https://b.test", 0)),
+                List.of(mapeamento(vaiParaP1, "https://a.test", 7), mapeamento(outroParaP1, "https://b.test", 0)));
+        when(mockP1.inserirEmLote(anyList())).thenReturn(ResultadoInsercaoLote.semFalhas());
+        when(mockP1.buscarPorCodigos(List.of(vaiParaP1, outroParaP1))).thenReturn(
+                List.of(mapeamento(vaiParaP1, "https://a.test", 5), mapeamento(outroParaP1, "https://b.test", 0)));
+
+        rebalanceador.executar();
+
+        verify(mockP1).incrementarContadoresAcesso(Map.of(new CodigoCurto(vaiParaP1), 2L));
+        verify(mockP0).removerPorCodigos(List.of(vaiParaP1, outroParaP1));
+        assertEquals(3, rebalanceador.getVerificados());
+        assertEquals(2, rebalanceador.getMovidos());
+        assertEquals(0, rebalanceador.getFalhas());
+    }
+
+    @Test
+    void executar_DuplicadoComOutraUrlNoDestino_DeveManterNaOrigem() {
+        List<MapeamentoUrl> naOrigem =
+                List.of(mapeamento(vaiParaP1, "https://a.test", 0), mapeamento(outroParaP1, "https://b.test", 0));
+        when(mockP0.buscarPorCodigos(List.of(vaiParaP1, outroParaP1))).thenReturn(naOrigem);
+        when(mockP1.inserirEmLote(anyList())).thenReturn(new ResultadoInsercaoLote(Set.of(1), Map.of()));
+        when(mockP1.buscarPorCodigos(List.of(vaiParaP1, outroParaP1))).thenReturn(
+                List.of(mapeamento(vaiParaP1, "https://a.test", 0), mapeamento(outroParaP1, "https://outra.test", 0)));
+
+        rebalanceador.executar();
+
+        verify(mockP0).removerPorCodigos(List.of(vaiParaP1));
+        verify(mockP1, never()).incrementarContadoresAcesso(any());
+        assertEquals(1, rebalanceador.getMovidos());
+        assertEquals(1, rebalanceador.getFalhas());
+    }
+}
@@ -0,0 +1,167 @@
+package oliveiradev.encurtador_url.infra.persistence;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpringDataMongoMapeamentoUrlRepositoryImplTest {
+
+    private static final String COLECAO = "mapeamentos_url";
+    private static final String COLECAO_REDIRECIONAMENTOS = "redirecionamentos";
+
+    @Mock
+    private InternalSpringDataMongoRepository mockRepositorioInterno;
+
+    @Mock
+    private MongoTemplate mockPrimario;
+
+    @Mock
+    private MongoTemplate mockSecundario;
+
+    @Mock
+    private BulkOperations mockOperacoes;
+
+    private final CodigoCurto codigo = new CodigoCurto("Recente1");
+    private final List<Runnable> reparosAgendados = new ArrayList<>();
+
+    @BeforeEach
+    void configurar() {
+        when(mockPrimario.getCollectionName(MapeamentoUrl.class)).thenReturn(COLECAO);
+    }
+
+    private SpringDataMongoMapeamentoUrlRepositoryImpl repositorio(MongoTemplate modeloLeitura) {
+        return new SpringDataMongoMapeamentoUrlRepositoryImpl(mockRepositorioInterno, mockPrimario, modeloLeitura,
+                "ttl", 0, false, false, reparosAgendados::add);
+    }
+
+    private SpringDataMongoMapeamentoUrlRepositoryImpl repositorioComColecaoEnxuta() {
+        return new SpringDataMongoMapeamentoUrlRepositoryImpl(mockRepositorioInterno, mockPrimario, mockPrimario,
+                "ttl", 0, true, false, reparosAgendados::add);
+    }
+
+    private MapeamentoUrl mapeamento() {
+        return new MapeamentoUrl(codigo, new UrlOriginal("https://recente.test"), null);
+    }
+
+    @Test
+    void buscarPorCodigoCurto_AchadoNoSecundario_NaoDeveIrAoPrimario() {
+        when(mockSecundario.findOne(any(Query.class), eq(MapeamentoUrl.class))).thenReturn(mapeamento());
+
+        Optional<MapeamentoUrl> encontrado = repositorio(mockSecundario).buscarPorCodigoCurto(codigo);
+
+        assertTrue(encontrado.isPresent());
+        verifyNoInteractions(mockRepositorioInterno);
+    }
+
+    @Test
+    void buscarPorCodigoCurto_AusenteNoSecundario_DeveLerDoPrimario() {
+        when(mockSecundario.findOne(any(Query.class), eq(MapeamentoUrl.class))).thenReturn(null);
+        when(mockRepositorioInterno.findByCodigoCurto_Valor("Recente1")).thenReturn(Optional.of(mapeamento()));
+
+        Optional<MapeamentoUrl> encontrado = repositorio(mockSecundario).buscarPorCodigoCurto(codigo);
+
+        assertEquals("https://recente.test", encontrado.orElseThrow().getUrlOriginal().getValor());
+    }
+
+    @Test
+    void buscarDestinoRedirecionamento_AusenteNoSecundario_DeveLerDoPrimario() {
+        when(mockSecundario.findOne(any(Query.class), eq(Document.class), eq(COLECAO))).thenReturn(null);
+        when(mockPrimario.findOne(any(Query.class), eq(Document.class), eq(COLECAO)))
+                .thenReturn(new Document("urlOriginal", new Document("valor", "https://recente.test")));
+
+        Optional<DestinoRedirecionamento> destino = repositorio(mockSecundario).buscarDestinoRedirecionamento(codigo);
+
+        assertEquals("https://recente.test", destino.orElseThrow().getLocation());
+        assertFalse(destino.get().isExpirado(System.currentTimeMillis()));
+    }
+
+    @Test
+    void buscarDestinoRedirecionamento_LeituraNoPrimario_DeveConsultarUmaUnicaVez() {
+        when(mockPrimario.findOne(any(Query.class), eq(Document.class), eq(COLECAO))).thenReturn(null);
+
+        Optional<DestinoRedirecionamento> destino = repositorio(mockPrimario).buscarDestinoRedirecionamento(codigo);
+
+        assertTrue(destino.isEmpty());
+        verify(mockPrimario, times(1)).findOne(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    void inserirEmLote_ComColecaoEnxuta_DeveGravarRedirecionamentosNumUnicoBulk() {
+        when(mockPrimario.bulkOps(BulkOperations.BulkMode.UNORDERED, MapeamentoUrl.class)).thenReturn(mockOperacoes);
+        when(mockPrimario.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO_REDIRECIONAMENTOS)).thenReturn(mockOperacoes);
+        when(mockOperacoes.insert(anyList())).thenReturn(mockOperacoes);
+        MapeamentoUrl outro = new MapeamentoUrl(new CodigoCurto("Recente2"), new UrlOriginal("https://outro.test"), null);
+
+        repositorioComColecaoEnxuta().inserirEmLote(List.of(mapeamento(), outro));
+
+        verify(mockOperacoes, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(mockOperacoes, times(2)).execute(); // Um para os mapeamentos, um para os redirecionamentos
+        verify(mockPrimario, never()).save(any(Document.class), anyString());
+    }
+
+    @Test
+    void buscarDestinoRedirecionamento_AusenteNaColecaoEnxuta_DeveRepararEmSegundoPlano() {
+        when(mockPrimario.findById("Recente1", Document.class, COLECAO_REDIRECIONAMENTOS)).thenReturn(null);
+        when(mockPrimario.findOne(any(Query.class), eq(Document.class), eq(COLECAO)))
+                .thenReturn(new Document("urlOriginal", new Document("valor", "https://recente.test")));
+        SpringDataMongoMapeamentoUrlRepositoryImpl repositorio = repositorioComColecaoEnxuta();
+
+        Optional<DestinoRedirecionamento> destino = repositorio.buscarDestinoRedirecionamento(codigo);
+        repositorio.buscarDestinoRedirecionamento(codigo); // Já pendente: não agenda de novo
+
+        assertEquals("https://recente.test", destino.orElseThrow().getLocation());
+        verify(mockPrimario, never()).bulkOps(any(BulkOperations.BulkMode.class), anyString());
+        assertEquals(1, reparosAgendados.size());
+
+        when(mockPrimario.bulkOps(BulkOperations.BulkMode.UNORDERED, COLECAO_REDIRECIONAMENTOS)).thenReturn(mockOperacoes);
+        reparosAgendados.get(0).run();
+
+        verify(mockOperacoes).upsert(any(Query.class), any(Update.class));
+        verify(mockOperacoes).execute();
+    }
+
+    @Test
+    void sincronizarRedirecionamento_ComColecaoEnxuta_DeveRegravarOuRemoverODocumentoDoCodigo() {
+        SpringDataMongoMapeamentoUrlRepositoryImpl repositorio = repositorioComColecaoEnxuta();
+
+        repositorio.sincronizarRedirecionamento("Alt1", "https://nova.test", null);
+        repositorio.removerRedirecionamento("Rem1");
+
+        verify(mockPrimario).upsert(any(Query.class), any(Update.class), eq(COLECAO_REDIRECIONAMENTOS));
+        verify(mockPrimario).remove(any(Query.class), eq(COLECAO_REDIRECIONAMENTOS));
+    }
+
+    @Test
+    void sincronizarRedirecionamento_SemColecaoEnxuta_NaoDeveGravar() {
+        SpringDataMongoMapeamentoUrlRepositoryImpl repositorio = repositorio(mockPrimario);
+
+        repositorio.sincronizarRedirecionamento("Alt1", "https://nova.test", null);
+        repositorio.removerRedirecionamento("Rem1");
+
+        verify(mockPrimario, never()).upsert(any(Query.class), any(Update.class), anyString());
+        verify(mockPrimario, never()).remove(any(Query.class), anyString());
+    }
+}
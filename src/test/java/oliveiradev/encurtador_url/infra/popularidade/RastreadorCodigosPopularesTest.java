@@ -0,0 +1,99 @@
+package oliveiradev.encurtador_url.infra.popularidade;
+
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.MapeamentoUrl;
+import oliveiradev.encurtador_url.domain.model.UrlOriginal;
+import oliveiradev.encurtador_url.domain.repository.MapeamentoUrlRepository;
+import oliveiradev.encurtador_url.infra.cache.MapeamentoUrlRepositoryFixado;
+import oliveiradev.encurtador_url.infra.persistence.MapeamentoUrlRepositoryEmMemoria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RastreadorCodigosPopularesTest {
+
+    private MapeamentoUrlRepositoryEmMemoria persistencia;
+    private MapeamentoUrlRepositoryFixado repositorioFixado;
+    private RastreadorCodigosPopulares rastreador;
+
+    @BeforeEach
+    void setUp() {
+        persistencia = new MapeamentoUrlRepositoryEmMemoria();
+        repositorioFixado = new MapeamentoUrlRepositoryFixado(persistencia);
+        rastreador = new RastreadorCodigosPopulares(repositorioFixado, 3, 10, 1024);
+        for (int i = 0; i < 50; i++) {
+            persistencia.salvar(new MapeamentoUrl(new CodigoCurto("c" + i), new UrlOriginal("https://destino.test/" + i), null));
+        }
+    }
+
+    private void acessar(String codigo, int vezes) {
+        for (int i = 0; i < vezes; i++) {
+            rastreador.registrarAcesso(new CodigoCurto(codigo));
+        }
+    }
+
+    @Test
+    void listar_DeveManterOsKMaisAcessadosEmOrdemDecrescente() {
+        for (int i = 0; i < 50; i++) {
+            acessar("c" + i, 5); // Cauda longa abaixo do mínimo
+        }
+        acessar("c7", 500);
+        acessar("c3", 300);
+        acessar("c9", 200);
+        acessar("c1", 100);
+
+        List<RastreadorCodigosPopulares.CodigoPopular> populares = rastreador.listar();
+
+        assertEquals(List.of("c7", "c3", "c9"), populares.stream().map(RastreadorCodigosPopulares.CodigoPopular::getCodigoCurto).toList());
+        assertTrue(populares.get(0).getAcessosEstimados() >= 505);
+    }
+
+    @Test
+    void atualizarFixados_DeveFixarOTopoEServirPeloCaminhoRapido() {
+        acessar("c7", 50);
+
+        rastreador.atualizarFixados();
+
+        assertEquals(Set.of("c7"), repositorioFixado.codigosFixados());
+        assertEquals("https://destino.test/7",
+                repositorioFixado.buscarDestinoEmCache("c7").getLocation());
+        assertNull(repositorioFixado.buscarDestinoEmCache("c8"));
+        assertTrue(rastreador.listar().get(0).isFixado());
+    }
+
+    @Test
+    void decair_DeveTirarDoTopoCodigosQueEsfriaram() {
+        acessar("c7", 30);
+        rastreador.atualizarFixados();
+
+        rastreador.decair(); // 30 -> 15
+        assertEquals(1, rastreador.listar().size());
+        rastreador.decair(); // 15 -> 7, abaixo do mínimo
+        rastreador.atualizarFixados();
+
+        assertTrue(rastreador.listar().isEmpty());
+        assertTrue(repositorioFixado.codigosFixados().isEmpty());
+    }
+
+    @Test
+    void buscarPorCodigoCurto_ComCodigoFixado_NaoDeveConsultarODelegado() {
+        MapeamentoUrlRepository delegado = mock(MapeamentoUrlRepository.class);
+        CodigoCurto codigo = new CodigoCurto("quente");
+        when(delegado.buscarPorCodigoCurto(codigo)).thenReturn(Optional.of(
+                new MapeamentoUrl(codigo, new UrlOriginal("https://quente.test"), null)));
+        MapeamentoUrlRepositoryFixado fixado = new MapeamentoUrlRepositoryFixado(delegado);
+
+        fixado.fixarSomente(Set.of("quente"));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(fixado.buscarPorCodigoCurto(codigo).isPresent());
+        }
+
+        verify(delegado, times(1)).buscarPorCodigoCurto(codigo); // Apenas a carga ao fixar
+    }
+}
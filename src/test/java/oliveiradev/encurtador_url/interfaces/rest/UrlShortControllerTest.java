@@ -1,8 +1,12 @@
 package oliveiradev.encurtador_url.interfaces.rest;
 
+import oliveiradev.encurtador_url.application.dto.DtoResultadoItemLote;
 import oliveiradev.encurtador_url.application.dto.DtoUrlEncurtada;
 import oliveiradev.encurtador_url.application.service.AplicacaoEncurtadorService;
+import oliveiradev.encurtador_url.domain.model.CodigoCurto;
+import oliveiradev.encurtador_url.domain.model.DestinoRedirecionamento;
 import oliveiradev.encurtador_url.interfaces.rest.dto.EncurtarUrlHttpRequest;
+import oliveiradev.encurtador_url.interfaces.rest.dto.EncurtarUrlLoteHttpRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,12 +18,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -70,17 +77,59 @@ class UrlShortControllerTest {
                 .andExpect(jsonPath("$.dataExpiracao", is(dataExpiracaoTeste.format(isoFormatter))));
     }
 
+    @Test
+    void encurtarUrlsEmLote_ComFalhaEmUmItem_DeveRetornarResultadoPorItem() throws Exception {
+        EncurtarUrlLoteHttpRequest request = new EncurtarUrlLoteHttpRequest(List.of(
+                new EncurtarUrlHttpRequest("https://lote.ok.com", null),
+                new EncurtarUrlHttpRequest("https://lote.falha.com", 30L)));
+        DtoUrlEncurtada dtoOk = new DtoUrlEncurtada(
+                "https://lote.ok.com", "LoteOk1", BASE_URL_TESTE + "/LoteOk1", 0L, dataCriacaoTeste, null);
+
+        when(mockServicoAplicacao.encurtarUrlsEmLote(anyList())).thenReturn(List.of(
+                new DtoResultadoItemLote(0, dtoOk, null),
+                new DtoResultadoItemLote(1, null, "falha de escrita")));
+
+        mockMvc.perform(post("/api/v1/encurtar/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sucesso", is(true)))
+                .andExpect(jsonPath("$[0].urlEncurtada", is(BASE_URL_TESTE + "/LoteOk1")))
+                .andExpect(jsonPath("$[1].sucesso", is(false)))
+                .andExpect(jsonPath("$[1].urlOriginal", is("https://lote.falha.com")))
+                .andExpect(jsonPath("$[1].erro", is("falha de escrita")));
+    }
+
     @Test
     void redirecionar_ComCodigoValidoNaoExpirado_DeveRetornarStatusFoundERedirecionar() throws Exception {
         String codigoCurto = "ValidCd";
         String urlDestino = "[https://destino.valido.com](https://destino.valido.com)";
-        when(mockServicoAplicacao.redirecionarEIncrementarAcesso(codigoCurto)).thenReturn(Optional.of(urlDestino));
+        when(mockServicoAplicacao.resolverRedirecionamento(eq(codigoCurto), any(), any(), any()))
+                .thenReturn(new DestinoRedirecionamento(new CodigoCurto(codigoCurto), urlDestino, DestinoRedirecionamento.SEM_EXPIRACAO));
 
         mockMvc.perform(get("/{codigoCurto}", codigoCurto))
                 .andExpect(status().isFound())
                 .andExpect(redirectedUrl(urlDestino));
     }
 
+    @Test
+    void redirecionar_ComCodigoInexistenteOuExpirado_DeveRetornarNotFoundComCorpoDeErro() throws Exception {
+        when(mockServicoAplicacao.resolverRedirecionamento(eq("Inexist"), any(), any(), any())).thenReturn(null);
+
+        mockMvc.perform(get("/{codigoCurto}", "Inexist"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.erro", is("URL não encontrada ou expirada.")));
+    }
+
+    @Test
+    void redirecionar_ComDestinoMalformado_DeveRetornarErroInterno() throws Exception {
+        when(mockServicoAplicacao.resolverRedirecionamento(eq("Malform"), any(), any(), any()))
+                .thenReturn(new DestinoRedirecionamento(new CodigoCurto("Malform"), null, DestinoRedirecionamento.SEM_EXPIRACAO));
+
+        mockMvc.perform(get("/{codigoCurto}", "Malform"))
+                .andExpect(status().isInternalServerError());
+    }
+
     @Test
     void obterInfoUrl_ComCodigoValidoNaoExpirado_DeveRetornarStatusOKERespostaCompleta() throws Exception {
         String codigoCurto = "InfoOkCd";